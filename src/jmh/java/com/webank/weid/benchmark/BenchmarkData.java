@@ -0,0 +1,96 @@
+
+
+package com.webank.weid.benchmark;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.webank.weid.constant.CredentialType;
+import com.webank.weid.protocol.base.WeIdAuthentication;
+import com.webank.weid.protocol.base.WeIdPublicKey;
+import com.webank.weid.protocol.request.CreateCredentialPojoArgs;
+import com.webank.weid.util.DataToolUtils;
+import com.webank.weid.util.WeIdUtils;
+
+/**
+ * 基准测试使用的固定数据, 所有数据在本地生成, 不依赖链或数据库.
+ */
+public final class BenchmarkData {
+
+    /**
+     * 固定的签发者私钥, 保证每次运行的签名输入一致.
+     */
+    public static final String PRIVATE_KEY =
+        "58317564669857453586637110679746575832914889677346283755719850144028639639651";
+
+    public static final String CPT_SCHEMA = "{"
+        + "\"title\":\"cpt templet\","
+        + "\"description\":\"five information requirements for users\","
+        + "\"properties\":{"
+        + "\"id\":{\"type\":\"string\",\"description\":\"the weid of certificate owner\"},"
+        + "\"name\":{\"type\":\"string\",\"description\":\"the name of certificate owner\"},"
+        + "\"gender\":{\"enum\":[\"F\",\"M\"],\"type\":\"string\","
+        + "\"description\":\"the gender of certificate owner\"},"
+        + "\"age\":{\"type\":\"number\",\"description\":\"the age of certificate owner\"}"
+        + "},"
+        + "\"required\":[\"name\",\"age\"]"
+        + "}";
+
+    public static final String CLAIM = "{"
+        + "\"id\":\"did:weid:101:0xce618fb7fbacaf6398a0b4b78bf2dd942c8c49c7\","
+        + "\"name\":\"zhang san\","
+        + "\"gender\":\"F\","
+        + "\"age\":18"
+        + "}";
+
+    /**
+     * 多层嵌套的JSON, 用于测试JSON展开.
+     */
+    public static final String NESTED_JSON = "{"
+        + "\"name\":\"zhang san\","
+        + "\"age\":18,"
+        + "\"address\":{\"city\":\"shenzhen\",\"street\":\"keyuan road\","
+        + "\"geo\":{\"lat\":22.54,\"lng\":113.95}},"
+        + "\"tags\":[\"a\",\"b\",\"c\"],"
+        + "\"education\":[{\"school\":\"s1\",\"year\":2010},{\"school\":\"s2\",\"year\":2014}]"
+        + "}";
+
+    private BenchmarkData() {
+    }
+
+    public static String publicKey() {
+        return DataToolUtils.publicKeyStrFromPrivate(new BigInteger(PRIVATE_KEY));
+    }
+
+    public static String weId() {
+        return WeIdUtils.convertPublicKeyToWeId(publicKey());
+    }
+
+    public static WeIdPublicKey weIdPublicKey() {
+        WeIdPublicKey weIdPublicKey = new WeIdPublicKey();
+        weIdPublicKey.setPublicKey(publicKey());
+        return weIdPublicKey;
+    }
+
+    /**
+     * 构建创建凭证的参数, 签发日期固定, 过期时间为一年后.
+     *
+     * @return 创建凭证的参数
+     */
+    public static CreateCredentialPojoArgs<Map<String, Object>> createCredentialArgs() {
+        String weId = weId();
+        WeIdAuthentication weIdAuthentication =
+            new WeIdAuthentication(weId, PRIVATE_KEY, weId + "#keys-0");
+
+        CreateCredentialPojoArgs<Map<String, Object>> args = new CreateCredentialPojoArgs<>();
+        args.setCptId(2000000);
+        args.setIssuer(weId);
+        args.setType(CredentialType.ORIGINAL);
+        args.setIssuanceDate(1600000000000L);
+        args.setExpirationDate(System.currentTimeMillis() + 365L * 24 * 3600 * 1000);
+        args.setWeIdAuthentication(weIdAuthentication);
+        args.setClaim(new HashMap<>(DataToolUtils.deserialize(CLAIM, HashMap.class)));
+        return args;
+    }
+}
@@ -0,0 +1,73 @@
+
+
+package com.webank.weid.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webank.weid.util.Multibase.Base58;
+import com.webank.weid.util.Multibase.Multibase;
+
+/**
+ * Base58与Multibase编解码的基准测试.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    /**
+     * 33字节为压缩公钥的长度, 65字节为非压缩公钥的长度.
+     */
+    @Param({"33", "65", "256"})
+    public int size;
+
+    private byte[] data;
+
+    private String base58;
+
+    private String multibase;
+
+    @Setup
+    public void setup() {
+        data = new byte[size];
+        new Random(size).nextBytes(data);
+        base58 = Base58.encode(data);
+        multibase = Multibase.encode(Multibase.Base.Base58BTC, data);
+    }
+
+    @Benchmark
+    public String base58Encode() {
+        return Base58.encode(data);
+    }
+
+    @Benchmark
+    public byte[] base58Decode() {
+        return Base58.decode(base58);
+    }
+
+    @Benchmark
+    public String multibaseEncode() {
+        return Multibase.encode(Multibase.Base.Base58BTC, data);
+    }
+
+    @Benchmark
+    public byte[] multibaseDecode() {
+        return Multibase.decode(multibase);
+    }
+}
@@ -0,0 +1,74 @@
+
+
+package com.webank.weid.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.protocol.base.CredentialPojo;
+import com.webank.weid.protocol.base.WeIdPublicKey;
+import com.webank.weid.service.impl.CredentialPojoServiceImpl;
+import com.webank.weid.util.CredentialPojoUtils;
+
+/**
+ * 凭证签发、离线验证与摘要计算的基准测试, 使用固定私钥, 不访问链或数据库.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CredentialBenchmark {
+
+    private CredentialPojoServiceImpl credentialPojoService;
+
+    private CredentialPojo credential;
+
+    private WeIdPublicKey publicKey;
+
+    @Setup
+    public void setup() {
+        credentialPojoService = new CredentialPojoServiceImpl();
+        credential = credentialPojoService
+            .createCredential(BenchmarkData.createCredentialArgs()).getResult();
+        publicKey = BenchmarkData.weIdPublicKey();
+        ResponseData<Boolean> verifyResp = credentialPojoService.verifyOffline(publicKey, credential);
+        if (!Boolean.TRUE.equals(verifyResp.getResult())) {
+            throw new IllegalStateException(
+                "verify the benchmark credential failed: " + verifyResp.getErrorMessage());
+        }
+    }
+
+    @Benchmark
+    public ResponseData<CredentialPojo> createCredential() {
+        return credentialPojoService.createCredential(BenchmarkData.createCredentialArgs());
+    }
+
+    @Benchmark
+    public ResponseData<Boolean> verifyOffline() {
+        return credentialPojoService.verifyOffline(publicKey, credential);
+    }
+
+    @Benchmark
+    public String thumbprintWithoutSig() {
+        return CredentialPojoUtils
+            .getCredentialThumbprintWithoutSig(credential, credential.getSalt(), null);
+    }
+
+    @Benchmark
+    public String credentialHash() {
+        return credential.getHash();
+    }
+}
@@ -0,0 +1,119 @@
+
+
+package com.webank.weid.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webank.weid.blockchain.protocol.base.IssuerType;
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.suite.persistence.Persistence;
+import com.webank.weid.suite.persistence.SpecificTypeValue;
+import com.webank.weid.suite.persistence.memory.driver.MemoryDriver;
+
+/**
+ * 本地模式分页查询issuer type的基准测试, 对比逐条查询与整页查询.
+ * 数据保存在内存存储中, roundTripMicros为每次调用存储时模拟的网络往返耗时,
+ * 0表示只比较进程内的开销.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IssuerTypeBenchmark {
+
+    private static final String DOMAIN = DataDriverConstant.LOCAL_SPECIFIC_ISSUER;
+
+    private static final int TOTAL = 100000;
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    @Param({"0", "200"})
+    public int roundTripMicros;
+
+    private Persistence persistence;
+
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Persistence driver = new MemoryDriver();
+        if (driver.getIssuerTypeCount(DOMAIN).getResult() < TOTAL) {
+            for (int i = 0; i < TOTAL; i++) {
+                driver.addSpecificType(DOMAIN, String.format("type-%06d", i), "did:weid:101:0x"
+                    + String.format("%040x", i));
+            }
+        }
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        persistence = (Persistence) Proxy.newProxyInstance(
+            Persistence.class.getClassLoader(),
+            new Class<?>[]{Persistence.class},
+            (proxy, method, args) -> {
+                if (roundTripNanos > 0) {
+                    LockSupport.parkNanos(roundTripNanos);
+                }
+                try {
+                    return method.invoke(driver, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        random = new Random(pageSize);
+    }
+
+    /**
+     * 修改前的实现, 先分页查询名称, 再按名称逐条读取记录.
+     */
+    @Benchmark
+    public List<IssuerType> perNameLookup() {
+        int index = random.nextInt(TOTAL - pageSize);
+        List<String> names =
+            persistence.getIssuerTypeList(DOMAIN, index, index + pageSize).getResult();
+        List<IssuerType> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            result.add(toIssuerType(persistence.getSpecificType(DOMAIN, name).getResult()));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<IssuerType> pagedRows() {
+        int index = random.nextInt(TOTAL - pageSize);
+        List<SpecificTypeValue> rows =
+            persistence.getSpecificTypeList(DOMAIN, index, index + pageSize).getResult();
+        List<IssuerType> result = new ArrayList<>(rows.size());
+        for (SpecificTypeValue row : rows) {
+            result.add(toIssuerType(row));
+        }
+        return result;
+    }
+
+    private static IssuerType toIssuerType(SpecificTypeValue value) {
+        IssuerType issuerType = new IssuerType();
+        issuerType.setTypeName(value.getType_name());
+        issuerType.setCreated(value.getCreated().getTime());
+        issuerType.setOwner(value.getOwner());
+        return issuerType;
+    }
+}
@@ -0,0 +1,42 @@
+
+
+package com.webank.weid.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.networknt.schema.ValidationMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webank.weid.util.DataToolUtils;
+import com.webank.weid.util.JsonUtil;
+
+/**
+ * JSON Schema校验与JSON展开的基准测试.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Benchmark
+    public Set<ValidationMessage> checkJsonVersusSchema() throws Exception {
+        return DataToolUtils.checkJsonVersusSchema(BenchmarkData.CLAIM, BenchmarkData.CPT_SCHEMA);
+    }
+
+    @Benchmark
+    public String jsonToMonolayer() throws Exception {
+        return JsonUtil.jsonToMonolayer(BenchmarkData.NESTED_JSON, 10);
+    }
+}
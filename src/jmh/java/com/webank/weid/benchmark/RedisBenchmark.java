@@ -0,0 +1,247 @@
+
+
+package com.webank.weid.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.api.RBatch;
+import org.redisson.api.RedissonClient;
+
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.suite.persistence.redis.RedissonConfig;
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * Redisson客户端配置的基准测试, 对比codec, netty线程数与TCP_NODELAY对单条读写和批量写的影响.
+ * 客户端按RedissonConfig的单节点模式创建, 连接进程内的简易Redis服务, 该服务只实现基准测试用到的命令,
+ * 因此结果只反映客户端一侧的开销与本机网络往返.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RedisBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"default", "string"})
+    public String codec;
+
+    @Param({"4", "32"})
+    public int nettyThreads;
+
+    @Param({"true", "false"})
+    public boolean tcpNoDelay;
+
+    private FakeRedisServer server;
+
+    private RedissonClient client;
+
+    private String value;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new FakeRedisServer();
+        PropertyUtils.setProperty(DataDriverConstant.REDIS_URL, "127.0.0.1:" + server.getPort());
+        PropertyUtils.setProperty(DataDriverConstant.REDIS_CODEC, codec);
+        PropertyUtils.setProperty(
+            DataDriverConstant.REDIS_NETTY_THREADS, String.valueOf(nettyThreads));
+        PropertyUtils.setProperty(
+            DataDriverConstant.REDIS_TCP_NO_DELAY, String.valueOf(tcpNoDelay));
+        client = new RedissonConfig().redissonSingleClient();
+        value = "{\"data\":\"" + StringUtils.repeat("0123456789abcdef", 64) + "\"}";
+        client.getBucket("weid:bench").set(value);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.shutdown();
+        server.close();
+    }
+
+    @Benchmark
+    public Object get() {
+        return client.getBucket("weid:bench").get();
+    }
+
+    @Benchmark
+    public void set() {
+        client.getBucket("weid:bench:" + Thread.currentThread().getId()).set(value);
+    }
+
+    @Benchmark
+    public Object batchSet() {
+        RBatch batch = client.createBatch();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.getBucket("weid:batch:" + i).setAsync(value);
+        }
+        return batch.execute();
+    }
+
+    /**
+     * 进程内的简易Redis服务, 每个连接一个线程, 支持GET, SET, EXISTS, DEL与PING, 其他命令返回OK.
+     */
+    private static final class FakeRedisServer {
+
+        private final Map<String, byte[]> store = new ConcurrentHashMap<>();
+
+        private final ServerSocket serverSocket;
+
+        private FakeRedisServer() throws IOException {
+            serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "fake-redis-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread worker = new Thread(() -> serve(socket), "fake-redis-connection");
+                    worker.setDaemon(true);
+                    worker.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (Socket s = socket;
+                InputStream in = new BufferedInputStream(s.getInputStream());
+                OutputStream out = new BufferedOutputStream(s.getOutputStream())) {
+                while (true) {
+                    byte[][] command = readCommand(in);
+                    if (command == null) {
+                        return;
+                    }
+                    reply(command, out);
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // 连接关闭
+            }
+        }
+
+        private void reply(byte[][] command, OutputStream out) throws IOException {
+            String name = new String(command[0], StandardCharsets.US_ASCII).toUpperCase();
+            switch (name) {
+                case "PING":
+                    out.write("+PONG\r\n".getBytes(StandardCharsets.US_ASCII));
+                    break;
+                case "SET":
+                    store.put(key(command[1]), command[2]);
+                    out.write("+OK\r\n".getBytes(StandardCharsets.US_ASCII));
+                    break;
+                case "GET":
+                    byte[] data = store.get(key(command[1]));
+                    if (data == null) {
+                        out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+                    } else {
+                        out.write(("$" + data.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                        out.write(data);
+                        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+                    }
+                    break;
+                case "EXISTS":
+                    int exists = store.containsKey(key(command[1])) ? 1 : 0;
+                    out.write((":" + exists + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                    break;
+                case "DEL":
+                    int deleted = store.remove(key(command[1])) == null ? 0 : 1;
+                    out.write((":" + deleted + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                    break;
+                default:
+                    out.write("+OK\r\n".getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+
+        private static String key(byte[] key) {
+            return new String(key, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * 读取一条RESP数组格式的命令, 连接关闭时返回null.
+         */
+        private static byte[][] readCommand(InputStream in) throws IOException {
+            int type = in.read();
+            if (type < 0) {
+                return null;
+            }
+            if (type != '*') {
+                throw new IOException("unsupported request type: " + (char) type);
+            }
+            byte[][] command = new byte[readNumber(in)][];
+            for (int i = 0; i < command.length; i++) {
+                if (in.read() != '$') {
+                    throw new IOException("bulk string expected.");
+                }
+                byte[] arg = new byte[readNumber(in)];
+                int offset = 0;
+                while (offset < arg.length) {
+                    int read = in.read(arg, offset, arg.length - offset);
+                    if (read < 0) {
+                        return null;
+                    }
+                    offset += read;
+                }
+                in.read();
+                in.read();
+                command[i] = arg;
+            }
+            return command;
+        }
+
+        private static int readNumber(InputStream in) throws IOException {
+            int number = 0;
+            int c;
+            while ((c = in.read()) != '\r') {
+                if (c < 0) {
+                    throw new IOException("connection closed.");
+                }
+                number = number * 10 + (c - '0');
+            }
+            in.read();
+            return number;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+
+
+package com.webank.weid.benchmark;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webank.weid.protocol.base.CredentialPojo;
+import com.webank.weid.service.impl.CredentialPojoServiceImpl;
+import com.webank.weid.util.DataToolUtils;
+
+/**
+ * DataToolUtils序列化与反序列化的基准测试.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private CredentialPojo credential;
+
+    private String credentialJson;
+
+    @Setup
+    public void setup() {
+        credential = new CredentialPojoServiceImpl()
+            .createCredential(BenchmarkData.createCredentialArgs()).getResult();
+        credentialJson = DataToolUtils.serialize(credential);
+    }
+
+    @Benchmark
+    public String serializeCredential() {
+        return DataToolUtils.serialize(credential);
+    }
+
+    @Benchmark
+    public CredentialPojo deserializeCredential() {
+        return DataToolUtils.deserialize(credentialJson, CredentialPojo.class);
+    }
+
+    @Benchmark
+    public HashMap deserializeClaim() {
+        return DataToolUtils.deserialize(BenchmarkData.CLAIM, HashMap.class);
+    }
+}
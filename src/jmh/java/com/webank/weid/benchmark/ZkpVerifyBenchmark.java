@@ -0,0 +1,91 @@
+
+
+package com.webank.weid.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webank.weid.suite.async.ZkpVerifyExecutor;
+
+/**
+ * presentation中多个ZKP证明的校验基准测试, 对比逐个校验与通过ZkpVerifyExecutor并发校验.
+ * 真实证明需要WeDPR本地库生成, 这里以固定轮数的SHA-256计算代替一次证明校验,
+ * hashRounds用于调整单次校验的CPU耗时.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ZkpVerifyBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int proofCount;
+
+    @Param({"20000"})
+    public int hashRounds;
+
+    private List<byte[]> proofs;
+
+    @Setup
+    public void setup() {
+        proofs = new ArrayList<>(proofCount);
+        for (int i = 0; i < proofCount; i++) {
+            proofs.add(("proof-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        ZkpVerifyExecutor.getExecutor();
+    }
+
+    @Benchmark
+    public boolean sequential() {
+        boolean result = true;
+        for (byte[] proof : proofs) {
+            result &= verify(proof);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean parallel() {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(proofs.size());
+        for (byte[] proof : proofs) {
+            futures.add(ZkpVerifyExecutor.submit(() -> verify(proof)));
+        }
+        boolean result = true;
+        for (CompletableFuture<Boolean> future : futures) {
+            result &= future.join();
+        }
+        return result;
+    }
+
+    private boolean verify(byte[] proof) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] value = proof;
+            for (int i = 0; i < hashRounds; i++) {
+                value = digest.digest(value);
+            }
+            return value.length == 32;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+
+
+package com.webank.weid.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * SDK压测工具, 多个线程按配置的比例混合调用SDK接口, 输出吞吐量与耗时分位数.
+ *
+ * <p>默认使用内存存储(persistence_type=memory), 不依赖数据库, 测得的是SDK自身的开销;
+ * 通过--persistence可以切换为mysql, redis或embedded, 以对比存储层的影响.
+ *
+ * <pre>
+ * gradle loadTest -PloadTestArgs="--threads 16 --duration 60 --warmup 10
+ *     --mix createWeId=1,registerCpt=1,createCredential=4,verify=4,createEvidence=2"
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final String DEFAULT_MIX =
+        "createWeId=1,registerCpt=1,createCredential=4,verify=4,createEvidence=2";
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private int durationSeconds = 60;
+
+    private int warmupSeconds = 10;
+
+    private int reportSeconds = 5;
+
+    private String persistence = "memory";
+
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    private Operation[] operations;
+
+    private int[] cumulativeWeights;
+
+    private LoadTest() {
+    }
+
+    /**
+     * 压测入口.
+     *
+     * @param args 命令行参数, 见{@link #usage()}
+     * @throws InterruptedException 主线程被中断
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadTest loadTest = new LoadTest();
+        try {
+            loadTest.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(usage());
+            System.exit(1);
+        }
+        loadTest.run();
+        // 业务Service可能持有非守护线程, 压测结束后直接退出
+        System.exit(0);
+    }
+
+    private static String usage() {
+        return "usage: LoadTest [--threads N] [--duration seconds] [--warmup seconds]\n"
+            + "    [--report seconds] [--persistence memory|embedded|mysql|redis]\n"
+            + "    [--mix " + DEFAULT_MIX + "]";
+    }
+
+    private void parse(String[] args) {
+        String mixArg = DEFAULT_MIX;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("missing value of " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--threads":
+                    threads = positive(option, value);
+                    break;
+                case "--duration":
+                    durationSeconds = positive(option, value);
+                    break;
+                case "--warmup":
+                    warmupSeconds = Integer.parseInt(value);
+                    break;
+                case "--report":
+                    reportSeconds = positive(option, value);
+                    break;
+                case "--persistence":
+                    persistence = value;
+                    break;
+                case "--mix":
+                    mixArg = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + option);
+            }
+        }
+        for (String item : mixArg.split(",")) {
+            String[] pair = item.trim().split("=");
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            if (weight > 0) {
+                mix.put(Operation.fromCode(pair[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("the mix is empty.");
+        }
+        operations = mix.keySet().toArray(new Operation[0]);
+        cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    private static int positive(String option, String value) {
+        int number = Integer.parseInt(value);
+        if (number <= 0) {
+            throw new IllegalArgumentException(option + " must be positive.");
+        }
+        return number;
+    }
+
+    private void run() throws InterruptedException {
+        // 必须在创建Service之前设置, 各Service在首次访问存储时读取该配置
+        PropertyUtils.setProperty("persistence_type", persistence);
+        logger.info("[LoadTest] deploy.style={}, persistence_type={}, threads={}, mix={}",
+            PropertyUtils.getProperty("deploy.style"), persistence, threads, mix);
+
+        Workload workload = new Workload();
+        workload.prepare();
+        for (Operation operation : operations) {
+            stats.put(operation, new OperationStats(operation));
+        }
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> work(workload), "weid-loadtest-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        if (warmupSeconds > 0) {
+            System.out.printf("warm up %ds...%n", warmupSeconds);
+            TimeUnit.SECONDS.sleep(warmupSeconds);
+            for (OperationStats operationStats : stats.values()) {
+                operationStats.reset();
+            }
+        }
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long lastReport = start;
+        while (true) {
+            long now = System.nanoTime();
+            if (now - end >= 0) {
+                break;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(TimeUnit.SECONDS.toNanos(reportSeconds), end - now));
+            now = System.nanoTime();
+            printInterval(TimeUnit.NANOSECONDS.toSeconds(now - start), now - lastReport);
+            lastReport = now;
+        }
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        for (OperationStats operationStats : stats.values()) {
+            operationStats.drain();
+        }
+        printSummary(System.nanoTime() - start);
+    }
+
+    private void work(Workload workload) {
+        while (running.get()) {
+            Operation operation = pick();
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = workload.execute(operation);
+            } catch (RuntimeException e) {
+                logger.debug("[LoadTest] {} failed.", operation.getCode(), e);
+                success = false;
+            }
+            stats.get(operation).record(System.nanoTime() - start, success);
+        }
+    }
+
+    private Operation pick() {
+        int random = ThreadLocalRandom.current().nextInt(cumulativeWeights[operations.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (random < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void printInterval(long second, long intervalNanos) {
+        StringBuilder line = new StringBuilder(String.format("[%4ds]", second));
+        for (OperationStats operationStats : stats.values()) {
+            Histogram interval = operationStats.drain();
+            line.append(String.format("  %s %.1f/s p99=%.2fms",
+                operationStats.getOperation().getCode(),
+                throughput(interval.getTotalCount(), intervalNanos),
+                millis(interval.getValueAtPercentile(99))));
+        }
+        System.out.println(line);
+    }
+
+    private void printSummary(long elapsedNanos) {
+        System.out.printf("%nthreads=%d, persistence=%s, duration=%.1fs%n",
+            threads, persistence, elapsedNanos / 1e9);
+        System.out.printf("%-18s %10s %8s %10s %9s %9s %9s %9s %9s %9s%n",
+            "operation", "count", "errors", "ops/s", "mean(ms)", "p50(ms)", "p90(ms)",
+            "p99(ms)", "p99.9(ms)", "max(ms)");
+        long totalCount = 0;
+        for (OperationStats operationStats : stats.values()) {
+            Histogram total = operationStats.getTotal();
+            totalCount += total.getTotalCount();
+            System.out.printf("%-18s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operationStats.getOperation().getCode(),
+                total.getTotalCount(),
+                operationStats.getErrors(),
+                throughput(total.getTotalCount(), elapsedNanos),
+                total.getMean() / 1000,
+                millis(total.getValueAtPercentile(50)),
+                millis(total.getValueAtPercentile(90)),
+                millis(total.getValueAtPercentile(99)),
+                millis(total.getValueAtPercentile(99.9)),
+                millis(total.getMaxValue()));
+        }
+        System.out.printf("%-18s %10d %8s %10.1f%n", "total", totalCount, "",
+            throughput(totalCount, elapsedNanos));
+    }
+
+    private static double throughput(long count, long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0 : count * 1e9 / elapsedNanos;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
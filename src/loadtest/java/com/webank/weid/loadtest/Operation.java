@@ -0,0 +1,44 @@
+
+
+package com.webank.weid.loadtest;
+
+/**
+ * 压测支持的SDK操作, 名称与命令行中--mix参数的写法一致.
+ */
+public enum Operation {
+
+    CREATE_WEID("createWeId"),
+
+    REGISTER_CPT("registerCpt"),
+
+    CREATE_CREDENTIAL("createCredential"),
+
+    VERIFY("verify"),
+
+    CREATE_EVIDENCE("createEvidence");
+
+    private final String code;
+
+    Operation(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 根据命令行中的名称查找操作.
+     *
+     * @param code 操作名称
+     * @return 返回对应的操作
+     */
+    public static Operation fromCode(String code) {
+        for (Operation operation : values()) {
+            if (operation.code.equalsIgnoreCase(code)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("unknown operation: " + code);
+    }
+}
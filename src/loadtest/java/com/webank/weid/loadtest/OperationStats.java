@@ -0,0 +1,77 @@
+
+
+package com.webank.weid.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 单个操作的统计, 工作线程通过{@link Recorder}无锁记录耗时,
+ * 汇报线程按周期取出区间直方图并累加到总直方图.
+ */
+public class OperationStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Operation operation;
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+
+    private final LongAdder errors = new LongAdder();
+
+    private Histogram interval;
+
+    public OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * 记录一次调用, 由工作线程调用.
+     *
+     * @param elapsedNanos 调用耗时, 单位纳秒
+     * @param success 调用是否成功
+     */
+    public void record(long elapsedNanos, boolean success) {
+        recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * 取出上次调用以来的区间直方图并累加到总直方图, 只能由汇报线程调用.
+     *
+     * @return 返回区间直方图, 单位微秒
+     */
+    public Histogram drain() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        return interval;
+    }
+
+    /**
+     * 丢弃预热阶段的数据.
+     */
+    public void reset() {
+        recorder.reset();
+        total.reset();
+        errors.reset();
+    }
+
+    public Histogram getTotal() {
+        return total;
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,145 @@
+
+
+package com.webank.weid.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.constant.CredentialType;
+import com.webank.weid.protocol.base.CptBaseInfo;
+import com.webank.weid.protocol.base.CredentialPojo;
+import com.webank.weid.protocol.base.HashString;
+import com.webank.weid.protocol.base.WeIdAuthentication;
+import com.webank.weid.protocol.base.WeIdPrivateKey;
+import com.webank.weid.protocol.request.CptMapArgs;
+import com.webank.weid.protocol.request.CreateCredentialPojoArgs;
+import com.webank.weid.protocol.response.CreateWeIdDataResult;
+import com.webank.weid.service.impl.CptServiceImpl;
+import com.webank.weid.service.impl.CredentialPojoServiceImpl;
+import com.webank.weid.service.impl.EvidenceServiceImpl;
+import com.webank.weid.service.impl.WeIdServiceImpl;
+import com.webank.weid.service.rpc.CptService;
+import com.webank.weid.service.rpc.CredentialPojoService;
+import com.webank.weid.service.rpc.EvidenceService;
+import com.webank.weid.service.rpc.WeIdService;
+import com.webank.weid.util.DataToolUtils;
+
+/**
+ * 压测的业务负载, 准备阶段创建签发者、CPT与用于验证的凭证, 之后各工作线程共享这些数据.
+ */
+public class Workload {
+
+    private static final long ONE_YEAR_MILLIS = 365L * 24 * 3600 * 1000;
+
+    private final WeIdService weIdService = new WeIdServiceImpl();
+
+    private final CptService cptService = new CptServiceImpl();
+
+    private final CredentialPojoService credentialPojoService = new CredentialPojoServiceImpl();
+
+    private final EvidenceService evidenceService = new EvidenceServiceImpl();
+
+    private WeIdAuthentication issuer;
+
+    private Integer cptId;
+
+    private CredentialPojo credential;
+
+    /**
+     * 准备压测数据, 任一步骤失败时抛出异常终止压测.
+     */
+    public void prepare() {
+        CreateWeIdDataResult weIdData = check("createWeId", weIdService.createWeId());
+        issuer = new WeIdAuthentication(
+            weIdData.getWeId(),
+            weIdData.getUserWeIdPrivateKey().getPrivateKey(),
+            weIdData.getWeId() + "#keys-0");
+        CptBaseInfo cptBaseInfo = check("registerCpt", cptService.registerCpt(buildCptArgs()));
+        cptId = cptBaseInfo.getCptId();
+        credential = check("createCredential",
+            credentialPojoService.createCredential(buildCredentialArgs()));
+        check("verify", credentialPojoService.verify(issuer.getWeId(), credential));
+    }
+
+    /**
+     * 执行一次操作.
+     *
+     * @param operation 操作类型
+     * @return 操作成功返回true
+     */
+    public boolean execute(Operation operation) {
+        switch (operation) {
+            case CREATE_WEID:
+                return isSuccess(weIdService.createWeId());
+            case REGISTER_CPT:
+                return isSuccess(cptService.registerCpt(buildCptArgs()));
+            case CREATE_CREDENTIAL:
+                return isSuccess(credentialPojoService.createCredential(buildCredentialArgs()));
+            case VERIFY:
+                ResponseData<Boolean> verifyResp =
+                    credentialPojoService.verify(issuer.getWeId(), credential);
+                return isSuccess(verifyResp) && Boolean.TRUE.equals(verifyResp.getResult());
+            case CREATE_EVIDENCE:
+                // 每次使用不同的哈希, 避免存证已存在
+                HashString hashString =
+                    new HashString(DataToolUtils.hash(UUID.randomUUID().toString()));
+                return isSuccess(evidenceService.createEvidence(hashString,
+                    new WeIdPrivateKey(issuer.getWeIdPrivateKey().getPrivateKey())));
+            default:
+                throw new IllegalArgumentException("unsupported operation: " + operation);
+        }
+    }
+
+    private CptMapArgs buildCptArgs() {
+        Map<String, Object> name = new LinkedHashMap<>();
+        name.put("type", "string");
+        name.put("description", "the name of certificate owner");
+        Map<String, Object> age = new LinkedHashMap<>();
+        age.put("type", "number");
+        age.put("description", "the age of certificate owner");
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("name", name);
+        properties.put("age", age);
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("title", "load test cpt");
+        schema.put("description", "cpt for load test");
+        schema.put("properties", properties);
+        schema.put("required", new String[]{"name", "age"});
+
+        CptMapArgs cptMapArgs = new CptMapArgs();
+        cptMapArgs.setWeIdAuthentication(issuer);
+        cptMapArgs.setCptJsonSchema(schema);
+        return cptMapArgs;
+    }
+
+    private CreateCredentialPojoArgs<Map<String, Object>> buildCredentialArgs() {
+        Map<String, Object> claim = new HashMap<>();
+        claim.put("name", "zhang san");
+        claim.put("age", 18);
+
+        CreateCredentialPojoArgs<Map<String, Object>> args = new CreateCredentialPojoArgs<>();
+        args.setCptId(cptId);
+        args.setIssuer(issuer.getWeId());
+        args.setType(CredentialType.ORIGINAL);
+        args.setExpirationDate(System.currentTimeMillis() + ONE_YEAR_MILLIS);
+        args.setWeIdAuthentication(issuer);
+        args.setClaim(claim);
+        return args;
+    }
+
+    private static boolean isSuccess(ResponseData<?> response) {
+        return response != null && response.getErrorCode() == ErrorCode.SUCCESS.getCode();
+    }
+
+    private static <T> T check(String step, ResponseData<T> response) {
+        if (!isSuccess(response) || response.getResult() == null) {
+            throw new IllegalStateException("prepare the load test failed at " + step + ": "
+                + (response == null ? "null" : response.getErrorMessage()));
+        }
+        return response.getResult();
+    }
+}
@@ -24,6 +24,28 @@ public final class DataDriverConstant {
     public static final int REDISSON_EXECUTE_FAILED_STATUS = 0;
     public static final int REDISSON_EXECUTE_SUCESS_STATUS = 1;
 
+    /**
+     * embedded execute status.
+     */
+    public static final int EMBEDDED_EXECUTE_FAILED_STATUS = 0;
+    public static final int EMBEDDED_EXECUTE_SUCCESS_STATUS = 1;
+
+    /**
+     * the status returned with a failed insert when the key already exists.
+     */
+    public static final int DUPLICATE_KEY_STATUS = -1;
+
+    /**
+     * embedded store data directory properties.
+     */
+    public static final String EMBEDDED_PATH = "embedded.path";
+    public static final String EMBEDDED_PATH_DEFAULT_VALUE = "./weid-data";
+
+    /**
+     * embedded store force to disk after each write properties.
+     */
+    public static final String EMBEDDED_SYNC = "embedded.sync";
+
     /**
      * redis mode name.
      */
@@ -100,6 +122,43 @@ public final class DataDriverConstant {
     public static final String MASTER_CONNECTION_MINIMUM_IDLE_SIZE_DEFAULT_VALUE = "10";
     public static final String MASTER_CONNECTION_POOL_SIZE_DEFAULT_VALUE = "64";
 
+    /**
+     * redis cluster read_mode and subscription_mode properties.
+     */
+    public static final String READ_MODE = "read_mode";
+    public static final String READ_MODE_DEFAULT_VALUE = "SLAVE";
+    public static final String SUBSCRIPTION_MODE = "subscription_mode";
+    public static final String SUBSCRIPTION_MODE_DEFAULT_VALUE = "MASTER";
+
+    /**
+     * redis client codec properties, default keeps the codec of redisson.
+     */
+    public static final String REDIS_CODEC = "redis.codec";
+    public static final String REDIS_CODEC_DEFAULT_VALUE = "default";
+    public static final String REDIS_CODEC_STRING = "string";
+
+    /**
+     * redis client threads and netty threads properties.
+     */
+    public static final String REDIS_THREADS = "redis.threads";
+    public static final String REDIS_THREADS_DEFAULT_VALUE = "16";
+    public static final String REDIS_NETTY_THREADS = "redis.netty_threads";
+    public static final String REDIS_NETTY_THREADS_DEFAULT_VALUE = "32";
+
+    /**
+     * redis tcp options properties.
+     */
+    public static final String REDIS_TCP_NO_DELAY = "redis.tcp_no_delay";
+    public static final String REDIS_TCP_NO_DELAY_DEFAULT_VALUE = "true";
+    public static final String REDIS_KEEP_ALIVE = "redis.keep_alive";
+    public static final String REDIS_KEEP_ALIVE_DEFAULT_VALUE = "false";
+
+    /**
+     * redis batch write skips the replies properties.
+     */
+    public static final String REDIS_BATCH_SKIP_RESULT = "redis.batch.skip_result";
+    public static final String REDIS_BATCH_SKIP_RESULT_DEFAULT_VALUE = "false";
+
     /**
      * jdbc url properties.
      */
@@ -165,6 +224,56 @@ public final class DataDriverConstant {
      */
     public static final String JDBC_INIT_SIZE = "jdbc.initialSize";
 
+    /**
+     * jdbc adaptive pool sizing switch properties.
+     */
+    public static final String JDBC_ADAPTIVE = "jdbc.adaptive";
+
+    /**
+     * jdbc adaptive lower bound of maxActive properties.
+     */
+    public static final String JDBC_ADAPTIVE_MIN_ACTIVE = "jdbc.adaptive.minActive";
+
+    /**
+     * jdbc adaptive upper bound of maxActive properties.
+     */
+    public static final String JDBC_ADAPTIVE_MAX_ACTIVE = "jdbc.adaptive.maxActive";
+
+    /**
+     * jdbc adaptive upper bound of minIdle properties.
+     */
+    public static final String JDBC_ADAPTIVE_MAX_MIN_IDLE = "jdbc.adaptive.maxMinIdle";
+
+    /**
+     * jdbc adaptive target borrow wait time (ms) properties.
+     */
+    public static final String JDBC_ADAPTIVE_TARGET_WAIT = "jdbc.adaptive.targetWait";
+
+    /**
+     * jdbc adaptive adjust interval (ms) properties.
+     */
+    public static final String JDBC_ADAPTIVE_INTERVAL = "jdbc.adaptive.interval";
+
+    /**
+     * jdbc read replicas (comma-separated datasource names) properties.
+     */
+    public static final String JDBC_REPLICAS = "jdbc.replicas";
+
+    /**
+     * jdbc replica routing strategy (roundRobin or leastLoaded) properties.
+     */
+    public static final String JDBC_REPLICAS_STRATEGY = "jdbc.replicas.strategy";
+
+    /**
+     * jdbc read-your-writes window (ms) properties.
+     */
+    public static final String JDBC_REPLICAS_STICKY_WINDOW = "jdbc.replicas.stickyWindow";
+
+    /**
+     * jdbc unhealthy replica eject time (ms) properties.
+     */
+    public static final String JDBC_REPLICAS_EJECT_TIME = "jdbc.replicas.ejectTime";
+
     /**
      * jdbc driverClassName.
      */
@@ -254,6 +363,10 @@ public final class DataDriverConstant {
     public static final String POOL_NUM_TEST_PER_ER_DEFAULT_VALUE = "5";
     public static final String POOL_TIME_BETWEEN_ERM_DEFAULT_VALUE = "600000";
     public static final String POOL_MIN_EITM_DEFAULT_VALUE = "1800000";
+    public static final String POOL_ADAPTIVE_TARGET_WAIT_DEFAULT_VALUE = "50";
+    public static final String POOL_ADAPTIVE_INTERVAL_DEFAULT_VALUE = "10000";
+    public static final String POOL_REPLICAS_STICKY_WINDOW_DEFAULT_VALUE = "1000";
+    public static final String POOL_REPLICAS_EJECT_TIME_DEFAULT_VALUE = "30000";
 
     /**
      * 系统默认的domain.
@@ -261,6 +374,12 @@ public final class DataDriverConstant {
     public static final String DOMAIN_DEFAULT_INFO = "domain.defaultInfo";
     public static final String DOMAIN_DEFAULT_INFO_TIMEOUT = "domain.defaultInfo.timeout";
 
+    /**
+     * domain分片配置的后缀, 分片个数与分片所在的数据源.
+     */
+    public static final String DOMAIN_SHARDS = ".shards";
+    public static final String DOMAIN_SHARDS_DATASOURCE = ".shards.datasource";
+
     /**
      * redis存储的离线交易记录.
      */
@@ -301,4 +420,21 @@ public final class DataDriverConstant {
 
     public static final String LOCAL_EVIDENCE = "local.evidence";
 
+    /**
+     * 本地运行时CPT, policy与presentation编号的序列表, 以及每次预留的编号个数.
+     * 节点重启时未用完的编号被跳过, 每个序列最多浪费一段编号, 因此默认值较小.
+     */
+    public static final String LOCAL_SEQUENCE = "local.sequence";
+    public static final String LOCAL_SEQUENCE_BLOCK_SIZE = "local.sequence.blockSize";
+    public static final String LOCAL_SEQUENCE_BLOCK_SIZE_DEFAULT_VALUE = "100";
+
+    /**
+     * 持久化数据的编码格式(json, smile或cbor), 以及压缩阈值(字节).
+     */
+    public static final String PERSISTENCE_VALUE_CODEC = "persistence.value.codec";
+    public static final String PERSISTENCE_VALUE_CODEC_DEFAULT_VALUE = "json";
+    public static final String PERSISTENCE_VALUE_COMPRESS_THRESHOLD =
+        "persistence.value.compress.threshold";
+    public static final String PERSISTENCE_VALUE_COMPRESS_THRESHOLD_DEFAULT_VALUE = "512";
+
 }
\ No newline at end of file
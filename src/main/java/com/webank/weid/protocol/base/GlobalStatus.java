@@ -19,6 +19,8 @@ import java.util.Map;
 
 /**
  * The class of global status for running locally with database.
+ * The ids are allocated from the local.sequence domain now, this file is only read to seed the
+ * sequences of an earlier deployment.
  *
  * @author afeexian
  */
@@ -0,0 +1,36 @@
+
+
+package com.webank.weid.protocol.request;
+
+import lombok.Data;
+
+import com.webank.weid.protocol.base.Challenge;
+import com.webank.weid.protocol.base.PresentationE;
+import com.webank.weid.protocol.base.PresentationPolicyE;
+
+/**
+ * The Arguments of one presentation in a batch verification.
+ */
+@Data
+public class VerifyPresentationArgs {
+
+    /**
+     * Required: The presenter's weid.
+     */
+    private String presenterWeId;
+
+    /**
+     * Required: The policy of the presentation.
+     */
+    private PresentationPolicyE presentationPolicyE;
+
+    /**
+     * Required: The challenge.
+     */
+    private Challenge challenge;
+
+    /**
+     * Required: The presentation.
+     */
+    private PresentationE presentationE;
+}
@@ -0,0 +1,213 @@
+
+
+package com.webank.weid.service.impl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.protocol.base.AuthorityIssuer;
+import com.webank.weid.protocol.base.IssuerType;
+import com.webank.weid.protocol.base.WeIdAuthentication;
+import com.webank.weid.protocol.base.WeIdPrivateKey;
+import com.webank.weid.protocol.request.RegisterAuthorityIssuerArgs;
+import com.webank.weid.protocol.request.RemoveAuthorityIssuerArgs;
+import com.webank.weid.service.rpc.AuthorityIssuerService;
+import com.webank.weid.service.rpc.AuthorityIssuerServiceAsync;
+import com.webank.weid.suite.async.AsyncExecutors;
+
+/**
+ * Executor backed implementation of {@link AuthorityIssuerServiceAsync}.
+ * The blocking calls of {@link AuthorityIssuerService} run on the bounded executor of
+ * {@link AsyncExecutors} unless another executor is given.
+ */
+public class AuthorityIssuerServiceAsyncImpl implements AuthorityIssuerServiceAsync {
+
+    private final AuthorityIssuerService authorityIssuerService;
+
+    private final Executor executor;
+
+    public AuthorityIssuerServiceAsyncImpl() {
+        this(new AuthorityIssuerServiceImpl(), AsyncExecutors.getExecutor());
+    }
+
+    /**
+     * Create the async service.
+     *
+     * @param authorityIssuerService the blocking service
+     * @param executor the executor to run the blocking calls
+     */
+    public AuthorityIssuerServiceAsyncImpl(
+        AuthorityIssuerService authorityIssuerService,
+        Executor executor) {
+        this.authorityIssuerService = authorityIssuerService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> registerAuthorityIssuer(
+        RegisterAuthorityIssuerArgs args) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.registerAuthorityIssuer(args),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> removeAuthorityIssuer(
+        RemoveAuthorityIssuerArgs args) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.removeAuthorityIssuer(args),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> isAuthorityIssuer(String weId) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.isAuthorityIssuer(weId),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> recognizeAuthorityIssuer(
+        String weId,
+        WeIdPrivateKey weIdPrivateKey) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.recognizeAuthorityIssuer(weId, weIdPrivateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> deRecognizeAuthorityIssuer(
+        String weId,
+        WeIdPrivateKey weIdPrivateKey) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.deRecognizeAuthorityIssuer(weId, weIdPrivateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<AuthorityIssuer>> queryAuthorityIssuerInfo(String weId) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.queryAuthorityIssuerInfo(weId),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<AuthorityIssuer>>> queryAuthorityIssuerInfoList(
+        List<String> weIds) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.queryAuthorityIssuerInfoList(weIds),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<AuthorityIssuer>>> getAllAuthorityIssuerList(
+        Integer index,
+        Integer num) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.getAllAuthorityIssuerList(index, num),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> registerIssuerType(
+        WeIdAuthentication callerAuth,
+        String issuerType) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.registerIssuerType(callerAuth, issuerType),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> addIssuerIntoIssuerType(
+        WeIdAuthentication callerAuth,
+        String issuerType,
+        String targetIssuerWeId) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.addIssuerIntoIssuerType(
+                callerAuth,
+                issuerType,
+                targetIssuerWeId),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> removeIssuerFromIssuerType(
+        WeIdAuthentication callerAuth,
+        String issuerType,
+        String targetIssuerWeId) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.removeIssuerFromIssuerType(
+                callerAuth,
+                issuerType,
+                targetIssuerWeId),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> isSpecificTypeIssuer(
+        String issuerType,
+        String targetIssuerWeId) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.isSpecificTypeIssuer(issuerType, targetIssuerWeId),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<String>>> getAllSpecificTypeIssuerList(
+        String issuerType,
+        Integer index,
+        Integer num) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.getAllSpecificTypeIssuerList(issuerType, index, num),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<String>> getWeIdByOrgId(String orgId) {
+        return AsyncExecutors.supply(() -> authorityIssuerService.getWeIdByOrgId(orgId), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Integer>> getIssuerCount() {
+        return AsyncExecutors.supply(() -> authorityIssuerService.getIssuerCount(), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Integer>> getRecognizedIssuerCount() {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.getRecognizedIssuerCount(),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Integer>> getSpecificTypeIssuerSize(String issuerType) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.getSpecificTypeIssuerSize(issuerType),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Integer>> getIssuerTypeCount() {
+        return AsyncExecutors.supply(() -> authorityIssuerService.getIssuerTypeCount(), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> removeIssuerType(
+        WeIdAuthentication callerAuth,
+        String issuerType) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.removeIssuerType(callerAuth, issuerType),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<IssuerType>>> getIssuerTypeList(
+        Integer index,
+        Integer num) {
+        return AsyncExecutors.supply(
+            () -> authorityIssuerService.getIssuerTypeList(index, num),
+            executor);
+    }
+}
@@ -5,11 +5,24 @@ package com.webank.weid.service.impl;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import com.webank.weid.service.local.AuthorityIssuerServiceLocal;
 import com.webank.weid.service.local.CptServiceLocal;
 import com.webank.weid.service.local.PolicyServiceLocal;
+import com.webank.weid.suite.async.VirtualThreads;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
 import com.webank.weid.util.PropertyUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -40,10 +53,117 @@ public class AuthorityIssuerServiceImpl implements AuthorityIssuerService {
         .getLogger(AuthorityIssuerServiceImpl.class);
     private static com.webank.weid.blockchain.rpc.AuthorityIssuerService authorityBlockchainService;
 
-    private WeIdService weIdService = new WeIdServiceImpl();
+    /**
+     * 批量查询链上权威机构信息时的最大并发数.
+     */
+    private static final String QUERY_CONCURRENCY = "authority.issuer.query.concurrency";
+
+    /**
+     * 已认证权威机构集合的刷新间隔, 单位毫秒, 小于等于0时不启用内存集合.
+     */
+    private static final String RECOGNIZED_REFRESH = "authority.issuer.recognized.refresh";
+
+    private static final Object lock = new Object();
+
+    private static volatile ExecutorService queryExecutor;
+
+    private static ScheduledExecutorService refreshScheduler;
+
+    /**
+     * 已认证权威机构的地址快照, 未加载成功前为null.
+     */
+    private static volatile Set<String> recognizedIssuers;
+
+    private WeIdService weIdService = InstrumentationManager.instrument(
+        WeIdService.class,
+        new WeIdServiceImpl(),
+        InvocationLayer.SERVICE,
+        "WeIdService");
 
     public AuthorityIssuerServiceImpl(){
         authorityBlockchainService = getAuthorityIssuerService();
+        initRecognizedIssuerRefresh();
+    }
+
+    private void initRecognizedIssuerRefresh() {
+        long interval = Long.parseLong(PropertyUtils.getProperty(RECOGNIZED_REFRESH, "0"));
+        if (interval <= 0) {
+            return;
+        }
+        synchronized (lock) {
+            if (refreshScheduler != null) {
+                return;
+            }
+            refreshScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "weid-issuer-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refreshScheduler.scheduleWithFixedDelay(
+                this::refreshRecognizedIssuers, 0, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 分页加载全部权威机构, 重建已认证权威机构的地址快照, 加载失败时保留旧的快照.
+     */
+    private void refreshRecognizedIssuers() {
+        try {
+            Set<String> recognized = new HashSet<>();
+            int index = 0;
+            int num = WeIdConstant.MAX_AUTHORITY_ISSUER_LIST_SIZE;
+            while (true) {
+                ResponseData<List<AuthorityIssuer>> resp = getAllAuthorityIssuerList(index, num);
+                if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                    logger.warn("[refreshRecognizedIssuers] load authority issuers failed: {}",
+                        resp.getErrorMessage());
+                    return;
+                }
+                for (AuthorityIssuer authorityIssuer : resp.getResult()) {
+                    if (authorityIssuer.isRecognized()) {
+                        recognized.add(
+                            WeIdUtils.convertWeIdToAddress(authorityIssuer.getWeId()));
+                    }
+                }
+                if (resp.getResult().size() < num) {
+                    break;
+                }
+                index += num;
+            }
+            Set<String> snapshot = Collections.newSetFromMap(new ConcurrentHashMap<>());
+            snapshot.addAll(recognized);
+            recognizedIssuers = snapshot;
+            logger.debug("[refreshRecognizedIssuers] {} recognized issuers loaded.",
+                recognized.size());
+        } catch (Exception e) {
+            logger.error("[refreshRecognizedIssuers] refresh recognized issuers failed.", e);
+        }
+    }
+
+    private static void updateRecognizedIssuer(String addr, boolean recognized) {
+        Set<String> current = recognizedIssuers;
+        if (current == null) {
+            return;
+        }
+        if (recognized) {
+            current.add(addr);
+        } else {
+            current.remove(addr);
+        }
+    }
+
+    private static ExecutorService getQueryExecutor() {
+        if (queryExecutor == null) {
+            synchronized (lock) {
+                if (queryExecutor == null) {
+                    int concurrency =
+                        Integer.parseInt(PropertyUtils.getProperty(QUERY_CONCURRENCY, "8"));
+                    queryExecutor =
+                        VirtualThreads.newTaskExecutor("weid-issuer-query", concurrency);
+                }
+            }
+        }
+        return queryExecutor;
     }
 
     private static com.webank.weid.blockchain.rpc.AuthorityIssuerService getAuthorityIssuerService() {
@@ -52,7 +172,11 @@ public class AuthorityIssuerServiceImpl implements AuthorityIssuerService {
         } else {
             String type = PropertyUtils.getProperty("deploy.style");
             if (type.equals("blockchain")) {
-                return new com.webank.weid.blockchain.service.impl.AuthorityIssuerServiceImpl();
+                return InstrumentationManager.instrument(
+                    com.webank.weid.blockchain.rpc.AuthorityIssuerService.class,
+                    new com.webank.weid.blockchain.service.impl.AuthorityIssuerServiceImpl(),
+                    InvocationLayer.BLOCKCHAIN,
+                    "AuthorityIssuerService");
             } else {
                 // default database
                 return new AuthorityIssuerServiceLocal();
@@ -108,6 +232,9 @@ public class AuthorityIssuerServiceImpl implements AuthorityIssuerService {
                 return new ResponseData<>(false,
                         ErrorCode.getTypeByErrorCode(innerResp.getErrorCode()));
             }
+            if (Boolean.TRUE.equals(innerResp.getResult())) {
+                updateRecognizedIssuer(WeIdUtils.convertWeIdToAddress(args.getWeId()), false);
+            }
             return new ResponseData<>(innerResp.getResult(), ErrorCode.SUCCESS);
             //return authEngine.removeAuthorityIssuer(args);
         } catch (Exception e) {
@@ -129,6 +256,10 @@ public class AuthorityIssuerServiceImpl implements AuthorityIssuerService {
             return new ResponseData<>(false, ErrorCode.WEID_INVALID);
         }
         String addr = WeIdUtils.convertWeIdToAddress(weId);
+        Set<String> recognized = recognizedIssuers;
+        if (recognized != null) {
+            return new ResponseData<>(recognized.contains(addr), ErrorCode.SUCCESS);
+        }
         try {
             com.webank.weid.blockchain.protocol.response.ResponseData<Boolean> innerResp =
                     authorityBlockchainService.isAuthorityIssuer(addr);
@@ -169,6 +300,9 @@ public class AuthorityIssuerServiceImpl implements AuthorityIssuerService {
                 return new ResponseData<>(false,
                         ErrorCode.getTypeByErrorCode(innerResp.getErrorCode()));
             }
+            if (Boolean.TRUE.equals(innerResp.getResult())) {
+                updateRecognizedIssuer(addr, true);
+            }
             return new ResponseData<>(innerResp.getResult(), ErrorCode.SUCCESS);
             //return authEngine.recognizeWeId(true, addr, weIdPrivateKey.getPrivateKey());
         } catch (Exception e) {
@@ -202,6 +336,9 @@ public class AuthorityIssuerServiceImpl implements AuthorityIssuerService {
                 return new ResponseData<>(false,
                         ErrorCode.getTypeByErrorCode(innerResp.getErrorCode()));
             }
+            if (Boolean.TRUE.equals(innerResp.getResult())) {
+                updateRecognizedIssuer(addr, false);
+            }
             return new ResponseData<>(innerResp.getResult(), ErrorCode.SUCCESS);
             //return authEngine.recognizeWeId(false, addr, weIdPrivateKey.getPrivateKey());
         } catch (Exception e) {
@@ -238,6 +375,64 @@ public class AuthorityIssuerServiceImpl implements AuthorityIssuerService {
         }
     }
 
+    /**
+     * Query the authority issuer information of several WeIdentity DIDs in bulk. The local
+     * storage is read by one query, and the chain is queried with bounded concurrency.
+     *
+     * @param weIds the WeIdentity DIDs
+     * @return the AuthorityIssuer list in the order of weIds, the ones not found are skipped
+     */
+    @Override
+    public ResponseData<List<AuthorityIssuer>> queryAuthorityIssuerInfoList(List<String> weIds) {
+        if (weIds == null) {
+            return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
+        }
+        for (String weId : weIds) {
+            if (!WeIdUtils.isWeIdValid(weId)) {
+                return new ResponseData<>(null, ErrorCode.WEID_INVALID);
+            }
+        }
+        if (weIds.isEmpty()) {
+            return new ResponseData<>(new ArrayList<>(), ErrorCode.SUCCESS);
+        }
+        try {
+            if (authorityBlockchainService instanceof AuthorityIssuerServiceLocal) {
+                com.webank.weid.blockchain.protocol.response.ResponseData<List<com.webank.weid.blockchain.protocol.base.AuthorityIssuer>> innerResp =
+                    ((AuthorityIssuerServiceLocal) authorityBlockchainService)
+                        .queryAuthorityIssuerInfoList(weIds);
+                if (innerResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                    return new ResponseData<>(null,
+                        ErrorCode.getTypeByErrorCode(innerResp.getErrorCode()));
+                }
+                List<AuthorityIssuer> authorityIssuerList = new ArrayList<>();
+                for (com.webank.weid.blockchain.protocol.base.AuthorityIssuer authorityIssuer
+                    : innerResp.getResult()) {
+                    authorityIssuerList.add(AuthorityIssuer.fromBlockChain(authorityIssuer));
+                }
+                return new ResponseData<>(authorityIssuerList, ErrorCode.SUCCESS);
+            }
+            List<Future<ResponseData<AuthorityIssuer>>> futures = new ArrayList<>(weIds.size());
+            for (String weId : weIds) {
+                futures.add(getQueryExecutor().submit(() -> queryAuthorityIssuerInfo(weId)));
+            }
+            List<AuthorityIssuer> authorityIssuerList = new ArrayList<>();
+            for (Future<ResponseData<AuthorityIssuer>> future : futures) {
+                ResponseData<AuthorityIssuer> innerResponseData = future.get();
+                if (innerResponseData.getResult() != null) {
+                    authorityIssuerList.add(innerResponseData.getResult());
+                }
+            }
+            return new ResponseData<>(authorityIssuerList, ErrorCode.SUCCESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("query authority issuer list interrupted.", e);
+            return new ResponseData<>(null, ErrorCode.AUTHORITY_ISSUER_ERROR);
+        } catch (ExecutionException e) {
+            logger.error("query authority issuer list failed.", e);
+            return new ResponseData<>(null, ErrorCode.AUTHORITY_ISSUER_ERROR);
+        }
+    }
+
     /**
      * Get all of the authority issuer.
      *
@@ -260,16 +455,14 @@ public class AuthorityIssuerServiceImpl implements AuthorityIssuerService {
                         ErrorCode.getTypeByErrorCode(innerResp.getErrorCode()));
             }
             //List<String> addrList = authEngine.getAuthorityIssuerAddressList(index, num);
-            List<AuthorityIssuer> authorityIssuerList = new ArrayList<>();
+            List<String> weIds = new ArrayList<>(innerResp.getResult().size());
             for (String address : innerResp.getResult()) {
                 String weId = WeIdUtils.convertAddressToWeId(address);
-                ResponseData<AuthorityIssuer> innerResponseData
-                    = this.queryAuthorityIssuerInfo(weId);
-                if (innerResponseData.getResult() != null) {
-                    authorityIssuerList.add(innerResponseData.getResult());
+                if (WeIdUtils.isWeIdValid(weId)) {
+                    weIds.add(weId);
                 }
             }
-            return new ResponseData<>(authorityIssuerList, ErrorCode.SUCCESS);
+            return queryAuthorityIssuerInfoList(weIds);
         } catch (Exception e) {
             logger.error("query authority issuer list failed.", e);
             return new ResponseData<>(null, ErrorCode.AUTHORITY_ISSUER_ERROR);
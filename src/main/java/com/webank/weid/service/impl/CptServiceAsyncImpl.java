@@ -0,0 +1,111 @@
+
+
+package com.webank.weid.service.impl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.webank.wedpr.selectivedisclosure.CredentialTemplateEntity;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.protocol.base.Cpt;
+import com.webank.weid.protocol.base.CptBaseInfo;
+import com.webank.weid.protocol.request.CptMapArgs;
+import com.webank.weid.protocol.request.CptStringArgs;
+import com.webank.weid.service.rpc.CptService;
+import com.webank.weid.service.rpc.CptServiceAsync;
+import com.webank.weid.suite.async.AsyncExecutors;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
+
+/**
+ * Executor backed implementation of {@link CptServiceAsync}.
+ * The blocking calls of {@link CptService} run on the bounded executor of
+ * {@link AsyncExecutors} unless another executor is given.
+ */
+public class CptServiceAsyncImpl implements CptServiceAsync {
+
+    private final CptService cptService;
+
+    private final Executor executor;
+
+    public CptServiceAsyncImpl() {
+        this(
+            InstrumentationManager.instrument(
+                CptService.class,
+                new CptServiceImpl(),
+                InvocationLayer.SERVICE,
+                "CptService"),
+            AsyncExecutors.getExecutor());
+    }
+
+    /**
+     * Create the async service.
+     *
+     * @param cptService the blocking service
+     * @param executor the executor to run the blocking calls
+     */
+    public CptServiceAsyncImpl(CptService cptService, Executor executor) {
+        this.cptService = cptService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CptBaseInfo>> registerCpt(CptMapArgs args) {
+        return AsyncExecutors.supply(() -> cptService.registerCpt(args), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CptBaseInfo>> registerCpt(
+        CptMapArgs args,
+        Integer cptId) {
+        return AsyncExecutors.supply(() -> cptService.registerCpt(args, cptId), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CptBaseInfo>> registerCpt(CptStringArgs args) {
+        return AsyncExecutors.supply(() -> cptService.registerCpt(args), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CptBaseInfo>> registerCpt(
+        CptStringArgs args,
+        Integer cptId) {
+        return AsyncExecutors.supply(() -> cptService.registerCpt(args, cptId), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Cpt>> queryCpt(Integer cptId) {
+        return AsyncExecutors.supply(() -> cptService.queryCpt(cptId), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CptBaseInfo>> updateCpt(CptMapArgs args, Integer cptId) {
+        return AsyncExecutors.supply(() -> cptService.updateCpt(args, cptId), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CptBaseInfo>> updateCpt(
+        CptStringArgs args,
+        Integer cptId) {
+        return AsyncExecutors.supply(() -> cptService.updateCpt(args, cptId), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CredentialTemplateEntity>> queryCredentialTemplate(
+        Integer cptId) {
+        return AsyncExecutors.supply(() -> cptService.queryCredentialTemplate(cptId), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<Integer>>> getCptIdList(
+        Integer startPos,
+        Integer num) {
+        return AsyncExecutors.supply(() -> cptService.getCptIdList(startPos, num), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Integer>> getCptCount() {
+        return AsyncExecutors.supply(() -> cptService.getCptCount(), executor);
+    }
+}
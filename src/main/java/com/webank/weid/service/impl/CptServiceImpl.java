@@ -13,9 +13,10 @@ import com.webank.weid.constant.DataDriverConstant;
 import com.webank.weid.exception.DatabaseException;
 import com.webank.weid.service.local.CptServiceLocal;
 import com.webank.weid.service.local.WeIdServiceLocal;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
 import com.webank.weid.suite.persistence.PersistenceFactory;
 import com.webank.weid.suite.persistence.Persistence;
-import com.webank.weid.suite.persistence.PersistenceType;
 import com.webank.weid.util.*;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -46,10 +47,12 @@ public class CptServiceImpl implements CptService {
     private static com.webank.weid.blockchain.rpc.CptService cptBlockchainService;
 
     private static Persistence dataDriver;
-    private static PersistenceType persistenceType;
     //获取CPT缓存节点
     private static CacheNode<ResponseData<Cpt>> cptCahceNode =
             CacheManager.registerCacheNode("SYS_CPT", 1000 * 3600 * 24L);
+    //获取Credential Template缓存节点, ZKP签发时每次都需要查询
+    private static CacheNode<CredentialTemplateEntity> credentialTemplateCacheNode =
+            CacheManager.registerCacheNode("SYS_CREDENTIAL_TEMPLATE", 1000 * 3600 * 24L);
 
     public CptServiceImpl(){
         cptBlockchainService = getCptService();
@@ -61,7 +64,11 @@ public class CptServiceImpl implements CptService {
         } else {
             String type = PropertyUtils.getProperty("deploy.style");
             if (type.equals("blockchain")) {
-                return new com.webank.weid.blockchain.service.impl.CptServiceImpl();
+                return InstrumentationManager.instrument(
+                    com.webank.weid.blockchain.rpc.CptService.class,
+                    new com.webank.weid.blockchain.service.impl.CptServiceImpl(),
+                    InvocationLayer.BLOCKCHAIN,
+                    "CptService");
             } else {
                 // default database
                 return new CptServiceLocal();
@@ -232,14 +239,8 @@ public class CptServiceImpl implements CptService {
     }
 
     private static Persistence getDataDriver() {
-        String type = PropertyUtils.getProperty("persistence_type");
-        if (type.equals("mysql")) {
-            persistenceType = PersistenceType.Mysql;
-        } else if (type.equals("redis")) {
-            persistenceType = PersistenceType.Redis;
-        }
         if (dataDriver == null) {
-            dataDriver = PersistenceFactory.build(persistenceType);
+            dataDriver = PersistenceFactory.build();
         }
         return dataDriver;
     }
@@ -269,6 +270,7 @@ public class CptServiceImpl implements CptService {
                     cptId,
                     template.getPublicKey().getCredentialPublicKey(),
                     template.getCredentialKeyCorrectnessProof());
+            credentialTemplateCacheNode.remove(String.valueOf(cptId));
             if (innerResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
                 return ErrorCode.CPT_CREDENTIAL_TEMPLATE_SAVE_ERROR;
             }
@@ -487,17 +489,38 @@ public class CptServiceImpl implements CptService {
      */
     @Override
     public ResponseData<CredentialTemplateEntity> queryCredentialTemplate(Integer cptId) {
-        com.webank.weid.blockchain.protocol.response.ResponseData<CredentialTemplateEntity> innerResp =
-                cptBlockchainService.queryCredentialTemplate(cptId);
-        if (innerResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
-            return new ResponseData<>(null,
-                    ErrorCode.getTypeByErrorCode(innerResp.getErrorCode()));
+        String cptIdStr = String.valueOf(cptId);
+        CredentialTemplateEntity template = credentialTemplateCacheNode.get(cptIdStr);
+        if (template == null) {
+            com.webank.weid.blockchain.protocol.response.ResponseData<CredentialTemplateEntity>
+                    innerResp = cptBlockchainService.queryCredentialTemplate(cptId);
+            if (innerResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null,
+                        ErrorCode.getTypeByErrorCode(innerResp.getErrorCode()));
+            }
+            template = innerResp.getResult();
+            if (template == null) {
+                return new ResponseData<>(null, ErrorCode.SUCCESS);
+            }
+            credentialTemplateCacheNode.put(cptIdStr, template);
         }
-        return new ResponseData<>(innerResp.getResult(), ErrorCode.SUCCESS);
+        // 返回副本, 避免调用方修改缓存中的模板
+        return new ResponseData<>(copyTemplate(template), ErrorCode.SUCCESS);
         //return cptServiceEngine.queryCredentialTemplate(cptId);
     }
 
 
+    /**
+     * 复制模板, 公钥与属性模板为不可变的protobuf对象, 可以直接共用.
+     */
+    private static CredentialTemplateEntity copyTemplate(CredentialTemplateEntity template) {
+        CredentialTemplateEntity copy = new CredentialTemplateEntity();
+        copy.setPublicKey(template.getPublicKey());
+        copy.setCredentialKeyCorrectnessProof(template.getCredentialKeyCorrectnessProof());
+        copy.setCredentialSchema(template.getCredentialSchema());
+        return copy;
+    }
+
     @Override
     public ResponseData<List<Integer>> getCptIdList(Integer startPos, Integer num) {
         if (startPos < 0 || num < 1) {
@@ -0,0 +1,209 @@
+
+
+package com.webank.weid.service.impl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.networknt.schema.ValidationMessage;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.protocol.base.Challenge;
+import com.webank.weid.protocol.base.ClaimPolicy;
+import com.webank.weid.protocol.base.Cpt;
+import com.webank.weid.protocol.base.CredentialPojo;
+import com.webank.weid.protocol.base.PresentationE;
+import com.webank.weid.protocol.base.PresentationPolicyE;
+import com.webank.weid.protocol.base.WeIdAuthentication;
+import com.webank.weid.protocol.base.WeIdPublicKey;
+import com.webank.weid.protocol.cpt.Cpt101;
+import com.webank.weid.protocol.request.CreateCredentialPojoArgs;
+import com.webank.weid.protocol.request.VerifyPresentationArgs;
+import com.webank.weid.service.rpc.CredentialPojoService;
+import com.webank.weid.service.rpc.CredentialPojoServiceAsync;
+import com.webank.weid.suite.async.AsyncExecutors;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
+
+/**
+ * Executor backed implementation of {@link CredentialPojoServiceAsync}.
+ * The blocking calls of {@link CredentialPojoService} run on the bounded executor of
+ * {@link AsyncExecutors} unless another executor is given.
+ */
+public class CredentialPojoServiceAsyncImpl implements CredentialPojoServiceAsync {
+
+    private final CredentialPojoService credentialPojoService;
+
+    private final Executor executor;
+
+    public CredentialPojoServiceAsyncImpl() {
+        this(
+            InstrumentationManager.instrument(
+                CredentialPojoService.class,
+                new CredentialPojoServiceImpl(),
+                InvocationLayer.SERVICE,
+                "CredentialPojoService"),
+            AsyncExecutors.getExecutor());
+    }
+
+    /**
+     * Create the async service.
+     *
+     * @param credentialPojoService the blocking service
+     * @param executor the executor to run the blocking calls
+     */
+    public CredentialPojoServiceAsyncImpl(
+        CredentialPojoService credentialPojoService,
+        Executor executor) {
+        this.credentialPojoService = credentialPojoService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CredentialPojo>> createCredential(
+        CreateCredentialPojoArgs args) {
+        return AsyncExecutors.supply(() -> credentialPojoService.createCredential(args), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CredentialPojo>> prepareZkpCredential(
+        CredentialPojo preCredential,
+        String claimJson,
+        WeIdAuthentication weIdAuthentication) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.prepareZkpCredential(
+                preCredential,
+                claimJson,
+                weIdAuthentication),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CredentialPojo>> createSelectiveCredential(
+        CredentialPojo credential,
+        ClaimPolicy claimPolicy) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.createSelectiveCredential(credential, claimPolicy),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CredentialPojo>> addSignature(
+        List<CredentialPojo> credentialList,
+        WeIdAuthentication callerAuth) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.addSignature(credentialList, callerAuth),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<String>> getCredentialPojoHash(
+        CredentialPojo credentialPojo) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.getCredentialPojoHash(credentialPojo),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> verify(
+        String issuerWeId,
+        CredentialPojo credential) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.verify(issuerWeId, credential),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> verify(
+        String issuerWeId,
+        String weIdPublicKeyId,
+        CredentialPojo credential) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.verify(issuerWeId, weIdPublicKeyId, credential),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> verify(
+        WeIdPublicKey issuerPublicKey,
+        CredentialPojo credential) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.verify(issuerPublicKey, credential),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> verify(
+        String presenterWeId,
+        PresentationPolicyE presentationPolicyE,
+        Challenge challenge,
+        PresentationE presentationE) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.verify(
+                presenterWeId,
+                presentationPolicyE,
+                challenge,
+                presentationE),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<ResponseData<Boolean>>>> verifyPresentationBatch(
+        List<VerifyPresentationArgs> args) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.verifyPresentationBatch(args),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> verifyOffline(
+        WeIdPublicKey issuerPublicKey,
+        CredentialPojo credential) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.verifyOffline(issuerPublicKey, credential),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<PresentationE>> createPresentation(
+        List<CredentialPojo> credentialList,
+        PresentationPolicyE presentationPolicyE,
+        Challenge challenge,
+        WeIdAuthentication weIdAuthentication) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.createPresentation(
+                credentialList,
+                presentationPolicyE,
+                challenge,
+                weIdAuthentication),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CredentialPojo>> createTrustedTimestamp(
+        List<CredentialPojo> credentialList,
+        WeIdAuthentication weIdAuthentication) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.createTrustedTimestamp(credentialList, weIdAuthentication),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CredentialPojo>> createDataAuthToken(
+        Cpt101 authInfo,
+        WeIdAuthentication weIdAuthentication) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.createDataAuthToken(authInfo, weIdAuthentication),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Set<ValidationMessage>>> checkCredentialWithCpt(
+        CredentialPojo credential,
+        Cpt cpt) {
+        return AsyncExecutors.supply(
+            () -> credentialPojoService.checkCredentialWithCpt(credential, cpt),
+            executor);
+    }
+}
@@ -14,14 +14,20 @@ import com.webank.weid.protocol.base.*;
 import com.webank.weid.protocol.cpt.Cpt101;
 import com.webank.weid.protocol.cpt.Cpt111;
 import com.webank.weid.protocol.request.CreateCredentialPojoArgs;
+import com.webank.weid.protocol.request.VerifyPresentationArgs;
 import com.webank.weid.blockchain.constant.ErrorCode;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
 import com.webank.weid.service.rpc.CptService;
 import com.webank.weid.service.rpc.CredentialPojoService;
 import com.webank.weid.service.rpc.WeIdService;
+import com.webank.weid.suite.async.VirtualThreads;
+import com.webank.weid.suite.async.ZkpVerifyExecutor;
+import com.webank.weid.suite.cache.CacheManager;
+import com.webank.weid.suite.cache.CacheNode;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
 import com.webank.weid.suite.persistence.PersistenceFactory;
 import com.webank.weid.suite.persistence.Persistence;
-import com.webank.weid.suite.persistence.PersistenceType;
 import com.webank.weid.util.*;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -31,6 +37,9 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -48,35 +57,47 @@ public class CredentialPojoServiceImpl implements CredentialPojoService {
         CredentialFieldDisclosureValue.DISCLOSED.getStatus().toString();
     private static final String EXISTED =
         CredentialFieldDisclosureValue.EXISTED.getStatus().toString();
+    /**
+     * 凭证个数不少于该值时并行处理createPresentation中的凭证, 0表示不并行.
+     */
+    private static final String PRESENTATION_PARALLEL_THRESHOLD =
+        "presentation.parallel.threshold";
+    private static final String DEFAULT_PRESENTATION_PARALLEL_THRESHOLD = "8";
+    private static final Object lock = new Object();
+    private static volatile ExecutorService presentationExecutor;
+    //获取ZKP验证规则缓存节点, 以Claim Policy的hash为key, 缓存编码后的验证规则
+    private static CacheNode<String> verificationRuleCacheNode =
+        CacheManager.registerCacheNode("SYS_ZKP_VERIFICATION_RULE", 1000 * 3600 * 24L);
     private static WeIdService weIdService;
     private static CptService cptService;
     private static Persistence dataDriver;
-    private static PersistenceType persistenceType;
     //private static PdfTransportation pdfTransportation;
 
     private static Persistence getDataDriver() {
-        String type = PropertyUtils.getProperty("persistence_type");
-        if (type.equals("mysql")) {
-            persistenceType = PersistenceType.Mysql;
-        } else if (type.equals("redis")) {
-            persistenceType = PersistenceType.Redis;
-        }
         if (dataDriver == null) {
-            dataDriver = PersistenceFactory.build(persistenceType);
+            dataDriver = PersistenceFactory.build();
         }
         return dataDriver;
     }
 
     private static WeIdService getWeIdService() {
         if (weIdService == null) {
-            weIdService = new WeIdServiceImpl();
+            weIdService = InstrumentationManager.instrument(
+                WeIdService.class,
+                new WeIdServiceImpl(),
+                InvocationLayer.SERVICE,
+                "WeIdService");
         }
         return weIdService;
     }
 
     private static CptService getCptService() {
         if (cptService == null) {
-            cptService = new CptServiceImpl();
+            cptService = InstrumentationManager.instrument(
+                CptService.class,
+                new CptServiceImpl(),
+                InvocationLayer.SERVICE,
+                "CptService");
         }
         return cptService;
     }
@@ -783,6 +804,34 @@ public class CredentialPojoServiceImpl implements CredentialPojoService {
         return newCredentialInfo;
     }
 
+    /**
+     * 根据Claim Policy构建编码后的验证规则, 相同的policy只构建一次.
+     */
+    private static String getEncodedVerificationRule(ClaimPolicy claimPolicy) {
+
+        String ruleKey = claimPolicy.getFieldsToBeDisclosed() == null
+            ? null : DataToolUtils.hash(claimPolicy.getFieldsToBeDisclosed());
+        String encodedVerificationRule =
+            ruleKey == null ? null : verificationRuleCacheNode.get(ruleKey);
+        if (encodedVerificationRule != null) {
+            return encodedVerificationRule;
+        }
+        List<String> revealedAttributeList = new ArrayList<>();
+        List<Predicate> predicateList = new ArrayList<>();
+
+        processZkpPolicy(claimPolicy, revealedAttributeList, predicateList);
+        VerificationRule verificationRule =
+            VerificationRule.newBuilder()
+                .addAllRevealedAttribute(revealedAttributeList)
+                .addAllPredicateAttribute(predicateList)
+                .build();
+        encodedVerificationRule = Utils.protoToEncodedString(verificationRule);
+        if (ruleKey != null) {
+            verificationRuleCacheNode.put(ruleKey, encodedVerificationRule);
+        }
+        return encodedVerificationRule;
+    }
+
     private static void processZkpPolicy(
         ClaimPolicy claimPolicy,
         List<String> revealedAttributeList,
@@ -1393,8 +1442,11 @@ public class CredentialPojoServiceImpl implements CredentialPojoService {
             logger.error("[verify] verify cptId failed.");
             return new ResponseData<Boolean>(false, verifyCptIdresult);
         }
+        List<CompletableFuture<ResponseData<Boolean>>> zkpResults =
+            submitZkpVerifications(credentialList);
         try {
-            for (CredentialPojo credential : credentialList) {
+            for (int i = 0; i < credentialList.size(); i++) {
+                CredentialPojo credential = credentialList.get(i);
                 //verify policy
                 Integer cptId = credential.getCptId();
                 ClaimPolicy claimPolicy = policyMap.get(cptId);
@@ -1408,8 +1460,13 @@ public class CredentialPojoServiceImpl implements CredentialPojoService {
                 }
                 //verify credential
                 if (isZkpCredential(credential)) {
-                    return verifyZkpCredential(credential);
-
+                    CompletableFuture<ResponseData<Boolean>> zkpResult = zkpResults.get(i);
+                    ResponseData<Boolean> verifyZkpResult = zkpResult == null
+                        ? verifyZkpCredential(credential) : zkpResult.join();
+                    if (!Boolean.TRUE.equals(verifyZkpResult.getResult())) {
+                        return verifyZkpResult;
+                    }
+                    continue;
                 }
                 ErrorCode verifyCredentialResult = verifyContent(credential, null, false, null);
                 if (verifyCredentialResult.getCode() != ErrorCode.SUCCESS.getCode()) {
@@ -1423,7 +1480,65 @@ public class CredentialPojoServiceImpl implements CredentialPojoService {
             logger.error(
                 "[verify] verify credential error.", e);
             return new ResponseData<Boolean>(false, ErrorCode.UNKNOW_ERROR);
+        } finally {
+            for (CompletableFuture<ResponseData<Boolean>> zkpResult : zkpResults) {
+                if (zkpResult != null) {
+                    zkpResult.cancel(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * presentation中有多个ZKP凭证时, 提前将证明校验提交到ZkpVerifyExecutor并发执行.
+     * 返回列表与credentialList下标一致, 未提交的位置为null, 由调用线程自行校验.
+     */
+    private static List<CompletableFuture<ResponseData<Boolean>>> submitZkpVerifications(
+        List<CredentialPojo> credentialList) {
+        List<CompletableFuture<ResponseData<Boolean>>> zkpResults =
+            new ArrayList<>(Collections.nCopies(credentialList.size(), null));
+        List<Integer> zkpIndexes = new ArrayList<>();
+        for (int i = 0; i < credentialList.size(); i++) {
+            if (isZkpCredential(credentialList.get(i))) {
+                zkpIndexes.add(i);
+            }
+        }
+        if (zkpIndexes.size() < 2) {
+            return zkpResults;
         }
+        for (Integer index : zkpIndexes) {
+            CredentialPojo credential = credentialList.get(index);
+            zkpResults.set(index, ZkpVerifyExecutor.submit(() -> verifyZkpCredential(credential)));
+        }
+        return zkpResults;
+    }
+
+    /* (non-Javadoc)
+     * @see com.webank.weid.service.rpc.CredentialPojoService#verifyPresentationBatch()
+     */
+    @Override
+    public ResponseData<List<ResponseData<Boolean>>> verifyPresentationBatch(
+        List<VerifyPresentationArgs> args) {
+        if (args == null) {
+            logger.error("[verifyPresentationBatch] input args is null.");
+            return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
+        }
+        List<ResponseData<Boolean>> results = mapInOrder(args, arg -> {
+            if (arg == null || arg.getPresentationE() == null) {
+                return new ResponseData<>(false, ErrorCode.ILLEGAL_INPUT);
+            }
+            try {
+                return verify(
+                    arg.getPresenterWeId(),
+                    arg.getPresentationPolicyE(),
+                    arg.getChallenge(),
+                    arg.getPresentationE());
+            } catch (Exception e) {
+                logger.error("[verifyPresentationBatch] verify presentation error.", e);
+                return new ResponseData<>(false, ErrorCode.UNKNOW_ERROR);
+            }
+        });
+        return new ResponseData<>(results, ErrorCode.SUCCESS);
     }
 
     /* (non-Javadoc)
@@ -1811,8 +1926,10 @@ public class CredentialPojoServiceImpl implements CredentialPojoService {
         if (ErrorCode.SUCCESS.getCode() != weIdRes.getErrorCode() || !weIdRes.getResult()) {
             return ErrorCode.PRESENTATION_POLICY_PUBLISHER_WEID_NOT_EXIST;
         }
-        for (CredentialPojo credentialPojo : credentialList) {
-            ErrorCode checkResp = CredentialPojoUtils.isCredentialPojoValid(credentialPojo);
+        // 按原始顺序返回第一个校验失败的错误码, 与串行处理的结果一致
+        List<ErrorCode> checkResps =
+            mapInOrder(credentialList, CredentialPojoUtils::isCredentialPojoValid);
+        for (ErrorCode checkResp : checkResps) {
             if (ErrorCode.SUCCESS.getCode() != checkResp.getCode()) {
                 return checkResp;
             }
@@ -1841,16 +1958,15 @@ public class CredentialPojoServiceImpl implements CredentialPojoService {
             newCredentialList = generateZkpCredentialList(credentialList, presentationPolicy,
                 userId);
         } else {
-            // 遍历所有原始证书
-            for (CredentialPojo credential : credentialList) {
-                // 根据原始证书获取对应的 claimPolicy
-                ClaimPolicy claimPolicy = claimPolicyMap.get(credential.getCptId());
-                if (claimPolicy == null) {
-                    continue;
-                }
-                // 根据原始证书和claimPolicy去创建选择性披露凭证
-                ResponseData<CredentialPojo> res =
-                    this.createSelectiveCredential(credential, claimPolicy);
+            // 过滤出有claimPolicy的原始证书, 保持原始顺序
+            List<CredentialPojo> disclosedList = credentialList.stream()
+                .filter(credential -> claimPolicyMap.get(credential.getCptId()) != null)
+                .collect(Collectors.toList());
+            // 根据原始证书和claimPolicy去创建选择性披露凭证
+            List<ResponseData<CredentialPojo>> resList = mapInOrder(disclosedList,
+                credential -> this.createSelectiveCredential(
+                    credential, claimPolicyMap.get(credential.getCptId())));
+            for (ResponseData<CredentialPojo> res : resList) {
                 if (res.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()) {
                     return ErrorCode.getTypeByErrorCode(res.getErrorCode().intValue());
                 }
@@ -1862,6 +1978,44 @@ public class CredentialPojoServiceImpl implements CredentialPojoService {
         return ErrorCode.SUCCESS;
     }
 
+    /**
+     * 对每个元素执行mapper, 结果与输入顺序一致.
+     * 元素个数达到presentation.parallel.threshold时并行执行, 调用线程等待全部完成,
+     * mapper抛出的异常以CompletionException抛出.
+     */
+    private static <T, R> List<R> mapInOrder(List<T> items, Function<T, R> mapper) {
+        int threshold = Integer.parseInt(PropertyUtils.getProperty(
+            PRESENTATION_PARALLEL_THRESHOLD, DEFAULT_PRESENTATION_PARALLEL_THRESHOLD));
+        List<R> results = new ArrayList<>(items.size());
+        if (threshold <= 0 || items.size() < threshold) {
+            for (T item : items) {
+                results.add(mapper.apply(item));
+            }
+            return results;
+        }
+        ExecutorService executor = getPresentationExecutor();
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(CompletableFuture.supplyAsync(() -> mapper.apply(item), executor));
+        }
+        for (CompletableFuture<R> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    private static ExecutorService getPresentationExecutor() {
+        if (presentationExecutor == null) {
+            synchronized (lock) {
+                if (presentationExecutor == null) {
+                    presentationExecutor = VirtualThreads.newTaskExecutor(
+                        "weid-presentation", Runtime.getRuntime().availableProcessors());
+                }
+            }
+        }
+        return presentationExecutor;
+    }
+
     private List<CredentialPojo> generateZkpCredentialList(
         List<CredentialPojo> credentialList,
         PresentationPolicyE presentationPolicy,
@@ -2059,16 +2213,7 @@ public class CredentialPojoServiceImpl implements CredentialPojoService {
                 return new ResponseData<CredentialPojo>(null,
                     ErrorCode.CREDENTIAL_CLAIM_POLICY_NOT_EXIST);
             }
-            List<String> revealedAttributeList = new ArrayList<>();
-            List<Predicate> predicateList = new ArrayList<>();
-
-            processZkpPolicy(claimPolicy, revealedAttributeList, predicateList);
-            VerificationRule verificationRule =
-                VerificationRule.newBuilder()
-                    .addAllRevealedAttribute(revealedAttributeList)
-                    .addAllPredicateAttribute(predicateList)
-                    .build();
-            String encodedVerificationRule = Utils.protoToEncodedString(verificationRule);
+            String encodedVerificationRule = getEncodedVerificationRule(claimPolicy);
             ResponseData<String> dbResp =
                 getDataDriver().get(
                     DataDriverConstant.DOMAIN_USER_CREDENTIAL_SIGNATURE,
@@ -13,6 +13,9 @@ import com.webank.weid.blockchain.protocol.response.ResponseData;
 import com.webank.weid.service.rpc.CptService;
 import com.webank.weid.service.rpc.CredentialService;
 import com.webank.weid.service.rpc.WeIdService;
+import com.webank.weid.suite.async.VirtualThreads;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
 import com.webank.weid.util.CredentialUtils;
 import com.webank.weid.util.DataToolUtils;
 import com.webank.weid.util.DateUtils;
@@ -23,6 +26,11 @@ import org.slf4j.LoggerFactory;
 
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Service implementations for operations on Credential.
@@ -33,9 +41,19 @@ public class CredentialServiceImpl implements CredentialService {
 
     private static final Logger logger = LoggerFactory.getLogger(CredentialServiceImpl.class);
 
-    private CptService cptService = new CptServiceImpl();
+    private CptService cptService = InstrumentationManager.instrument(
+        CptService.class,
+        new CptServiceImpl(),
+        InvocationLayer.SERVICE,
+        "CptService");
 
-    private WeIdService weIdService = new WeIdServiceImpl();
+    private WeIdService weIdService = InstrumentationManager.instrument(
+        WeIdService.class,
+        new WeIdServiceImpl(),
+        InvocationLayer.SERVICE,
+        "WeIdService");
+
+    private static volatile ExecutorService verifyExecutor;
 
 
     /**
@@ -201,7 +219,7 @@ public class CredentialServiceImpl implements CredentialService {
      */
     @Override
     public ResponseData<Boolean> verify(CredentialWrapper credentialWrapper) {
-        return verifyCredentialContent(credentialWrapper, null);
+        return verifyCredentialContent(credentialWrapper, null, new IssuerLookup(false));
     }
 
     /**
@@ -209,14 +227,79 @@ public class CredentialServiceImpl implements CredentialService {
      */
     @Override
     public ResponseData<Boolean> verify(Credential credential) {
-        Map<String, Object> disclosureMap = new HashMap<>(credential.getClaim());
-        for (Map.Entry<String, Object> entry : disclosureMap.entrySet()) {
-            disclosureMap.put(entry.getKey(), CredentialFieldDisclosureValue.DISCLOSED.getStatus());
-        }
         CredentialWrapper credentialWrapper = new CredentialWrapper();
         credentialWrapper.setCredential(credential);
-        credentialWrapper.setDisclosure(disclosureMap);
-        return verifyCredentialContent(credentialWrapper, null);
+        // A fully disclosed map hashes the same claim as a null one. Only the members of a
+        // multi-signed credential are checked against the map itself, so build it just for them.
+        if (credential != null && credential.getClaim() != null
+            && credential.getCptId() != null
+            && credential.getCptId() == CredentialConstant.CREDENTIAL_EMBEDDED_SIGNATURE_CPT
+            .intValue()) {
+            Map<String, Object> disclosureMap = new HashMap<>(credential.getClaim());
+            for (Map.Entry<String, Object> entry : disclosureMap.entrySet()) {
+                disclosureMap.put(
+                    entry.getKey(), CredentialFieldDisclosureValue.DISCLOSED.getStatus());
+            }
+            credentialWrapper.setDisclosure(disclosureMap);
+        }
+        return verifyCredentialContent(credentialWrapper, null, new IssuerLookup(false));
+    }
+
+    /**
+     * Verify the validity of a batch of credentials. Public keys will be fetched from chain.
+     */
+    @Override
+    public ResponseData<List<ResponseData<Boolean>>> verifyBatch(
+        List<CredentialWrapper> credentialWrappers) {
+        if (credentialWrappers == null) {
+            return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
+        }
+        // issuers shared by the batch are looked up on chain only once
+        IssuerLookup issuerLookup = new IssuerLookup(true);
+        List<CompletableFuture<ResponseData<Boolean>>> futures =
+            new ArrayList<>(credentialWrappers.size());
+        for (CredentialWrapper credentialWrapper : credentialWrappers) {
+            Supplier<ResponseData<Boolean>> task =
+                () -> verifyBatchItem(credentialWrapper, issuerLookup);
+            futures.add(credentialWrappers.size() < 2
+                ? CompletableFuture.completedFuture(task.get())
+                : CompletableFuture.supplyAsync(task, getVerifyExecutor()));
+        }
+        List<ResponseData<Boolean>> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<ResponseData<Boolean>> future : futures) {
+            results.add(future.join());
+        }
+        return new ResponseData<>(results, ErrorCode.SUCCESS);
+    }
+
+    private ResponseData<Boolean> verifyBatchItem(
+        CredentialWrapper credentialWrapper,
+        IssuerLookup issuerLookup) {
+        if (credentialWrapper == null) {
+            return new ResponseData<>(false, ErrorCode.ILLEGAL_INPUT);
+        }
+        try {
+            // verifying a multi-signed credential rewrites the wrapper, keep the caller's intact
+            CredentialWrapper copy = new CredentialWrapper();
+            copy.setCredential(credentialWrapper.getCredential());
+            copy.setDisclosure(credentialWrapper.getDisclosure());
+            return verifyCredentialContent(copy, null, issuerLookup);
+        } catch (Exception e) {
+            logger.error("[verifyBatch] verify credential error.", e);
+            return new ResponseData<>(false, ErrorCode.UNKNOW_ERROR);
+        }
+    }
+
+    private static ExecutorService getVerifyExecutor() {
+        if (verifyExecutor == null) {
+            synchronized (CredentialServiceImpl.class) {
+                if (verifyExecutor == null) {
+                    verifyExecutor = VirtualThreads.newTaskExecutor(
+                        "weid-credential-verify", Runtime.getRuntime().availableProcessors());
+                }
+            }
+        }
+        return verifyExecutor;
     }
 
     /**
@@ -236,7 +319,8 @@ public class CredentialServiceImpl implements CredentialService {
         if (weIdPublicKey == null) {
             return new ResponseData<Boolean>(false, ErrorCode.CREDENTIAL_ISSUER_MISMATCH);
         }
-        return verifyCredentialContent(credentialWrapper, weIdPublicKey.getPublicKey());
+        return verifyCredentialContent(
+            credentialWrapper, weIdPublicKey.getPublicKey(), new IssuerLookup(false));
     }
 
     /**
@@ -281,7 +365,8 @@ public class CredentialServiceImpl implements CredentialService {
     }
 
     private ResponseData<Boolean> verifyCredentialContent(CredentialWrapper credentialWrapper,
-                                                          String publicKey) {
+                                                          String publicKey,
+                                                          IssuerLookup issuerLookup) {
         Credential credential = credentialWrapper.getCredential();
         ErrorCode innerResponse = CredentialUtils.isCredentialValid(credential);
         if (ErrorCode.SUCCESS.getCode() != innerResponse.getCode()) {
@@ -299,7 +384,7 @@ public class CredentialServiceImpl implements CredentialService {
             // We firstly verify itself
             credentialWrapper.setDisclosure(null);
             ResponseData<Boolean> innerResp = verifySingleSignedCredential(credentialWrapper,
-                    publicKey);
+                    publicKey, issuerLookup);
             if (!innerResp.getResult()) {
                 return new ResponseData<>(false, innerResp.getErrorCode(),
                         innerResp.getErrorMessage());
@@ -330,7 +415,7 @@ public class CredentialServiceImpl implements CredentialService {
                 if (disclosure == null) {
                     credentialWrapper.setDisclosure(null);
                 }
-                innerResp = verifyCredentialContent(credentialWrapper, publicKey);
+                innerResp = verifyCredentialContent(credentialWrapper, publicKey, issuerLookup);
                 if (!innerResp.getResult()) {
                     return new ResponseData<>(false, innerResp.getErrorCode(),
                             innerResp.getErrorMessage());
@@ -338,13 +423,15 @@ public class CredentialServiceImpl implements CredentialService {
             }
             return new ResponseData<>(true, ErrorCode.SUCCESS);
         }
-        return verifySingleSignedCredential(credentialWrapper, publicKey);
+        return verifySingleSignedCredential(credentialWrapper, publicKey, issuerLookup);
     }
 
     private ResponseData<Boolean> verifySingleSignedCredential(CredentialWrapper credentialWrapper,
-                                                               String publicKey) {
+                                                               String publicKey,
+                                                               IssuerLookup issuerLookup) {
         Credential credential = credentialWrapper.getCredential();
-        ResponseData<Boolean> responseData = verifyIssuerExistence(credential.getIssuer());
+        ResponseData<Boolean> responseData =
+                verifyIssuerExistence(credential.getIssuer(), issuerLookup);
         if (!responseData.getResult()) {
             return responseData;
         }
@@ -361,7 +448,7 @@ public class CredentialServiceImpl implements CredentialService {
         if (!responseData.getResult()) {
             return responseData;
         }
-        responseData = verifySignature(credentialWrapper, publicKey);
+        responseData = verifySignature(credentialWrapper, publicKey, issuerLookup);
         return responseData;
     }
 
@@ -381,8 +468,10 @@ public class CredentialServiceImpl implements CredentialService {
     }
 
 
-    private ResponseData<Boolean> verifyIssuerExistence(String issuerWeId) {
-        ResponseData<Boolean> responseData = weIdService.isWeIdExist(issuerWeId);
+    private ResponseData<Boolean> verifyIssuerExistence(
+            String issuerWeId,
+            IssuerLookup issuerLookup) {
+        ResponseData<Boolean> responseData = issuerLookup.isWeIdExist(issuerWeId);
         if (responseData == null || !responseData.getResult()) {
             return new ResponseData<>(false, ErrorCode.CREDENTIAL_ISSUER_NOT_EXISTS);
         }
@@ -443,7 +532,8 @@ public class CredentialServiceImpl implements CredentialService {
 
     private ResponseData<Boolean> verifySignature(
             CredentialWrapper credentialWrapper,
-            String publicKey) {
+            String publicKey,
+            IssuerLookup issuerLookup) {
 
         try {
             Credential credential = credentialWrapper.getCredential();
@@ -461,7 +551,7 @@ public class CredentialServiceImpl implements CredentialService {
                 // Fetch public key from chain
                 String credentialIssuer = credential.getIssuer();
                 ResponseData<WeIdDocument> innerResponseData =
-                        weIdService.getWeIdDocument(credentialIssuer);
+                        issuerLookup.getWeIdDocument(credentialIssuer);
                 if (innerResponseData.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
                     logger.error(
                             "Error occurred when fetching WeIdentity DID document for: {}, msg: {}",
@@ -576,4 +666,53 @@ public class CredentialServiceImpl implements CredentialService {
             return new ResponseData<>(StringUtils.EMPTY, ErrorCode.CREDENTIAL_ERROR);
         }
     }
+
+    /**
+     * Issuer lookups of a verification. A cached lookup serves a whole batch and asks the chain
+     * once per issuer, concurrent callers of the same issuer wait for the first one.
+     */
+    private final class IssuerLookup {
+
+        private final Map<String, CompletableFuture<ResponseData<Boolean>>> existence;
+
+        private final Map<String, CompletableFuture<ResponseData<WeIdDocument>>> documents;
+
+        private IssuerLookup(boolean cached) {
+            this.existence = cached ? new ConcurrentHashMap<>() : null;
+            this.documents = cached ? new ConcurrentHashMap<>() : null;
+        }
+
+        private ResponseData<Boolean> isWeIdExist(String weId) {
+            if (existence == null) {
+                return weIdService.isWeIdExist(weId);
+            }
+            return memoize(existence, weId, weIdService::isWeIdExist);
+        }
+
+        private ResponseData<WeIdDocument> getWeIdDocument(String weId) {
+            if (documents == null) {
+                return weIdService.getWeIdDocument(weId);
+            }
+            return memoize(documents, weId, weIdService::getWeIdDocument);
+        }
+
+        private <T> T memoize(
+            Map<String, CompletableFuture<T>> cache,
+            String weId,
+            Function<String, T> loader) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            CompletableFuture<T> existing = cache.putIfAbsent(weId, future);
+            if (existing != null) {
+                return existing.join();
+            }
+            try {
+                T value = loader.apply(weId);
+                future.complete(value);
+                return value;
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
 }
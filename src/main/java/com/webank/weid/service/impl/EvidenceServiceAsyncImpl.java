@@ -0,0 +1,260 @@
+
+
+package com.webank.weid.service.impl;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.protocol.base.CredentialPojo;
+import com.webank.weid.protocol.base.EvidenceInfo;
+import com.webank.weid.protocol.base.HashString;
+import com.webank.weid.protocol.base.WeIdAuthentication;
+import com.webank.weid.protocol.base.WeIdPrivateKey;
+import com.webank.weid.protocol.inf.Hashable;
+import com.webank.weid.service.rpc.EvidenceService;
+import com.webank.weid.service.rpc.EvidenceServiceAsync;
+import com.webank.weid.suite.async.AsyncExecutors;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
+import com.webank.weid.suite.pipeline.StageStatistic;
+
+/**
+ * Executor backed implementation of {@link EvidenceServiceAsync}.
+ * The blocking calls of {@link EvidenceService} run on the bounded executor of
+ * {@link AsyncExecutors} unless another executor is given.
+ */
+public class EvidenceServiceAsyncImpl implements EvidenceServiceAsync {
+
+    private final EvidenceService evidenceService;
+
+    private final Executor executor;
+
+    public EvidenceServiceAsyncImpl() {
+        this(
+            InstrumentationManager.instrument(
+                EvidenceService.class,
+                new EvidenceServiceImpl(),
+                InvocationLayer.SERVICE,
+                "EvidenceService"),
+            AsyncExecutors.getExecutor());
+    }
+
+    /**
+     * Create the async service.
+     *
+     * @param evidenceService the blocking service
+     * @param executor the executor to run the blocking calls
+     */
+    public EvidenceServiceAsyncImpl(EvidenceService evidenceService, Executor executor) {
+        this.evidenceService = evidenceService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<String>> createEvidence(
+        Hashable object,
+        WeIdPrivateKey weIdPrivateKey) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.createEvidence(object, weIdPrivateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<String>> createEvidenceWithLog(
+        Hashable object,
+        String log,
+        WeIdAuthentication weIdAuthentication) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.createEvidenceWithLog(object, log, weIdAuthentication),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<String>> createEvidenceWithLogAndCustomKey(
+        Hashable object,
+        WeIdPrivateKey weIdPrivateKey,
+        String log,
+        String customKey) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.createEvidenceWithLogAndCustomKey(
+                object,
+                weIdPrivateKey,
+                log,
+                customKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> addLogByHash(
+        String hashValue,
+        String log,
+        WeIdPrivateKey weIdPrivateKey) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.addLogByHash(hashValue, log, weIdPrivateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> addSignatureAndLogByHash(
+        String hashValue,
+        String log,
+        WeIdPrivateKey weIdPrivateKey) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.addSignatureAndLogByHash(hashValue, log, weIdPrivateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> addLogByCustomKey(
+        String hashValueSupplement,
+        String customKey,
+        String log,
+        WeIdPrivateKey weIdPrivateKey) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.addLogByCustomKey(
+                hashValueSupplement,
+                customKey,
+                log,
+                weIdPrivateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> addSignatureAndLogByCustomKey(
+        String hashValueSupplement,
+        String customKey,
+        String log,
+        WeIdPrivateKey weIdPrivateKey) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.addSignatureAndLogByCustomKey(
+                hashValueSupplement,
+                customKey,
+                log,
+                weIdPrivateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> revoke(
+        Hashable object,
+        WeIdAuthentication weIdAuthentication) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.revoke(object, weIdAuthentication),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> unRevoke(
+        Hashable object,
+        WeIdAuthentication weIdAuthentication) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.unRevoke(object, weIdAuthentication),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> isRevoked(
+        EvidenceInfo evidenceInfo,
+        String weId) {
+        return AsyncExecutors.supply(() -> evidenceService.isRevoked(evidenceInfo, weId), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<EvidenceInfo>> getEvidence(String hashValue) {
+        return AsyncExecutors.supply(() -> evidenceService.getEvidence(hashValue), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<EvidenceInfo>> getEvidenceByCustomKey(String customKey) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.getEvidenceByCustomKey(customKey),
+            executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<ResponseData<HashString>> generateHash(T object) {
+        return AsyncExecutors.supply(() -> evidenceService.generateHash(object), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> verifySigner(
+        CredentialPojo credentialPojo,
+        EvidenceInfo evidenceInfo,
+        String weId) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.verifySigner(credentialPojo, evidenceInfo, weId),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> verifySigner(
+        CredentialPojo credentialPojo,
+        EvidenceInfo evidenceInfo,
+        String weId,
+        String publicKey) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.verifySigner(credentialPojo, evidenceInfo, weId, publicKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<ResponseData<Boolean>>>> verifySignerBatch(
+        List<CredentialPojo> credentialPojos) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.verifySignerBatch(credentialPojos),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<StageStatistic>>> verifySignerBatch(
+        Iterator<CredentialPojo> credentialPojos,
+        BiConsumer<CredentialPojo, ResponseData<Boolean>> consumer) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.verifySignerBatch(credentialPojos, consumer),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<ResponseData<String>>>> createEvidenceBatch(
+        List<Hashable> objects,
+        WeIdPrivateKey weIdPrivateKey) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.createEvidenceBatch(objects, weIdPrivateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<StageStatistic>>> createEvidenceBatch(
+        Iterator<Hashable> objects,
+        WeIdPrivateKey weIdPrivateKey,
+        BiConsumer<Hashable, ResponseData<String>> consumer) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.createEvidenceBatch(objects, weIdPrivateKey, consumer),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> createRawEvidenceWithSpecificSigner(
+        String hashValue,
+        String signature,
+        String log,
+        Long timestamp,
+        String extraKey,
+        String signer,
+        String privateKey) {
+        return AsyncExecutors.supply(
+            () -> evidenceService.createRawEvidenceWithSpecificSigner(
+                hashValue,
+                signature,
+                log,
+                timestamp,
+                extraKey,
+                signer,
+                privateKey),
+            executor);
+    }
+}
@@ -2,12 +2,11 @@
 
 package com.webank.weid.service.impl;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Files;
-
-
 import com.webank.weid.service.local.EvidenceServiceLocal;
 import com.webank.weid.service.local.WeIdServiceLocal;
+import com.webank.weid.suite.async.VirtualThreads;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
 import com.webank.weid.service.rpc.EvidenceService;
 import com.webank.weid.service.rpc.WeIdService;
 import com.webank.weid.blockchain.constant.ErrorCode;
@@ -16,16 +15,27 @@ import com.webank.weid.constant.WeIdConstant;
 import com.webank.weid.protocol.base.*;
 import com.webank.weid.protocol.inf.Hashable;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.protocol.response.RsvSignature;
+import com.webank.weid.suite.pipeline.StagePipeline;
+import com.webank.weid.suite.pipeline.StageStatistic;
 import com.webank.weid.util.*;
 import org.apache.commons.lang3.StringUtils;
+import org.fisco.bcos.sdk.crypto.keypair.CryptoKeyPair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service implementations for operations on Evidence.
@@ -36,7 +46,11 @@ public class EvidenceServiceImpl implements EvidenceService {
 
     private static final Logger logger = LoggerFactory.getLogger(EvidenceServiceImpl.class);
 
-    private WeIdService weIdService = new WeIdServiceImpl();
+    private WeIdService weIdService = InstrumentationManager.instrument(
+        WeIdService.class,
+        new WeIdServiceImpl(),
+        InvocationLayer.SERVICE,
+        "WeIdService");
 
     private ProcessingMode processingMode = ProcessingMode.IMMEDIATE;
 
@@ -44,6 +58,36 @@ public class EvidenceServiceImpl implements EvidenceService {
 
     private static com.webank.weid.blockchain.rpc.EvidenceService evidenceBlockchainService;
 
+    /**
+     * 批量验证的并发数, 即所有批量验证共享的执行器的大小, 首次批量验证时读取.
+     */
+    private static final String VERIFY_BATCH_CONCURRENCY = "evidence.verify.batch.concurrency";
+
+    private static final String DEFAULT_VERIFY_BATCH_CONCURRENCY = "8";
+
+    /**
+     * 每次批量验证同时处理的凭证个数上限.
+     */
+    private static final String VERIFY_BATCH_QUEUE_SIZE = "evidence.verify.batch.queueSize";
+
+    private static final String DEFAULT_VERIFY_BATCH_QUEUE_SIZE = "1024";
+
+    /**
+     * 批量创建存证时每次提交的存证条数.
+     */
+    private static final String CREATE_BATCH_SIZE = "evidence.create.batch.size";
+
+    private static final String DEFAULT_CREATE_BATCH_SIZE = "100";
+
+    /**
+     * 批量创建存证时流水线各阶段之间的队列容量.
+     */
+    private static final String CREATE_BATCH_QUEUE_SIZE = "evidence.create.batch.queueSize";
+
+    private static final String DEFAULT_CREATE_BATCH_QUEUE_SIZE = "1024";
+
+    private static volatile ExecutorService verifyExecutor;
+
     //private String groupId;
 
     public EvidenceServiceImpl() {
@@ -59,9 +103,17 @@ public class EvidenceServiceImpl implements EvidenceService {
             String type = PropertyUtils.getProperty("deploy.style");
             if (type.equals("blockchain")) {
                 if(!groupId.equals(StringUtils.EMPTY)) {
-                    return new com.webank.weid.blockchain.service.impl.EvidenceServiceImpl(groupId);
+                    return InstrumentationManager.instrument(
+                        com.webank.weid.blockchain.rpc.EvidenceService.class,
+                        new com.webank.weid.blockchain.service.impl.EvidenceServiceImpl(groupId),
+                        InvocationLayer.BLOCKCHAIN,
+                        "EvidenceService");
                 } else {
-                    return new com.webank.weid.blockchain.service.impl.EvidenceServiceImpl();
+                    return InstrumentationManager.instrument(
+                        com.webank.weid.blockchain.rpc.EvidenceService.class,
+                        new com.webank.weid.blockchain.service.impl.EvidenceServiceImpl(),
+                        InvocationLayer.BLOCKCHAIN,
+                        "EvidenceService");
                 }
             } else {
                 // default database
@@ -188,6 +240,238 @@ public class EvidenceServiceImpl implements EvidenceService {
             "empty log");
     }
 
+    /**
+     * Create evidences of a batch of objects with the same signer. The objects are hashed and
+     * signed in parallel and the evidences are submitted in chunks.
+     *
+     * @param objects the given Java objects
+     * @param weIdPrivateKey the signer WeID's private key
+     * @return the evidence hash of each object, in the order of objects
+     */
+    @Override
+    public ResponseData<List<ResponseData<String>>> createEvidenceBatch(
+        List<Hashable> objects,
+        WeIdPrivateKey weIdPrivateKey
+    ) {
+        if (objects == null) {
+            return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
+        }
+        if (!WeIdUtils.isPrivateKeyValid(weIdPrivateKey)) {
+            return new ResponseData<>(null, ErrorCode.WEID_PRIVATEKEY_INVALID);
+        }
+        List<ResponseData<String>> results = new ArrayList<>(objects.size());
+        List<CreateContext> contexts = new ArrayList<>(objects.size());
+        for (int i = 0; i < objects.size(); i++) {
+            results.add(null);
+            contexts.add(new CreateContext(i, objects.get(i)));
+        }
+        try {
+            runCreatePipeline(contexts.iterator(), weIdPrivateKey.getPrivateKey(),
+                context -> results.set(context.index, context.result));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("create evidence batch interrupted.", e);
+            return new ResponseData<>(null, ErrorCode.CREDENTIAL_EVIDENCE_BASE_ERROR);
+        }
+        return new ResponseData<>(results, ErrorCode.SUCCESS);
+    }
+
+    /**
+     * Create evidences of a stream of objects with the same signer, with bounded memory.
+     *
+     * @param objects the given Java objects
+     * @param weIdPrivateKey the signer WeID's private key
+     * @param consumer receives each object with its evidence hash
+     * @return the statistic of each pipeline stage
+     */
+    @Override
+    public ResponseData<List<StageStatistic>> createEvidenceBatch(
+        Iterator<Hashable> objects,
+        WeIdPrivateKey weIdPrivateKey,
+        BiConsumer<Hashable, ResponseData<String>> consumer
+    ) {
+        if (objects == null || consumer == null) {
+            return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
+        }
+        if (!WeIdUtils.isPrivateKeyValid(weIdPrivateKey)) {
+            return new ResponseData<>(null, ErrorCode.WEID_PRIVATEKEY_INVALID);
+        }
+        Iterator<CreateContext> contexts = new Iterator<CreateContext>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return objects.hasNext();
+            }
+
+            @Override
+            public CreateContext next() {
+                return new CreateContext(index++, objects.next());
+            }
+        };
+        try {
+            List<StageStatistic> statistics = runCreatePipeline(contexts,
+                weIdPrivateKey.getPrivateKey(),
+                context -> consumer.accept(context.object, context.result));
+            return new ResponseData<>(statistics, ErrorCode.SUCCESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("create evidence batch interrupted.", e);
+            return new ResponseData<>(null, ErrorCode.CREDENTIAL_EVIDENCE_BASE_ERROR);
+        }
+    }
+
+    /**
+     * 批量创建存证流水线: 并行计算hash, 用同一个私钥并行签名, 由调用线程按批提交.
+     */
+    private List<StageStatistic> runCreatePipeline(
+        Iterator<CreateContext> contexts,
+        String privateKey,
+        Consumer<CreateContext> sink
+    ) throws InterruptedException {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int batchSize = Math.max(1, Integer.parseInt(
+            PropertyUtils.getProperty(CREATE_BATCH_SIZE, DEFAULT_CREATE_BATCH_SIZE)));
+        int queueSize = Integer.parseInt(
+            PropertyUtils.getProperty(CREATE_BATCH_QUEUE_SIZE, DEFAULT_CREATE_BATCH_QUEUE_SIZE));
+        Function<String, RsvSignature> sign = createSigner(privateKey);
+        String signer = getBatchSigner(privateKey);
+        List<CreateContext> chunk = new ArrayList<>(batchSize);
+        List<StageStatistic> statistics =
+            new StagePipeline<CreateContext>("createEvidence", queueSize)
+                .stage("hash", cpus, this::createHashStage)
+                .stage("sign", cpus, context -> signStage(context, sign))
+                .run(contexts, context -> {
+                    if (context.result == null && context.signature == null) {
+                        context.result = new ResponseData<>(StringUtils.EMPTY,
+                            ErrorCode.CREDENTIAL_EVIDENCE_BASE_ERROR);
+                    }
+                    if (context.result != null) {
+                        sink.accept(context);
+                        return;
+                    }
+                    chunk.add(context);
+                    if (chunk.size() >= batchSize) {
+                        submitChunk(chunk, signer, privateKey, sink);
+                    }
+                });
+        submitChunk(chunk, signer, privateKey, sink);
+        return statistics;
+    }
+
+    private void createHashStage(CreateContext context) {
+        ResponseData<String> hashResp = getHashValue(context.object);
+        if (StringUtils.isEmpty(hashResp.getResult())) {
+            context.result = new ResponseData<>(StringUtils.EMPTY, hashResp.getErrorCode(),
+                hashResp.getErrorMessage());
+            return;
+        }
+        context.hash = hashResp.getResult();
+    }
+
+    /**
+     * 链上模式由区块链SDK用私钥签名, 不需要密钥对; 本地模式只派生一次密钥对(经KeyPairCache缓存).
+     */
+    private static Function<String, RsvSignature> createSigner(String privateKey) {
+        if ("blockchain".equals(PropertyUtils.getProperty("deploy.style"))) {
+            return hash -> DataToolUtils.signToRsvSignature(hash, privateKey);
+        }
+        CryptoKeyPair cryptoKeyPair = DataToolUtils.createKeyPair(privateKey);
+        return hash -> DataToolUtils.signToRsvSignature(hash, cryptoKeyPair);
+    }
+
+    private void signStage(CreateContext context, Function<String, RsvSignature> sign) {
+        if (context.result != null) {
+            return;
+        }
+        context.signature = DataToolUtils.SigBase64Serialization(sign.apply(context.hash));
+        context.timestamp = DateUtils.getCurrentTimeStamp();
+    }
+
+    /**
+     * 提交一批存证, 提交后把每条的结果交给sink并清空这一批.
+     */
+    private void submitChunk(
+        List<CreateContext> chunk,
+        String signer,
+        String privateKey,
+        Consumer<CreateContext> sink
+    ) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            if (processingMode == ProcessingMode.PERIODIC_AND_BATCH) {
+                // 离线批量模式下每条存证单独写入交易文件, 沿用签名阶段的签名和时间戳
+                for (CreateContext context : chunk) {
+                    context.result = writeOfflineEvidence(context.hash, context.signature,
+                        "empty log", context.timestamp, privateKey);
+                }
+            } else {
+                submitToChain(chunk, signer, privateKey);
+            }
+        } catch (RuntimeException e) {
+            logger.error("create evidence batch failed due to system error. ", e);
+        }
+        for (CreateContext context : chunk) {
+            if (context.result == null) {
+                context.result = new ResponseData<>(StringUtils.EMPTY,
+                    ErrorCode.CREDENTIAL_EVIDENCE_BASE_ERROR);
+            }
+            sink.accept(context);
+        }
+        chunk.clear();
+    }
+
+    private void submitToChain(List<CreateContext> chunk, String signer, String privateKey) {
+        List<String> hashValues = new ArrayList<>(chunk.size());
+        List<String> signatures = new ArrayList<>(chunk.size());
+        List<String> logs = new ArrayList<>(chunk.size());
+        List<Long> timestamps = new ArrayList<>(chunk.size());
+        List<String> signers = new ArrayList<>(chunk.size());
+        for (CreateContext context : chunk) {
+            hashValues.add(context.hash);
+            signatures.add(context.signature);
+            logs.add("empty log");
+            timestamps.add(context.timestamp);
+            signers.add(signer);
+        }
+        com.webank.weid.blockchain.protocol.response.ResponseData<List<Boolean>> resp =
+            evidenceBlockchainService.batchCreateEvidence(
+                hashValues,
+                signatures,
+                logs,
+                timestamps,
+                signers,
+                privateKey
+            );
+        List<Boolean> created = resp.getResult();
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateContext context = chunk.get(i);
+            if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                context.result = new ResponseData<>(StringUtils.EMPTY, resp.getErrorCode(),
+                    resp.getErrorMessage());
+            } else if (created != null && created.size() == chunk.size()
+                && Boolean.TRUE.equals(created.get(i))) {
+                context.result = new ResponseData<>(context.hash, ErrorCode.SUCCESS);
+            } else {
+                context.result = new ResponseData<>(StringUtils.EMPTY,
+                    ErrorCode.CREDENTIAL_EVIDENCE_BASE_ERROR);
+            }
+        }
+    }
+
+    /**
+     * 批量上链时记录的签名者, 链上合约记录账户地址, 本地存储记录WeID.
+     */
+    private static String getBatchSigner(String privateKey) {
+        String weId = WeIdUtils.getWeIdFromPrivateKey(privateKey);
+        if ("blockchain".equals(PropertyUtils.getProperty("deploy.style"))) {
+            return WeIdUtils.convertWeIdToAddress(weId);
+        }
+        return weId;
+    }
+
     /**
      * Create a new evidence to blockchain and return the hash value, with appending log. This will
      * fail if evidence already exists.
@@ -451,14 +735,13 @@ public class EvidenceServiceImpl implements EvidenceService {
             return new ResponseData<>(new HashString(hashResp.getResult()), ErrorCode.SUCCESS);
         }
         if (object instanceof File) {
-            // This will convert all types of file into String stream
-            String rawData = convertFileToString((File) object);
-            if (StringUtils.isEmpty(rawData)) {
-                logger.error("Failed to convert file into String: {}", ((File) object).getName());
+            // The file is streamed into the digest, see evidence.file.hash.mode
+            String fileHash = FileHashUtils.hash((File) object);
+            if (StringUtils.isEmpty(fileHash)) {
+                logger.error("Failed to hash file: {}", ((File) object).getName());
                 return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
             }
-            return new ResponseData<>(new HashString(DataToolUtils.hash(rawData)),
-                ErrorCode.SUCCESS);
+            return new ResponseData<>(new HashString(fileHash), ErrorCode.SUCCESS);
         }
         if (object instanceof String) {
             if (StringUtils.isEmpty((String) object)) {
@@ -472,15 +755,6 @@ public class EvidenceServiceImpl implements EvidenceService {
         return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
     }
 
-    private String convertFileToString(File file) {
-        try {
-            return Files.asByteSource(file).asCharSource(Charsets.UTF_8).read();
-        } catch (Exception e) {
-            logger.error("Failed to load file as String.", e);
-            return StringUtils.EMPTY;
-        }
-    }
-
     /**
      * Obtain the hash value of a given object - supports Credential, Wrapper and Pojo, and also
      * plain hash value (no extra hashing required).
@@ -521,30 +795,7 @@ public class EvidenceServiceImpl implements EvidenceService {
             );
             Long timestamp = DateUtils.getCurrentTimeStamp();
             if (processingMode == ProcessingMode.PERIODIC_AND_BATCH) {
-                String[] args = new String[6];
-                args[0] = hashValue;
-                args[1] = signature;
-                args[2] = extra;
-                args[3] = String.valueOf(timestamp);
-                args[4] = privateKey;
-                args[5] = String.valueOf(evidenceBlockchainService.getGroupId());
-                String rawData = new StringBuffer()
-                    .append(hashValue)
-                    .append(signature)
-                    .append(extra)
-                    .append(timestamp)
-                    .append(WeIdUtils.getWeIdFromPrivateKey(privateKey))
-                    .append(evidenceBlockchainService.getGroupId()).toString();
-                //替换国密
-                String hash = DataToolUtils.hash(rawData);
-                String requestId = new BigInteger(hash.substring(2), 16).toString();
-                boolean isSuccess = BatchTransactionUtils
-                    .writeTransaction(requestId, "createEvidence", args, StringUtils.EMPTY);
-                if (isSuccess) {
-                    return new ResponseData<>(hashValue, ErrorCode.SUCCESS);
-                } else {
-                    return new ResponseData<>(hashValue, ErrorCode.OFFLINE_EVIDENCE_SAVE_FAILED);
-                }
+                return writeOfflineEvidence(hashValue, signature, extra, timestamp, privateKey);
             }
             com.webank.weid.blockchain.protocol.response.ResponseData<String> resp = evidenceBlockchainService.createEvidence(
                     hashValue,
@@ -564,6 +815,37 @@ public class EvidenceServiceImpl implements EvidenceService {
         }
     }
 
+    /**
+     * 离线批量模式下把一条已签名的存证写入交易文件, 由定时任务统一上链.
+     */
+    private ResponseData<String> writeOfflineEvidence(String hashValue, String signature,
+        String extra, Long timestamp, String privateKey) {
+        String[] args = new String[6];
+        args[0] = hashValue;
+        args[1] = signature;
+        args[2] = extra;
+        args[3] = String.valueOf(timestamp);
+        args[4] = privateKey;
+        args[5] = String.valueOf(evidenceBlockchainService.getGroupId());
+        String rawData = new StringBuffer()
+            .append(hashValue)
+            .append(signature)
+            .append(extra)
+            .append(timestamp)
+            .append(WeIdUtils.getWeIdFromPrivateKey(privateKey))
+            .append(evidenceBlockchainService.getGroupId()).toString();
+        //替换国密
+        String hash = DataToolUtils.hash(rawData);
+        String requestId = new BigInteger(hash.substring(2), 16).toString();
+        boolean isSuccess = BatchTransactionUtils
+            .writeTransaction(requestId, "createEvidence", args, StringUtils.EMPTY);
+        if (isSuccess) {
+            return new ResponseData<>(hashValue, ErrorCode.SUCCESS);
+        } else {
+            return new ResponseData<>(hashValue, ErrorCode.OFFLINE_EVIDENCE_SAVE_FAILED);
+        }
+    }
+
     /**
      * Get the evidence from blockchain.
      *
@@ -619,6 +901,59 @@ public class EvidenceServiceImpl implements EvidenceService {
         EvidenceInfo evidenceInfo,
         String weId,
         String publicKey) {
+        ResponseData<Boolean> checkResp =
+            checkEvidenceOfCredential(credentialPojo, evidenceInfo, weId, null);
+        if (!checkResp.getResult()) {
+            return checkResp;
+        }
+        String signature =
+            evidenceInfo.getSignInfo().get(WeIdUtils.convertWeIdToAddress(weId)).getSignature();
+        /*SignatureData signatureData =
+            DataToolUtils.simpleSignatureDeserialization(
+                DataToolUtils.base64Decode(signature.getBytes(StandardCharsets.UTF_8))
+            );*/
+
+        // Firstly, we check the secp256k1 style signature
+        if (StringUtils.isEmpty(publicKey)) {
+            ResponseData<Boolean> verifyResp = verifySignatureToSigner(
+                evidenceInfo.getCredentialHash(),
+                    weId,
+                signature);
+            return verifyResp;
+        } else {
+            try {
+                /*boolean result = DataToolUtils
+                    .verifySecp256k1Signature(evidenceInfo.getCredentialHash(), signature,
+                        new BigInteger(publicKey));*/
+                boolean result = DataToolUtils.verifySignature(evidenceInfo.getCredentialHash(), signature,
+                        new BigInteger(publicKey));
+
+                if (!result) {
+                    logger.error("Public key does not match signature.");
+                    return new ResponseData<>(false, ErrorCode.CREDENTIAL_SIGNATURE_BROKEN);
+                }
+                return new ResponseData<>(true, ErrorCode.SUCCESS);
+            } catch (Exception e) {
+                logger.error("Passed-in signature illegal");
+                return new ResponseData<>(false, ErrorCode.WEID_PUBLICKEY_INVALID);
+            }
+        }
+    }
+
+    /**
+     * Check the evidence against the credential and the signer, except the signature itself.
+     *
+     * @param credentialPojo the credentialPojo
+     * @param evidenceInfo the evidence info fetched from chain
+     * @param weId the signer WeID
+     * @param credentialHash the hash of credentialPojo if already computed, or null
+     * @return true if all checks passed, false otherwise
+     */
+    private ResponseData<Boolean> checkEvidenceOfCredential(
+        CredentialPojo credentialPojo,
+        EvidenceInfo evidenceInfo,
+        String weId,
+        String credentialHash) {
         if (evidenceInfo == null || evidenceInfo.getSigners().isEmpty()) {
             return new ResponseData<>(false, ErrorCode.ILLEGAL_INPUT);
         }
@@ -629,9 +964,12 @@ public class EvidenceServiceImpl implements EvidenceService {
             logger.error("This Evidence does not contain the provided WeID: {}", weId);
             return new ResponseData<>(false, ErrorCode.WEID_DOES_NOT_EXIST);
         }
+        if (credentialHash == null) {
+            credentialHash = credentialPojo.getHash();
+        }
 
         // 1st: verify hash (accept both thumbprint hash or credential.getHash())
-        if (!evidenceInfo.getCredentialHash().equalsIgnoreCase(credentialPojo.getHash())) {
+        if (!evidenceInfo.getCredentialHash().equalsIgnoreCase(credentialHash)) {
             if (CredentialPojoUtils.isLiteCredential(credentialPojo)) {
                 if (!evidenceInfo.getCredentialHash().equalsIgnoreCase(DataToolUtils.hash(
                     CredentialPojoUtils.getLiteCredentialThumbprintWithoutSig(credentialPojo)))) {
@@ -664,40 +1002,10 @@ public class EvidenceServiceImpl implements EvidenceService {
 
         // 3rd: verify signature w.r.t. weid (must exist and must be the signer (from pubkey))
         EvidenceSignInfo signInfo = evidenceInfo.getSignInfo().get(WeIdUtils.convertWeIdToAddress(weId));
-        String signature = signInfo.getSignature();
-        if (!DataToolUtils.isValidBase64String(signature)) {
+        if (signInfo == null || !DataToolUtils.isValidBase64String(signInfo.getSignature())) {
             return new ResponseData<>(false, ErrorCode.CREDENTIAL_EVIDENCE_SIGNATURE_BROKEN);
         }
-        /*SignatureData signatureData =
-            DataToolUtils.simpleSignatureDeserialization(
-                DataToolUtils.base64Decode(signature.getBytes(StandardCharsets.UTF_8))
-            );*/
-
-        // Firstly, we check the secp256k1 style signature
-        if (StringUtils.isEmpty(publicKey)) {
-            ResponseData<Boolean> verifyResp = verifySignatureToSigner(
-                evidenceInfo.getCredentialHash(),
-                    weId,
-                signature);
-            return verifyResp;
-        } else {
-            try {
-                /*boolean result = DataToolUtils
-                    .verifySecp256k1Signature(evidenceInfo.getCredentialHash(), signature,
-                        new BigInteger(publicKey));*/
-                boolean result = DataToolUtils.verifySignature(evidenceInfo.getCredentialHash(), signature,
-                        new BigInteger(publicKey));
-
-                if (!result) {
-                    logger.error("Public key does not match signature.");
-                    return new ResponseData<>(false, ErrorCode.CREDENTIAL_SIGNATURE_BROKEN);
-                }
-                return new ResponseData<>(true, ErrorCode.SUCCESS);
-            } catch (Exception e) {
-                logger.error("Passed-in signature illegal");
-                return new ResponseData<>(false, ErrorCode.WEID_PUBLICKEY_INVALID);
-            }
-        }
+        return new ResponseData<>(true, ErrorCode.SUCCESS);
     }
 
     private ResponseData<Boolean> verifySignatureToSigner(
@@ -714,7 +1022,19 @@ public class EvidenceServiceImpl implements EvidenceService {
                     signerWeId, innerResponseData.getErrorMessage());
                 return new ResponseData<>(false, ErrorCode.CREDENTIAL_WEID_DOCUMENT_ILLEGAL);
             }
-            WeIdDocument weIdDocument = innerResponseData.getResult();
+            return verifySignatureToDocument(rawData, innerResponseData.getResult(), secp256k1sig);
+        } catch (Exception e) {
+            logger.error("error occurred during verifying signatures from chain: ", e);
+            return new ResponseData<>(false, ErrorCode.CREDENTIAL_EVIDENCE_BASE_ERROR);
+        }
+    }
+
+    private ResponseData<Boolean> verifySignatureToDocument(
+        String rawData,
+        WeIdDocument weIdDocument,
+        String secp256k1sig
+    ) {
+        try {
             /*ErrorCode errorCode = DataToolUtils
                 .verifySecp256k1SignatureFromWeId(rawData, secp256k1sig, weIdDocument, null);*/
             ErrorCode errorCode = DataToolUtils
@@ -729,6 +1049,238 @@ public class EvidenceServiceImpl implements EvidenceService {
         }
     }
 
+    /**
+     * Validate a batch of credentials against their evidences, the signer is the issuer.
+     *
+     * @param credentialPojos the credentialPojos
+     * @return the verify result of each credential, in the order of credentialPojos
+     */
+    @Override
+    public ResponseData<List<ResponseData<Boolean>>> verifySignerBatch(
+        List<CredentialPojo> credentialPojos
+    ) {
+        if (credentialPojos == null) {
+            return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
+        }
+        List<ResponseData<Boolean>> results = new ArrayList<>(credentialPojos.size());
+        List<VerifyContext> contexts = new ArrayList<>(credentialPojos.size());
+        for (int i = 0; i < credentialPojos.size(); i++) {
+            results.add(null);
+            contexts.add(new VerifyContext(i, credentialPojos.get(i)));
+        }
+        try {
+            runVerifyPipeline(contexts.iterator(), context -> results.set(context.index,
+                context.result));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("verify signer batch interrupted.", e);
+            return new ResponseData<>(null, ErrorCode.CREDENTIAL_EVIDENCE_BASE_ERROR);
+        }
+        return new ResponseData<>(results, ErrorCode.SUCCESS);
+    }
+
+    /**
+     * Validate a stream of credentials against their evidences, the signer is the issuer.
+     *
+     * @param credentialPojos the credentialPojos
+     * @param consumer receives each credentialPojo with its verify result
+     * @return the statistic of each pipeline stage
+     */
+    @Override
+    public ResponseData<List<StageStatistic>> verifySignerBatch(
+        Iterator<CredentialPojo> credentialPojos,
+        BiConsumer<CredentialPojo, ResponseData<Boolean>> consumer
+    ) {
+        if (credentialPojos == null || consumer == null) {
+            return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
+        }
+        Iterator<VerifyContext> contexts = new Iterator<VerifyContext>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return credentialPojos.hasNext();
+            }
+
+            @Override
+            public VerifyContext next() {
+                return new VerifyContext(index++, credentialPojos.next());
+            }
+        };
+        try {
+            List<StageStatistic> statistics = runVerifyPipeline(
+                contexts, context -> consumer.accept(context.credentialPojo, context.result));
+            return new ResponseData<>(statistics, ErrorCode.SUCCESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("verify signer batch interrupted.", e);
+            return new ResponseData<>(null, ErrorCode.CREDENTIAL_EVIDENCE_BASE_ERROR);
+        }
+    }
+
+    /**
+     * 批量验证流水线: 计算凭证hash, 查询存证, 按签发者去重解析WeID文档, 最后验签.
+     * 各凭证在共享的有界执行器上依次经过各阶段, 不为每次调用创建线程.
+     */
+    private List<StageStatistic> runVerifyPipeline(
+        Iterator<VerifyContext> contexts,
+        Consumer<VerifyContext> sink
+    ) throws InterruptedException {
+        ExecutorService executor = getVerifyExecutor();
+        int concurrency = verifyConcurrency();
+        int queueSize = Integer.parseInt(
+            PropertyUtils.getProperty(VERIFY_BATCH_QUEUE_SIZE, DEFAULT_VERIFY_BATCH_QUEUE_SIZE));
+        Map<String, CompletableFuture<ResponseData<WeIdDocument>>> documents =
+            new ConcurrentHashMap<>();
+        return new StagePipeline<VerifyContext>("verifySigner", queueSize)
+            .stage("hash", concurrency, this::hashStage)
+            .stage("evidence", concurrency, this::evidenceStage)
+            .stage("document", concurrency, context -> documentStage(context, documents))
+            .stage("verify", concurrency, this::verifyStage)
+            .run(contexts, context -> {
+                if (context.result == null) {
+                    context.result =
+                        new ResponseData<>(false, ErrorCode.CREDENTIAL_EVIDENCE_BASE_ERROR);
+                }
+                sink.accept(context);
+            }, executor);
+    }
+
+    private static int verifyConcurrency() {
+        return Math.max(1, Integer.parseInt(
+            PropertyUtils.getProperty(VERIFY_BATCH_CONCURRENCY, DEFAULT_VERIFY_BATCH_CONCURRENCY)));
+    }
+
+    private static ExecutorService getVerifyExecutor() {
+        if (verifyExecutor == null) {
+            synchronized (EvidenceServiceImpl.class) {
+                if (verifyExecutor == null) {
+                    verifyExecutor = VirtualThreads.newTaskExecutor(
+                        "weid-evidence-verify", verifyConcurrency());
+                }
+            }
+        }
+        return verifyExecutor;
+    }
+
+    private void hashStage(VerifyContext context) {
+        if (context.credentialPojo == null) {
+            context.result = new ResponseData<>(false, ErrorCode.ILLEGAL_INPUT);
+            return;
+        }
+        context.hash = context.credentialPojo.getHash();
+    }
+
+    private void evidenceStage(VerifyContext context) {
+        if (context.result != null) {
+            return;
+        }
+        ResponseData<EvidenceInfo> evidenceResp = getEvidence(context.hash);
+        if (evidenceResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+            context.result = new ResponseData<>(false, evidenceResp.getErrorCode(),
+                evidenceResp.getErrorMessage());
+            return;
+        }
+        context.evidenceInfo = evidenceResp.getResult();
+        ResponseData<Boolean> checkResp = checkEvidenceOfCredential(context.credentialPojo,
+            context.evidenceInfo, context.credentialPojo.getIssuer(), context.hash);
+        if (!checkResp.getResult()) {
+            context.result = checkResp;
+        }
+    }
+
+    private void documentStage(
+        VerifyContext context,
+        Map<String, CompletableFuture<ResponseData<WeIdDocument>>> documents
+    ) {
+        if (context.result != null) {
+            return;
+        }
+        String signer = context.credentialPojo.getIssuer();
+        CompletableFuture<ResponseData<WeIdDocument>> document = documents.get(signer);
+        if (document == null) {
+            CompletableFuture<ResponseData<WeIdDocument>> created = new CompletableFuture<>();
+            document = documents.putIfAbsent(signer, created);
+            if (document == null) {
+                document = created;
+                try {
+                    created.complete(weIdService.getWeIdDocument(signer));
+                } catch (RuntimeException e) {
+                    logger.error("Error occurred when fetching WeIdentity DID document for: {}",
+                        signer, e);
+                    created.complete(
+                        new ResponseData<>(null, ErrorCode.CREDENTIAL_WEID_DOCUMENT_ILLEGAL));
+                }
+            }
+        }
+        ResponseData<WeIdDocument> documentResp = document.join();
+        if (documentResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+            logger.error(
+                "Error occurred when fetching WeIdentity DID document for: {}, msg: {}",
+                signer, documentResp.getErrorMessage());
+            context.result = new ResponseData<>(false, ErrorCode.CREDENTIAL_WEID_DOCUMENT_ILLEGAL);
+            return;
+        }
+        context.weIdDocument = documentResp.getResult();
+    }
+
+    private void verifyStage(VerifyContext context) {
+        if (context.result != null) {
+            return;
+        }
+        String signature = context.evidenceInfo.getSignInfo()
+            .get(WeIdUtils.convertWeIdToAddress(context.credentialPojo.getIssuer()))
+            .getSignature();
+        context.result = verifySignatureToDocument(
+            context.evidenceInfo.getCredentialHash(), context.weIdDocument, signature);
+    }
+
+    /**
+     * 批量验证时在流水线各阶段之间传递的上下文.
+     */
+    private static class VerifyContext {
+
+        private final int index;
+
+        private final CredentialPojo credentialPojo;
+
+        private String hash;
+
+        private EvidenceInfo evidenceInfo;
+
+        private WeIdDocument weIdDocument;
+
+        private ResponseData<Boolean> result;
+
+        VerifyContext(int index, CredentialPojo credentialPojo) {
+            this.index = index;
+            this.credentialPojo = credentialPojo;
+        }
+    }
+
+    /**
+     * 批量创建存证时在流水线各阶段之间传递的上下文.
+     */
+    private static class CreateContext {
+
+        private final int index;
+
+        private final Hashable object;
+
+        private String hash;
+
+        private String signature;
+
+        private Long timestamp;
+
+        private ResponseData<String> result;
+
+        CreateContext(int index, Hashable object) {
+            this.index = index;
+            this.object = object;
+        }
+    }
+
     /* (non-Javadoc)
      * @see com.webank.weid.service.rpc.EvidenceService#createEvidenceWithLogAndCustomKey(
      * com.webank.weid.protocol.inf.Hashable, com.webank.weid.protocol.base.WeIdPrivateKey,
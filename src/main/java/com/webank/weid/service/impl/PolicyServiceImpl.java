@@ -4,9 +4,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.webank.weid.service.local.PolicyServiceLocal;
 import com.webank.weid.service.local.WeIdServiceLocal;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
 import com.webank.weid.util.PropertyUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
@@ -22,6 +25,8 @@ import com.webank.weid.protocol.request.CptMapArgs;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
 import com.webank.weid.protocol.response.RsvSignature;
 import com.webank.weid.service.rpc.PolicyService;
+import com.webank.weid.suite.cache.CacheManager;
+import com.webank.weid.suite.cache.CacheNode;
 import com.webank.weid.util.CredentialPojoUtils;
 import com.webank.weid.util.DataToolUtils;
 import com.webank.weid.util.WeIdUtils;
@@ -37,8 +42,73 @@ public class PolicyServiceImpl implements PolicyService {
     private static final Logger logger = LoggerFactory.getLogger(PolicyServiceImpl.class);
     private static com.webank.weid.blockchain.rpc.PolicyService policyBlockchainService;
 
+    /**
+     * 是否在启动时预加载全部Claim Policy的配置项.
+     */
+    private static final String POLICY_CACHE_PREWARM = "policy.cache.prewarm";
+
+    /**
+     * 预加载时每次分页查询的个数.
+     */
+    private static final int PREWARM_BATCH_SIZE = 100;
+
+    private static final long POLICY_CACHE_TIMEOUT = 1000 * 3600 * 24L;
+
+    /**
+     * CPT下的Claim Policy列表会被追加, 本进程写入时清除缓存, 其他节点的写入在缓存过期后可见.
+     */
+    private static final long CPT_POLICY_CACHE_TIMEOUT = 5000L;
+
+    //获取Claim Policy缓存节点, 缓存policy的字段描述
+    private static CacheNode<String> claimPolicyCacheNode =
+            CacheManager.registerCacheNode("SYS_CLAIM_POLICY", POLICY_CACHE_TIMEOUT);
+
+    //获取CPT下Claim Policy列表的缓存节点
+    private static CacheNode<List<Integer>> cptPolicyCacheNode =
+            CacheManager.registerCacheNode("SYS_CPT_POLICY", CPT_POLICY_CACHE_TIMEOUT);
+
+    //获取Presentation Policy缓存节点
+    private static CacheNode<com.webank.weid.blockchain.protocol.base.PresentationPolicyE>
+        presentationPolicyCacheNode =
+            CacheManager.registerCacheNode("SYS_PRESENTATION_POLICY", POLICY_CACHE_TIMEOUT);
+
+    private static final AtomicBoolean prewarmed = new AtomicBoolean(false);
+
     public PolicyServiceImpl(){
         policyBlockchainService = getPolicyService();
+        if (Boolean.parseBoolean(PropertyUtils.getProperty(POLICY_CACHE_PREWARM, "false"))
+            && prewarmed.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::prewarmClaimPolicies, "weid-policy-prewarm");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * 分页加载链上或本地的全部Claim Policy到缓存.
+     */
+    private void prewarmClaimPolicies() {
+        int startPos = 0;
+        int loaded = 0;
+        while (true) {
+            ResponseData<List<Integer>> policyIdsResp =
+                getAllClaimPolicies(startPos, PREWARM_BATCH_SIZE);
+            List<Integer> policyIds = policyIdsResp.getResult();
+            if (policyIdsResp.getErrorCode() != ErrorCode.SUCCESS.getCode()
+                || CollectionUtils.isEmpty(policyIds)) {
+                break;
+            }
+            for (Integer policyId : policyIds) {
+                if (getClaimPolicy(policyId).getErrorCode() == ErrorCode.SUCCESS.getCode()) {
+                    loaded++;
+                }
+            }
+            if (policyIds.size() < PREWARM_BATCH_SIZE) {
+                break;
+            }
+            startPos += PREWARM_BATCH_SIZE;
+        }
+        logger.info("[prewarmClaimPolicies] {} claim policies loaded into cache.", loaded);
     }
 
     private static com.webank.weid.blockchain.rpc.PolicyService getPolicyService() {
@@ -47,7 +117,11 @@ public class PolicyServiceImpl implements PolicyService {
         } else {
             String type = PropertyUtils.getProperty("deploy.style");
             if (type.equals("blockchain")) {
-                return new com.webank.weid.blockchain.service.impl.PolicyServiceImpl();
+                return InstrumentationManager.instrument(
+                    com.webank.weid.blockchain.rpc.PolicyService.class,
+                    new com.webank.weid.blockchain.service.impl.PolicyServiceImpl(),
+                    InvocationLayer.BLOCKCHAIN,
+                    "PolicyService");
             } else {
                 // default database
                 return new PolicyServiceLocal();
@@ -70,7 +144,9 @@ public class PolicyServiceImpl implements PolicyService {
             logger.error("Failed to register Claim Policy to blockchain.");
             return policyIdResp;
         }
-        // Append this claim policy id to the existing CPT's list
+        // Append this claim policy id to the existing CPT's list, read from the chain rather
+        // than the cache so that a stale list never overwrites policies added elsewhere
+        cptPolicyCacheNode.remove(String.valueOf(cptId));
         ResponseData<List<Integer>> policiesResp = getClaimPoliciesFromCpt(cptId);
         if (policiesResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
             logger.error("Failed to get this CPT's claim policy list.");
@@ -84,10 +160,12 @@ public class PolicyServiceImpl implements PolicyService {
         policies.add(policyIdResp.getResult());
         com.webank.weid.blockchain.protocol.response.ResponseData<Integer> innerResp =
                 policyBlockchainService.putPolicyIntoCpt(cptId, policies, weIdAuthentication.getWeIdPrivateKey().getPrivateKey());
+        cptPolicyCacheNode.remove(String.valueOf(cptId));
         if (innerResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
             return new ResponseData<>(-1,
                     ErrorCode.getTypeByErrorCode(innerResp.getErrorCode()));
         }
+        claimPolicyCacheNode.remove(String.valueOf(policyIdResp.getResult()));
         return new ResponseData<>(policyIdResp.getResult(), ErrorCode.SUCCESS);
         /*ResponseData<Integer> addResp = cptServiceEngine
             .putPolicyIntoCpt(cptId, policies, weIdAuthentication.getWeIdPrivateKey());
@@ -167,14 +245,22 @@ public class PolicyServiceImpl implements PolicyService {
         if (policyId == null || policyId < 0) {
             return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
         }
-        com.webank.weid.blockchain.protocol.response.ResponseData<String> policyResp =
-                policyBlockchainService.getClaimPolicy(policyId);
-        if (policyResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
-            return new ResponseData<>(null,
-                    ErrorCode.getTypeByErrorCode(policyResp.getErrorCode()));
+        String policyIdStr = String.valueOf(policyId);
+        String fieldsToBeDisclosed = claimPolicyCacheNode.get(policyIdStr);
+        if (fieldsToBeDisclosed == null) {
+            com.webank.weid.blockchain.protocol.response.ResponseData<String> policyResp =
+                    policyBlockchainService.getClaimPolicy(policyId);
+            if (policyResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null,
+                        ErrorCode.getTypeByErrorCode(policyResp.getErrorCode()));
+            }
+            fieldsToBeDisclosed = policyResp.getResult();
+            if (fieldsToBeDisclosed != null) {
+                claimPolicyCacheNode.put(policyIdStr, fieldsToBeDisclosed);
+            }
         }
         ClaimPolicy claimPolicy = new ClaimPolicy();
-        claimPolicy.setFieldsToBeDisclosed(policyResp.getResult());
+        claimPolicy.setFieldsToBeDisclosed(fieldsToBeDisclosed);
         return new ResponseData<>(claimPolicy, ErrorCode.SUCCESS);
         /*ResponseData<Cpt> policyResp = cptServiceEngine
             .queryCpt(policyId, WeIdConstant.POLICY_DATA_INDEX);
@@ -199,13 +285,23 @@ public class PolicyServiceImpl implements PolicyService {
         if (cptId == null || cptId < 0) {
             return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
         }
-        com.webank.weid.blockchain.protocol.response.ResponseData<List<Integer>> policyResp =
-                policyBlockchainService.getClaimPoliciesFromCpt(cptId);
-        if (policyResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
-            return new ResponseData<>(null,
-                    ErrorCode.getTypeByErrorCode(policyResp.getErrorCode()));
+        String cptIdStr = String.valueOf(cptId);
+        List<Integer> policies = cptPolicyCacheNode.get(cptIdStr);
+        if (policies == null) {
+            com.webank.weid.blockchain.protocol.response.ResponseData<List<Integer>> policyResp =
+                    policyBlockchainService.getClaimPoliciesFromCpt(cptId);
+            if (policyResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null,
+                        ErrorCode.getTypeByErrorCode(policyResp.getErrorCode()));
+            }
+            if (policyResp.getResult() == null) {
+                return new ResponseData<>(null, ErrorCode.SUCCESS);
+            }
+            policies = new ArrayList<>(policyResp.getResult());
+            cptPolicyCacheNode.put(cptIdStr, policies);
         }
-        return new ResponseData<>(policyResp.getResult(), ErrorCode.SUCCESS);
+        // 返回副本, 避免调用方修改缓存中的列表
+        return new ResponseData<>(new ArrayList<>(policies), ErrorCode.SUCCESS);
         //return cptServiceEngine.getPolicyFromCpt(cptId);
     }
 
@@ -229,6 +325,7 @@ public class PolicyServiceImpl implements PolicyService {
             return new ResponseData<>(-1,
                     ErrorCode.getTypeByErrorCode(policyResp.getErrorCode()));
         }
+        presentationPolicyCacheNode.remove(String.valueOf(policyResp.getResult()));
         return new ResponseData<>(policyResp.getResult(), ErrorCode.SUCCESS);
         //return cptServiceEngine.putPolicyIntoPresentation(claimPolicyIdList, weIdAuthentication.getWeIdPrivateKey());
     }
@@ -244,13 +341,24 @@ public class PolicyServiceImpl implements PolicyService {
         if (presentationPolicyId == null || presentationPolicyId < 0) {
             return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
         }
-        com.webank.weid.blockchain.protocol.response.ResponseData<com.webank.weid.blockchain.protocol.base.PresentationPolicyE> policyResp =
-                policyBlockchainService.getPresentationPolicy(presentationPolicyId);
-        if (policyResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
-            return new ResponseData<>(null,
-                    ErrorCode.getTypeByErrorCode(policyResp.getErrorCode()));
+        String policyIdStr = String.valueOf(presentationPolicyId);
+        com.webank.weid.blockchain.protocol.base.PresentationPolicyE policy =
+            presentationPolicyCacheNode.get(policyIdStr);
+        if (policy == null) {
+            com.webank.weid.blockchain.protocol.response.ResponseData<com.webank.weid.blockchain.protocol.base.PresentationPolicyE> policyResp =
+                    policyBlockchainService.getPresentationPolicy(presentationPolicyId);
+            if (policyResp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null,
+                        ErrorCode.getTypeByErrorCode(policyResp.getErrorCode()));
+            }
+            policy = policyResp.getResult();
+            if (policy == null) {
+                return new ResponseData<>(null, ErrorCode.CREDENTIAL_CLAIM_POLICY_NOT_EXIST);
+            }
+            presentationPolicyCacheNode.put(policyIdStr, policy);
         }
-        PresentationPolicyE presentationPolicyE = PresentationPolicyE.fromBlockChain(policyResp.getResult());
+        // 每次转换出新的对象, 避免调用方修改缓存内容
+        PresentationPolicyE presentationPolicyE = PresentationPolicyE.fromBlockChain(policy);
         return new ResponseData<>(presentationPolicyE, ErrorCode.SUCCESS);
         /*PresentationPolicyE presentationPolicy = cptServiceEngine
             .getPolicyFromPresentation(presentationPolicyId)
@@ -0,0 +1,202 @@
+
+
+package com.webank.weid.service.impl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.protocol.base.*;
+import com.webank.weid.protocol.request.AuthenticationArgs;
+import com.webank.weid.protocol.request.CreateWeIdArgs;
+import com.webank.weid.protocol.request.ServiceArgs;
+import com.webank.weid.protocol.response.CreateWeIdDataResult;
+import com.webank.weid.protocol.response.WeIdListResult;
+import com.webank.weid.service.local.WeIdServiceLocal;
+import com.webank.weid.service.rpc.WeIdService;
+import com.webank.weid.service.rpc.WeIdServiceAsync;
+import com.webank.weid.suite.async.AsyncExecutors;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
+import com.webank.weid.suite.persistence.AsyncPersistence;
+import com.webank.weid.util.PropertyUtils;
+import com.webank.weid.util.WeIdUtils;
+
+/**
+ * Executor backed implementation of {@link WeIdServiceAsync}.
+ * The blocking calls of {@link WeIdService} run on the bounded executor of
+ * {@link AsyncExecutors} unless another executor is given.
+ * When the default service stores documents in a driver that reads without blocking (redis),
+ * the document, metadata and existence queries do not hold an executor thread while waiting.
+ */
+public class WeIdServiceAsyncImpl implements WeIdServiceAsync {
+
+    private final WeIdService weIdService;
+
+    private final Executor executor;
+
+    private final AsyncPersistence dataDriver;
+
+    public WeIdServiceAsyncImpl() {
+        this(
+            InstrumentationManager.instrument(
+                WeIdService.class,
+                new WeIdServiceImpl(),
+                InvocationLayer.SERVICE,
+                "WeIdService"),
+            AsyncExecutors.getExecutor(),
+            getAsyncDataDriver());
+    }
+
+    /**
+     * Create the async service.
+     *
+     * @param weIdService the blocking service
+     * @param executor the executor to run the blocking calls
+     */
+    public WeIdServiceAsyncImpl(WeIdService weIdService, Executor executor) {
+        this(weIdService, executor, null);
+    }
+
+    private WeIdServiceAsyncImpl(
+        WeIdService weIdService,
+        Executor executor,
+        AsyncPersistence dataDriver) {
+        this.weIdService = weIdService;
+        this.executor = executor;
+        this.dataDriver = dataDriver;
+    }
+
+    private static AsyncPersistence getAsyncDataDriver() {
+        if ("blockchain".equals(PropertyUtils.getProperty("deploy.style"))) {
+            return null;
+        }
+        return WeIdServiceLocal.getAsyncDataDriver();
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<CreateWeIdDataResult>> createWeId() {
+        return AsyncExecutors.supply(() -> weIdService.createWeId(), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<String>> createWeIdByPublicKey(
+        WeIdPublicKey weIdPublicKey,
+        WeIdPrivateKey weIdPrivateKey) {
+        return AsyncExecutors.supply(
+            () -> weIdService.createWeIdByPublicKey(weIdPublicKey, weIdPrivateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<String>> createWeId(CreateWeIdArgs createWeIdArgs) {
+        return AsyncExecutors.supply(() -> weIdService.createWeId(createWeIdArgs), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<String>> getWeIdDocumentJson(String weId) {
+        if (dataDriver == null) {
+            return AsyncExecutors.supply(() -> weIdService.getWeIdDocumentJson(weId), executor);
+        }
+        return getWeIdDocument(weId).thenApply(WeIdServiceImpl::toWeIdDocumentJson);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<WeIdDocument>> getWeIdDocument(String weId) {
+        if (dataDriver == null) {
+            return AsyncExecutors.supply(() -> weIdService.getWeIdDocument(weId), executor);
+        }
+        if (!WeIdUtils.isWeIdValid(weId)) {
+            return CompletableFuture.completedFuture(
+                new ResponseData<>(null, ErrorCode.WEID_INVALID));
+        }
+        return dataDriver.getWeIdDocumentAsync(DataDriverConstant.LOCAL_WEID_DOCUMENT, weId)
+            .thenApply(WeIdServiceImpl::toWeIdDocument);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<WeIdDocumentMetadata>> getWeIdDocumentMetadata(
+        String weId) {
+        if (dataDriver == null) {
+            return AsyncExecutors.supply(
+                () -> weIdService.getWeIdDocumentMetadata(weId),
+                executor);
+        }
+        if (!WeIdUtils.isWeIdValid(weId)) {
+            return CompletableFuture.completedFuture(
+                new ResponseData<>(null, ErrorCode.WEID_INVALID));
+        }
+        return dataDriver.getMetaAsync(DataDriverConstant.LOCAL_WEID_DOCUMENT, weId)
+            .thenApply(WeIdServiceImpl::toWeIdDocumentMetadata);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> setService(String weId, ServiceArgs serviceArgs,
+        WeIdPrivateKey privateKey) {
+        return AsyncExecutors.supply(
+            () -> weIdService.setService(weId, serviceArgs, privateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> setAuthentication(
+        String weId,
+        AuthenticationArgs authenticationArgs,
+        WeIdPrivateKey privateKey) {
+        return AsyncExecutors.supply(
+            () -> weIdService.setAuthentication(weId, authenticationArgs, privateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> isWeIdExist(String weId) {
+        if (dataDriver == null) {
+            return AsyncExecutors.supply(() -> weIdService.isWeIdExist(weId), executor);
+        }
+        if (!WeIdUtils.isWeIdValid(weId)) {
+            return CompletableFuture.completedFuture(
+                new ResponseData<>(false, ErrorCode.WEID_INVALID));
+        }
+        // same as WeIdServiceLocal: the WeID exists when its metadata can be read
+        return dataDriver.getMetaAsync(DataDriverConstant.LOCAL_WEID_DOCUMENT, weId)
+            .thenApply(meta -> new ResponseData<>(meta.getResult() != null, ErrorCode.SUCCESS));
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> isDeactivated(String weId) {
+        return AsyncExecutors.supply(() -> weIdService.isDeactivated(weId), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Boolean>> revokeAuthentication(
+        String weId,
+        AuthenticationArgs authenticationArgs,
+        WeIdPrivateKey privateKey) {
+        return AsyncExecutors.supply(
+            () -> weIdService.revokeAuthentication(weId, authenticationArgs, privateKey),
+            executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<List<String>>> getWeIdList(
+        Integer first,
+        Integer last) {
+        return AsyncExecutors.supply(() -> weIdService.getWeIdList(first, last), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<Integer>> getWeIdCount() {
+        return AsyncExecutors.supply(() -> weIdService.getWeIdCount(), executor);
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<WeIdListResult>> getWeIdListByPubKeyList(
+        List<WeIdPublicKey> pubKeyList) {
+        return AsyncExecutors.supply(
+            () -> weIdService.getWeIdListByPubKeyList(pubKeyList),
+            executor);
+    }
+}
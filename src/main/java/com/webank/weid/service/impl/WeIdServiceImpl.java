@@ -13,7 +13,10 @@ import com.webank.weid.protocol.response.CreateWeIdDataResult;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
 import com.webank.weid.protocol.response.WeIdListResult;
 import com.webank.weid.service.local.WeIdServiceLocal;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
 import com.webank.weid.service.rpc.WeIdService;
+import com.webank.weid.suite.async.VirtualThreads;
 import com.webank.weid.suite.persistence.Persistence;
 import com.webank.weid.suite.persistence.PersistenceFactory;
 import com.webank.weid.suite.persistence.PersistenceType;
@@ -37,6 +40,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Service implementations for operations on WeIdentity DID.
@@ -52,6 +58,13 @@ public class WeIdServiceImpl implements WeIdService {
 
     private static com.webank.weid.blockchain.rpc.WeIdService weIdBlockchainService;
 
+    /**
+     * Max concurrent existence checks when resolving WeIDs in bulk on virtual threads.
+     */
+    private static final String RESOLVE_CONCURRENCY = "weid.resolve.concurrency";
+
+    private static volatile ExecutorService resolveExecutor;
+
     public WeIdServiceImpl(){
         weIdBlockchainService = getWeIdService();
     }
@@ -62,7 +75,11 @@ public class WeIdServiceImpl implements WeIdService {
         } else {
             String type = PropertyUtils.getProperty("deploy.style");
             if (type.equals("blockchain")) {
-                return new com.webank.weid.blockchain.service.impl.WeIdServiceImpl();
+                return InstrumentationManager.instrument(
+                    com.webank.weid.blockchain.rpc.WeIdService.class,
+                    new com.webank.weid.blockchain.service.impl.WeIdServiceImpl(),
+                    InvocationLayer.BLOCKCHAIN,
+                    "WeIdService");
             } else {
                 // default database
                 return new WeIdServiceLocal();
@@ -258,8 +275,18 @@ public class WeIdServiceImpl implements WeIdService {
             logger.error("Input weId : {} is invalid.", weId);
             return new ResponseData<>(null, ErrorCode.WEID_INVALID);
         }
-        com.webank.weid.blockchain.protocol.response.ResponseData<com.webank.weid.blockchain.protocol.base.WeIdDocument> innerResp = weIdBlockchainService.getWeIdDocument(weId);
         //ResponseData<WeIdDocument> weIdDocResp = weIdServiceEngine.getWeIdDocument(weId);
+        return toWeIdDocument(weIdBlockchainService.getWeIdDocument(weId));
+    }
+
+    /**
+     * Convert the document read from the blockchain or the local storage.
+     *
+     * @param innerResp the response of the underlying WeIdService
+     * @return the WeIdentity DID document
+     */
+    static ResponseData<WeIdDocument> toWeIdDocument(
+        ResponseData<com.webank.weid.blockchain.protocol.base.WeIdDocument> innerResp) {
         if(innerResp.getErrorCode() == ErrorCode.SUCCESS.getCode() && innerResp.getResult() != null){
             WeIdDocument weIdDocument = WeIdDocument.fromBlockChain(innerResp.getResult());
             return new ResponseData<>(weIdDocument, ErrorCode.SUCCESS);
@@ -282,7 +309,17 @@ public class WeIdServiceImpl implements WeIdService {
             return new ResponseData<>(null, ErrorCode.WEID_INVALID);
         }
         //ResponseData<WeIdDocumentMetadata> weIdDocResp = weIdServiceEngine.getWeIdDocumentMetadata(weId);
-        com.webank.weid.blockchain.protocol.response.ResponseData<com.webank.weid.blockchain.protocol.base.WeIdDocumentMetadata> innerResp = weIdBlockchainService.getWeIdDocumentMetadata(weId);
+        return toWeIdDocumentMetadata(weIdBlockchainService.getWeIdDocumentMetadata(weId));
+    }
+
+    /**
+     * Convert the metadata read from the blockchain or the local storage.
+     *
+     * @param innerResp the response of the underlying WeIdService
+     * @return the WeIdentity DID document metadata
+     */
+    static ResponseData<WeIdDocumentMetadata> toWeIdDocumentMetadata(
+        ResponseData<com.webank.weid.blockchain.protocol.base.WeIdDocumentMetadata> innerResp) {
         if(innerResp.getErrorCode() == ErrorCode.SUCCESS.getCode()){
             WeIdDocumentMetadata weIdDocResp = WeIdDocumentMetadata.fromBlockChain(innerResp.getResult());
             return new ResponseData<>(weIdDocResp, ErrorCode.SUCCESS);
@@ -299,8 +336,17 @@ public class WeIdServiceImpl implements WeIdService {
      */
     @Override
     public ResponseData<String> getWeIdDocumentJson(String weId) {
+        return toWeIdDocumentJson(this.getWeIdDocument(weId));
+    }
+
+    /**
+     * Write the document as the versioned json.
+     *
+     * @param responseData the response of getWeIdDocument
+     * @return the WeIdentity DID document json
+     */
+    static ResponseData<String> toWeIdDocumentJson(ResponseData<WeIdDocument> responseData) {
 
-        ResponseData<WeIdDocument> responseData = this.getWeIdDocument(weId);
         WeIdDocument result = responseData.getResult();
 
         if (result == null) {
@@ -800,13 +846,14 @@ public class WeIdServiceImpl implements WeIdService {
         weIdListResult.setWeIdList(new ArrayList<>());
         weIdListResult.setErrorCodeList(new ArrayList<>());
         ResponseData<WeIdListResult> responseData = new ResponseData<WeIdListResult>();
-        pubKeyList.forEach(weIdPublicKey -> {
-            String weId = WeIdUtils.convertPublicKeyToWeId(weIdPublicKey.getPublicKey());
+        List<Future<Boolean>> existence = resolveExistence(pubKeyList);
+        for (int i = 0; i < pubKeyList.size(); i++) {
+            String weId = WeIdUtils.convertPublicKeyToWeId(pubKeyList.get(i).getPublicKey());
             if (StringUtils.isBlank(weId)) {
                 weIdListResult.getWeIdList().add(null);
                 weIdListResult.getErrorCodeList().add(ErrorCode.WEID_PUBLICKEY_INVALID.getCode());
             } else {
-                if (this.isWeIdExist(weId).getResult()) {
+                if (isExist(existence, i, weId)) {
                     weIdListResult.getWeIdList().add(weId);
                     weIdListResult.getErrorCodeList().add(ErrorCode.SUCCESS.getCode());
                 } else {
@@ -815,8 +862,58 @@ public class WeIdServiceImpl implements WeIdService {
                          ErrorCode.WEID_PUBLIC_KEY_NOT_EXIST.getCode());
                 }
             }
-        });
+        }
         responseData.setResult(weIdListResult);
         return responseData;
     }
+
+    /**
+     * Check the existence of the WeIDs concurrently on virtual threads, at most
+     * weid.resolve.concurrency checks at a time.
+     *
+     * @param pubKeyList the public key list
+     * @return the futures in the order of pubKeyList, null if virtual threads are disabled
+     */
+    private List<Future<Boolean>> resolveExistence(List<WeIdPublicKey> pubKeyList) {
+        if (!VirtualThreads.isEnabled() || pubKeyList.size() < 2) {
+            return null;
+        }
+        ExecutorService executor = getResolveExecutor();
+        List<Future<Boolean>> futures = new ArrayList<>(pubKeyList.size());
+        for (WeIdPublicKey weIdPublicKey : pubKeyList) {
+            String weId = WeIdUtils.convertPublicKeyToWeId(weIdPublicKey.getPublicKey());
+            futures.add(StringUtils.isBlank(weId)
+                ? null : executor.submit(() -> this.isWeIdExist(weId).getResult()));
+        }
+        return futures;
+    }
+
+    private static ExecutorService getResolveExecutor() {
+        if (resolveExecutor == null) {
+            synchronized (WeIdServiceImpl.class) {
+                if (resolveExecutor == null) {
+                    int concurrency =
+                        Integer.parseInt(PropertyUtils.getProperty(RESOLVE_CONCURRENCY, "8"));
+                    resolveExecutor = VirtualThreads.newTaskExecutor("weid-resolve", concurrency);
+                }
+            }
+        }
+        return resolveExecutor;
+    }
+
+    private boolean isExist(List<Future<Boolean>> existence, int index, String weId) {
+        if (existence == null) {
+            return this.isWeIdExist(weId).getResult();
+        }
+        try {
+            return Boolean.TRUE.equals(existence.get(index).get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("[getWeIdListByPubKeyList] interrupted when resolve {}.", weId);
+            return false;
+        } catch (ExecutionException e) {
+            logger.error("[getWeIdListByPubKeyList] resolve {} failed.", weId, e.getCause());
+            return false;
+        }
+    }
 }
@@ -20,7 +20,6 @@ import com.webank.weid.service.local.role.RoleController;
 import com.webank.weid.suite.persistence.*;
 import com.webank.weid.suite.persistence.mysql.SqlDomain;
 import com.webank.weid.suite.persistence.mysql.SqlExecutor;
-import com.webank.weid.util.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,19 +35,12 @@ public class AuthorityIssuerServiceLocal implements AuthorityIssuerService {
     private static final Logger logger = LoggerFactory.getLogger(AuthorityIssuerServiceLocal.class);
 
     private static Persistence dataDriver;
-    private static PersistenceType persistenceType;
     WeIdServiceLocal weIdServiceLocal = new WeIdServiceLocal();
     RoleController roleController = new RoleController();
 
     private static Persistence getDataDriver() {
-        String type = PropertyUtils.getProperty("persistence_type");
-        if (type.equals("mysql")) {
-            persistenceType = PersistenceType.Mysql;
-        } else if (type.equals("redis")) {
-            persistenceType = PersistenceType.Redis;
-        }
         if (dataDriver == null) {
-            dataDriver = PersistenceFactory.build(persistenceType);
+            dataDriver = PersistenceFactory.build();
         }
         return dataDriver;
     }
@@ -215,13 +207,40 @@ public class AuthorityIssuerServiceLocal implements AuthorityIssuerService {
     @Override
     public ResponseData<AuthorityIssuer> queryAuthorityIssuerInfo(String weId) {
         ResponseData<AuthorityIssuer> resultData = new ResponseData<AuthorityIssuer>();
-        AuthorityIssuer result = new AuthorityIssuer();
         AuthorityIssuerInfo authorityIssuerInfo = getDataDriver().getAuthorityIssuerByWeId(DataDriverConstant.LOCAL_AUTHORITY_ISSUER, weId).getResult();
         if(authorityIssuerInfo == null){
             logger.error("[queryAuthorityIssuerInfo] Authority Issuer not exist");
             return new ResponseData<>(null, ErrorCode.AUTHORITY_ISSUER_CONTRACT_ERROR_NOT_EXISTS);
         }
+        AuthorityIssuer result = toAuthorityIssuer(authorityIssuerInfo);
         result.setWeId(weId);
+        resultData.setResult(result);
+        return resultData;
+    }
+
+    /**
+     * Query the authority issuer information of several weIds with one storage request.
+     *
+     * @param weIds the WeIdentity DIDs
+     * @return the AuthorityIssuer list in the order of weIds, the ones not exist are skipped
+     */
+    public ResponseData<List<AuthorityIssuer>> queryAuthorityIssuerInfoList(List<String> weIds) {
+        ResponseData<List<AuthorityIssuerInfo>> resp = getDataDriver()
+            .getAuthorityIssuersByWeIds(DataDriverConstant.LOCAL_AUTHORITY_ISSUER, weIds);
+        if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+            logger.error("[queryAuthorityIssuerInfoList] query authority issuers from db failed.");
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(resp.getErrorCode()));
+        }
+        List<AuthorityIssuer> result = new ArrayList<>(resp.getResult().size());
+        for (AuthorityIssuerInfo authorityIssuerInfo : resp.getResult()) {
+            result.add(toAuthorityIssuer(authorityIssuerInfo));
+        }
+        return new ResponseData<>(result, ErrorCode.SUCCESS);
+    }
+
+    private static AuthorityIssuer toAuthorityIssuer(AuthorityIssuerInfo authorityIssuerInfo) {
+        AuthorityIssuer result = new AuthorityIssuer();
+        result.setWeId(authorityIssuerInfo.getWeid());
         result.setName(authorityIssuerInfo.getName());
         result.setAccValue(authorityIssuerInfo.getAcc_value());
         result.setCreated(authorityIssuerInfo.getCreated().getTime());
@@ -237,8 +256,7 @@ public class AuthorityIssuerServiceLocal implements AuthorityIssuerService {
             }
             result.setExtraInt(extraInt);
         }
-        resultData.setResult(result);
-        return resultData;
+        return result;
     }
 
     /**
@@ -446,7 +464,7 @@ public class AuthorityIssuerServiceLocal implements AuthorityIssuerService {
             Integer num
     ) {
         SpecificTypeValue specificTypeValue = getDataDriver().getSpecificType(DataDriverConstant.LOCAL_SPECIFIC_ISSUER, issuerType).getResult();
-        if(specificTypeValue == null || specificTypeValue.getFellow().equals(StringUtils.EMPTY)){
+        if(specificTypeValue == null || StringUtils.isEmpty(specificTypeValue.getFellow())){
             logger.error("[getAllSpecificTypeIssuerList] issuerType not exist on chain");
             return new ResponseData<>(null, ErrorCode.SPECIFIC_ISSUER_CONTRACT_ERROR_ALREADY_NOT_EXIST);
         }
@@ -456,11 +474,9 @@ public class AuthorityIssuerServiceLocal implements AuthorityIssuerService {
             logger.error("[getAllSpecificTypeIssuerList] input argument is illegal");
             return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
         }
-        if(fellows.length>index + num - 1){
-            return new ResponseData<>(fellowList.subList(index, index + num), ErrorCode.SUCCESS);
-        } else {
-            return new ResponseData<>(fellowList.subList(index, fellows.length - 1), ErrorCode.SUCCESS);
-        }
+        int end = Math.min(fellows.length, index + num);
+        return new ResponseData<>(
+                new ArrayList<>(fellowList.subList(index, end)), ErrorCode.SUCCESS);
     }
 
     @Override
@@ -508,12 +524,13 @@ public class AuthorityIssuerServiceLocal implements AuthorityIssuerService {
             logger.error("[getSpecificTypeIssuerSize] issuerType not exist on chain");
             return new ResponseData<>(null, ErrorCode.SPECIFIC_ISSUER_CONTRACT_ERROR_ALREADY_NOT_EXIST);
         }
-        if(specificTypeValue.getFellow() == null){
+        if(StringUtils.isEmpty(specificTypeValue.getFellow())){
             logger.error("[getSpecificTypeIssuerSize] issuerType has not fellow");
             return new ResponseData<>(0, ErrorCode.SUCCESS);
         }
-        String[] fellows = specificTypeValue.getFellow().split(",");
-        return new ResponseData<>(fellows.length, ErrorCode.SUCCESS);
+        // 只需要个数, 统计分隔符即可, 不必拆分fellow
+        int size = StringUtils.countMatches(specificTypeValue.getFellow(), ',') + 1;
+        return new ResponseData<>(size, ErrorCode.SUCCESS);
     }
 
     @Override
@@ -558,15 +575,21 @@ public class AuthorityIssuerServiceLocal implements AuthorityIssuerService {
     @Override
     public ResponseData<List<IssuerType>> getIssuerTypeList(Integer index, Integer num) {
         try {
-            List<String> typeNameList= getDataDriver().getIssuerTypeList(
-                    DataDriverConstant.LOCAL_SPECIFIC_ISSUER,
-                    index,
-                    index + num).getResult();
-            List<IssuerType> issuerTypeList = new ArrayList<>();
-            for (String typeName : typeNameList) {
-                SpecificTypeValue specificTypeValue = getDataDriver().getSpecificType(DataDriverConstant.LOCAL_SPECIFIC_ISSUER, typeName).getResult();
+            // 一次查询读取整页记录, 不再按名称逐条查询
+            ResponseData<List<SpecificTypeValue>> response =
+                    getDataDriver().getSpecificTypeList(
+                            DataDriverConstant.LOCAL_SPECIFIC_ISSUER,
+                            index,
+                            index + num);
+            if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                logger.error("[getIssuerTypeList] query SpecificTypeList failed.");
+                return new ResponseData<>(null,
+                        ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+            }
+            List<IssuerType> issuerTypeList = new ArrayList<>(response.getResult().size());
+            for (SpecificTypeValue specificTypeValue : response.getResult()) {
                 IssuerType issuerType = new IssuerType();
-                issuerType.setTypeName(typeName);
+                issuerType.setTypeName(specificTypeValue.getType_name());
                 issuerType.setCreated(specificTypeValue.getCreated().getTime());
                 issuerType.setOwner(specificTypeValue.getOwner());
                 issuerTypeList.add(issuerType);
@@ -15,14 +15,11 @@ import com.webank.weid.blockchain.service.impl.CptServiceImpl;
 import com.webank.weid.util.JsonUtil;
 import com.webank.weid.constant.DataDriverConstant;
 import com.webank.weid.exception.DatabaseException;
-import com.webank.weid.protocol.base.GlobalStatus;
 import com.webank.weid.service.local.role.RoleController;
 import com.webank.weid.suite.persistence.CptValue;
 import com.webank.weid.suite.persistence.Persistence;
 import com.webank.weid.suite.persistence.PersistenceFactory;
-import com.webank.weid.suite.persistence.PersistenceType;
 import com.webank.weid.util.DataToolUtils;
-import com.webank.weid.util.PropertyUtils;
 import com.webank.weid.util.WeIdUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -41,21 +38,14 @@ public class CptServiceLocal implements CptService {
     private static final Logger logger = LoggerFactory.getLogger(CptServiceLocal.class);
 
     private static Persistence dataDriver;
-    private static PersistenceType persistenceType;
     public static Integer AUTHORITY_ISSUER_START_ID = 1000;
     public static Integer NONE_AUTHORITY_ISSUER_START_ID = 2000000;
     WeIdServiceLocal weIdServiceLocal = new WeIdServiceLocal();
     AuthorityIssuerServiceLocal authorityIssuerServiceLocal = new AuthorityIssuerServiceLocal();
 
     private static Persistence getDataDriver() {
-        String type = PropertyUtils.getProperty("persistence_type");
-        if (type.equals("mysql")) {
-            persistenceType = PersistenceType.Mysql;
-        } else if (type.equals("redis")) {
-            persistenceType = PersistenceType.Redis;
-        }
         if (dataDriver == null) {
-            dataDriver = PersistenceFactory.build(persistenceType);
+            dataDriver = PersistenceFactory.build();
         }
         return dataDriver;
     }
@@ -156,25 +146,14 @@ public class CptServiceLocal implements CptService {
     }
 
     public int getCptId(String address) {
-        GlobalStatus globalStatus = GlobalStatus.readStatusFromFile("global.status");
-        if(authorityIssuerServiceLocal.isAuthorityIssuer(address).getResult()){
-            int cptId = globalStatus.getAuthority_issuer_current_cpt_id();
-            while (getDataDriver().getCpt(DataDriverConstant.LOCAL_CPT, cptId).getResult() != null) {
-                cptId++;
-            }
-            globalStatus.setAuthority_issuer_current_cpt_id(cptId);
-            GlobalStatus.storeStatusToFile(globalStatus, "global.status");
-            if(cptId > NONE_AUTHORITY_ISSUER_START_ID) cptId = 0;
-            return cptId;
-        } else {
-            int cptId = globalStatus.getNone_authority_issuer_current_cpt_id();
-            while (getDataDriver().getCpt(DataDriverConstant.LOCAL_CPT, cptId).getResult() != null) {
-                cptId++;
-            }
-            globalStatus.setNone_authority_issuer_current_cpt_id(cptId);
-            GlobalStatus.storeStatusToFile(globalStatus, "global.status");
-            return cptId;
+        boolean authorityIssuer =
+            authorityIssuerServiceLocal.isAuthorityIssuer(address).getResult();
+        int cptId = LocalIdAllocator.nextCptId(getDataDriver(), authorityIssuer,
+            id -> getDataDriver().getCpt(DataDriverConstant.LOCAL_CPT, id).getResult() != null);
+        if (authorityIssuer && cptId > NONE_AUTHORITY_ISSUER_START_ID) {
+            cptId = 0;
         }
+        return cptId;
     }
 
     /**
@@ -15,8 +15,6 @@ import com.webank.weid.service.local.role.RoleController;
 import com.webank.weid.suite.persistence.EvidenceValue;
 import com.webank.weid.suite.persistence.Persistence;
 import com.webank.weid.suite.persistence.PersistenceFactory;
-import com.webank.weid.suite.persistence.PersistenceType;
-import com.webank.weid.util.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,18 +30,11 @@ public class EvidenceServiceLocal implements EvidenceService {
     private static final Logger logger = LoggerFactory.getLogger(EvidenceServiceLocal.class);
 
     private static Persistence dataDriver;
-    private static PersistenceType persistenceType;
     public String groupId = "1";
 
     private static Persistence getDataDriver() {
-        String type = PropertyUtils.getProperty("persistence_type");
-        if (type.equals("mysql")) {
-            persistenceType = PersistenceType.Mysql;
-        } else if (type.equals("redis")) {
-            persistenceType = PersistenceType.Redis;
-        }
         if (dataDriver == null) {
-            dataDriver = PersistenceFactory.build(persistenceType);
+            dataDriver = PersistenceFactory.build();
         }
         return dataDriver;
     }
@@ -65,10 +56,6 @@ public class EvidenceServiceLocal implements EvidenceService {
             logger.error("[createEvidence] input argument is illegal");
             return new ResponseData<>(StringUtils.EMPTY, ErrorCode.ILLEGAL_INPUT);
         }
-        if(getDataDriver().getEvidenceByHash(DataDriverConstant.LOCAL_EVIDENCE, hashValue).getResult() != null) {
-            logger.error("[createEvidence] evidence with the hash value already existed");
-            return new ResponseData<>(StringUtils.EMPTY, ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS);
-        }
         ResponseData<Integer> resp =
                 getDataDriver().addEvidenceByHash(
                         DataDriverConstant.LOCAL_EVIDENCE,
@@ -80,6 +67,10 @@ public class EvidenceServiceLocal implements EvidenceService {
                         String.valueOf(0),
                         StringUtils.EMPTY,
                         groupId);
+        if (resp.getErrorCode() == ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS.getCode()) {
+            logger.error("[createEvidence] evidence with the hash value already existed");
+            return new ResponseData<>(StringUtils.EMPTY, ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS);
+        }
         if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
             logger.error("[createEvidence] save evidence to db failed.");
             throw new DatabaseException("database error!");
@@ -100,11 +91,6 @@ public class EvidenceServiceLocal implements EvidenceService {
             logger.error("[createEvidenceWithCustomKey] input argument is illegal");
             return new ResponseData<>(false, ErrorCode.ILLEGAL_INPUT);
         }
-        if(getDataDriver().getEvidenceByHash(DataDriverConstant.LOCAL_EVIDENCE, hashValue).getResult() != null) {
-            logger.error("[createEvidenceWithCustomKey] evidence with the hash value already existed");
-            return new ResponseData<>(false, ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS);
-        }
-
         ResponseData<Integer> resp =
                 getDataDriver().addEvidenceByHash(
                         DataDriverConstant.LOCAL_EVIDENCE,
@@ -116,6 +102,10 @@ public class EvidenceServiceLocal implements EvidenceService {
                         String.valueOf(0),
                         extraKey,
                         groupId);
+        if (resp.getErrorCode() == ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS.getCode()) {
+            logger.error("[createEvidenceWithCustomKey] evidence with the hash value already existed");
+            return new ResponseData<>(false, ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS);
+        }
         if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
             logger.error("[createEvidenceWithCustomKey] save evidence to db failed.");
             throw new DatabaseException("database error!");
@@ -193,11 +183,6 @@ public class EvidenceServiceLocal implements EvidenceService {
                 resultList.add(false);
                 continue;
             }
-            if(getDataDriver().getEvidenceByHash(DataDriverConstant.LOCAL_EVIDENCE, hashValues.get(i)).getResult() != null) {
-                logger.error("[batchCreateEvidence] evidence with the hash value already existed");
-                resultList.add(false);
-                continue;
-            }
             ResponseData<Integer> resp =
                     getDataDriver().addEvidenceByHash(
                             DataDriverConstant.LOCAL_EVIDENCE,
@@ -209,6 +194,11 @@ public class EvidenceServiceLocal implements EvidenceService {
                             String.valueOf(0),
                             StringUtils.EMPTY,
                             groupId);
+            if (resp.getErrorCode() == ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS.getCode()) {
+                logger.error("[batchCreateEvidence] evidence with the hash value already existed");
+                resultList.add(false);
+                continue;
+            }
             if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
                 logger.error("[batchCreateEvidence] batch save evidence to db failed.");
                 resultList.add(false);
@@ -240,11 +230,6 @@ public class EvidenceServiceLocal implements EvidenceService {
                 resultList.add(false);
                 continue;
             }
-            if(getDataDriver().getEvidenceByHash(DataDriverConstant.LOCAL_EVIDENCE, hashValues.get(i)).getResult() != null) {
-                logger.error("[batchCreateEvidenceWithCustomKey] evidence with the hash value already existed");
-                resultList.add(false);
-                continue;
-            }
             ResponseData<Integer> resp =
                     getDataDriver().addEvidenceByHash(
                             DataDriverConstant.LOCAL_EVIDENCE,
@@ -256,6 +241,11 @@ public class EvidenceServiceLocal implements EvidenceService {
                             String.valueOf(0),
                             extraKeys.get(i),
                             groupId);
+            if (resp.getErrorCode() == ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS.getCode()) {
+                logger.error("[batchCreateEvidenceWithCustomKey] evidence with the hash value already existed");
+                resultList.add(false);
+                continue;
+            }
             if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
                 logger.error("[batchCreateEvidenceWithCustomKey] batch save evidence to db failed.");
                 resultList.add(false);
@@ -278,26 +268,25 @@ public class EvidenceServiceLocal implements EvidenceService {
             logger.error("[addLog] input argument is illegal");
             return new ResponseData<>(false, ErrorCode.ILLEGAL_INPUT);
         }
-        EvidenceValue evidenceValue = getDataDriver().getEvidenceByHash(DataDriverConstant.LOCAL_EVIDENCE, hashValue).getResult();
-        if(evidenceValue == null) {
-            logger.error("[addLog] evidence with the hash value not existed");
-            return new ResponseData<>(false, ErrorCode.CREDENTIAL_EVIDENCE_NOT_EXIST);
-        }
         if(signature.equals(StringUtils.EMPTY)) signature = "empty signature";
         ResponseData<Integer> resp =
-                getDataDriver().addSignatureAndLogs(
+                getDataDriver().appendEvidenceSignInfo(
                         DataDriverConstant.LOCAL_EVIDENCE,
                         hashValue,
-                        evidenceValue.getSigners() + ';' + WeIdUtils.getWeIdFromPrivateKey(privateKey),
-                        evidenceValue.getSignatures() + ';' + signature,
-                        evidenceValue.getLogs() + ';' + log,
-                        evidenceValue.getUpdated() + ';' + timestamp,
-                        evidenceValue.getRevoked() + ';' + 0,
-                        evidenceValue.getExtra_key());
+                        WeIdUtils.getWeIdFromPrivateKey(privateKey),
+                        signature,
+                        log,
+                        String.valueOf(timestamp),
+                        String.valueOf(0),
+                        StringUtils.EMPTY);
         if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
             logger.error("[addLog] update evidence to db failed.");
             throw new DatabaseException("database error!");
         }
+        if (resp.getResult() == 0) {
+            logger.error("[addLog] evidence with the hash value not existed");
+            return new ResponseData<>(false, ErrorCode.CREDENTIAL_EVIDENCE_NOT_EXIST);
+        }
         return new ResponseData<>(true, ErrorCode.SUCCESS);
     }
 
@@ -335,26 +324,25 @@ public class EvidenceServiceLocal implements EvidenceService {
             logger.error("[addLogByCustomKey] input argument is illegal");
             return new ResponseData<>(null, ErrorCode.ILLEGAL_INPUT);
         }
-        EvidenceValue evidenceValue = getDataDriver().getEvidenceByHash(DataDriverConstant.LOCAL_EVIDENCE, hashValue).getResult();
-        if(evidenceValue == null){
-            logger.error("[addLogByCustomKey] evidence not exist on chain");
-            return new ResponseData<>(null, ErrorCode.CREDENTIAL_EVIDENCE_NOT_EXIST);
-        }
         if(signature.equals(StringUtils.EMPTY)) signature = "empty signature";
         ResponseData<Integer> resp =
-                getDataDriver().addSignatureAndLogs(
+                getDataDriver().appendEvidenceSignInfo(
                         DataDriverConstant.LOCAL_EVIDENCE,
                         hashValue,
-                        evidenceValue.getSigners() + ';' + WeIdUtils.getWeIdFromPrivateKey(privateKey),
-                        evidenceValue.getSignatures() + ';' + signature,
-                        evidenceValue.getLogs() + ';' + log,
-                        evidenceValue.getUpdated() + ';' + timestamp,
-                        evidenceValue.getRevoked() + ';' + 0,
+                        WeIdUtils.getWeIdFromPrivateKey(privateKey),
+                        signature,
+                        log,
+                        String.valueOf(timestamp),
+                        String.valueOf(0),
                         customKey);
         if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
             logger.error("[addLogByCustomKey] update evidence to db failed.");
             throw new DatabaseException("database error!");
         }
+        if (resp.getResult() == 0) {
+            logger.error("[addLogByCustomKey] evidence not exist on chain");
+            return new ResponseData<>(null, ErrorCode.CREDENTIAL_EVIDENCE_NOT_EXIST);
+        }
         return new ResponseData<>(true, ErrorCode.SUCCESS);
     }
 
@@ -393,48 +381,21 @@ public class EvidenceServiceLocal implements EvidenceService {
             logger.error("[revoke] input argument is illegal");
             return new ResponseData<>(false, ErrorCode.ILLEGAL_INPUT);
         }
-        EvidenceValue evidenceValue = getDataDriver().getEvidenceByHash(DataDriverConstant.LOCAL_EVIDENCE, hash).getResult();
-        if(evidenceValue == null) {
-            logger.error("[revoke] evidence with the hash value not existed");
-            return new ResponseData<>(false, ErrorCode.CREDENTIAL_EVIDENCE_NOT_EXIST);
-        }
-        String[] signerList = evidenceValue.getSigners().split(";");
-        String[] revokedList = evidenceValue.getRevoked().split(";");
-        String[] timestampList = evidenceValue.getUpdated().split(";");
-        String revoked = revokedList[0];
-        String timestampStr = timestampList[0];
-        for(int i = 0; i < signerList.length; i++){
-            if(signerList[i].equals(WeIdUtils.getWeIdFromPrivateKey(privateKey))){
-                revokedList[i] = String.valueOf(revokeStage? 1:0);
-                timestampList[i] = String.valueOf(timestamp);
-            }
-        }
-        String newRevoked = revokedList[0];
-        if(revokedList.length != 1) {
-            for(int i = 1; i < revokedList.length; i++){
-                newRevoked = newRevoked + ';' + revokedList[i];
-            }
-        }
-        String newTimestamp = timestampList[0];
-        if(timestampList.length != 1) {
-            for(int i = 1; i < timestampList.length; i++){
-                newTimestamp = newTimestamp + ';' + timestampList[i];
-            }
-        }
         ResponseData<Integer> resp =
-                getDataDriver().addSignatureAndLogs(
+                getDataDriver().revokeEvidence(
                         DataDriverConstant.LOCAL_EVIDENCE,
                         hash,
-                        evidenceValue.getSigners(),
-                        evidenceValue.getSignatures(),
-                        evidenceValue.getLogs(),
-                        newTimestamp,
-                        newRevoked,
-                        evidenceValue.getExtra_key());
+                        WeIdUtils.getWeIdFromPrivateKey(privateKey),
+                        String.valueOf(revokeStage? 1:0),
+                        String.valueOf(timestamp));
         if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
             logger.error("[revoke] update evidence to db failed.");
             throw new DatabaseException("database error!");
         }
+        if (resp.getResult() == 0) {
+            logger.error("[revoke] evidence with the hash value not existed");
+            return new ResponseData<>(false, ErrorCode.CREDENTIAL_EVIDENCE_NOT_EXIST);
+        }
         return new ResponseData<>(true, ErrorCode.SUCCESS);
     }
 
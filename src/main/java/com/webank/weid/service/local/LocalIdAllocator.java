@@ -0,0 +1,132 @@
+
+
+package com.webank.weid.service.local;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.protocol.base.GlobalStatus;
+import com.webank.weid.suite.persistence.Persistence;
+import com.webank.weid.suite.persistence.SequenceAllocator;
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * 本地部署时CPT, policy与presentation编号的分配.
+ * 编号序列保存在local.sequence中, 由所有节点共享, 每个节点按段预留编号.
+ * 序列首次创建时以旧版本global.status文件中记录的编号为起点,
+ * 并且只在分配出起点编号时跳过旧版本已占用的编号, 之后的分配不再查询记录.
+ */
+public final class LocalIdAllocator {
+
+    /**
+     * 旧版本记录当前编号的文件, 只在创建序列时读取.
+     */
+    private static final String LEGACY_STATUS_FILE = "global.status";
+
+    private static final String CPT_AUTHORITY_ISSUER = "cpt.authorityIssuer";
+
+    private static final String CPT_NONE_AUTHORITY_ISSUER = "cpt.noneAuthorityIssuer";
+
+    private static final String POLICY_AUTHORITY_ISSUER = "policy.authorityIssuer";
+
+    private static final String POLICY_NONE_AUTHORITY_ISSUER = "policy.noneAuthorityIssuer";
+
+    private static final String PRESENTATION = "presentation";
+
+    private static final Map<String, SequenceAllocator> ALLOCATORS = new ConcurrentHashMap<>();
+
+    private static volatile GlobalStatus legacyStatus;
+
+    private LocalIdAllocator() {
+    }
+
+    /**
+     * 分配CPT编号.
+     *
+     * @param persistence 保存序列的存储
+     * @param authorityIssuer 是否为权威机构注册的CPT
+     * @param used 编号是否已被旧版本占用, 只在序列创建时检查
+     * @return 返回编号
+     */
+    public static int nextCptId(
+        Persistence persistence,
+        boolean authorityIssuer,
+        IntPredicate used) {
+
+        if (authorityIssuer) {
+            return next(persistence, CPT_AUTHORITY_ISSUER,
+                getLegacyStatus().getAuthority_issuer_current_cpt_id(), used);
+        }
+        return next(persistence, CPT_NONE_AUTHORITY_ISSUER,
+            getLegacyStatus().getNone_authority_issuer_current_cpt_id(), used);
+    }
+
+    /**
+     * 分配policy编号.
+     *
+     * @param persistence 保存序列的存储
+     * @param authorityIssuer 是否为权威机构注册的policy
+     * @param used 编号是否已被旧版本占用, 只在序列创建时检查
+     * @return 返回编号
+     */
+    public static int nextPolicyId(
+        Persistence persistence,
+        boolean authorityIssuer,
+        IntPredicate used) {
+
+        if (authorityIssuer) {
+            return next(persistence, POLICY_AUTHORITY_ISSUER,
+                getLegacyStatus().getAuthority_issuer_current_policy_id(), used);
+        }
+        return next(persistence, POLICY_NONE_AUTHORITY_ISSUER,
+            getLegacyStatus().getNone_authority_issuer_current_policy_id(), used);
+    }
+
+    /**
+     * 分配presentation编号.
+     *
+     * @param persistence 保存序列的存储
+     * @param used 编号是否已被旧版本占用, 只在序列创建时检查
+     * @return 返回编号
+     */
+    public static int nextPresentationId(Persistence persistence, IntPredicate used) {
+        return next(persistence, PRESENTATION, getLegacyStatus().getPresentationId(), used);
+    }
+
+    private static int next(
+        Persistence persistence,
+        String name,
+        int initialValue,
+        IntPredicate used) {
+
+        SequenceAllocator allocator = ALLOCATORS.computeIfAbsent(name, key -> {
+            int blockSize = Integer.parseInt(PropertyUtils.getProperty(
+                DataDriverConstant.LOCAL_SEQUENCE_BLOCK_SIZE,
+                DataDriverConstant.LOCAL_SEQUENCE_BLOCK_SIZE_DEFAULT_VALUE));
+            return new SequenceAllocator(
+                persistence, DataDriverConstant.LOCAL_SEQUENCE, key, initialValue, blockSize);
+        });
+        int id = (int) allocator.next();
+        // 序列只会分配一次起点编号, 即序列刚创建时, 此时跳过旧版本从起点开始连续占用的编号
+        if (id == initialValue) {
+            while (used.test(id)) {
+                id = (int) allocator.next();
+            }
+        }
+        return id;
+    }
+
+    private static GlobalStatus getLegacyStatus() {
+        if (legacyStatus == null) {
+            GlobalStatus status = null;
+            if (new File(LEGACY_STATUS_FILE).exists()) {
+                status = GlobalStatus.readStatusFromFile(LEGACY_STATUS_FILE);
+            }
+            legacyStatus = status == null ? new GlobalStatus() : status;
+        }
+        return legacyStatus;
+    }
+}
@@ -12,9 +12,7 @@ import com.webank.weid.blockchain.rpc.PolicyService;
 import com.webank.weid.util.DataToolUtils;
 import com.webank.weid.constant.DataDriverConstant;
 import com.webank.weid.exception.DatabaseException;
-import com.webank.weid.protocol.base.GlobalStatus;
 import com.webank.weid.suite.persistence.*;
-import com.webank.weid.util.PropertyUtils;
 import com.webank.weid.util.WeIdUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -35,20 +33,13 @@ public class PolicyServiceLocal implements PolicyService {
     private static final Logger logger = LoggerFactory.getLogger(PolicyServiceLocal.class);
 
     private static Persistence dataDriver;
-    private static PersistenceType persistenceType;
     WeIdServiceLocal weIdServiceLocal = new WeIdServiceLocal();
     AuthorityIssuerServiceLocal authorityIssuerServiceLocal = new AuthorityIssuerServiceLocal();
     CptServiceLocal cptServiceLocal = new CptServiceLocal();
 
     private static Persistence getDataDriver() {
-        String type = PropertyUtils.getProperty("persistence_type");
-        if (type.equals("mysql")) {
-            persistenceType = PersistenceType.Mysql;
-        } else if (type.equals("redis")) {
-            persistenceType = PersistenceType.Redis;
-        }
         if (dataDriver == null) {
-            dataDriver = PersistenceFactory.build(persistenceType);
+            dataDriver = PersistenceFactory.build();
         }
         return dataDriver;
     }
@@ -132,25 +123,15 @@ public class PolicyServiceLocal implements PolicyService {
     }
 
     public int getPolicyId(String address) {
-        GlobalStatus globalStatus = GlobalStatus.readStatusFromFile("global.status");
-        if(authorityIssuerServiceLocal.isAuthorityIssuer(address).getResult()){
-            int policyId = globalStatus.getAuthority_issuer_current_policy_id();
-            while (getDataDriver().getPolicy(DataDriverConstant.LOCAL_POLICY, policyId).getResult() != null) {
-                policyId++;
-            }
-            globalStatus.setAuthority_issuer_current_policy_id(policyId);
-            GlobalStatus.storeStatusToFile(globalStatus, "global.status");
-            if(policyId > CptServiceLocal.NONE_AUTHORITY_ISSUER_START_ID) policyId = 0;
-            return policyId;
-        } else {
-            int policyId = globalStatus.getNone_authority_issuer_current_policy_id();
-            while (getDataDriver().getPolicy(DataDriverConstant.LOCAL_POLICY, policyId).getResult() != null) {
-                policyId++;
-            }
-            globalStatus.setNone_authority_issuer_current_policy_id(policyId);
-            GlobalStatus.storeStatusToFile(globalStatus, "global.status");
-            return policyId;
+        boolean authorityIssuer =
+            authorityIssuerServiceLocal.isAuthorityIssuer(address).getResult();
+        int policyId = LocalIdAllocator.nextPolicyId(getDataDriver(), authorityIssuer,
+            id -> getDataDriver().getPolicy(DataDriverConstant.LOCAL_POLICY, id)
+                .getResult() != null);
+        if (authorityIssuer && policyId > CptServiceLocal.NONE_AUTHORITY_ISSUER_START_ID) {
+            policyId = 0;
         }
+        return policyId;
     }
 
     /**
@@ -233,14 +214,9 @@ public class PolicyServiceLocal implements PolicyService {
     }
 
     public int getPresentationId() {
-        GlobalStatus globalStatus = GlobalStatus.readStatusFromFile("global.status");
-        int presentationId = globalStatus.getPresentationId();
-        while (getDataDriver().getPresentation(DataDriverConstant.LOCAL_PRESENTATION, presentationId).getResult() != null) {
-            presentationId++;
-        }
-        globalStatus.setPresentationId(presentationId);
-        GlobalStatus.storeStatusToFile(globalStatus, "global.status");
-        return presentationId;
+        return LocalIdAllocator.nextPresentationId(getDataDriver(),
+            id -> getDataDriver().getPresentation(DataDriverConstant.LOCAL_PRESENTATION, id)
+                .getResult() != null);
     }
 
     /**
@@ -10,10 +10,9 @@ import com.webank.weid.blockchain.rpc.WeIdService;
 import com.webank.weid.util.WeIdUtils;
 import com.webank.weid.constant.DataDriverConstant;
 import com.webank.weid.exception.DatabaseException;
+import com.webank.weid.suite.persistence.AsyncPersistence;
 import com.webank.weid.suite.persistence.Persistence;
 import com.webank.weid.suite.persistence.PersistenceFactory;
-import com.webank.weid.suite.persistence.PersistenceType;
-import com.webank.weid.util.PropertyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -29,21 +28,24 @@ public class WeIdServiceLocal implements WeIdService {
      */
     private static final Logger logger = LoggerFactory.getLogger(WeIdServiceLocal.class);
     private static Persistence dataDriver;
-    private static PersistenceType persistenceType;
 
     private static Persistence getDataDriver() {
-        String type = PropertyUtils.getProperty("persistence_type");
-        if (type.equals("mysql")) {
-            persistenceType = PersistenceType.Mysql;
-        } else if (type.equals("redis")) {
-            persistenceType = PersistenceType.Redis;
-        }
         if (dataDriver == null) {
-            dataDriver = PersistenceFactory.build(persistenceType);
+            dataDriver = PersistenceFactory.build();
         }
         return dataDriver;
     }
 
+    /**
+     * Get the data driver when it can read without blocking, used by WeIdServiceAsync.
+     *
+     * @return the data driver, or null if it only reads blocking
+     */
+    public static AsyncPersistence getAsyncDataDriver() {
+        Persistence driver = getDataDriver();
+        return driver instanceof AsyncPersistence ? (AsyncPersistence) driver : null;
+    }
+
     /**
      * Check if WeIdentity DID exists on Chain.
      *
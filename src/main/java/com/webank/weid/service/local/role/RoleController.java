@@ -9,9 +9,7 @@ import com.webank.weid.service.local.CptServiceLocal;
 import com.webank.weid.service.local.WeIdServiceLocal;
 import com.webank.weid.suite.persistence.Persistence;
 import com.webank.weid.suite.persistence.PersistenceFactory;
-import com.webank.weid.suite.persistence.PersistenceType;
 import com.webank.weid.suite.persistence.RoleValue;
-import com.webank.weid.util.PropertyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,18 +36,11 @@ public class RoleController {
     public static Integer MODIFY_KEY_CPT = 203;
 
     private static Persistence dataDriver;
-    private static PersistenceType persistenceType;
     WeIdServiceLocal weIdServiceLocal = new WeIdServiceLocal();
 
     private static Persistence getDataDriver() {
-        String type = PropertyUtils.getProperty("persistence_type");
-        if (type.equals("mysql")) {
-            persistenceType = PersistenceType.Mysql;
-        } else if (type.equals("redis")) {
-            persistenceType = PersistenceType.Redis;
-        }
         if (dataDriver == null) {
-            dataDriver = PersistenceFactory.build(persistenceType);
+            dataDriver = PersistenceFactory.build();
         }
         return dataDriver;
     }
@@ -74,6 +74,14 @@ public interface AuthorityIssuerService {
      */
     ResponseData<AuthorityIssuer> queryAuthorityIssuerInfo(String weId);
 
+    /**
+     * Query the authority issuer information of several WeIdentity DIDs in bulk.
+     *
+     * @param weIds the WeIdentity DIDs
+     * @return authority issuer info in the order of weIds, the ones not found are skipped
+     */
+    ResponseData<List<AuthorityIssuer>> queryAuthorityIssuerInfoList(List<String> weIds);
+
     /**
      * Get all of the authority issuer.
      *
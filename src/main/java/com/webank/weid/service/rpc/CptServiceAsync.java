@@ -0,0 +1,107 @@
+
+
+package com.webank.weid.service.rpc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.webank.wedpr.selectivedisclosure.CredentialTemplateEntity;
+import com.webank.weid.protocol.base.Cpt;
+import com.webank.weid.protocol.base.CptBaseInfo;
+import com.webank.weid.protocol.request.CptMapArgs;
+import com.webank.weid.protocol.request.CptStringArgs;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+
+/**
+ * Asynchronous counterpart of {@link CptService}.
+ * Each method returns immediately, the future is completed with the response of the
+ * blocking call, or exceptionally if the call throws or the executor rejects it.
+ */
+public interface CptServiceAsync {
+
+    /**
+     * Register a new CPT to the blockchain.
+     *
+     * @param args the args
+     * @return The registered CPT info
+     */
+    CompletableFuture<ResponseData<CptBaseInfo>> registerCpt(CptMapArgs args);
+
+    /**
+     * Register a new CPT with a pre-set CPT ID, to the blockchain.
+     *
+     * @param args the args
+     * @param cptId the CPT ID
+     * @return The registered CPT info
+     */
+    CompletableFuture<ResponseData<CptBaseInfo>> registerCpt(CptMapArgs args, Integer cptId);
+
+    /**
+     * Register a new CPT to the blockchain.
+     *
+     * @param args the args
+     * @return The registered CPT info
+     */
+    CompletableFuture<ResponseData<CptBaseInfo>> registerCpt(CptStringArgs args);
+
+    /**
+     * Register a new CPT with a pre-set CPT ID, to the blockchain.
+     *
+     * @param args the args
+     * @param cptId the CPT ID
+     * @return The registered CPT info
+     */
+    CompletableFuture<ResponseData<CptBaseInfo>> registerCpt(CptStringArgs args, Integer cptId);
+
+    /**
+     * Query the latest CPT version.
+     *
+     * @param cptId the cpt id
+     * @return The registered CPT info
+     */
+    CompletableFuture<ResponseData<Cpt>> queryCpt(Integer cptId);
+
+    /**
+     * Update the data fields of a registered CPT.
+     *
+     * @param args the args
+     * @param cptId the cpt id
+     * @return The updated CPT info
+     */
+    CompletableFuture<ResponseData<CptBaseInfo>> updateCpt(CptMapArgs args, Integer cptId);
+
+    /**
+     * Update the data fields of a registered CPT.
+     *
+     * @param args the args
+     * @param cptId the cpt id
+     * @return The updated CPT info
+     */
+    CompletableFuture<ResponseData<CptBaseInfo>> updateCpt(CptStringArgs args, Integer cptId);
+
+    /**
+     * Update the data fields of a registered CPT.
+     *
+     * @param cptId the cpt id
+     * @return The updated CPT info
+     */
+    CompletableFuture<ResponseData<CredentialTemplateEntity>> queryCredentialTemplate(
+        Integer cptId
+    );
+
+    /**
+     * Get CPTIDS from chain.
+     *
+     * @param startPos start position
+     * @param num batch number
+     * @return CPTID list
+     */
+    CompletableFuture<ResponseData<List<Integer>>> getCptIdList(Integer startPos, Integer num);
+
+    /**
+     * Get CPT count.
+     *
+     * @return the cpt count
+     */
+    CompletableFuture<ResponseData<Integer>> getCptCount();
+}
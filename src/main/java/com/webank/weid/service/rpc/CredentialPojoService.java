@@ -12,6 +12,7 @@ import com.webank.weid.protocol.base.WeIdAuthentication;
 import com.webank.weid.protocol.base.WeIdPublicKey;
 import com.webank.weid.protocol.cpt.Cpt101;
 import com.webank.weid.protocol.request.CreateCredentialPojoArgs;
+import com.webank.weid.protocol.request.VerifyPresentationArgs;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
 import java.util.List;
 import java.util.Set;
@@ -130,6 +131,17 @@ public interface CredentialPojoService {
         PresentationE presentationE
     );
 
+    /**
+     * verify a batch of presentations. The ZKP proofs of all presentations are verified
+     * concurrently on a bounded pool sized by zkp.verify.concurrency.
+     *
+     * @param args the presentations to verify, with their presenters, policies and challenges
+     * @return the verification result of each presentation, in the order of args
+     */
+    ResponseData<List<ResponseData<Boolean>>> verifyPresentationBatch(
+        List<VerifyPresentationArgs> args
+    );
+
     /**
      * Verify the validity of a credential. Public key must be provided. This is offline interface.
      * 
@@ -0,0 +1,214 @@
+
+
+package com.webank.weid.service.rpc;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.networknt.schema.ValidationMessage;
+import com.webank.weid.protocol.base.Challenge;
+import com.webank.weid.protocol.base.ClaimPolicy;
+import com.webank.weid.protocol.base.Cpt;
+import com.webank.weid.protocol.base.CredentialPojo;
+import com.webank.weid.protocol.base.PresentationE;
+import com.webank.weid.protocol.base.PresentationPolicyE;
+import com.webank.weid.protocol.base.WeIdAuthentication;
+import com.webank.weid.protocol.base.WeIdPublicKey;
+import com.webank.weid.protocol.cpt.Cpt101;
+import com.webank.weid.protocol.request.CreateCredentialPojoArgs;
+import com.webank.weid.protocol.request.VerifyPresentationArgs;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+
+/**
+ * Asynchronous counterpart of {@link CredentialPojoService}.
+ * Each method returns immediately, the future is completed with the response of the
+ * blocking call, or exceptionally if the call throws or the executor rejects it.
+ */
+public interface CredentialPojoServiceAsync {
+
+    /**
+     * Generate a credential for full claim content.
+     *
+     * @param args the args
+     * @return CredentialPojo
+     */
+    CompletableFuture<ResponseData<CredentialPojo>> createCredential(CreateCredentialPojoArgs args);
+
+    /**
+     * user make credential from issuer's pre-credential.
+     *
+     * @param preCredential issuer's pre-credential
+     * @param claimJson user claim
+     * @param weIdAuthentication auth
+     * @return credential based on CPT 111
+     */
+    CompletableFuture<ResponseData<CredentialPojo>> prepareZkpCredential(
+        CredentialPojo preCredential,
+        String claimJson,
+        WeIdAuthentication weIdAuthentication
+    );
+
+    /**
+     * Generate a selective disclosure credential with specified claim policy.
+     *
+     * @param credential the credential
+     * @param claimPolicy describe which fields in credential should be disclosed.
+     * @return CredentialPojo
+     */
+    CompletableFuture<ResponseData<CredentialPojo>> createSelectiveCredential(
+        CredentialPojo credential,
+        ClaimPolicy claimPolicy
+    );
+
+    /**
+     * Add an extra signer and signature to a Credential. Multiple signatures will be appended in an
+     * embedded manner.
+     *
+     * @param credentialList original credential list
+     * @param callerAuth the passed-in privateKey and WeID bundle to sign
+     * @return the modified CredentialWrapper
+     */
+    CompletableFuture<ResponseData<CredentialPojo>> addSignature(
+        List<CredentialPojo> credentialList,
+        WeIdAuthentication callerAuth
+    );
+
+    /**
+     * Get the full hash value of a CredentialPojo. All fields in the CredentialPojo will be
+     * included. This method should be called when creating and verifying the Credential Evidence
+     * and the result is selectively-disclosure irrelevant.
+     *
+     * @param credentialPojo the args
+     * @return the Credential Hash value
+     */
+    CompletableFuture<ResponseData<String>> getCredentialPojoHash(CredentialPojo credentialPojo);
+
+    /**
+     * Verify the validity of a credential. Public key will be fetched from chain.
+     *
+     * @param issuerWeId the issuer WeID
+     * @param credential the credential
+     * @return the verification result. True if yes, false otherwise with exact verify error codes
+     */
+    CompletableFuture<ResponseData<Boolean>> verify(String issuerWeId, CredentialPojo credential);
+
+    /**
+     * Verify the validity of a credential with public key fetched from chain. Here you can specify
+     * the public key ID from the WeID Document if you well know the ID (you can pass the whole
+     * string, or just the ID).
+     *
+     * @param issuerWeId the issuer WeID
+     * @param weIdPublicKeyId the public key
+     * @param credential the credential
+     * @return true if succeeded, false otherwise
+     */
+    CompletableFuture<ResponseData<Boolean>> verify(
+        String issuerWeId,
+        String weIdPublicKeyId,
+        CredentialPojo credential
+    );
+
+    /**
+     * Verify the validity of a credential. Public key must be provided.
+     *
+     * @param issuerPublicKey the specified public key which used to verify credential signature
+     * @param credential the credential
+     * @return the verification result. True if yes, false otherwise with exact verify error codes
+     */
+    CompletableFuture<ResponseData<Boolean>> verify(
+        WeIdPublicKey issuerPublicKey,
+        CredentialPojo credential
+    );
+
+    /**
+     * verify the presentation with presenter's weid and policy.
+     *
+     * @param presenterWeId the presenter's weid
+     * @param presentationPolicyE policy of the presentation
+     * @param challenge challenge
+     * @param presentationE the presentation
+     * @return the verification result. True if yes, false otherwise with exact verify error codes
+     */
+    CompletableFuture<ResponseData<Boolean>> verify(
+        String presenterWeId,
+        PresentationPolicyE presentationPolicyE,
+        Challenge challenge,
+        PresentationE presentationE
+    );
+
+    /**
+     * verify a batch of presentations. The ZKP proofs of all presentations are verified
+     * concurrently on a bounded pool sized by zkp.verify.concurrency.
+     *
+     * @param args the presentations to verify, with their presenters, policies and challenges
+     * @return the verification result of each presentation, in the order of args
+     */
+    CompletableFuture<ResponseData<List<ResponseData<Boolean>>>> verifyPresentationBatch(
+        List<VerifyPresentationArgs> args
+    );
+
+    /**
+     * Verify the validity of a credential. Public key must be provided. This is offline interface.
+     * 
+     * @param issuerPublicKey the specified public key which used to verify credential signature
+     * @param credential the credential
+     * @return the verification result. True if yes, false otherwise with exact verify error codes
+     */
+    CompletableFuture<ResponseData<Boolean>> verifyOffline(
+        WeIdPublicKey issuerPublicKey,
+        CredentialPojo credential
+    );
+
+    /**
+     * packing according to original vouchers and disclosure strategies.
+     *
+     * @param credentialList original credential list
+     * @param presentationPolicyE the disclosure strategies.
+     * @param challenge used for authentication
+     * @param weIdAuthentication owner information
+     * @return PresentationE presentationE
+     */
+    CompletableFuture<ResponseData<PresentationE>> createPresentation(
+        List<CredentialPojo> credentialList,
+        PresentationPolicyE presentationPolicyE,
+        Challenge challenge,
+        WeIdAuthentication weIdAuthentication
+    );
+
+    /**
+     * Create a trusted timestamp credential.
+     *
+     * @param credentialList the credentialPojo list to be signed
+     * @param weIdAuthentication caller authentication
+     * @return the embedded timestamp in credentialPojo
+     */
+    CompletableFuture<ResponseData<CredentialPojo>> createTrustedTimestamp(
+        List<CredentialPojo> credentialList,
+        WeIdAuthentication weIdAuthentication
+    );
+
+    /**
+     * Create a data authorization token.
+     *
+     * @param authInfo the authorization info in CPT101 format
+     * @param weIdAuthentication the caller (authorization issuer) authentication
+     * @return the data authorization token in credentialPojo
+     */
+    CompletableFuture<ResponseData<CredentialPojo>> createDataAuthToken(
+        Cpt101 authInfo,
+        WeIdAuthentication weIdAuthentication
+    );
+
+    /**
+     * Check the credential with CPT.
+     * 
+     * @param credential the CredentialPojo
+     * @param cpt the CPT information
+     * @return return ProcessingReport
+     */
+    CompletableFuture<ResponseData<Set<ValidationMessage>>> checkCredentialWithCpt(
+        CredentialPojo credential,
+        Cpt cpt
+    );
+}
@@ -72,6 +72,16 @@ public interface CredentialService {
      */
     ResponseData<Boolean> verify(CredentialWrapper credentialWrapper);
 
+    /**
+     * Verify the validity of a batch of credentials. Public keys will be fetched from chain, once
+     * per issuer for the whole batch, and the credentials are verified concurrently.
+     *
+     * @param credentialWrappers the credential wrappers, which are not modified
+     * @return the verification result of each credential, in the order of credentialWrappers
+     */
+    ResponseData<List<ResponseData<Boolean>>> verifyBatch(
+        List<CredentialWrapper> credentialWrappers);
+
     /**
      * Verify the validity of a credential. Public key must be provided. Embedded multi-signed
      * Credential are not allowed.
@@ -2,6 +2,10 @@
 
 package com.webank.weid.service.rpc;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
 import com.webank.weid.protocol.base.CredentialPojo;
 import com.webank.weid.protocol.base.EvidenceInfo;
 import com.webank.weid.protocol.base.HashString;
@@ -9,6 +13,7 @@ import com.webank.weid.protocol.base.WeIdAuthentication;
 import com.webank.weid.protocol.base.WeIdPrivateKey;
 import com.webank.weid.protocol.inf.Hashable;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.suite.pipeline.StageStatistic;
 
 /**
  * Service inf for operations on Evidence for Credentials.
@@ -213,6 +218,60 @@ public interface EvidenceService {
         String publicKey
     );
 
+    /**
+     * Validate a batch of credentials against their evidences on chain, each evidence must be
+     * signed by the issuer of the credential. The credentials are hashed, their evidences are
+     * fetched and the signer documents are resolved (once per signer) in a pipeline.
+     *
+     * @param credentialPojos the credentialPojos
+     * @return the verify result of each credential, in the order of credentialPojos
+     */
+    ResponseData<List<ResponseData<Boolean>>> verifySignerBatch(
+        List<CredentialPojo> credentialPojos
+    );
+
+    /**
+     * Validate a stream of credentials against their evidences on chain, with bounded memory.
+     * The consumer is called on the calling thread, not in the order of the input.
+     *
+     * @param credentialPojos the credentialPojos
+     * @param consumer receives each credentialPojo with its verify result
+     * @return the statistic of each pipeline stage
+     */
+    ResponseData<List<StageStatistic>> verifySignerBatch(
+        Iterator<CredentialPojo> credentialPojos,
+        BiConsumer<CredentialPojo, ResponseData<Boolean>> consumer
+    );
+
+    /**
+     * Create evidences of a batch of objects, all signed by the same private key. The objects are
+     * hashed and signed in parallel, and the evidences are submitted in chunks of
+     * evidence.create.batch.size.
+     *
+     * @param objects the given Java objects
+     * @param weIdPrivateKey the signer WeID's private key
+     * @return the evidence hash of each object, in the order of objects
+     */
+    ResponseData<List<ResponseData<String>>> createEvidenceBatch(
+        List<Hashable> objects,
+        WeIdPrivateKey weIdPrivateKey
+    );
+
+    /**
+     * Create evidences of a stream of objects, all signed by the same private key, with bounded
+     * memory. The consumer is called on the calling thread, not in the order of the input.
+     *
+     * @param objects the given Java objects
+     * @param weIdPrivateKey the signer WeID's private key
+     * @param consumer receives each object with its evidence hash
+     * @return the statistic of each pipeline stage
+     */
+    ResponseData<List<StageStatistic>> createEvidenceBatch(
+        Iterator<Hashable> objects,
+        WeIdPrivateKey weIdPrivateKey,
+        BiConsumer<Hashable, ResponseData<String>> consumer
+    );
+
     /**
      * A direct pass-thru method to create raw evidence where all inputs can be customized.
      *
@@ -0,0 +1,307 @@
+
+
+package com.webank.weid.service.rpc;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import com.webank.weid.protocol.base.CredentialPojo;
+import com.webank.weid.protocol.base.EvidenceInfo;
+import com.webank.weid.protocol.base.HashString;
+import com.webank.weid.protocol.base.WeIdAuthentication;
+import com.webank.weid.protocol.base.WeIdPrivateKey;
+import com.webank.weid.protocol.inf.Hashable;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.suite.pipeline.StageStatistic;
+
+/**
+ * Asynchronous counterpart of {@link EvidenceService}.
+ * Each method returns immediately, the future is completed with the response of the
+ * blocking call, or exceptionally if the call throws or the executor rejects it.
+ */
+public interface EvidenceServiceAsync {
+
+    /**
+     * Create a new evidence to blockchain, and return the evidence's hash value on-chain. Supports
+     * following types of input: Credential, CredentialWrapper, CredentialPojo, plain hash String,
+     * After a successful creation, the hash value will be recorded onto blockchain, and this hash
+     * value can be used as key to lookup on blockchain. This will fail if evidence already exists.
+     *
+     * @param object the given Java object
+     * @param weIdPrivateKey the signer WeID's private key
+     * @return evidence hash value. Return empty string if failed, e.g. already existed.
+     */
+    CompletableFuture<ResponseData<String>> createEvidence(
+        Hashable object,
+        WeIdPrivateKey weIdPrivateKey
+    );
+
+    /**
+     * Create a new evidence to blockchain and return the hash value, with appending log. This will
+     * fail if evidence already exists.
+     *
+     * @param object the given Java object
+     * @param log appendable log entry - can be null or empty
+     * @param weIdAuthentication weid authentication (only checks private key)
+     * @return evidence hash value. Return empty string if failed, e.g. already existed.
+     */
+    CompletableFuture<ResponseData<String>> createEvidenceWithLog(
+        Hashable object,
+        String log,
+        WeIdAuthentication weIdAuthentication
+    );
+
+    /**
+     * Create a new evidence together with log and custom key. Other guys can use this custom key,
+     * OR its hash value, to lookup the detailed information of this evidence. Multiple calls of
+     * this method will yield multiple log entries as the same of addLog().
+     *
+     * @param object the given Java object
+     * @param weIdPrivateKey the signer WeID's private key
+     * @param log appendable log entry - can be null or empty
+     * @param customKey custom key determined by creator - it cannot be a hash value though
+     * @return evidence hash value
+     */
+    CompletableFuture<ResponseData<String>> createEvidenceWithLogAndCustomKey(
+        Hashable object,
+        WeIdPrivateKey weIdPrivateKey,
+        String log,
+        String customKey
+    );
+
+    /**
+     * Add log entry for an existing evidence, appending on existing log entries. This log will be
+     * recorded on blockchain permanently, and finally it will be fetched as a list when trying to
+     * get evidence. Log must not be empty.
+     *
+     * @param hashValue hash value
+     * @param log Not null log entry
+     * @param weIdPrivateKey the signer WeID's private key
+     * @return true if succeeded, false otherwise
+     */
+    CompletableFuture<ResponseData<Boolean>> addLogByHash(
+        String hashValue,
+        String log,
+        WeIdPrivateKey weIdPrivateKey
+    );
+
+    /**
+     * Add signature and log as a new signer to an existing evidence, appending on existing log
+     * entries. Log must not be empty. The signer might be different than the existing signers.
+     *
+     * @param hashValue hash value
+     * @param log Not null log entry
+     * @param weIdPrivateKey the signer WeID's private key
+     * @return true if succeeded, false otherwise
+     */
+    CompletableFuture<ResponseData<Boolean>> addSignatureAndLogByHash(
+        String hashValue,
+        String log,
+        WeIdPrivateKey weIdPrivateKey
+    );
+
+    /**
+     * Add log entry for an existing evidence, appending on existing log entries. This log will be
+     * recorded on blockchain permanently, and finally it will be fetched as a list when trying to
+     * get evidence. Log must not be empty. It will firstly try to fetch the hash value given the
+     * custom key, and if the hash value does not exist, it will use the supplementing hash value
+     * (1st parameter) to make up.
+     *
+     * @param hashValueSupplement the hash value supplement if the custom key does not exist
+     * @param customKey custom key
+     * @param log Not null log entry
+     * @param weIdPrivateKey the signer WeID's private key
+     * @return true if succeeded, false otherwise
+     */
+    CompletableFuture<ResponseData<Boolean>> addLogByCustomKey(
+        String hashValueSupplement,
+        String customKey,
+        String log,
+        WeIdPrivateKey weIdPrivateKey
+    );
+
+    /**
+     * Add signature and log as a new signer to an existing evidence. Log can be empty.
+     *
+     * @param hashValueSupplement the hash value supplement if the custom key does not exist
+     * @param customKey custom key
+     * @param log Not null log entry
+     * @param weIdPrivateKey the signer WeID's private key
+     * @return true if succeeded, false otherwise
+     */
+    CompletableFuture<ResponseData<Boolean>> addSignatureAndLogByCustomKey(
+        String hashValueSupplement,
+        String customKey,
+        String log,
+        WeIdPrivateKey weIdPrivateKey
+    );
+
+    /**
+     * Revoke an evidence - which can be un-revoked.
+     *
+     * @param object the object
+     * @param weIdAuthentication the weid authentication
+     * @return true if yes, false otherwise, with error codes
+     */
+    CompletableFuture<ResponseData<Boolean>> revoke(
+        Hashable object,
+        WeIdAuthentication weIdAuthentication
+    );
+
+    /**
+     * Un-revoke an evidence.
+     *
+     * @param object the object
+     * @param weIdAuthentication the weid authentication
+     * @return true if yes, false otherwise, with error codes
+     */
+    CompletableFuture<ResponseData<Boolean>> unRevoke(
+        Hashable object,
+        WeIdAuthentication weIdAuthentication
+    );
+
+    /**
+     * Check whether this evidence is revoked by this WeID.
+     *
+     * @param evidenceInfo the EvidenceInfo
+     * @param weId the signer WeID
+     * @return true if revoked, false otherwise
+     */
+    CompletableFuture<ResponseData<Boolean>> isRevoked(EvidenceInfo evidenceInfo, String weId);
+
+    /**
+     * Get the evidence info from blockchain using hash as key.
+     *
+     * @param hashValue the hash, on chain
+     * @return The EvidenceInfo
+     */
+    CompletableFuture<ResponseData<EvidenceInfo>> getEvidence(String hashValue);
+
+    /**
+     * Get the evidence info from blockchain using custom key.
+     *
+     * @param customKey the custom key, on chain
+     * @return The EvidenceInfo
+     */
+    CompletableFuture<ResponseData<EvidenceInfo>> getEvidenceByCustomKey(String customKey);
+
+    /**
+     * Generate hash value of any passed-in param.
+     *
+     * @param object param to be hashed
+     * @param <T> type of param
+     * @return the hash string
+     */
+    <T> CompletableFuture<ResponseData<HashString>> generateHash(T object);
+
+    /**
+     * Validate whether a credential created the evidence, and this evidence is signed by this WeID
+     * - will perform on-Chain key check.
+     *
+     * @param credentialPojo the credentialPojo
+     * @param evidenceInfo the evidence info fetched from chain
+     * @param weId the WeID
+     * @return true if yes, false otherwise
+     */
+    CompletableFuture<ResponseData<Boolean>> verifySigner(
+        CredentialPojo credentialPojo,
+        EvidenceInfo evidenceInfo,
+        String weId
+    );
+
+    /**
+     * Validate whether a credential created the evidence, and this evidence is signed by this WeID
+     * based on the passed-in publicKey.
+     *
+     * @param credentialPojo the credentialPojo
+     * @param evidenceInfo the evidence info fetched from chain
+     * @param weId the WeID
+     * @param publicKey the public key
+     * @return true if yes, false otherwise
+     */
+    CompletableFuture<ResponseData<Boolean>> verifySigner(
+        CredentialPojo credentialPojo,
+        EvidenceInfo evidenceInfo,
+        String weId,
+        String publicKey
+    );
+
+    /**
+     * Validate a batch of credentials against their evidences on chain, each evidence must be
+     * signed by the issuer of the credential. The credentials are hashed, their evidences are
+     * fetched and the signer documents are resolved (once per signer) in a pipeline.
+     *
+     * @param credentialPojos the credentialPojos
+     * @return the verify result of each credential, in the order of credentialPojos
+     */
+    CompletableFuture<ResponseData<List<ResponseData<Boolean>>>> verifySignerBatch(
+        List<CredentialPojo> credentialPojos
+    );
+
+    /**
+     * Validate a stream of credentials against their evidences on chain, with bounded memory.
+     * The consumer is called on the calling thread, not in the order of the input.
+     *
+     * @param credentialPojos the credentialPojos
+     * @param consumer receives each credentialPojo with its verify result
+     * @return the statistic of each pipeline stage
+     */
+    CompletableFuture<ResponseData<List<StageStatistic>>> verifySignerBatch(
+        Iterator<CredentialPojo> credentialPojos,
+        BiConsumer<CredentialPojo, ResponseData<Boolean>> consumer
+    );
+
+    /**
+     * Create evidences of a batch of objects, all signed by the same private key. The objects are
+     * hashed and signed in parallel, and the evidences are submitted in chunks of
+     * evidence.create.batch.size.
+     *
+     * @param objects the given Java objects
+     * @param weIdPrivateKey the signer WeID's private key
+     * @return the evidence hash of each object, in the order of objects
+     */
+    CompletableFuture<ResponseData<List<ResponseData<String>>>> createEvidenceBatch(
+        List<Hashable> objects,
+        WeIdPrivateKey weIdPrivateKey
+    );
+
+    /**
+     * Create evidences of a stream of objects, all signed by the same private key, with bounded
+     * memory. The consumer is called on the calling thread, not in the order of the input.
+     *
+     * @param objects the given Java objects
+     * @param weIdPrivateKey the signer WeID's private key
+     * @param consumer receives each object with its evidence hash
+     * @return the statistic of each pipeline stage
+     */
+    CompletableFuture<ResponseData<List<StageStatistic>>> createEvidenceBatch(
+        Iterator<Hashable> objects,
+        WeIdPrivateKey weIdPrivateKey,
+        BiConsumer<Hashable, ResponseData<String>> consumer
+    );
+
+    /**
+     * A direct pass-thru method to create raw evidence where all inputs, including signer, can be
+     * customized.
+     *
+     * @param hashValue the hash value
+     * @param signature the signature value
+     * @param log the log
+     * @param timestamp the timestamp
+     * @param extraKey the extra data
+     * @param signer the signer
+     * @param privateKey the private key
+     * @return true if yes, false otherwise
+     */
+    CompletableFuture<ResponseData<Boolean>> createRawEvidenceWithSpecificSigner(
+        String hashValue,
+        String signature,
+        String log,
+        Long timestamp,
+        String extraKey,
+        String signer,
+        String privateKey
+    );
+}
@@ -0,0 +1,115 @@
+
+
+package com.webank.weid.suite.async;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.suite.metrics.MetricsManager;
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * 异步服务使用的执行器, 阻塞的服务调用在该执行器上运行, 调用线程立即返回CompletableFuture.
+ * 线程数与队列长度均有上限, 队列满时返回的Future以RejectedExecutionException异常结束, 不会阻塞调用线程.
+ * 开启虚拟线程时每个调用运行在一个虚拟线程上, 不再限制线程数与队列长度.
+ */
+public final class AsyncExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncExecutors.class);
+
+    /**
+     * 执行器线程数的配置项.
+     */
+    public static final String ASYNC_THREADS = "async.executor.threads";
+
+    /**
+     * 执行器等待队列长度的配置项.
+     */
+    public static final String ASYNC_QUEUE_SIZE = "async.executor.queueSize";
+
+    private static final String DEFAULT_THREADS = "64";
+
+    private static final String DEFAULT_QUEUE_SIZE = "10000";
+
+    private static volatile Executor executor;
+
+    private AsyncExecutors() {
+    }
+
+    /**
+     * 获取默认的执行器, 首次调用时按配置创建.
+     *
+     * @return 返回执行器
+     */
+    public static Executor getExecutor() {
+        if (executor == null) {
+            synchronized (AsyncExecutors.class) {
+                if (executor == null) {
+                    executor = newDefaultExecutor();
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 替换默认的执行器, 只影响之后创建的异步服务.
+     *
+     * @param newExecutor 执行器
+     */
+    public static void setExecutor(Executor newExecutor) {
+        executor = newExecutor;
+    }
+
+    /**
+     * 在执行器上运行阻塞调用.
+     *
+     * @param call 阻塞调用
+     * @param executor 执行器
+     * @param <T> 返回值类型
+     * @return 返回调用结果的Future, 调用抛出异常或执行器拒绝时以异常结束
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> call, Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("[supply] async executor is saturated, reject the call.");
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    private static Executor newDefaultExecutor() {
+        if (VirtualThreads.isEnabled()) {
+            logger.info("[newDefaultExecutor] async executor runs each call on a virtual thread.");
+            return VirtualThreads.newThreadPerTaskExecutor("weid-async");
+        }
+        int threads = Math.max(1,
+            Integer.parseInt(PropertyUtils.getProperty(ASYNC_THREADS, DEFAULT_THREADS)));
+        int queueSize = Math.max(1,
+            Integer.parseInt(PropertyUtils.getProperty(ASYNC_QUEUE_SIZE, DEFAULT_QUEUE_SIZE)));
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            VirtualThreads.threadFactory("weid-async"),
+            new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        MetricsManager.getRegistry().gauge("async.executor.active", pool::getActiveCount);
+        MetricsManager.getRegistry().gauge("async.executor.queued", () -> pool.getQueue().size());
+        logger.info("[newDefaultExecutor] async executor created, threads {}, queue size {}.",
+            threads, queueSize);
+        return pool;
+    }
+}
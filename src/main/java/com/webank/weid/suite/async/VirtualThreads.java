@@ -0,0 +1,239 @@
+
+
+package com.webank.weid.suite.async;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * 虚拟线程支持, 通过async.virtualThreads=true开启.
+ * 运行在JDK 21及以上时批量接口与异步服务的阻塞调用运行在虚拟线程上, 线程数不再受平台线程限制;
+ * 未开启或JDK不支持虚拟线程时使用平台线程, 与原有行为一致.
+ * SDK以Java 8编译, 虚拟线程相关的API通过反射调用.
+ */
+public final class VirtualThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    /**
+     * 是否开启虚拟线程的配置项.
+     */
+    public static final String VIRTUAL_THREADS = "async.virtualThreads";
+
+    private static final Method OF_VIRTUAL;
+
+    private static final Method BUILDER_NAME;
+
+    private static final Method BUILDER_FACTORY;
+
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    private static final boolean ENABLED;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor =
+                Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+        boolean configured =
+            Boolean.parseBoolean(PropertyUtils.getProperty(VIRTUAL_THREADS, "false").trim());
+        if (configured && OF_VIRTUAL == null) {
+            logger.warn("[VirtualThreads] virtual threads are not supported by java {}, "
+                + "use platform threads.", System.getProperty("java.version"));
+        }
+        ENABLED = configured && OF_VIRTUAL != null;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 当前JDK是否支持虚拟线程.
+     *
+     * @return 支持时返回true
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * 是否开启了虚拟线程并且JDK支持.
+     *
+     * @return 开启时返回true
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * 创建线程工厂, 开启虚拟线程时创建虚拟线程, 否则创建守护平台线程.
+     *
+     * @param name 线程名前缀, 线程名为{前缀}-{序号}
+     * @return 返回线程工厂
+     */
+    public static ThreadFactory threadFactory(String name) {
+        if (ENABLED) {
+            return virtualThreadFactory(name);
+        }
+        return platformThreadFactory(name);
+    }
+
+    /**
+     * 创建守护平台线程的线程工厂, 不受虚拟线程配置影响.
+     * 用于调用本地库等会固定载体线程的计算任务.
+     *
+     * @param name 线程名前缀, 线程名为{前缀}-{序号}
+     * @return 返回线程工厂
+     */
+    public static ThreadFactory platformThreadFactory(String name) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 创建未启动的线程, 开启虚拟线程时为虚拟线程, 否则为守护平台线程.
+     *
+     * @param name 线程名
+     * @param runnable 线程执行的逻辑
+     * @return 返回未启动的线程
+     */
+    public static Thread newThread(String name, Runnable runnable) {
+        if (ENABLED) {
+            Thread thread = virtualThreadFactory(name).newThread(runnable);
+            thread.setName(name);
+            return thread;
+        }
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * 创建运行批量任务的执行器, 同时运行的任务数不超过concurrency.
+     * 开启虚拟线程时每个任务一个虚拟线程, 任务在虚拟线程中先获取信号量再执行, 等待中的虚拟线程不占用平台线程;
+     * 否则为固定线程数的平台线程池.
+     *
+     * @param name 线程名前缀
+     * @param concurrency 同时运行的任务数
+     * @return 返回执行器, 使用完毕后由调用方关闭
+     */
+    public static ExecutorService newTaskExecutor(String name, int concurrency) {
+        int permits = Math.max(1, concurrency);
+        if (ENABLED) {
+            return new BoundedExecutor(newThreadPerTaskExecutor(name), permits);
+        }
+        return Executors.newFixedThreadPool(permits, threadFactory(name));
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器, 不限制并发数, 只能在开启虚拟线程时调用.
+     *
+     * @param name 线程名前缀
+     * @return 返回执行器, 使用完毕后由调用方关闭
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String name) {
+        if (!ENABLED) {
+            throw new IllegalStateException("virtual threads are not enabled.");
+        }
+        try {
+            return (ExecutorService)
+                NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, virtualThreadFactory(name));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("create virtual thread executor failed.", e);
+        }
+    }
+
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, name + "-", 1L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("create virtual thread factory failed.", e);
+        }
+    }
+
+    /**
+     * 通过信号量限制同时运行的任务数, 任务提交后立即返回, 在执行任务的线程中等待许可.
+     */
+    static final class BoundedExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+
+        private final Semaphore permits;
+
+        BoundedExecutor(ExecutorService delegate, int concurrency) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(concurrency);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                // 不响应中断, 保证提交的任务总会执行, 调用方的Future不会一直等待
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit)
+            throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+
+
+package com.webank.weid.suite.async;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.suite.metrics.MetricsManager;
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * ZKP证明校验使用的执行器. 校验在WeDPR本地库中完成, 是CPU密集的JNI调用,
+ * 因此固定使用平台线程, 线程数默认为CPU核数, 不受虚拟线程配置影响.
+ * 队列满时由调用线程自行校验, 调用方不会收到拒绝异常.
+ */
+public final class ZkpVerifyExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZkpVerifyExecutor.class);
+
+    /**
+     * 校验线程数的配置项, 小于等于0时使用CPU核数.
+     */
+    public static final String ZKP_VERIFY_CONCURRENCY = "zkp.verify.concurrency";
+
+    private static final int QUEUE_SIZE = 1024;
+
+    private static volatile ExecutorService executor;
+
+    private ZkpVerifyExecutor() {
+    }
+
+    /**
+     * 获取执行器, 首次调用时按配置创建.
+     *
+     * @return 返回执行器
+     */
+    public static ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (ZkpVerifyExecutor.class) {
+                if (executor == null) {
+                    executor = newExecutor();
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 在执行器上运行校验.
+     *
+     * @param task 校验逻辑
+     * @param <T> 返回值类型
+     * @return 返回校验结果的Future, 校验抛出异常时以异常结束
+     */
+    public static <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, getExecutor());
+    }
+
+    /**
+     * 获取校验线程数.
+     *
+     * @return 返回配置的线程数, 未配置时为CPU核数
+     */
+    public static int getConcurrency() {
+        int threads = Integer.parseInt(
+            PropertyUtils.getProperty(ZKP_VERIFY_CONCURRENCY, "0").trim());
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static ExecutorService newExecutor() {
+        int threads = getConcurrency();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_SIZE),
+            VirtualThreads.platformThreadFactory("weid-zkp-verify"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        MetricsManager.getRegistry().gauge("zkp.verify.active", pool::getActiveCount);
+        MetricsManager.getRegistry().gauge("zkp.verify.queued", () -> pool.getQueue().size());
+        logger.info("[newExecutor] zkp verify executor created, threads {}.", threads);
+        return pool;
+    }
+}
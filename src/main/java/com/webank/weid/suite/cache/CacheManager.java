@@ -93,7 +93,7 @@ public class CacheManager {
      * @param maximumSize 缓存项大小
      * @return 返回缓存节点对象
      */
-    private static synchronized CacheNode<Object> initCache(
+    private static CacheNode<Object> initCache(
         String cacheName, 
         Long timeout, 
         Integer maximumSize) {
@@ -103,7 +103,9 @@ public class CacheManager {
                 .maximumSize(maximumSize)
                 .build();
         CacheNode<Object> node = new CacheNode<>(cacheName, cache);
-        context.put(cacheName, node);
+        if (context.putIfAbsent(cacheName, node) != null) {
+            throw new WeIdBaseException("the cacheName is registed, cacheName= " + cacheName);
+        }
         return node;
     }
 }
@@ -0,0 +1,19 @@
+
+
+package com.webank.weid.suite.metrics;
+
+/**
+ * 调用观测的扩展点, 记录服务公开方法及下游调用(持久层, 区块链, HTTP, 签名, Schema校验)的耗时与错误码.
+ * 通过metrics.instrumentation配置, 默认不做任何观测.
+ */
+public interface Instrumentation {
+
+    /**
+     * 开始观测一次调用.
+     *
+     * @param layer 调用所在的层次
+     * @param name 调用名称, 如CredentialPojoService.verify
+     * @return 返回调用对象, 调用结束时需调用其end或fail
+     */
+    Invocation start(InvocationLayer layer, String name);
+}
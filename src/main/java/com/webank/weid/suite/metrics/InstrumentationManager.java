@@ -0,0 +1,192 @@
+
+
+package com.webank.weid.suite.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * 调用观测管理器, 通过metrics.instrumentation配置观测实现:
+ * none(默认, 不观测), jmx(导出到{@link MetricsManager}的注册中心), micrometer, 或实现类的全限定名.
+ * 服务层的方法通过{@link #instrument}在创建服务时包装代理观测, 直接创建的服务实现不会被观测.
+ */
+public class InstrumentationManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentationManager.class);
+
+    /**
+     * 观测实现的配置项.
+     */
+    public static final String METRICS_INSTRUMENTATION = "metrics.instrumentation";
+
+    private static volatile Instrumentation instrumentation;
+
+    private InstrumentationManager() {
+    }
+
+    /**
+     * 获取当前的观测实现.
+     *
+     * @return 返回观测实现
+     */
+    public static Instrumentation getInstrumentation() {
+        if (instrumentation == null) {
+            synchronized (InstrumentationManager.class) {
+                if (instrumentation == null) {
+                    instrumentation = loadInstrumentation();
+                }
+            }
+        }
+        return instrumentation;
+    }
+
+    /**
+     * 替换观测实现, 需在服务初始化之前调用, 否则已创建的持久层与区块链服务不会被观测.
+     *
+     * @param newInstrumentation 观测实现
+     */
+    public static void setInstrumentation(Instrumentation newInstrumentation) {
+        instrumentation = newInstrumentation;
+    }
+
+    /**
+     * 当前是否开启了观测.
+     *
+     * @return 未开启时返回false
+     */
+    public static boolean isEnabled() {
+        return !(getInstrumentation() instanceof NoopInstrumentation);
+    }
+
+    /**
+     * 开始观测一次调用, 用于会抛出受检异常的调用.
+     *
+     * @param layer 调用所在的层次
+     * @param name 调用名称
+     * @return 返回调用对象
+     */
+    public static Invocation start(InvocationLayer layer, String name) {
+        return getInstrumentation().start(layer, name);
+    }
+
+    /**
+     * 观测一次调用, 返回值为ResponseData时记录其错误码.
+     *
+     * @param layer 调用所在的层次
+     * @param name 调用名称
+     * @param call 调用逻辑
+     * @param <R> 返回值类型
+     * @return 返回调用的返回值
+     */
+    public static <R> R trace(InvocationLayer layer, String name, Supplier<R> call) {
+        Invocation invocation = getInstrumentation().start(layer, name);
+        R result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            invocation.fail(e);
+            throw e;
+        }
+        invocation.end(errorCodeOf(result));
+        return result;
+    }
+
+    /**
+     * 为接口实现包装观测代理, 接口的每个方法记录为{前缀}.{方法名}. 未开启观测时直接返回原对象.
+     *
+     * @param type 接口类型
+     * @param target 被包装的实现
+     * @param layer 调用所在的层次
+     * @param prefix 调用名称的前缀
+     * @param <T> 接口类型
+     * @return 返回包装后的实现
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T instrument(Class<T> type, T target, InvocationLayer layer, String prefix) {
+        if (target == null || !isEnabled()) {
+            return target;
+        }
+        return (T) Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[]{type},
+            (proxy, method, args) -> invoke(target, method, args, layer, prefix));
+    }
+
+    private static Object invoke(
+        Object target,
+        Method method,
+        Object[] args,
+        InvocationLayer layer,
+        String prefix) throws Throwable {
+
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeTarget(target, method, args);
+        }
+        Invocation invocation = getInstrumentation().start(layer, prefix + "." + method.getName());
+        Object result;
+        try {
+            result = invokeTarget(target, method, args);
+        } catch (Throwable e) {
+            invocation.fail(e);
+            throw e;
+        }
+        invocation.end(errorCodeOf(result));
+        return result;
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args)
+        throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 获取返回值中的错误码, 不是ResponseData时视为成功.
+     *
+     * @param result 返回值
+     * @return 返回错误码
+     */
+    static int errorCodeOf(Object result) {
+        Integer errorCode = null;
+        if (result instanceof com.webank.weid.protocol.response.ResponseData) {
+            errorCode = ((com.webank.weid.protocol.response.ResponseData<?>) result)
+                .getErrorCode();
+        } else if (result instanceof com.webank.weid.blockchain.protocol.response.ResponseData) {
+            errorCode = ((com.webank.weid.blockchain.protocol.response.ResponseData<?>) result)
+                .getErrorCode();
+        }
+        return errorCode == null ? 0 : errorCode;
+    }
+
+    private static Instrumentation loadInstrumentation() {
+        String value = StringUtils.trimToEmpty(
+            PropertyUtils.getProperty(METRICS_INSTRUMENTATION));
+        if (StringUtils.isEmpty(value) || "none".equalsIgnoreCase(value)) {
+            return new NoopInstrumentation();
+        }
+        if ("jmx".equalsIgnoreCase(value)) {
+            return new RegistryInstrumentation();
+        }
+        try {
+            if ("micrometer".equalsIgnoreCase(value)) {
+                return new MicrometerInstrumentation();
+            }
+            return (Instrumentation) Class.forName(value).newInstance();
+        } catch (Exception | LinkageError e) {
+            logger.error("[loadInstrumentation] load instrumentation {} failed, disabled.",
+                value, e);
+        }
+        return new NoopInstrumentation();
+    }
+}
@@ -0,0 +1,37 @@
+
+
+package com.webank.weid.suite.metrics;
+
+/**
+ * 一次被观测的调用, 由{@link Instrumentation#start}创建,
+ * 调用结束时在同一线程上调用end或fail中的一个, 且只调用一次.
+ */
+public interface Invocation {
+
+    /**
+     * 无操作的调用, 未开启观测时使用.
+     */
+    Invocation NOOP = new Invocation() {
+        @Override
+        public void end(int errorCode) {
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+        }
+    };
+
+    /**
+     * 调用正常返回.
+     *
+     * @param errorCode 返回的错误码, 成功为0
+     */
+    void end(int errorCode);
+
+    /**
+     * 调用抛出异常.
+     *
+     * @param cause 抛出的异常
+     */
+    void fail(Throwable cause);
+}
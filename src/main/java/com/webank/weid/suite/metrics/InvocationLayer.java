@@ -0,0 +1,49 @@
+
+
+package com.webank.weid.suite.metrics;
+
+/**
+ * 被观测调用所在的层次, 用于区分一次请求的耗时来自服务本身还是下游调用.
+ */
+public enum InvocationLayer {
+
+    /**
+     * 对外服务的公开方法.
+     */
+    SERVICE("service"),
+
+    /**
+     * 持久层驱动调用.
+     */
+    PERSISTENCE("persistence"),
+
+    /**
+     * 区块链服务调用.
+     */
+    BLOCKCHAIN("blockchain"),
+
+    /**
+     * HTTP调用, 如可信时间戳服务.
+     */
+    HTTP("http"),
+
+    /**
+     * 签名与验签.
+     */
+    CRYPTO("crypto"),
+
+    /**
+     * JSON Schema校验.
+     */
+    SCHEMA("schema");
+
+    private final String code;
+
+    InvocationLayer(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,203 @@
+
+
+package com.webank.weid.suite.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 基于JMX的指标注册中心, 每个指标注册为一个MXBean,
+ * ObjectName为com.webank.weid:type={Gauge|Counter|Timer},name={指标名}.
+ */
+public class JmxMetricsRegistry implements MetricsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(JmxMetricsRegistry.class);
+
+    private static final String DOMAIN = "com.webank.weid";
+
+    private final MBeanServer server;
+
+    private final Map<String, Supplier<Number>> gauges = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+    public JmxMetricsRegistry() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxMetricsRegistry(MBeanServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void gauge(String name, Supplier<Number> supplier) {
+        if (gauges.putIfAbsent(name, supplier) == null) {
+            register(
+                "Gauge", name, (GaugeMXBean) () -> supplier.get().doubleValue(), GaugeMXBean.class);
+        }
+    }
+
+    @Override
+    public void recordTime(String name, long nanos) {
+        getTimer(name).record(nanos);
+    }
+
+    @Override
+    public void increment(String name) {
+        getCounter(name).increment();
+    }
+
+    /**
+     * 获取计时器, 不存在则创建并注册.
+     *
+     * @param name 指标名
+     * @return 返回计时器对应的直方图
+     */
+    public LatencyHistogram getTimer(String name) {
+        LatencyHistogram timer = timers.get(name);
+        if (timer != null) {
+            return timer;
+        }
+        LatencyHistogram created = new LatencyHistogram();
+        timer = timers.putIfAbsent(name, created);
+        if (timer == null) {
+            register("Timer", name, new Timer(created), TimerMXBean.class);
+            timer = created;
+        }
+        return timer;
+    }
+
+    /**
+     * 获取计数器, 不存在则创建并注册.
+     *
+     * @param name 指标名
+     * @return 返回计数器
+     */
+    public LongAdder getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        if (counter != null) {
+            return counter;
+        }
+        LongAdder created = new LongAdder();
+        counter = counters.putIfAbsent(name, created);
+        if (counter == null) {
+            register("Counter", name, (CounterMXBean) created::sum, CounterMXBean.class);
+            counter = created;
+        }
+        return counter;
+    }
+
+    private <T> void register(String type, String name, T bean, Class<T> mbeanInterface) {
+        try {
+            ObjectName objectName = objectName(type, name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(new StandardMBean(bean, mbeanInterface, true), objectName);
+        } catch (JMException e) {
+            // 注册失败不影响指标采集, 只是无法通过JMX查看
+            logger.warn("[register] register metrics {} to JMX failed.", name, e);
+        }
+    }
+
+    private static ObjectName objectName(String type, String name)
+        throws MalformedObjectNameException {
+        try {
+            return new ObjectName(DOMAIN + ":type=" + type + ",name=" + name);
+        } catch (MalformedObjectNameException e) {
+            return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+        }
+    }
+
+    /**
+     * 瞬时值指标.
+     */
+    public interface GaugeMXBean {
+
+        double getValue();
+    }
+
+    /**
+     * 计数指标.
+     */
+    public interface CounterMXBean {
+
+        long getCount();
+    }
+
+    /**
+     * 耗时指标, 时间单位为毫秒.
+     */
+    public interface TimerMXBean {
+
+        long getCount();
+
+        double getMeanMillis();
+
+        double getMaxMillis();
+
+        double getP50Millis();
+
+        double getP95Millis();
+
+        double getP99Millis();
+    }
+
+    private static class Timer implements TimerMXBean {
+
+        private final LatencyHistogram histogram;
+
+        Timer(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return toMillis(histogram.getMeanMicros());
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return toMillis(histogram.getMaxMicros());
+        }
+
+        @Override
+        public double getP50Millis() {
+            return toMillis(histogram.getPercentileMicros(0.5));
+        }
+
+        @Override
+        public double getP95Millis() {
+            return toMillis(histogram.getPercentileMicros(0.95));
+        }
+
+        @Override
+        public double getP99Millis() {
+            return toMillis(histogram.getPercentileMicros(0.99));
+        }
+
+        private static double toMillis(long micros) {
+            return micros / (double) TimeUnit.MILLISECONDS.toMicros(1);
+        }
+    }
+}
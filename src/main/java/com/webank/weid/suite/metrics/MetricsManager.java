@@ -0,0 +1,65 @@
+
+
+package com.webank.weid.suite.metrics;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * 指标注册中心管理器, 通过metrics.registry配置实现类的全限定名, 未配置时使用JMX导出.
+ */
+public class MetricsManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsManager.class);
+
+    /**
+     * 指标注册中心实现类的配置项.
+     */
+    public static final String METRICS_REGISTRY = "metrics.registry";
+
+    private static volatile MetricsRegistry registry;
+
+    private MetricsManager() {
+    }
+
+    /**
+     * 获取当前的指标注册中心.
+     *
+     * @return 返回指标注册中心
+     */
+    public static MetricsRegistry getRegistry() {
+        if (registry == null) {
+            synchronized (MetricsManager.class) {
+                if (registry == null) {
+                    registry = loadRegistry();
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * 替换指标注册中心, 需在持久层初始化之前调用, 否则已注册的瞬时值指标不会迁移.
+     *
+     * @param metricsRegistry 指标注册中心
+     */
+    public static void setRegistry(MetricsRegistry metricsRegistry) {
+        registry = metricsRegistry;
+    }
+
+    private static MetricsRegistry loadRegistry() {
+        String className = PropertyUtils.getProperty(METRICS_REGISTRY);
+        if (StringUtils.isNotBlank(className)) {
+            try {
+                return (MetricsRegistry) Class.forName(className.trim()).newInstance();
+            } catch (Exception e) {
+                logger.error("[loadRegistry] load metrics registry {} failed, use JMX.",
+                    className, e);
+            }
+        }
+        return new JmxMetricsRegistry();
+    }
+}
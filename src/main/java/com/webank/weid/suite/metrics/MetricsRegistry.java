@@ -0,0 +1,35 @@
+
+
+package com.webank.weid.suite.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * 指标注册中心, 用于导出连接池与持久层的运行指标.
+ * 默认实现为{@link JmxMetricsRegistry}, 可通过metrics.registry配置替换为其他实现.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * 注册一个瞬时值指标, 同名指标重复注册时保留第一次注册的值来源.
+     *
+     * @param name 指标名
+     * @param supplier 指标值来源
+     */
+    void gauge(String name, Supplier<Number> supplier);
+
+    /**
+     * 记录一次耗时.
+     *
+     * @param name 指标名
+     * @param nanos 耗时, 单位纳秒
+     */
+    void recordTime(String name, long nanos);
+
+    /**
+     * 计数加一.
+     *
+     * @param name 指标名
+     */
+    void increment(String name);
+}
@@ -0,0 +1,105 @@
+
+
+package com.webank.weid.suite.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 基于Micrometer的观测实现, micrometer-core需由使用方引入.
+ * 耗时记录在计时器weid.invocation, 带layer, method与outcome(success, error, exception)标签,
+ * 并发布百分位直方图; 错误记录在计数器weid.invocation.errors, 带layer, method与code标签,
+ * 抛出异常时code为异常类名.
+ */
+public class MicrometerInstrumentation implements Instrumentation {
+
+    public static final String TIMER_NAME = "weid.invocation";
+
+    public static final String ERROR_COUNTER_NAME = "weid.invocation.errors";
+
+    private static final String OUTCOME_SUCCESS = "success";
+
+    private static final String OUTCOME_ERROR = "error";
+
+    private static final String OUTCOME_EXCEPTION = "exception";
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 使用Micrometer的全局注册中心.
+     */
+    public MicrometerInstrumentation() {
+        this(Metrics.globalRegistry);
+    }
+
+    public MicrometerInstrumentation(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Invocation start(InvocationLayer layer, String name) {
+        return new MicrometerInvocation(layer, name, System.nanoTime());
+    }
+
+    private Timer getTimer(InvocationLayer layer, String name, String outcome) {
+        return timers.computeIfAbsent(layer.getCode() + "|" + name + "|" + outcome,
+            key -> Timer.builder(TIMER_NAME)
+                .tag("layer", layer.getCode())
+                .tag("method", name)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private Counter getCounter(InvocationLayer layer, String name, String code) {
+        return counters.computeIfAbsent(layer.getCode() + "|" + name + "|" + code,
+            key -> Counter.builder(ERROR_COUNTER_NAME)
+                .tag("layer", layer.getCode())
+                .tag("method", name)
+                .tag("code", code)
+                .register(registry));
+    }
+
+    private class MicrometerInvocation implements Invocation {
+
+        private final InvocationLayer layer;
+
+        private final String name;
+
+        private final long startNanos;
+
+        MicrometerInvocation(InvocationLayer layer, String name, long startNanos) {
+            this.layer = layer;
+            this.name = name;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void end(int errorCode) {
+            long elapsed = System.nanoTime() - startNanos;
+            if (errorCode == 0) {
+                getTimer(layer, name, OUTCOME_SUCCESS).record(elapsed, TimeUnit.NANOSECONDS);
+                return;
+            }
+            getTimer(layer, name, OUTCOME_ERROR).record(elapsed, TimeUnit.NANOSECONDS);
+            getCounter(layer, name, String.valueOf(errorCode)).increment();
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+            long elapsed = System.nanoTime() - startNanos;
+            getTimer(layer, name, OUTCOME_EXCEPTION).record(elapsed, TimeUnit.NANOSECONDS);
+            getCounter(layer, name, cause.getClass().getSimpleName()).increment();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+
+
+package com.webank.weid.suite.metrics;
+
+/**
+ * 默认的观测实现, 不记录任何数据.
+ */
+public class NoopInstrumentation implements Instrumentation {
+
+    @Override
+    public Invocation start(InvocationLayer layer, String name) {
+        return Invocation.NOOP;
+    }
+}
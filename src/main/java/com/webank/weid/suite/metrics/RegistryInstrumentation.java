@@ -0,0 +1,66 @@
+
+
+package com.webank.weid.suite.metrics;
+
+/**
+ * 基于{@link MetricsRegistry}的观测实现, 默认即导出到JMX.
+ * 耗时记录在计时器invoke.{层次}.{调用名称}, 错误码非0时递增计数器invoke.{层次}.{调用名称}.error.{错误码},
+ * 抛出异常时递增计数器invoke.{层次}.{调用名称}.exception.{异常类名}.
+ */
+public class RegistryInstrumentation implements Instrumentation {
+
+    private static final String PREFIX = "invoke.";
+
+    private final MetricsRegistry registry;
+
+    public RegistryInstrumentation() {
+        this(null);
+    }
+
+    /**
+     * 构建观测实现.
+     *
+     * @param registry 指标注册中心, 为null时每次使用MetricsManager中的当前注册中心
+     */
+    public RegistryInstrumentation(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Invocation start(InvocationLayer layer, String name) {
+        return new RegistryInvocation(PREFIX + layer.getCode() + "." + name, System.nanoTime());
+    }
+
+    private MetricsRegistry getRegistry() {
+        return registry == null ? MetricsManager.getRegistry() : registry;
+    }
+
+    private class RegistryInvocation implements Invocation {
+
+        private final String metricName;
+
+        private final long startNanos;
+
+        RegistryInvocation(String metricName, long startNanos) {
+            this.metricName = metricName;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void end(int errorCode) {
+            MetricsRegistry metricsRegistry = getRegistry();
+            metricsRegistry.recordTime(metricName, System.nanoTime() - startNanos);
+            if (errorCode != 0) {
+                metricsRegistry.increment(metricName + ".error." + errorCode);
+            }
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+            MetricsRegistry metricsRegistry = getRegistry();
+            metricsRegistry.recordTime(metricName, System.nanoTime() - startNanos);
+            metricsRegistry.increment(
+                metricName + ".exception." + cause.getClass().getSimpleName());
+        }
+    }
+}
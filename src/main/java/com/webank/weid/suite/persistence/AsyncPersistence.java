@@ -0,0 +1,39 @@
+
+
+package com.webank.weid.suite.persistence;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.webank.weid.blockchain.protocol.base.WeIdDocument;
+import com.webank.weid.blockchain.protocol.base.WeIdDocumentMetadata;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+
+/**
+ * Data access driver that can also read without blocking the calling thread.
+ * The async services read through these methods when the driver implements them,
+ * and run the blocking methods on their executor otherwise.
+ */
+public interface AsyncPersistence extends Persistence {
+
+    /**
+     * query WeIdDocument from storage by id without blocking.
+     *
+     * @param domain the domain of the data.
+     * @param weId the key of the data.
+     * @return the future of the data you stored.
+     */
+    public CompletableFuture<ResponseData<WeIdDocument>> getWeIdDocumentAsync(
+        String domain,
+        String weId);
+
+    /**
+     * query WeIdDocumentMetadata from storage by id without blocking.
+     *
+     * @param domain the domain of the data.
+     * @param weId the key of the data.
+     * @return the future of the data you stored.
+     */
+    public CompletableFuture<ResponseData<WeIdDocumentMetadata>> getMetaAsync(
+        String domain,
+        String weId);
+}
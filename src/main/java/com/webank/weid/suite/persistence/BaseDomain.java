@@ -29,6 +29,11 @@ public class BaseDomain {
      */
     public static final String DEFAULT_TABLE = "default_info";
 
+    /**
+     * 未配置local.sequence时序列表的表名.
+     */
+    public static final String DEFAULT_SEQUENCE_TABLE = "table_sequence";
+
     /**
      * the domain key.
      */
@@ -54,6 +59,49 @@ public class BaseDomain {
      */
     public long timeout = 86400000L;
 
+    /**
+     * 读取domain的配置值. 升级前的配置中没有local.sequence, 此时序列表放在local.cpt所在的数据源,
+     * local.cpt也未配置时放在默认domain的数据源, 都未配置时返回空, 由{@link #hasDefaultTable()}处理.
+     *
+     * @return domain的配置值
+     */
+    protected String resolveDomainValue() {
+        String domainValue = PropertyUtils.getProperty(this.key);
+        if (StringUtils.isNotBlank(domainValue)
+            || !DataDriverConstant.LOCAL_SEQUENCE.equals(this.key)) {
+            return domainValue;
+        }
+        for (String fallback : new String[]{
+            DataDriverConstant.LOCAL_CPT, DataDriverConstant.DOMAIN_DEFAULT_INFO}) {
+            String[] domains = StringUtils.defaultString(PropertyUtils.getProperty(fallback))
+                .split(VALUE_SPLIT_CHAR);
+            if (domains.length == 2) {
+                return domains[0] + VALUE_SPLIT_CHAR + DEFAULT_SEQUENCE_TABLE;
+            }
+        }
+        return domainValue;
+    }
+
+    /**
+     * 未配置时是否使用默认的数据源与表, 默认domain与序列表可以不配置.
+     *
+     * @return 可以不配置时返回true
+     */
+    protected boolean hasDefaultTable() {
+        return DataDriverConstant.DOMAIN_DEFAULT_INFO.equals(this.key)
+            || DataDriverConstant.LOCAL_SEQUENCE.equals(this.key);
+    }
+
+    /**
+     * 未配置时使用的表名.
+     *
+     * @return 表名
+     */
+    protected String getDefaultTable() {
+        return DataDriverConstant.LOCAL_SEQUENCE.equals(this.key)
+            ? DEFAULT_SEQUENCE_TABLE : DEFAULT_TABLE;
+    }
+
     /**
      * resolve Domain Timeout.
      *
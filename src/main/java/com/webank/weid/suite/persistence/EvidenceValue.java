@@ -3,9 +3,18 @@ package com.webank.weid.suite.persistence;
 import lombok.Data;
 
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
 
 @Data
 public class EvidenceValue {
+
+    /**
+     * 签名者、签名、日志、时间与撤销状态按签名顺序以该字符拼接.
+     */
+    public static final String SIGN_INFO_SPLIT = ";";
     /**
      * 主键，hash.
      */
@@ -51,4 +60,64 @@ public class EvidenceValue {
      */
     private String group_id;
 
+    /**
+     * 在当前存证记录的各列表末尾追加一条签名信息, 返回需要更新的字段.
+     *
+     * @param record 当前存证记录
+     * @param signer 签名者
+     * @param signature 签名
+     * @param log 日志
+     * @param updated 签名时间
+     * @param revoked 撤销状态
+     * @param extraKey 新的extra_key, 为空时保持不变
+     * @return 需要更新的字段
+     */
+    public static Map<String, Object> appendSignInfo(
+        Map<String, String> record,
+        String signer,
+        String signature,
+        String log,
+        String updated,
+        String revoked,
+        String extraKey) {
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("signers", record.get("signers") + SIGN_INFO_SPLIT + signer);
+        fields.put("signatures", record.get("signatures") + SIGN_INFO_SPLIT + signature);
+        fields.put("logs", record.get("logs") + SIGN_INFO_SPLIT + log);
+        fields.put("updated", record.get("updated") + SIGN_INFO_SPLIT + updated);
+        fields.put("revoked", record.get("revoked") + SIGN_INFO_SPLIT + revoked);
+        fields.put("extra_key", StringUtils.isEmpty(extraKey) ? null : extraKey);
+        return fields;
+    }
+
+    /**
+     * 修改当前存证记录中该签名者所有签名的撤销状态与时间, 返回需要更新的字段.
+     *
+     * @param record 当前存证记录
+     * @param signer 签名者
+     * @param revoked 撤销状态
+     * @param updated 时间
+     * @return 需要更新的字段
+     */
+    public static Map<String, Object> revokeSignInfo(
+        Map<String, String> record,
+        String signer,
+        String revoked,
+        String updated) {
+
+        String[] signerList = record.get("signers").split(SIGN_INFO_SPLIT);
+        String[] revokedList = record.get("revoked").split(SIGN_INFO_SPLIT);
+        String[] updatedList = record.get("updated").split(SIGN_INFO_SPLIT);
+        for (int i = 0; i < signerList.length; i++) {
+            if (signerList[i].equals(signer)) {
+                revokedList[i] = revoked;
+                updatedList[i] = updated;
+            }
+        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("updated", String.join(SIGN_INFO_SPLIT, updatedList));
+        fields.put("revoked", String.join(SIGN_INFO_SPLIT, revokedList));
+        return fields;
+    }
 }
@@ -185,6 +185,22 @@ public interface Persistence {
      * @return the data you stored.
      */
     public ResponseData<Integer> addPolicy(String domain, int policyId, String publisher, String description, String cptSchema, String cptSignature);
+
+    /**
+     * reserve a block of ids from a named sequence in one round trip.
+     *
+     * @param domain the domain of the sequence.
+     * @param name the name of the sequence.
+     * @param initialValue the first id of the sequence, used when the sequence does not exist.
+     * @param blockSize the number of ids to reserve.
+     * @return the first id of the reserved block, the block is [result, result + blockSize).
+     */
+    public ResponseData<Long> reserveSequence(
+        String domain,
+        String name,
+        long initialValue,
+        int blockSize);
+
     /**
      * query presentation from storage by presentationId.
      *
@@ -298,6 +314,17 @@ public interface Persistence {
      */
     public ResponseData<AuthorityIssuerInfo> getAuthorityIssuerByWeId(String domain, String weId);
 
+    /**
+     * query authority issuers by weids in one round trip.
+     *
+     * @param domain the domain of the data.
+     * @param weIds the keys of the data.
+     * @return the authority issuers found, in the order of the given weids, missing ones skipped.
+     */
+    public ResponseData<List<AuthorityIssuerInfo>> getAuthorityIssuersByWeIds(
+        String domain,
+        List<String> weIds);
+
     /**
      * query authority issuer by name.
      *
@@ -418,6 +445,19 @@ public interface Persistence {
      */
     public ResponseData<List<String>> getIssuerTypeList(String domain, Integer first, Integer last);
 
+    /**
+     * query several SpecificTypes with all columns in one round trip.
+     *
+     * @param domain the domain of the data.
+     * @param first the first index of the SpecificTypes.
+     * @param last the last index (exclusive) of the SpecificTypes.
+     * @return the SpecificTypes in the same order as getIssuerTypeList.
+     */
+    public ResponseData<List<SpecificTypeValue>> getSpecificTypeList(
+        String domain,
+        Integer first,
+        Integer last);
+
     /**
      * add evidence with hashValue to storage.
      *
@@ -430,7 +470,8 @@ public interface Persistence {
      * @param revoked the revoked of the evidence.
      * @param extraKey the extraKey of the evidence.
      * @param group_id the group_id of the evidence.
-     * @return execute status of the "add" operation.
+     * @return execute status of the "add" operation, fails with
+     *     CREDENTIAL_EVIDENCE_ALREADY_EXISTS if the hash already exists.
      */
     public ResponseData<Integer> addEvidenceByHash(String domain, String hashValue, String signer, String signature, String log, String updated, String revoked, String extraKey, String group_id);
 
@@ -458,6 +499,35 @@ public interface Persistence {
      */
     public ResponseData<Integer> addSignatureAndLogs(String domain, String hashValue, String signer, String signature, String log, String updated, String revoked, String extraKey);
 
+    /**
+     * append a signature and log to the evidence in one atomic write, so concurrent
+     * appends to the same evidence are all kept.
+     *
+     * @param domain the domain of the data.
+     * @param hashValue the hashValue of the evidence.
+     * @param signer the signer to append.
+     * @param signature the signature to append.
+     * @param log the log to append.
+     * @param updated the updated time to append.
+     * @param revoked the revoked status to append.
+     * @param extraKey the new extraKey of the evidence, empty to keep the current one.
+     * @return 1 if appended, 0 if the evidence does not exist.
+     */
+    public ResponseData<Integer> appendEvidenceSignInfo(String domain, String hashValue, String signer, String signature, String log, String updated, String revoked, String extraKey);
+
+    /**
+     * set the revoked status and updated time of every signature by the signer in one
+     * atomic write.
+     *
+     * @param domain the domain of the data.
+     * @param hashValue the hashValue of the evidence.
+     * @param signer the signer whose signatures are revoked or un-revoked.
+     * @param revoked the new revoked status.
+     * @param updated the new updated time.
+     * @return 1 if updated, 0 if the evidence does not exist.
+     */
+    public ResponseData<Integer> revokeEvidence(String domain, String hashValue, String signer, String revoked, String updated);
+
     /**
      * query evidence by hash.
      *
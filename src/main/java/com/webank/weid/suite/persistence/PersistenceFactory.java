@@ -7,8 +7,13 @@ import org.slf4j.LoggerFactory;
 
 import com.webank.weid.blockchain.constant.ErrorCode;
 import com.webank.weid.exception.WeIdBaseException;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
+import com.webank.weid.suite.persistence.embedded.driver.EmbeddedDriver;
+import com.webank.weid.suite.persistence.memory.driver.MemoryDriver;
 import com.webank.weid.suite.persistence.mysql.driver.MysqlDriver;
 import com.webank.weid.suite.persistence.redis.driver.RedisDriver;
+import com.webank.weid.util.PropertyUtils;
 
 /**
  * 数据库工厂, 根据不同类型的数据库得到相应的数据库.
@@ -19,6 +24,11 @@ public class PersistenceFactory {
 
     private static final Logger logger = LoggerFactory.getLogger(PersistenceFactory.class);
 
+    /**
+     * 数据库类型的配置项.
+     */
+    private static final String PERSISTENCE_TYPE = "persistence_type";
+
     private static Persistence newMysqlDriver() {
         return new MysqlDriver();
     }
@@ -27,17 +37,66 @@ public class PersistenceFactory {
         return new RedisDriver();
     }
 
+    private static Persistence newEmbeddedDriver() {
+        return new EmbeddedDriver();
+    }
+
+    private static Persistence newMemoryDriver() {
+        return new MemoryDriver();
+    }
+
+    /**
+     * 根据配置项persistence_type实例化对应的实例对象, 取值为mysql, redis, embedded或memory.
+     * @return 返回具体处理类型
+     */
+    public static Persistence build() {
+        return build(getPersistenceType());
+    }
+
     /**
-     * 根据封装类型实例化对应的实例对象, 此方法目前支持Mysql, Redis.
+     * 根据封装类型实例化对应的实例对象, 此方法目前支持Mysql, Redis, Embedded, Memory.
+     * 开启调用观测时返回的实例会记录每个方法的耗时与错误码, 支持异步读取的驱动仍为{@link AsyncPersistence}.
      * @param persistenceType 封装类型枚举
      * @return 返回具体处理类型
      */
     public static Persistence build(PersistenceType persistenceType) {
+        Persistence driver = newDriver(persistenceType);
+        String prefix = persistenceType.name().toLowerCase();
+        if (driver instanceof AsyncPersistence) {
+            return InstrumentationManager.instrument(
+                AsyncPersistence.class,
+                (AsyncPersistence) driver,
+                InvocationLayer.PERSISTENCE,
+                prefix);
+        }
+        return InstrumentationManager.instrument(
+            Persistence.class,
+            driver,
+            InvocationLayer.PERSISTENCE,
+            prefix);
+    }
+
+    private static PersistenceType getPersistenceType() {
+        String type = PropertyUtils.getProperty(PERSISTENCE_TYPE);
+        for (PersistenceType persistenceType : PersistenceType.values()) {
+            if (persistenceType.name().equalsIgnoreCase(type)) {
+                return persistenceType;
+            }
+        }
+        logger.error("the {} = {} unsupported.", PERSISTENCE_TYPE, type);
+        throw new WeIdBaseException(ErrorCode.THIS_IS_UNSUPPORTED);
+    }
+
+    private static Persistence newDriver(PersistenceType persistenceType) {
         switch (persistenceType) {
             case Mysql:
                 return newMysqlDriver();
             case Redis:
                 return newRedisDriver();
+            case Embedded:
+                return newEmbeddedDriver();
+            case Memory:
+                return newMemoryDriver();
             default:
                 logger.error("the type = {} unsupported.", persistenceType.name());
                 throw new WeIdBaseException(ErrorCode.THIS_IS_UNSUPPORTED);
@@ -0,0 +1,119 @@
+
+
+package com.webank.weid.suite.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.exception.DatabaseException;
+
+/**
+ * 基于存储的编号分配器, 每次从存储中预留一段编号, 之后在本地通过AtomicLong分配,
+ * 一段编号用完后才再次访问存储. 多个节点共用同一个序列时各自预留不同的编号段,
+ * 因此编号全局唯一但不保证连续. 节点重启时未用完的编号被跳过, 每次重启每个序列最多浪费blockSize个编号.
+ */
+public class SequenceAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceAllocator.class);
+
+    private final Persistence persistence;
+
+    private final String domain;
+
+    private final String name;
+
+    private final long initialValue;
+
+    private final int blockSize;
+
+    /**
+     * 预留编号段时需要访问存储, 使用ReentrantLock避免虚拟线程被固定在平台线程上.
+     */
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    private volatile Block block;
+
+    /**
+     * 构建编号分配器.
+     *
+     * @param persistence 保存序列的存储
+     * @param domain 序列所在的domain
+     * @param name 序列名称
+     * @param initialValue 序列不存在时的第一个编号
+     * @param blockSize 每次预留的编号个数
+     */
+    public SequenceAllocator(
+        Persistence persistence,
+        String domain,
+        String name,
+        long initialValue,
+        int blockSize) {
+
+        this.persistence = persistence;
+        this.domain = domain;
+        this.name = name;
+        this.initialValue = initialValue;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /**
+     * 分配下一个编号, 当前编号段用完时由一个线程预留下一段, 其他线程等待.
+     *
+     * @return 返回编号
+     * @throws DatabaseException 预留编号段失败
+     */
+    public long next() {
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                long id = current.next.getAndIncrement();
+                if (id < current.end) {
+                    return id;
+                }
+            }
+            leaseLock.lock();
+            try {
+                if (block == current) {
+                    block = lease();
+                }
+            } finally {
+                leaseLock.unlock();
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private Block lease() {
+        ResponseData<Long> response =
+            persistence.reserveSequence(domain, name, initialValue, blockSize);
+        if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()
+            || response.getResult() == null) {
+            logger.error("[lease] reserve ids of sequence {} failed, errorCode: {}.",
+                name, response.getErrorCode());
+            throw new DatabaseException("database error!");
+        }
+        long first = response.getResult();
+        logger.info("[lease] sequence {} reserved ids [{}, {}).", name, first, first + blockSize);
+        return new Block(first, first + blockSize);
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+
+        private final long end;
+
+        Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+
+
+package com.webank.weid.suite.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.apache.commons.lang3.StringUtils;
+
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.exception.DataTypeCastException;
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * 持久化数据的二进制编码.
+ * JSON文本转换为Smile或CBOR, 超过阈值时再做Deflate压缩, 编码结果的首字节记录格式.
+ * 格式字节取值为0xF8-0xFD, UTF-8文本中不会出现这些字节, 因此旧版本写入的文本数据可以原样读取.
+ * 转换后无法还原为原文的JSON(例如带缩进或浮点数写法不同)按文本保存, 读取结果与写入时完全一致.
+ */
+public final class ValueCodec {
+
+    /**
+     * 格式字节的标记位, 低三位中第一位表示是否压缩, 其余两位为格式编号.
+     */
+    private static final int MARKER = 0xF8;
+
+    private static final int DEFLATED = 0x01;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static volatile ValueCodec instance;
+
+    /**
+     * 数据的编码格式.
+     */
+    public enum Format {
+
+        /**
+         * UTF-8文本.
+         */
+        TEXT(0, null),
+
+        /**
+         * Jackson Smile.
+         */
+        SMILE(1, new SmileFactory()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)),
+
+        /**
+         * CBOR.
+         */
+        CBOR(2, new CBORFactory());
+
+        private final int id;
+
+        private final JsonFactory factory;
+
+        Format(int id, JsonFactory factory) {
+            this.id = id;
+            this.factory = factory;
+        }
+
+        private static Format fromId(int id) {
+            for (Format format : values()) {
+                if (format.id == id) {
+                    return format;
+                }
+            }
+            throw new DataTypeCastException("unknown value format: " + id);
+        }
+    }
+
+    private final Format format;
+
+    private final int compressThreshold;
+
+    /**
+     * 创建编码器.
+     *
+     * @param format JSON数据使用的格式, TEXT表示只压缩不转换
+     * @param compressThreshold 数据达到该字节数时压缩, 小于等于0时不压缩
+     */
+    public ValueCodec(Format format, int compressThreshold) {
+        this.format = format;
+        this.compressThreshold = compressThreshold;
+    }
+
+    /**
+     * 获取配置的编码器, persistence.value.codec为json时返回null, 表示按文本保存.
+     *
+     * @return 返回编码器
+     */
+    public static ValueCodec getInstance() {
+        if (instance == null) {
+            synchronized (ValueCodec.class) {
+                if (instance == null) {
+                    instance = fromProperties();
+                }
+            }
+        }
+        return instance.format == null ? null : instance;
+    }
+
+    /**
+     * 按配置编码写入MySQL blob列的数据, 未开启编码或编码后没有变小时返回原文.
+     *
+     * @param value 原始数据
+     * @return 返回写入的列值, 为String或byte[]
+     */
+    public static Object encodeColumn(String value) {
+        ValueCodec codec = getInstance();
+        if (codec == null || StringUtils.isEmpty(value)) {
+            return value;
+        }
+        byte[] encoded = codec.encode(value);
+        return encoded.length < value.getBytes(StandardCharsets.UTF_8).length ? encoded : value;
+    }
+
+    /**
+     * 判断数据是否由本类编码.
+     *
+     * @param bytes 读取的数据
+     * @return 首字节为格式字节时返回true
+     */
+    public static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length > 0
+            && (bytes[0] & 0xFF) >= MARKER
+            && (bytes[0] & 0xFF) <= (MARKER | Format.CBOR.id << 1 | DEFLATED);
+    }
+
+    /**
+     * 解码数据, 未编码的数据按UTF-8文本读取.
+     *
+     * @param bytes 读取的数据
+     * @return 返回原始数据
+     */
+    public static String decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (!isEncoded(bytes)) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        Format format = Format.fromId((bytes[0] & 0x07) >> 1);
+        byte[] body = (bytes[0] & DEFLATED) != 0
+            ? inflate(bytes)
+            : Arrays.copyOfRange(bytes, 1, bytes.length);
+        if (format == Format.TEXT) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        try {
+            return toText(format, body);
+        } catch (IOException e) {
+            throw new DataTypeCastException(e);
+        }
+    }
+
+    /**
+     * 编码数据.
+     *
+     * @param value 原始数据
+     * @return 返回首字节为格式字节的编码结果
+     */
+    public byte[] encode(String value) {
+        Format target = Format.TEXT;
+        byte[] body = null;
+        if (format != Format.TEXT && isJson(value)) {
+            body = toBinary(format, value);
+            if (body != null) {
+                target = format;
+            }
+        }
+        if (body == null) {
+            body = value.getBytes(StandardCharsets.UTF_8);
+        }
+        int header = MARKER | target.id << 1;
+        if (compressThreshold > 0 && body.length >= compressThreshold) {
+            byte[] compressed = deflate(body);
+            if (compressed.length < body.length) {
+                body = compressed;
+                header |= DEFLATED;
+            }
+        }
+        byte[] result = new byte[body.length + 1];
+        result[0] = (byte) header;
+        System.arraycopy(body, 0, result, 1, body.length);
+        return result;
+    }
+
+    private static ValueCodec fromProperties() {
+        String name = PropertyUtils.getProperty(
+            DataDriverConstant.PERSISTENCE_VALUE_CODEC,
+            DataDriverConstant.PERSISTENCE_VALUE_CODEC_DEFAULT_VALUE).trim();
+        int threshold = Integer.parseInt(PropertyUtils.getProperty(
+            DataDriverConstant.PERSISTENCE_VALUE_COMPRESS_THRESHOLD,
+            DataDriverConstant.PERSISTENCE_VALUE_COMPRESS_THRESHOLD_DEFAULT_VALUE).trim());
+        if (DataDriverConstant.PERSISTENCE_VALUE_CODEC_DEFAULT_VALUE.equalsIgnoreCase(name)) {
+            return new ValueCodec(null, threshold);
+        }
+        return new ValueCodec(Format.valueOf(name.toUpperCase()), threshold);
+    }
+
+    private static boolean isJson(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == '{' || c == '[';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 转换为二进制格式, 不是JSON或转换后无法还原为原文时返回null.
+     */
+    private static byte[] toBinary(Format format, String value) {
+        try (JsonParser parser = JSON_FACTORY.createParser(value)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(value.length());
+            try (JsonGenerator generator = format.factory.createGenerator(out)) {
+                while (parser.nextToken() != null) {
+                    generator.copyCurrentEvent(parser);
+                }
+            }
+            byte[] binary = out.toByteArray();
+            return value.equals(toText(format, binary)) ? binary : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String toText(Format format, byte[] body) throws IOException {
+        StringWriter writer = new StringWriter(body.length * 2);
+        try (JsonParser parser = format.factory.createParser(body);
+            JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return writer.toString();
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 解压格式字节之后的数据.
+     */
+    private static byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 1, bytes.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataTypeCastException("truncated compressed value.");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new DataTypeCastException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
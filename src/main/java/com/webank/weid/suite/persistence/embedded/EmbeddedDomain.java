@@ -0,0 +1,58 @@
+
+
+package com.webank.weid.suite.persistence.embedded;
+
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.exception.WeIdBaseException;
+import com.webank.weid.suite.persistence.BaseDomain;
+
+/**
+ * 嵌入式存储的domain, 与数据库配置共用domain配置项, 表名取配置值中的表部分.
+ */
+@Getter
+public class EmbeddedDomain extends BaseDomain {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedDomain.class);
+
+    public EmbeddedDomain() {
+        resolveDomain();
+    }
+
+    public EmbeddedDomain(String domainkey) {
+        this.key = domainkey;
+        resolveDomain();
+    }
+
+    private void resolveDomain() {
+
+        if (StringUtils.isBlank(this.key)) {
+            this.key = DataDriverConstant.DOMAIN_DEFAULT_INFO;
+        }
+        this.value = resolveDomainValue();
+
+        if (StringUtils.isBlank(this.value)
+                && hasDefaultTable()) {
+            this.tableDomain = getDefaultTable();
+        } else if (StringUtils.isNotBlank(this.value)
+                && this.value.split(VALUE_SPLIT_CHAR).length == 2) {
+            String[] domains = this.value.split(VALUE_SPLIT_CHAR);
+            this.baseDomain = domains[0];
+            this.tableDomain = domains[1];
+        } else if (this.key.equals(DataDriverConstant.DOMAIN_OFFLINE_TRANSACTION_INFO)) {
+            this.tableDomain = DataDriverConstant.DOMAIN_OFFLINE_TRANSACTION_INFO;
+        } else {
+            logger.error("[resolveDomain] the domain {{}:{}} is illegal.",
+                    this.key,
+                    this.value
+            );
+            throw new WeIdBaseException(ErrorCode.PRESISTENCE_DOMAIN_ILLEGAL);
+        }
+        resolveDomainTimeout();
+    }
+}
@@ -0,0 +1,278 @@
+
+
+package com.webank.weid.suite.persistence.embedded;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * 嵌入式存储的执行器, 在{@link EmbeddedStore}之上按domain对应的表执行读写.
+ */
+public class EmbeddedExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedExecutor.class);
+
+    private static final Integer FAILED_STATUS = DataDriverConstant.EMBEDDED_EXECUTE_FAILED_STATUS;
+
+    private EmbeddedDomain embeddedDomain;
+
+    private TableStore store;
+
+    /**
+     * 根据domain构建执行器, 数据目录由embedded.path配置.
+     *
+     * @param embeddedDomain the domain
+     */
+    public EmbeddedExecutor(EmbeddedDomain embeddedDomain) {
+        this(embeddedDomain, getStore());
+    }
+
+    /**
+     * 根据domain与指定的存储构建执行器.
+     *
+     * @param embeddedDomain the domain
+     * @param store 存储实例
+     */
+    public EmbeddedExecutor(EmbeddedDomain embeddedDomain, TableStore store) {
+        this.embeddedDomain = embeddedDomain;
+        this.store = store;
+    }
+
+    /**
+     * 获取配置的存储实例.
+     *
+     * @return 存储实例
+     */
+    public static EmbeddedStore getStore() {
+        String path = PropertyUtils.getProperty(DataDriverConstant.EMBEDDED_PATH);
+        if (StringUtils.isBlank(path)) {
+            path = DataDriverConstant.EMBEDDED_PATH_DEFAULT_VALUE;
+        }
+        boolean sync = Boolean.parseBoolean(
+            PropertyUtils.getProperty(DataDriverConstant.EMBEDDED_SYNC, "false"));
+        return EmbeddedStore.open(path, sync);
+    }
+
+    /**
+     * 按主键查询单条记录.
+     *
+     * @param id 主键
+     * @return 返回字段名到字段值的映射, 记录不存在时结果为null
+     */
+    public ResponseData<Map<String, String>> executeQuery(String id) {
+
+        ResponseData<Map<String, String>> result = new ResponseData<Map<String, String>>();
+        try {
+            result.setResult(store.get(table(), id));
+            result.setErrorCode(ErrorCode.SUCCESS);
+        } catch (IOException e) {
+            logger.error("Query data from {{}} with exception", table(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+        return result;
+    }
+
+    /**
+     * 通过索引查询记录主键, 非唯一索引有多条记录时返回主键最小的一条.
+     *
+     * @param field 被索引的字段名
+     * @param value 字段值
+     * @return 返回记录主键, 不存在时结果为null
+     */
+    public ResponseData<String> executeIndexQuery(String field, String value) {
+
+        ResponseData<String> result = new ResponseData<String>();
+        try {
+            result.setResult(store.findByIndex(table(), field, value));
+            result.setErrorCode(ErrorCode.SUCCESS);
+        } catch (IOException e) {
+            logger.error("Query index from {{}} with exception", table(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+        return result;
+    }
+
+    /**
+     * 按写入顺序分页查询记录主键.
+     *
+     * @param start 起始位置
+     * @param count 查询个数
+     * @return 返回主键列表
+     */
+    public ResponseData<List<String>> executeRangeQuery(int start, int count) {
+        return new ResponseData<>(store.range(table(), start, count), ErrorCode.SUCCESS);
+    }
+
+    /**
+     * 查询记录总数.
+     *
+     * @return 返回记录总数
+     */
+    public ResponseData<Integer> executeCount() {
+        return new ResponseData<>(store.count(table()), ErrorCode.SUCCESS);
+    }
+
+    /**
+     * 查询成员集合中的记录数.
+     *
+     * @param setName 集合名称
+     * @return 返回集合大小
+     */
+    public ResponseData<Integer> executeMemberCount(String setName) {
+        return new ResponseData<>(store.memberCount(table(), setName), ErrorCode.SUCCESS);
+    }
+
+    /**
+     * 新增记录, 记录已存在或唯一索引冲突时返回失败,
+     * 记录已存在时结果为{@link DataDriverConstant#DUPLICATE_KEY_STATUS}.
+     *
+     * @param id 主键
+     * @param fields 记录字段, 值为null的字段不写入
+     * @param indexes 索引描述, 见{@link EmbeddedStore#fieldIndex}与{@link EmbeddedStore#memberSet}
+     * @return 返回执行成功或失败
+     */
+    public ResponseData<Integer> executeInsert(
+        String id,
+        Map<String, Object> fields,
+        String... indexes) {
+
+        try {
+            int status = store.insert(table(), id, toFields(fields), indexes);
+            if (status == 0) {
+                // 记录已存在, 与数据库主键冲突的返回保持一致
+                return new ResponseData<>(
+                    DataDriverConstant.DUPLICATE_KEY_STATUS, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            }
+            if (status != 1) {
+                return new ResponseData<>(FAILED_STATUS, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            }
+            return new ResponseData<>(status, ErrorCode.SUCCESS);
+        } catch (IOException e) {
+            logger.error("Insert data into {{}} with exception", table(), e);
+            return new ResponseData<>(FAILED_STATUS, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+    }
+
+    /**
+     * 批量新增记录, 已存在的记录被跳过.
+     *
+     * @param records 主键到记录字段的映射
+     * @return 返回成功写入的记录数
+     */
+    public ResponseData<Integer> executeBatchInsert(Map<String, Map<String, Object>> records) {
+
+        try {
+            Map<String, Map<String, String>> dataMap = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<String, Object>> record : records.entrySet()) {
+                dataMap.put(record.getKey(), toFields(record.getValue()));
+            }
+            return new ResponseData<>(store.insertBatch(table(), dataMap), ErrorCode.SUCCESS);
+        } catch (IOException e) {
+            logger.error("Batch insert data into {{}} with exception", table(), e);
+            return new ResponseData<>(FAILED_STATUS, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+    }
+
+    /**
+     * 更新记录, 记录不存在时返回0.
+     *
+     * @param id 主键
+     * @param fields 需要更新的字段, 值为null的字段保持不变
+     * @param indexes 索引描述, 见{@link EmbeddedStore#fieldIndex}与{@link EmbeddedStore#memberSet}
+     * @return 返回受影响的记录数
+     */
+    public ResponseData<Integer> executeUpdate(
+        String id,
+        Map<String, Object> fields,
+        String... indexes) {
+
+        try {
+            int status = store.update(table(), id, toFields(fields), indexes);
+            if (status < 0) {
+                return new ResponseData<>(FAILED_STATUS, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            }
+            return new ResponseData<>(status, ErrorCode.SUCCESS);
+        } catch (IOException e) {
+            logger.error("Update data in {{}} with exception", table(), e);
+            return new ResponseData<>(FAILED_STATUS, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+    }
+
+    /**
+     * 基于记录的当前值原子更新记录, 记录不存在时返回0.
+     *
+     * @param id 主键
+     * @param updater 由当前记录计算需要更新的字段, 值为null的字段保持不变
+     * @param indexes 索引描述, 见{@link EmbeddedStore#fieldIndex}与{@link EmbeddedStore#memberSet}
+     * @return 返回受影响的记录数
+     */
+    public ResponseData<Integer> executeCompute(
+        String id,
+        Function<Map<String, String>, Map<String, Object>> updater,
+        String... indexes) {
+
+        try {
+            int status = store.compute(
+                table(), id, record -> toFields(updater.apply(record)), indexes);
+            if (status < 0) {
+                return new ResponseData<>(FAILED_STATUS, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            }
+            return new ResponseData<>(status, ErrorCode.SUCCESS);
+        } catch (IOException e) {
+            logger.error("Update data in {{}} with exception", table(), e);
+            return new ResponseData<>(FAILED_STATUS, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+    }
+
+    /**
+     * 删除记录.
+     *
+     * @param id 主键
+     * @return 返回受影响的记录数
+     */
+    public ResponseData<Integer> executeDelete(String id) {
+
+        try {
+            return new ResponseData<>(store.delete(table(), id), ErrorCode.SUCCESS);
+        } catch (IOException e) {
+            logger.error("Delete data from {{}} with exception", table(), e);
+            return new ResponseData<>(FAILED_STATUS, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+    }
+
+    private String table() {
+        return embeddedDomain.getTableDomain();
+    }
+
+    /**
+     * 字段值统一按字符串存储, 时间存为毫秒数, 与数据库查询结果的格式保持一致.
+     */
+    private static Map<String, String> toFields(Map<String, Object> fields) {
+        Map<String, String> dataMap = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Date) {
+                dataMap.put(entry.getKey(), String.valueOf(((Date) value).getTime()));
+            } else {
+                dataMap.put(entry.getKey(), String.valueOf(value));
+            }
+        }
+        return dataMap;
+    }
+}
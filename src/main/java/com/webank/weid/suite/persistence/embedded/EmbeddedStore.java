@@ -0,0 +1,819 @@
+
+
+package com.webank.weid.suite.persistence.embedded;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.exception.DatabaseException;
+
+/**
+ * 嵌入式存储引擎, 所有写操作以追加日志的方式写入单个文件, 内存中维护主键到日志位置的哈希索引,
+ * 读操作按位置直接读取日志, 不依赖任何外部服务.
+ *
+ * <p>日志条目格式为[4字节长度][4字节CRC32][内容], 内容依次为操作类型、表名、主键、字段与索引描述.
+ * 启动时顺序回放日志重建内存索引, 尾部不完整或校验失败的条目会被截断.
+ * 更新会追加完整的新记录, 旧记录通过{@link #compact()}回收, {@link #snapshot(File)}可导出一致的快照.
+ */
+public class EmbeddedStore implements TableStore, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedStore.class);
+
+    /**
+     * 日志文件名.
+     */
+    public static final String LOG_FILE_NAME = "weid.log";
+
+    private static final String COMPACT_FILE_SUFFIX = ".compact";
+
+    private static final byte OP_PUT = 1;
+
+    private static final byte OP_DELETE = 2;
+
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * 启动时日志中失效数据超过该大小且多于有效数据时自动压缩.
+     */
+    private static final long COMPACT_THRESHOLD_BYTES = 64L * 1024 * 1024;
+
+    private static final Map<String, EmbeddedStore> STORES = new ConcurrentHashMap<>();
+
+    private final File logFile;
+
+    private final boolean sync;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Table> tables = new HashMap<>();
+
+    private FileChannel channel;
+
+    private long writePosition;
+
+    private long liveBytes;
+
+    /**
+     * 记录在日志中的位置.
+     */
+    private static final class Location {
+
+        private final long position;
+
+        private final int length;
+
+        private Location(long position, int length) {
+            this.position = position;
+            this.length = length;
+        }
+    }
+
+    /**
+     * 单张表的内存索引.
+     */
+    private static final class Table {
+
+        private final Map<String, Location> locations = new HashMap<>();
+
+        /**
+         * 写入顺序, 删除为O(1), 日志回放时大量删除不会退化为平方复杂度.
+         */
+        private final Set<String> order = new LinkedHashSet<>();
+
+        private final Map<String, Map<String, String>> indexes = new HashMap<>();
+
+        private final Map<String, Map<String, Set<String>>> multiIndexes = new HashMap<>();
+
+        private final Map<String, Set<String>> memberSets = new HashMap<>();
+    }
+
+    /**
+     * 日志条目.
+     */
+    private static final class Entry {
+
+        private byte op;
+
+        private String table;
+
+        private String id;
+
+        private Map<String, String> fields = Collections.emptyMap();
+
+        private List<String> specs = Collections.emptyList();
+    }
+
+    private EmbeddedStore(File directory, boolean sync) {
+        this.sync = sync;
+        this.logFile = new File(directory, LOG_FILE_NAME);
+        try {
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IOException("can not create directory " + directory);
+            }
+            load();
+            if (writePosition - liveBytes > COMPACT_THRESHOLD_BYTES
+                && writePosition - liveBytes > liveBytes) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.error("[EmbeddedStore] open the store {} failed.", directory, e);
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * 打开指定目录下的存储, 同一目录在进程内只打开一次.
+     *
+     * @param path 数据目录
+     * @param sync 每次写入后是否强制刷盘
+     * @return 存储实例
+     */
+    public static EmbeddedStore open(String path, boolean sync) {
+        File directory = new File(path).getAbsoluteFile();
+        return STORES.computeIfAbsent(directory.getPath(), key -> new EmbeddedStore(directory, sync));
+    }
+
+    /**
+     * 构建字段唯一索引描述.
+     *
+     * @param field 被索引的字段名
+     * @return 索引描述
+     */
+    public static String fieldIndex(String field) {
+        return INDEX_FIELD_PREFIX + field;
+    }
+
+    /**
+     * 构建字段非唯一索引描述, 多条记录可以有相同的字段值.
+     *
+     * @param field 被索引的字段名
+     * @return 索引描述
+     */
+    public static String fieldMultiIndex(String field) {
+        return INDEX_MULTI_PREFIX + field;
+    }
+
+    /**
+     * 构建成员集合描述, 用于按标记统计记录数量.
+     *
+     * @param setName 集合名称
+     * @param member true为加入集合, false为移出集合
+     * @return 集合描述
+     */
+    public static String memberSet(String setName, boolean member) {
+        return INDEX_SET_PREFIX + (member ? "+" : "-") + setName;
+    }
+
+    /**
+     * 按主键读取记录.
+     *
+     * @param table 表名
+     * @param id 主键
+     * @return 字段名到字段值的映射, 记录不存在时返回null
+     * @throws IOException 读取日志失败
+     */
+    @Override
+    public Map<String, String> get(String table, String id) throws IOException {
+        lock.readLock().lock();
+        try {
+            return read(table, id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 通过索引查找记录主键, 索引在更新时不回收旧值, 因此读取时校验记录当前的字段值.
+     * 非唯一索引有多条记录时返回主键最小的一条.
+     *
+     * @param table 表名
+     * @param field 被索引的字段名
+     * @param value 字段值
+     * @return 记录主键, 不存在时返回null
+     * @throws IOException 读取日志失败
+     */
+    @Override
+    public String findByIndex(String table, String field, String value) throws IOException {
+        lock.readLock().lock();
+        try {
+            Table data = tables.get(table);
+            if (data != null && data.multiIndexes.containsKey(field)) {
+                // 旧版本日志中该字段可能以唯一索引写入, 非唯一索引中找不到时再查唯一索引
+                String id = firstOwner(table, field, value);
+                if (id != null) {
+                    return id;
+                }
+            }
+            return owner(table, field, value);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按写入顺序分页读取主键.
+     *
+     * @param table 表名
+     * @param start 起始位置
+     * @param count 读取个数
+     * @return 主键列表
+     */
+    @Override
+    public List<String> range(String table, int start, int count) {
+        lock.readLock().lock();
+        try {
+            Table data = tables.get(table);
+            List<String> ids = new ArrayList<>();
+            if (data == null || count <= 0 || start < 0 || start >= data.order.size()) {
+                return ids;
+            }
+            Iterator<String> iterator = data.order.iterator();
+            for (int i = 0; i < start; i++) {
+                iterator.next();
+            }
+            while (iterator.hasNext() && ids.size() < count) {
+                ids.add(iterator.next());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询表中记录总数.
+     *
+     * @param table 表名
+     * @return 记录总数
+     */
+    @Override
+    public int count(String table) {
+        lock.readLock().lock();
+        try {
+            Table data = tables.get(table);
+            return data == null ? 0 : data.locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询成员集合中的记录数.
+     *
+     * @param table 表名
+     * @param setName 集合名称
+     * @return 集合大小
+     */
+    @Override
+    public int memberCount(String table, String setName) {
+        lock.readLock().lock();
+        try {
+            Table data = tables.get(table);
+            if (data == null || !data.memberSets.containsKey(setName)) {
+                return 0;
+            }
+            return data.memberSets.get(setName).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 新增记录.
+     *
+     * @param table 表名
+     * @param id 主键
+     * @param fields 记录字段
+     * @param specs 索引描述, 见{@link #fieldIndex}与{@link #memberSet}
+     * @return 1为成功, 0为记录已存在, -1为唯一索引冲突
+     * @throws IOException 写入日志失败
+     */
+    @Override
+    public int insert(String table, String id, Map<String, String> fields, String... specs)
+        throws IOException {
+
+        lock.writeLock().lock();
+        try {
+            int status = insertStatus(table, id, fields, specs);
+            if (status == 1) {
+                append(Collections.singletonList(putEntry(table, id, fields, specs)));
+            }
+            return status;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 批量新增记录, 已存在或索引冲突的记录被跳过, 整批只刷盘一次.
+     *
+     * @param table 表名
+     * @param records 主键到记录字段的映射
+     * @param specs 每条记录的索引描述
+     * @return 成功写入的记录数
+     * @throws IOException 写入日志失败
+     */
+    @Override
+    public int insertBatch(
+        String table,
+        Map<String, Map<String, String>> records,
+        String... specs) throws IOException {
+
+        lock.writeLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>();
+            Set<String> pending = new HashSet<>();
+            for (Map.Entry<String, Map<String, String>> record : records.entrySet()) {
+                String id = record.getKey();
+                if (pending.contains(id) || insertStatus(table, id, record.getValue(), specs) != 1) {
+                    continue;
+                }
+                pending.add(id);
+                entries.add(putEntry(table, id, record.getValue(), specs));
+            }
+            append(entries);
+            return entries.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 更新记录, 未给出的字段保持不变.
+     *
+     * @param table 表名
+     * @param id 主键
+     * @param fields 需要更新的字段
+     * @param specs 索引描述, 见{@link #fieldIndex}与{@link #memberSet}
+     * @return 1为成功, 0为记录不存在, -1为唯一索引冲突
+     * @throws IOException 写入日志失败
+     */
+    @Override
+    public int update(String table, String id, Map<String, String> fields, String... specs)
+        throws IOException {
+        return compute(table, id, record -> fields, specs);
+    }
+
+    /**
+     * 在写锁内读取记录并计算需要更新的字段, 计算与写入之间记录不会被修改.
+     *
+     * @param table 表名
+     * @param id 主键
+     * @param updater 由当前记录计算需要更新的字段
+     * @param specs 索引描述, 见{@link #fieldIndex}与{@link #memberSet}
+     * @return 1为成功, 0为记录不存在, -1为唯一索引冲突
+     * @throws IOException 写入日志失败
+     */
+    @Override
+    public int compute(
+        String table,
+        String id,
+        Function<Map<String, String>, Map<String, String>> updater,
+        String... specs) throws IOException {
+
+        lock.writeLock().lock();
+        try {
+            Map<String, String> record = read(table, id);
+            if (record == null) {
+                return 0;
+            }
+            Map<String, String> fields = updater.apply(new LinkedHashMap<>(record));
+            for (String spec : specs) {
+                if (spec.startsWith(INDEX_FIELD_PREFIX)) {
+                    String field = spec.substring(INDEX_FIELD_PREFIX.length());
+                    String owner = owner(table, field, fields.get(field));
+                    if (owner != null && !owner.equals(id)) {
+                        return -1;
+                    }
+                }
+            }
+            record.putAll(fields);
+            append(Collections.singletonList(putEntry(table, id, record, specs)));
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除记录, 同时移出所有成员集合.
+     *
+     * @param table 表名
+     * @param id 主键
+     * @return 1为成功, 0为记录不存在
+     * @throws IOException 写入日志失败
+     */
+    @Override
+    public int delete(String table, String id) throws IOException {
+        lock.writeLock().lock();
+        try {
+            Table data = tables.get(table);
+            if (data == null || !data.locations.containsKey(id)) {
+                return 0;
+            }
+            Entry entry = new Entry();
+            entry.op = OP_DELETE;
+            entry.table = table;
+            entry.id = id;
+            append(Collections.singletonList(entry));
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 将当前所有有效记录导出为快照文件, 快照与日志格式相同, 放入空目录并命名为日志文件名即可直接打开.
+     *
+     * @param target 快照文件
+     * @throws IOException 写入快照失败
+     */
+    public void snapshot(File target) throws IOException {
+        lock.readLock().lock();
+        try {
+            writeSnapshot(target);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 压缩日志, 只保留有效记录并重建内存索引.
+     *
+     * @throws IOException 压缩失败
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            File compactFile = new File(logFile.getPath() + COMPACT_FILE_SUFFIX);
+            writeSnapshot(compactFile);
+            channel.close();
+            Files.move(compactFile.toPath(), logFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            load();
+            logger.info("[EmbeddedStore] compact finished, log size {}.", writePosition);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            STORES.remove(logFile.getParentFile().getPath());
+            if (channel != null && channel.isOpen()) {
+                channel.force(true);
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int insertStatus(
+        String table,
+        String id,
+        Map<String, String> fields,
+        String... specs) throws IOException {
+
+        Table data = tables.get(table);
+        if (data != null && data.locations.containsKey(id)) {
+            return 0;
+        }
+        for (String spec : specs) {
+            if (spec.startsWith(INDEX_FIELD_PREFIX)
+                && owner(table, spec.substring(INDEX_FIELD_PREFIX.length()),
+                fields.get(spec.substring(INDEX_FIELD_PREFIX.length()))) != null) {
+                return -1;
+            }
+        }
+        return 1;
+    }
+
+    private String owner(String table, String field, String value) throws IOException {
+        Table data = tables.get(table);
+        if (data == null || value == null || value.isEmpty()
+            || !data.indexes.containsKey(field)) {
+            return null;
+        }
+        String id = data.indexes.get(field).get(value);
+        if (id == null) {
+            return null;
+        }
+        Map<String, String> record = read(table, id);
+        return record != null && value.equals(record.get(field)) ? id : null;
+    }
+
+    private String firstOwner(String table, String field, String value) throws IOException {
+        Table data = tables.get(table);
+        Set<String> ids = value == null ? null : data.multiIndexes.get(field).get(value);
+        if (ids == null) {
+            return null;
+        }
+        for (String id : ids) {
+            Map<String, String> record = read(table, id);
+            if (record != null && value.equals(record.get(field))) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private Map<String, String> read(String table, String id) throws IOException {
+        Table data = tables.get(table);
+        Location location = data == null ? null : data.locations.get(id);
+        if (location == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(location.length);
+        long position = location.position + HEADER_SIZE;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("unexpected end of log at " + position);
+            }
+        }
+        return decode(buffer.array()).fields;
+    }
+
+    private Entry putEntry(String table, String id, Map<String, String> fields, String... specs) {
+        Entry entry = new Entry();
+        entry.op = OP_PUT;
+        entry.table = table;
+        entry.id = id;
+        entry.fields = new LinkedHashMap<>(fields);
+        List<String> specList = new ArrayList<>();
+        Collections.addAll(specList, specs);
+        entry.specs = specList;
+        return entry;
+    }
+
+    private void append(List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Integer> lengths = new ArrayList<>();
+        for (Entry entry : entries) {
+            lengths.add(writeEntry(out, entry));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        long position = writePosition;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        if (sync) {
+            channel.force(false);
+        }
+        long entryPosition = writePosition;
+        for (int i = 0; i < entries.size(); i++) {
+            apply(entries.get(i), new Location(entryPosition, lengths.get(i)));
+            entryPosition += HEADER_SIZE + lengths.get(i);
+        }
+        writePosition = position;
+    }
+
+    private void apply(Entry entry, Location location) {
+        Table data = tables.computeIfAbsent(entry.table, key -> new Table());
+        Location old = data.locations.get(entry.id);
+        if (old != null) {
+            liveBytes -= HEADER_SIZE + old.length;
+        }
+        if (entry.op == OP_DELETE) {
+            if (old != null) {
+                data.locations.remove(entry.id);
+                data.order.remove(entry.id);
+                for (Set<String> members : data.memberSets.values()) {
+                    members.remove(entry.id);
+                }
+            }
+            return;
+        }
+        if (old == null) {
+            data.order.add(entry.id);
+        }
+        data.locations.put(entry.id, location);
+        liveBytes += HEADER_SIZE + location.length;
+        for (String spec : entry.specs) {
+            if (spec.startsWith(INDEX_FIELD_PREFIX)) {
+                String field = spec.substring(INDEX_FIELD_PREFIX.length());
+                Map<String, String> index =
+                    data.indexes.computeIfAbsent(field, key -> new HashMap<>());
+                String value = entry.fields.get(field);
+                if (value != null && !value.isEmpty()) {
+                    index.put(value, entry.id);
+                }
+            } else if (spec.startsWith(INDEX_MULTI_PREFIX)) {
+                String field = spec.substring(INDEX_MULTI_PREFIX.length());
+                Map<String, Set<String>> index =
+                    data.multiIndexes.computeIfAbsent(field, key -> new HashMap<>());
+                String value = entry.fields.get(field);
+                if (value != null && !value.isEmpty()) {
+                    index.computeIfAbsent(value, key -> new TreeSet<>()).add(entry.id);
+                }
+            } else if (spec.startsWith(INDEX_SET_PREFIX)) {
+                String setName = spec.substring(INDEX_SET_PREFIX.length() + 1);
+                Set<String> members =
+                    data.memberSets.computeIfAbsent(setName, key -> new HashSet<>());
+                if (spec.charAt(INDEX_SET_PREFIX.length()) == '+') {
+                    members.add(entry.id);
+                } else {
+                    members.remove(entry.id);
+                }
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        tables.clear();
+        liveBytes = 0;
+        long position = 0;
+        if (logFile.exists()) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(logFile))) {
+                DataInputStream input = new DataInputStream(in);
+                byte[] header = new byte[HEADER_SIZE];
+                while (true) {
+                    if (!readFully(input, header)) {
+                        break;
+                    }
+                    ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+                    int length = headerBuffer.getInt();
+                    int checksum = headerBuffer.getInt();
+                    if (length < 0 || length > logFile.length() - position - HEADER_SIZE) {
+                        break;
+                    }
+                    byte[] payload = new byte[length];
+                    if (!readFully(input, payload) || checksum(payload) != checksum) {
+                        break;
+                    }
+                    apply(decode(payload), new Location(position, length));
+                    position += HEADER_SIZE + length;
+                }
+            }
+        }
+        channel = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() > position) {
+            logger.warn("[EmbeddedStore] truncate the broken tail of {} from {} to {}.",
+                logFile, channel.size(), position);
+            channel.truncate(position);
+        }
+        writePosition = position;
+    }
+
+    private void writeSnapshot(File target) throws IOException {
+        try (FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            for (Map.Entry<String, Table> table : tables.entrySet()) {
+                Table data = table.getValue();
+                for (String id : data.order) {
+                    List<String> specs = new ArrayList<>();
+                    for (String field : data.indexes.keySet()) {
+                        specs.add(fieldIndex(field));
+                    }
+                    for (String field : data.multiIndexes.keySet()) {
+                        specs.add(fieldMultiIndex(field));
+                    }
+                    for (Map.Entry<String, Set<String>> set : data.memberSets.entrySet()) {
+                        if (set.getValue().contains(id)) {
+                            specs.add(memberSet(set.getKey(), true));
+                        }
+                    }
+                    writeEntry(buffer, putEntry(table.getKey(), id, read(table.getKey(), id),
+                        specs.toArray(new String[0])));
+                    if (buffer.size() > 1024 * 1024) {
+                        writeAll(out, buffer);
+                    }
+                }
+            }
+            writeAll(out, buffer);
+            out.force(true);
+        }
+    }
+
+    private static void writeAll(FileChannel out, ByteArrayOutputStream buffer)
+        throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+        buffer.reset();
+    }
+
+    private static boolean readFully(DataInputStream input, byte[] bytes) throws IOException {
+        try {
+            input.readFully(bytes);
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    private static int writeEntry(ByteArrayOutputStream out, Entry entry) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(payload);
+        data.writeByte(entry.op);
+        writeString(data, entry.table);
+        writeString(data, entry.id);
+        data.writeInt(entry.fields.size());
+        for (Map.Entry<String, String> field : entry.fields.entrySet()) {
+            writeString(data, field.getKey());
+            writeString(data, field.getValue());
+        }
+        data.writeInt(entry.specs.size());
+        for (String spec : entry.specs) {
+            writeString(data, spec);
+        }
+        data.flush();
+        byte[] bytes = payload.toByteArray();
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(bytes.length);
+        header.writeInt(checksum(bytes));
+        header.write(bytes);
+        header.flush();
+        return bytes.length;
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+        Entry entry = new Entry();
+        entry.op = data.readByte();
+        entry.table = readString(data);
+        entry.id = readString(data);
+        int fieldCount = data.readInt();
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < fieldCount; i++) {
+            fields.put(readString(data), readString(data));
+        }
+        entry.fields = fields;
+        int specCount = data.readInt();
+        List<String> specs = new ArrayList<>(specCount);
+        for (int i = 0; i < specCount; i++) {
+            specs.add(readString(data));
+        }
+        entry.specs = specs;
+        return entry;
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
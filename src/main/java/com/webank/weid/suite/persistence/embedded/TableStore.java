@@ -0,0 +1,145 @@
+
+
+package com.webank.weid.suite.persistence.embedded;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 按表组织的本地键值存储, {@link EmbeddedExecutor}通过该接口读写数据,
+ * 文件存储与内存存储共用同一套Driver逻辑.
+ *
+ * <p>索引描述由{@link EmbeddedStore#fieldIndex}, {@link EmbeddedStore#fieldMultiIndex}
+ * 与{@link EmbeddedStore#memberSet}构建.
+ */
+public interface TableStore {
+
+    /**
+     * 字段唯一索引描述的前缀.
+     */
+    String INDEX_FIELD_PREFIX = "f:";
+
+    /**
+     * 字段非唯一索引描述的前缀.
+     */
+    String INDEX_MULTI_PREFIX = "m:";
+
+    /**
+     * 成员集合描述的前缀.
+     */
+    String INDEX_SET_PREFIX = "s:";
+
+    /**
+     * 按主键读取记录.
+     *
+     * @param table 表名
+     * @param id 主键
+     * @return 字段名到字段值的映射, 记录不存在时返回null
+     * @throws IOException 读取失败
+     */
+    Map<String, String> get(String table, String id) throws IOException;
+
+    /**
+     * 通过索引查找记录主键, 非唯一索引有多条记录时返回主键最小的一条.
+     *
+     * @param table 表名
+     * @param field 被索引的字段名
+     * @param value 字段值
+     * @return 记录主键, 不存在时返回null
+     * @throws IOException 读取失败
+     */
+    String findByIndex(String table, String field, String value) throws IOException;
+
+    /**
+     * 按写入顺序分页读取主键.
+     *
+     * @param table 表名
+     * @param start 起始位置
+     * @param count 读取个数
+     * @return 主键列表
+     */
+    List<String> range(String table, int start, int count);
+
+    /**
+     * 查询表中记录总数.
+     *
+     * @param table 表名
+     * @return 记录总数
+     */
+    int count(String table);
+
+    /**
+     * 查询成员集合中的记录数.
+     *
+     * @param table 表名
+     * @param setName 集合名称
+     * @return 集合大小
+     */
+    int memberCount(String table, String setName);
+
+    /**
+     * 新增记录.
+     *
+     * @param table 表名
+     * @param id 主键
+     * @param fields 记录字段
+     * @param specs 索引描述
+     * @return 1为成功, 0为记录已存在, -1为唯一索引冲突
+     * @throws IOException 写入失败
+     */
+    int insert(String table, String id, Map<String, String> fields, String... specs)
+        throws IOException;
+
+    /**
+     * 批量新增记录, 已存在或索引冲突的记录被跳过.
+     *
+     * @param table 表名
+     * @param records 主键到记录字段的映射
+     * @param specs 每条记录的索引描述
+     * @return 成功写入的记录数
+     * @throws IOException 写入失败
+     */
+    int insertBatch(String table, Map<String, Map<String, String>> records, String... specs)
+        throws IOException;
+
+    /**
+     * 更新记录, 未给出的字段保持不变.
+     *
+     * @param table 表名
+     * @param id 主键
+     * @param fields 需要更新的字段
+     * @param specs 索引描述
+     * @return 1为成功, 0为记录不存在, -1为唯一索引冲突
+     * @throws IOException 写入失败
+     */
+    int update(String table, String id, Map<String, String> fields, String... specs)
+        throws IOException;
+
+    /**
+     * 基于记录的当前值计算需要更新的字段并写入, 计算与写入之间记录不会被其他写操作修改.
+     *
+     * @param table 表名
+     * @param id 主键
+     * @param updater 由当前记录计算需要更新的字段, 并发存储中可能被调用多次, 不应有副作用
+     * @param specs 索引描述
+     * @return 1为成功, 0为记录不存在, -1为唯一索引冲突
+     * @throws IOException 写入失败
+     */
+    int compute(
+        String table,
+        String id,
+        Function<Map<String, String>, Map<String, String>> updater,
+        String... specs) throws IOException;
+
+    /**
+     * 删除记录, 同时移出所有成员集合.
+     *
+     * @param table 表名
+     * @param id 主键
+     * @return 1为成功, 0为记录不存在
+     * @throws IOException 写入失败
+     */
+    int delete(String table, String id) throws IOException;
+}
@@ -0,0 +1,1428 @@
+
+
+package com.webank.weid.suite.persistence.embedded.driver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.blockchain.protocol.base.CptBaseInfo;
+import com.webank.weid.blockchain.protocol.base.WeIdDocument;
+import com.webank.weid.blockchain.protocol.base.WeIdDocumentMetadata;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.exception.DatabaseException;
+import com.webank.weid.exception.WeIdBaseException;
+import com.webank.weid.protocol.request.TransactionArgs;
+import com.webank.weid.suite.persistence.AuthorityIssuerInfo;
+import com.webank.weid.suite.persistence.CptValue;
+import com.webank.weid.suite.persistence.DefaultValue;
+import com.webank.weid.suite.persistence.EvidenceValue;
+import com.webank.weid.suite.persistence.Persistence;
+import com.webank.weid.suite.persistence.PolicyValue;
+import com.webank.weid.suite.persistence.PresentationValue;
+import com.webank.weid.suite.persistence.RoleValue;
+import com.webank.weid.suite.persistence.SpecificTypeValue;
+import com.webank.weid.suite.persistence.WeIdDocumentValue;
+import com.webank.weid.suite.persistence.embedded.EmbeddedDomain;
+import com.webank.weid.suite.persistence.embedded.EmbeddedExecutor;
+import com.webank.weid.suite.persistence.embedded.EmbeddedStore;
+import com.webank.weid.suite.persistence.embedded.TableStore;
+import com.webank.weid.util.DataToolUtils;
+import com.webank.weid.util.PropertyUtils;
+import com.webank.weid.util.WeIdUtils;
+
+/**
+ * 嵌入式存储Driver, 数据保存在本地文件中, 适用于单节点与边缘部署, 不依赖外部数据库.
+ */
+public class EmbeddedDriver implements Persistence {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedDriver.class);
+
+    private static final Integer FAILED_STATUS = DataDriverConstant.EMBEDDED_EXECUTE_FAILED_STATUS;
+
+    private static final ErrorCode KEY_INVALID = ErrorCode.PRESISTENCE_DATA_KEY_INVALID;
+
+    private static final int CPT_DEFAULT_VERSION = 1;
+
+    private static final String INDEX_NAME = EmbeddedStore.fieldIndex("name");
+
+    private static final String INDEX_EXTRA_KEY = EmbeddedStore.fieldMultiIndex("extra_key");
+
+    private static final String SET_RECOGNIZED = "recognized";
+
+    /**
+     * 已初始化管理员权限的存储.
+     */
+    private static final Set<TableStore> INITIALIZED_STORES =
+        Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * 初始化时需要写入存储, 使用ReentrantLock避免虚拟线程被固定在平台线程上.
+     */
+    private static final ReentrantLock INIT_LOCK = new ReentrantLock();
+
+    /**
+     * 预留序列编号时先读后写, 嵌入式存储只在本进程内访问, 进程内加锁即可保证原子性.
+     */
+    private static final ReentrantLock SEQUENCE_LOCK = new ReentrantLock();
+
+    private final TableStore store;
+
+    /**
+     * the Constructor and init the admin role of local deployment.
+     */
+    public EmbeddedDriver() {
+        this(EmbeddedExecutor.getStore());
+    }
+
+    /**
+     * 使用指定的存储构建Driver, 每个存储只初始化一次管理员权限.
+     *
+     * @param store 存储实例
+     */
+    protected EmbeddedDriver(TableStore store) {
+        this.store = store;
+        if (!INITIALIZED_STORES.contains(store)) {
+            INIT_LOCK.lock();
+            try {
+                if (!INITIALIZED_STORES.contains(store)) {
+                    initAdminRole();
+                    INITIALIZED_STORES.add(store);
+                }
+            } finally {
+                INIT_LOCK.unlock();
+            }
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> add(String domain, String id, String data) {
+
+        if (StringUtils.isEmpty(id)) {
+            logger.error("[embedded->add] the id of the data is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        String dataKey = DataToolUtils.hash(id);
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            return new EmbeddedExecutor(embeddedDomain, store).executeInsert(dataKey, fields(
+                "id", dataKey,
+                "data", data,
+                "expire", embeddedDomain.getExpire(),
+                "created", now,
+                "updated", now));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->add] add the data error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> batchAdd(String domain, Map<String, String> keyValueList) {
+
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            Date expire = embeddedDomain.getExpire();
+            Map<String, Map<String, Object>> records = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : keyValueList.entrySet()) {
+                if (StringUtils.isEmpty(entry.getKey())) {
+                    logger.error("[embedded->batchAdd] the id of the data is empty.");
+                    return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+                }
+                String dataKey = DataToolUtils.hash(entry.getKey());
+                records.put(dataKey, fields(
+                    "id", dataKey,
+                    "data", entry.getValue(),
+                    "expire", expire,
+                    "created", now,
+                    "updated", now));
+            }
+            return new EmbeddedExecutor(embeddedDomain, store).executeBatchInsert(records);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->batchAdd] batchAdd the data error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<String> get(String domain, String id) {
+
+        if (StringUtils.isEmpty(id)) {
+            logger.error("[embedded->get] the id of the data is empty.");
+            return new ResponseData<String>(StringUtils.EMPTY, KEY_INVALID);
+        }
+        String dataKey = DataToolUtils.hash(id);
+        try {
+            ResponseData<String> result = new ResponseData<String>();
+            result.setResult(StringUtils.EMPTY);
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Map<String, String>> response =
+                new EmbeddedExecutor(embeddedDomain, store).executeQuery(dataKey);
+            if (response.getErrorCode().intValue() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                DefaultValue tableData = toValue(response.getResult(), DefaultValue.class);
+                if (tableData.getExpire() != null && tableData.getExpire().before(new Date())) {
+                    logger.error("[embedded->get] the data is expire.");
+                    return new ResponseData<String>(StringUtils.EMPTY,
+                        ErrorCode.PERSISTENCE_DATA_EXPIRE);
+                }
+                if (StringUtils.isNotBlank(tableData.getData())) {
+                    result.setResult(tableData.getData());
+                }
+            }
+            result.setErrorCode(ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+            return result;
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->get] get the data error.", e);
+            return new ResponseData<String>(StringUtils.EMPTY, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> delete(String domain, String id) {
+
+        if (StringUtils.isEmpty(id)) {
+            logger.error("[embedded->delete] the id of the data is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        String dataKey = DataToolUtils.hash(id);
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeDelete(dataKey);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->delete] delete the data error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> update(String domain, String id, String data) {
+
+        if (StringUtils.isEmpty(id)) {
+            logger.error("[embedded->update] the id of the data is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        String dataKey = DataToolUtils.hash(id);
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeUpdate(dataKey, fields(
+                "updated", new Date(),
+                "data", data,
+                "expire", embeddedDomain.getExpire()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->update] update the data error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> addOrUpdate(String domain, String id, String data) {
+
+        ResponseData<String> getRes = this.get(domain, id);
+        //如果查询数据存在，或者失效 则进行更新 否则进行新增
+        if ((StringUtils.isNotBlank(getRes.getResult())
+            && getRes.getErrorCode().intValue() == ErrorCode.SUCCESS.getCode())
+            || getRes.getErrorCode().intValue() == ErrorCode.PERSISTENCE_DATA_EXPIRE.getCode()) {
+            return this.update(domain, id, data);
+        }
+        return this.add(domain, id, data);
+    }
+
+    @Override
+    public ResponseData<Integer> addTransaction(TransactionArgs transactionArgs) {
+
+        if (StringUtils.isEmpty(transactionArgs.getRequestId())) {
+            logger.error("[embedded->addTransaction] the id of the data is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(
+                DataDriverConstant.DOMAIN_OFFLINE_TRANSACTION_INFO);
+            return new EmbeddedExecutor(embeddedDomain, store).executeInsert(
+                transactionArgs.getRequestId(), fields(
+                    "request_id", transactionArgs.getRequestId(),
+                    "transaction_method", transactionArgs.getMethod(),
+                    "transaction_args", transactionArgs.getArgs(),
+                    "transaction_timestamp", transactionArgs.getTimeStamp(),
+                    "extra", transactionArgs.getExtra(),
+                    "batch", transactionArgs.getBatch()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->addTransaction] add the data error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    /**
+     * 初始化本地部署模式下的管理员权限.
+     */
+    private void initAdminRole() {
+        String type = PropertyUtils.getProperty("deploy.style");
+        if (!"database".equals(type)) {
+            return;
+        }
+        String privateKey = getAddressFromFile("private_key");
+        if (StringUtils.isBlank(privateKey)) {
+            logger.error("[initAdminRole] the private_key file is empty, skip admin role.");
+            return;
+        }
+        String weId = WeIdUtils.getWeIdFromPrivateKey(privateKey);
+        RoleValue result = getRole(DataDriverConstant.LOCAL_ROLE, weId).getResult();
+        if (result == null) {
+            ResponseData<Integer> resp = addRole(DataDriverConstant.LOCAL_ROLE, weId, 7);
+            if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                logger.error("[initAdminRole] save admin role to embedded store failed.");
+                throw new DatabaseException("database error!");
+            }
+        }
+    }
+
+    private static String getAddressFromFile(String fileName) {
+
+        File file = new File(fileName);
+        if (!file.exists()) {
+            logger.error("getAddressFromFile() the {} does not exists.", fileName);
+            return StringUtils.EMPTY;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            return lines.isEmpty() ? StringUtils.EMPTY : lines.get(0);
+        } catch (IOException e) {
+            logger.error("read file exception", e);
+            return StringUtils.EMPTY;
+        }
+    }
+
+    /*
+    以下为本地部署模式使用的方法, 主键之外的查询条件通过存储引擎的字段索引实现,
+    分页与计数按写入顺序进行, 与数据库驱动的返回保持一致.
+     */
+
+    private static Map<String, Object> fields(Object... keyValues) {
+        Map<String, Object> fieldMap = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            fieldMap.put(String.valueOf(keyValues[i]), keyValues[i + 1]);
+        }
+        return fieldMap;
+    }
+
+    private static <T> T toValue(Map<String, String> dataMap, Class<T> clazz) {
+        return DataToolUtils.deserialize(DataToolUtils.serialize(dataMap), clazz);
+    }
+
+    private static Object[] roleFields(Date now, Integer roleValue) {
+        return new Object[]{
+            "updated", now,
+            "authority_role", roleValue & 1,
+            "committee_role", (roleValue >> 1) & 1,
+            "admin_role", (roleValue >> 2) & 1
+        };
+    }
+
+    @Override
+    public ResponseData<Integer> addWeId(String domain, String weId, String documentSchema) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->addWeId] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            return new EmbeddedExecutor(embeddedDomain, store).executeInsert(weId, fields(
+                "weid", weId,
+                "created", now,
+                "updated", now,
+                "version", 1,
+                "deactivated", 0,
+                "document_schema", documentSchema));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->addWeId] addWeId error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> updateWeId(String domain, String weId, String documentSchema) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->updateWeId] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            EmbeddedExecutor embeddedExecutor = new EmbeddedExecutor(embeddedDomain, store);
+            ResponseData<Map<String, String>> response =
+                embeddedExecutor.executeQuery(weId);
+            if (response.getErrorCode().intValue() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                WeIdDocumentValue tableData = toValue(response.getResult(), WeIdDocumentValue.class);
+                if (tableData.getDeactivated() == 1) {
+                    logger.error("[embedded->updateWeId] the weid is deactivated.");
+                    return new ResponseData<>(FAILED_STATUS,
+                        ErrorCode.WEID_HAS_BEEN_DEACTIVATED);
+                }
+                if (StringUtils.isNotBlank(tableData.getDocument_schema())) {
+                    return embeddedExecutor.executeUpdate(weId, fields(
+                        "updated", new Date(),
+                        "version", tableData.getVersion() + 1,
+                        "document_schema", documentSchema));
+                }
+            }
+            return new ResponseData<>(FAILED_STATUS,
+                ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->updateWeId] update the weid error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<WeIdDocument> getWeIdDocument(String domain, String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->getWeIdDocument] the weId is empty.");
+            return new ResponseData<>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Map<String, String>> response =
+                new EmbeddedExecutor(embeddedDomain, store).executeQuery(weId);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                WeIdDocumentValue tableData = toValue(response.getResult(), WeIdDocumentValue.class);
+                if (StringUtils.isNotBlank(tableData.getDocument_schema())) {
+                    return new ResponseData<>(
+                        WeIdDocument.fromJson(tableData.getDocument_schema()), ErrorCode.SUCCESS);
+                }
+            }
+            return new ResponseData<>(null, ErrorCode.WEID_DOES_NOT_EXIST);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getWeIdDocument] get the weIdDocument error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<WeIdDocumentMetadata> getMeta(String domain, String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->getMeta] the weId is empty.");
+            return new ResponseData<>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Map<String, String>> response =
+                new EmbeddedExecutor(embeddedDomain, store).executeQuery(weId);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                WeIdDocumentValue tableData = toValue(response.getResult(), WeIdDocumentValue.class);
+                if (StringUtils.isNotBlank(tableData.getDocument_schema())) {
+                    WeIdDocumentMetadata weIdDocumentMetadata = new WeIdDocumentMetadata();
+                    weIdDocumentMetadata.setCreated(tableData.getCreated().getTime());
+                    weIdDocumentMetadata.setUpdated(tableData.getUpdated().getTime());
+                    weIdDocumentMetadata.setVersionId(tableData.getVersion());
+                    weIdDocumentMetadata.setDeactivated(tableData.getDeactivated() == 1);
+                    return new ResponseData<>(weIdDocumentMetadata, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null, ErrorCode.WEID_DOES_NOT_EXIST);
+            }
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null, ErrorCode.WEID_DOES_NOT_EXIST);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getMeta] getMeta error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> deactivateWeId(String domain, String weId, Boolean state) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->deactivateWeId] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            EmbeddedExecutor embeddedExecutor = new EmbeddedExecutor(embeddedDomain, store);
+            ResponseData<Map<String, String>> response =
+                embeddedExecutor.executeQuery(weId);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                WeIdDocumentValue tableData = toValue(response.getResult(), WeIdDocumentValue.class);
+                if (tableData.getDeactivated() == 1) {
+                    logger.error("[embedded->deactivateWeId] the weid is deactivated.");
+                    return new ResponseData<>(FAILED_STATUS,
+                        ErrorCode.WEID_HAS_BEEN_DEACTIVATED);
+                }
+                if (StringUtils.isNotBlank(tableData.getDocument_schema())) {
+                    return embeddedExecutor.executeUpdate(weId, fields(
+                        "updated", new Date(),
+                        "deactivated", state ? 1 : 0));
+                }
+            }
+            return new ResponseData<>(FAILED_STATUS,
+                ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->deactivateWeId] deactivate the weId error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<List<String>> getWeIdList(String domain, Integer first, Integer last) {
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<List<String>> response = new EmbeddedExecutor(embeddedDomain, store)
+                .executeRangeQuery(first, last - first + 1);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                return new ResponseData<>(response.getResult(), ErrorCode.SUCCESS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getWeIdList] get the data error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> getWeIdCount(String domain) {
+        return getCount(domain, "getWeIdCount");
+    }
+
+    private ResponseData<Integer> getCount(String domain, String method) {
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Integer> response = new EmbeddedExecutor(embeddedDomain, store).executeCount();
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                return new ResponseData<>(response.getResult(), ErrorCode.SUCCESS);
+            }
+            return new ResponseData<>(0, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->{}] get the count error.", method, e);
+            return new ResponseData<>(0, e.getErrorCode());
+        }
+    }
+
+    private ResponseData<List<Integer>> getIdList(
+        String domain,
+        Integer first,
+        Integer last,
+        String method) {
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<List<String>> response = new EmbeddedExecutor(embeddedDomain, store)
+                .executeRangeQuery(first, last - first);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                List<Integer> idList = new ArrayList<>();
+                for (String id : response.getResult()) {
+                    idList.add(Integer.valueOf(id));
+                }
+                return new ResponseData<>(idList, ErrorCode.SUCCESS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->{}] get the id list error.", method, e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<CptValue> getCpt(String domain, int cptId) {
+
+        if (cptId <= 0) {
+            logger.error("[embedded->getCpt] the cptId is invalid.");
+            return new ResponseData<CptValue>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Map<String, String>> response = new EmbeddedExecutor(embeddedDomain, store)
+                .executeQuery(String.valueOf(cptId));
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                CptValue tableData = toValue(response.getResult(), CptValue.class);
+                if (StringUtils.isNotBlank(tableData.getCpt_schema())) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null, ErrorCode.CPT_NOT_EXISTS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getCpt] getCpt error.", e);
+            return new ResponseData<CptValue>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<CptBaseInfo> addCpt(
+        String domain,
+        int cptId,
+        String publisher,
+        String description,
+        String cptSchema,
+        String cptSignature) {
+
+        if (cptId <= 0) {
+            logger.error("[embedded->addCpt] the cptId is invalid.");
+            return new ResponseData<CptBaseInfo>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            ResponseData<Integer> result = new EmbeddedExecutor(embeddedDomain, store).executeInsert(
+                String.valueOf(cptId), fields(
+                    "cpt_id", cptId,
+                    "created", now,
+                    "updated", now,
+                    "cpt_version", CPT_DEFAULT_VERSION,
+                    "publisher", publisher,
+                    "description", description,
+                    "cpt_schema", cptSchema,
+                    "cpt_signature", cptSignature));
+            if (result.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                logger.error("[addCpt] add Cpt to embedded store failed.");
+                throw new DatabaseException("database error!");
+            }
+            CptBaseInfo cptBaseInfo = new CptBaseInfo();
+            cptBaseInfo.setCptId(cptId);
+            cptBaseInfo.setCptVersion(CPT_DEFAULT_VERSION);
+            return new ResponseData<>(cptBaseInfo, ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->addCpt] addCpt error.", e);
+            return new ResponseData<CptBaseInfo>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<PolicyValue> getPolicy(String domain, int policyId) {
+
+        if (policyId <= 0) {
+            logger.error("[embedded->getPolicy] the policyId is invalid.");
+            return new ResponseData<PolicyValue>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Map<String, String>> response = new EmbeddedExecutor(embeddedDomain, store)
+                .executeQuery(String.valueOf(policyId));
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                PolicyValue tableData = toValue(response.getResult(), PolicyValue.class);
+                if (StringUtils.isNotBlank(tableData.getPolicy_schema())) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null, ErrorCode.CPT_NOT_EXISTS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getPolicy] getPolicy error.", e);
+            return new ResponseData<PolicyValue>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> addPolicy(
+        String domain,
+        int policyId,
+        String publisher,
+        String description,
+        String cptSchema,
+        String cptSignature) {
+
+        if (policyId <= 0) {
+            logger.error("[embedded->addPolicy] the policyId is invalid.");
+            return new ResponseData<Integer>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            ResponseData<Integer> result = new EmbeddedExecutor(embeddedDomain, store).executeInsert(
+                String.valueOf(policyId), fields(
+                    "policy_id", policyId,
+                    "created", now,
+                    "updated", now,
+                    "policy_version", CPT_DEFAULT_VERSION,
+                    "publisher", publisher,
+                    "description", description,
+                    "policy_schema", cptSchema,
+                    "policy_signature", cptSignature));
+            if (result.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                logger.error("[addPolicy] add policy to embedded store failed.");
+                throw new DatabaseException("database error!");
+            }
+            return new ResponseData<>(result.getResult(), ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->addPolicy] addPolicy error.", e);
+            return new ResponseData<Integer>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Long> reserveSequence(
+        String domain,
+        String name,
+        long initialValue,
+        int blockSize) {
+
+        if (StringUtils.isEmpty(name) || blockSize <= 0) {
+            logger.error("[embedded->reserveSequence] the name or blockSize is invalid.");
+            return new ResponseData<Long>(null, KEY_INVALID);
+        }
+        SEQUENCE_LOCK.lock();
+        try {
+            EmbeddedExecutor executor = new EmbeddedExecutor(new EmbeddedDomain(domain), store);
+            ResponseData<Map<String, String>> response = executor.executeQuery(name);
+            if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+            }
+            long first = response.getResult() == null
+                ? initialValue : Long.parseLong(response.getResult().get("next_id"));
+            Map<String, Object> next = fields("seq_name", name, "next_id", first + blockSize);
+            ResponseData<Integer> result = response.getResult() == null
+                ? executor.executeInsert(name, next)
+                : executor.executeUpdate(name, next);
+            if (result.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(result.getErrorCode()));
+            }
+            return new ResponseData<>(first, ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->reserveSequence] reserveSequence error.", e);
+            return new ResponseData<Long>(null, e.getErrorCode());
+        } finally {
+            SEQUENCE_LOCK.unlock();
+        }
+    }
+
+    @Override
+    public ResponseData<PresentationValue> getPresentation(String domain, int presentationId) {
+
+        if (presentationId <= 0) {
+            logger.error("[embedded->getPresentation] the presentationId is invalid.");
+            return new ResponseData<PresentationValue>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Map<String, String>> response = new EmbeddedExecutor(embeddedDomain, store)
+                .executeQuery(String.valueOf(presentationId));
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                PresentationValue tableData =
+                    toValue(response.getResult(), PresentationValue.class);
+                if (StringUtils.isNotBlank(tableData.getClaim_policies())) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null, ErrorCode.PRESENTATION_POLICY_INVALID);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getPresentation] getPresentation error.", e);
+            return new ResponseData<PresentationValue>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> addPresentation(
+        String domain,
+        int presentationId,
+        String creator,
+        String policies) {
+
+        if (presentationId <= 0) {
+            logger.error("[embedded->addPresentation] the presentationId is invalid.");
+            return new ResponseData<Integer>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Integer> result = new EmbeddedExecutor(embeddedDomain, store).executeInsert(
+                String.valueOf(presentationId), fields(
+                    "presentation_id", presentationId,
+                    "creator", creator,
+                    "claim_policies", policies));
+            if (result.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                logger.error("[addPresentation] add presentation to embedded store failed.");
+                throw new DatabaseException("database error!");
+            }
+            return new ResponseData<>(result.getResult(), ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->addPresentation] addPresentation error.", e);
+            return new ResponseData<Integer>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> updateCpt(
+        String domain,
+        int cptId,
+        int cptVersion,
+        String publisher,
+        String description,
+        String cptSchema,
+        String cptSignature) {
+
+        if (cptId <= 0) {
+            logger.error("[embedded->updateCpt] the cptId is invalid.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeUpdate(
+                String.valueOf(cptId), fields(
+                    "updated", embeddedDomain.getNow(),
+                    "cpt_version", cptVersion,
+                    "publisher", publisher,
+                    "description", description,
+                    "cpt_schema", cptSchema,
+                    "cpt_signature", cptSignature));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->updateCpt] updateCpt error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> updateCredentialTemplate(
+        String domain,
+        int cptId,
+        String credentialPublicKey,
+        String credentialProof) {
+
+        if (cptId <= 0) {
+            logger.error("[embedded->updateCredentialTemplate] the cptId is invalid.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeUpdate(
+                String.valueOf(cptId), fields(
+                    "credential_publicKey", credentialPublicKey,
+                    "credential_proof", credentialProof));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->updateCredentialTemplate] updateCredentialTemplate error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> updateCptClaimPolicies(String domain, int cptId, String policies) {
+
+        if (cptId <= 0) {
+            logger.error("[embedded->updateCptClaimPolicies] the cptId is invalid.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeUpdate(
+                String.valueOf(cptId), fields("claim_policies", policies));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->updateCptClaimPolicies] updateCptClaimPolicies error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<List<Integer>> getCptIdList(String domain, Integer first, Integer last) {
+        return getIdList(domain, first, last, "getCptIdList");
+    }
+
+    @Override
+    public ResponseData<Integer> getCptCount(String domain) {
+        return getCount(domain, "getCptCount");
+    }
+
+    @Override
+    public ResponseData<List<Integer>> getPolicyIdList(String domain, Integer first, Integer last) {
+        return getIdList(domain, first, last, "getPolicyIdList");
+    }
+
+    @Override
+    public ResponseData<Integer> getPolicyCount(String domain) {
+        return getCount(domain, "getPolicyCount");
+    }
+
+    @Override
+    public ResponseData<Integer> addAuthorityIssuer(
+        String domain,
+        String weId,
+        String name,
+        String desc,
+        String accValue,
+        String extraStr,
+        String extraInt) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->addAuthorityIssuer] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            return new EmbeddedExecutor(embeddedDomain, store).executeInsert(weId, fields(
+                "weid", weId,
+                "name", name,
+                "description", desc,
+                "created", now,
+                "updated", now,
+                "recognize", 0,
+                "acc_value", accValue,
+                "extra_str", extraStr,
+                "extra_int", extraInt),
+                INDEX_NAME);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->addAuthorityIssuer] addAuthorityIssuer error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> removeAuthorityIssuer(String domain, String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->removeAuthorityIssuer] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeDelete(weId);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->removeAuthorityIssuer] removeAuthorityIssuer error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<AuthorityIssuerInfo> getAuthorityIssuerByWeId(String domain, String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->getAuthorityIssuerByWeId] the weId is empty.");
+            return new ResponseData<AuthorityIssuerInfo>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Map<String, String>> response =
+                new EmbeddedExecutor(embeddedDomain, store).executeQuery(weId);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                AuthorityIssuerInfo tableData =
+                    toValue(response.getResult(), AuthorityIssuerInfo.class);
+                if (StringUtils.isNotBlank(tableData.getName())) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null,
+                    ErrorCode.AUTHORITY_ISSUER_CONTRACT_ERROR_NOT_EXISTS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getAuthorityIssuerByWeId] getAuthorityIssuerByWeId error.", e);
+            return new ResponseData<AuthorityIssuerInfo>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<List<AuthorityIssuerInfo>> getAuthorityIssuersByWeIds(
+        String domain,
+        List<String> weIds) {
+
+        if (weIds == null || weIds.isEmpty()) {
+            return new ResponseData<>(new ArrayList<>(), ErrorCode.SUCCESS);
+        }
+        // 嵌入式存储在进程内读取, 逐条查询即可
+        List<AuthorityIssuerInfo> result = new ArrayList<>();
+        for (String weId : weIds) {
+            if (StringUtils.isEmpty(weId)) {
+                continue;
+            }
+            ResponseData<AuthorityIssuerInfo> response = getAuthorityIssuerByWeId(domain, weId);
+            if (response.getResult() != null) {
+                result.add(response.getResult());
+            } else if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()
+                && response.getErrorCode()
+                != ErrorCode.AUTHORITY_ISSUER_CONTRACT_ERROR_NOT_EXISTS.getCode()) {
+                return new ResponseData<>(null,
+                    ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+            }
+        }
+        return new ResponseData<>(result, ErrorCode.SUCCESS);
+    }
+
+    @Override
+    public ResponseData<AuthorityIssuerInfo> getAuthorityIssuerByName(String domain, String name) {
+
+        if (StringUtils.isEmpty(name)) {
+            logger.error("[embedded->getAuthorityIssuerByName] the name is empty.");
+            return new ResponseData<AuthorityIssuerInfo>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<String> index =
+                new EmbeddedExecutor(embeddedDomain, store).executeIndexQuery("name", name);
+            if (index.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(index.getErrorCode()));
+            }
+            if (StringUtils.isBlank(index.getResult())) {
+                return new ResponseData<>(null, ErrorCode.SUCCESS);
+            }
+            return getAuthorityIssuerByWeId(domain, index.getResult());
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getAuthorityIssuerByName] getAuthorityIssuerByName error.", e);
+            return new ResponseData<AuthorityIssuerInfo>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> updateAuthorityIssuer(
+        String domain,
+        String weId,
+        Integer recognize) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->updateAuthorityIssuer] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeUpdate(weId, fields(
+                "updated", embeddedDomain.getNow(),
+                "recognize", recognize),
+                EmbeddedStore.memberSet(SET_RECOGNIZED, recognize != null && recognize == 1));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->updateAuthorityIssuer] update the AuthorityIssuer error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> getAuthorityIssuerCount(String domain) {
+        return getCount(domain, "getAuthorityIssuerCount");
+    }
+
+    @Override
+    public ResponseData<Integer> getRecognizedIssuerCount(String domain) {
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Integer> response = new EmbeddedExecutor(embeddedDomain, store)
+                .executeMemberCount(SET_RECOGNIZED);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                return new ResponseData<>(response.getResult(), ErrorCode.SUCCESS);
+            }
+            return new ResponseData<>(0, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getRecognizedIssuerCount] get the count of recognized "
+                + "authority issuer error.", e);
+            return new ResponseData<>(0, e.getErrorCode());
+        }
+    }
+
+    //1 as authority_role, 2 as committee_role, 4 as admin_role, 其余取值为以上角色的组合
+    @Override
+    public ResponseData<Integer> addRole(String domain, String weId, Integer roleValue) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->addRole] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        if (roleValue == null || roleValue > 7 || roleValue < 1) {
+            logger.error("[embedded->addRole] the roleValue is not between 1 and 7.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            Map<String, Object> roleMap = fields("weid", weId, "created", now);
+            roleMap.putAll(fields(roleFields(now, roleValue)));
+            return new EmbeddedExecutor(embeddedDomain, store).executeInsert(weId, roleMap);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->addRole] addRole error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<RoleValue> getRole(String domain, String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->getRole] the weId is empty.");
+            return new ResponseData<RoleValue>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            ResponseData<Map<String, String>> response =
+                new EmbeddedExecutor(embeddedDomain, store).executeQuery(weId);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                RoleValue tableData = toValue(response.getResult(), RoleValue.class);
+                if (tableData.getUpdated() != null && !tableData.getUpdated().after(now)) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null,
+                    ErrorCode.AUTHORITY_ISSUER_CONTRACT_ERROR_NOT_EXISTS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getRole] getRole error.", e);
+            return new ResponseData<RoleValue>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> updateRole(String domain, String weId, Integer roleValue) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[embedded->updateRole] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        if (roleValue == null || roleValue > 7 || roleValue < 1) {
+            logger.error("[embedded->updateRole] the roleValue is not between 1 and 7.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeUpdate(
+                weId, fields(roleFields(embeddedDomain.getNow(), roleValue)));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->updateRole] update the role error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> addSpecificType(String domain, String typeName, String owner) {
+
+        if (StringUtils.isEmpty(typeName)) {
+            logger.error("[embedded->addSpecificType] the typeName is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            return new EmbeddedExecutor(embeddedDomain, store).executeInsert(typeName, fields(
+                "type_name", typeName,
+                "created", now,
+                "updated", now,
+                "owner", owner));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->addSpecificType] addSpecificType error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<SpecificTypeValue> getSpecificType(String domain, String typeName) {
+
+        if (StringUtils.isEmpty(typeName)) {
+            logger.error("[embedded->getSpecificType] the typeName is empty.");
+            return new ResponseData<SpecificTypeValue>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            ResponseData<Map<String, String>> response =
+                new EmbeddedExecutor(embeddedDomain, store).executeQuery(typeName);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                SpecificTypeValue tableData =
+                    toValue(response.getResult(), SpecificTypeValue.class);
+                if (tableData.getUpdated() != null && !tableData.getUpdated().after(now)) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null,
+                    ErrorCode.SPECIFIC_ISSUER_CONTRACT_ERROR_ALREADY_NOT_EXIST);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getSpecificType] getSpecificType error.", e);
+            return new ResponseData<SpecificTypeValue>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> removeSpecificType(String domain, String typeName) {
+
+        if (StringUtils.isEmpty(typeName)) {
+            logger.error("[embedded->removeSpecificType] the typeName is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeDelete(typeName);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->removeSpecificType] removeSpecificType error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> updateSpecificTypeFellow(
+        String domain,
+        String typeName,
+        String fellow) {
+
+        if (StringUtils.isEmpty(typeName)) {
+            logger.error("[embedded->updateSpecificTypeFellow] the typeName is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeUpdate(
+                typeName, fields("fellow", fellow));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->updateSpecificTypeFellow] updateSpecificTypeFellow error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> getIssuerTypeCount(String domain) {
+        return getCount(domain, "getIssuerTypeCount");
+    }
+
+    @Override
+    public ResponseData<List<String>> getIssuerTypeList(
+        String domain,
+        Integer first,
+        Integer last) {
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<List<String>> response = new EmbeddedExecutor(embeddedDomain, store)
+                .executeRangeQuery(first, last - first);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                return new ResponseData<>(response.getResult(), ErrorCode.SUCCESS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getIssuerTypeList] get the IssuerTypeList error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<List<SpecificTypeValue>> getSpecificTypeList(
+        String domain,
+        Integer first,
+        Integer last) {
+
+        try {
+            // 嵌入式存储在进程内读取, 分页的主键逐条查询即可
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            Date now = embeddedDomain.getNow();
+            EmbeddedExecutor executor = new EmbeddedExecutor(embeddedDomain, store);
+            ResponseData<List<String>> ids = executor.executeRangeQuery(first, last - first);
+            if (ids.getErrorCode() != ErrorCode.SUCCESS.getCode() || ids.getResult() == null) {
+                return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(ids.getErrorCode()));
+            }
+            List<SpecificTypeValue> result = new ArrayList<>(ids.getResult().size());
+            for (String id : ids.getResult()) {
+                ResponseData<Map<String, String>> response = executor.executeQuery(id);
+                if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                    return new ResponseData<>(null,
+                        ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+                }
+                if (response.getResult() == null) {
+                    continue;
+                }
+                SpecificTypeValue tableData =
+                    toValue(response.getResult(), SpecificTypeValue.class);
+                if (tableData.getUpdated() != null && !tableData.getUpdated().after(now)) {
+                    result.add(tableData);
+                }
+            }
+            return new ResponseData<>(result, ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getSpecificTypeList] get the SpecificTypeList error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> addEvidenceByHash(
+        String domain,
+        String hashValue,
+        String signer,
+        String signature,
+        String log,
+        String updated,
+        String revoked,
+        String extraKey,
+        String group_id) {
+
+        if (StringUtils.isEmpty(hashValue)) {
+            logger.error("[embedded->addEvidenceByHash] the hashValue is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Integer> result = new EmbeddedExecutor(embeddedDomain, store)
+                .executeInsert(hashValue, fields(
+                    "hash", hashValue,
+                    "signers", signer,
+                    "signatures", signature,
+                    "logs", log,
+                    "updated", updated,
+                    "revoked", revoked,
+                    "extra_key", StringUtils.isEmpty(extraKey) ? null : extraKey,
+                    "group_id", group_id),
+                    INDEX_EXTRA_KEY);
+            if (result.getResult() == DataDriverConstant.DUPLICATE_KEY_STATUS) {
+                return new ResponseData<Integer>(
+                    FAILED_STATUS, ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS);
+            }
+            return result;
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->addEvidenceByHash] addEvidenceByHash error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<EvidenceValue> getEvidenceByHash(String domain, String hash) {
+
+        if (StringUtils.isEmpty(hash)) {
+            logger.error("[embedded->getEvidenceByHash] the hash is empty.");
+            return new ResponseData<EvidenceValue>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<Map<String, String>> response =
+                new EmbeddedExecutor(embeddedDomain, store).executeQuery(hash);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                EvidenceValue tableData = toValue(response.getResult(), EvidenceValue.class);
+                if (StringUtils.isNotBlank(tableData.getSigners())) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null, ErrorCode.CREDENTIAL_EVIDENCE_NOT_EXIST);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getEvidenceByHash] getEvidenceByHash error.", e);
+            return new ResponseData<EvidenceValue>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> addSignatureAndLogs(
+        String domain,
+        String hashValue,
+        String signer,
+        String signature,
+        String log,
+        String updated,
+        String revoked,
+        String extraKey) {
+
+        if (StringUtils.isEmpty(hashValue)) {
+            logger.error("[embedded->addSignatureAndLogs] the hashValue is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeUpdate(hashValue, fields(
+                "signers", signer,
+                "signatures", signature,
+                "logs", log,
+                "updated", updated,
+                "revoked", revoked,
+                "extra_key", extraKey),
+                INDEX_EXTRA_KEY);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->addSignatureAndLogs] addSignatureAndLogs error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> appendEvidenceSignInfo(
+        String domain,
+        String hashValue,
+        String signer,
+        String signature,
+        String log,
+        String updated,
+        String revoked,
+        String extraKey) {
+
+        if (StringUtils.isEmpty(hashValue)) {
+            logger.error("[embedded->appendEvidenceSignInfo] the hashValue is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeCompute(hashValue,
+                record -> EvidenceValue.appendSignInfo(
+                    record, signer, signature, log, updated, revoked, extraKey),
+                INDEX_EXTRA_KEY);
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->appendEvidenceSignInfo] appendEvidenceSignInfo error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> revokeEvidence(
+        String domain,
+        String hashValue,
+        String signer,
+        String revoked,
+        String updated) {
+
+        if (StringUtils.isEmpty(hashValue)) {
+            logger.error("[embedded->revokeEvidence] the hashValue is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            return new EmbeddedExecutor(embeddedDomain, store).executeCompute(hashValue,
+                record -> EvidenceValue.revokeSignInfo(record, signer, revoked, updated));
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->revokeEvidence] revokeEvidence error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<EvidenceValue> getEvidenceByExtraKey(String domain, String extraKey) {
+
+        if (StringUtils.isEmpty(extraKey)) {
+            logger.error("[embedded->getEvidenceByExtraKey] the extraKey is empty.");
+            return new ResponseData<EvidenceValue>(null, KEY_INVALID);
+        }
+        try {
+            EmbeddedDomain embeddedDomain = new EmbeddedDomain(domain);
+            ResponseData<String> index = new EmbeddedExecutor(embeddedDomain, store)
+                .executeIndexQuery("extra_key", extraKey);
+            if (index.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(index.getErrorCode()));
+            }
+            if (StringUtils.isBlank(index.getResult())) {
+                return new ResponseData<>(null, ErrorCode.SUCCESS);
+            }
+            return getEvidenceByHash(domain, index.getResult());
+        } catch (WeIdBaseException e) {
+            logger.error("[embedded->getEvidenceByExtraKey] getEvidenceByExtraKey error.", e);
+            return new ResponseData<EvidenceValue>(null, e.getErrorCode());
+        }
+    }
+}
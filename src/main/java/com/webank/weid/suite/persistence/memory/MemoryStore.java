@@ -0,0 +1,325 @@
+
+
+package com.webank.weid.suite.persistence.memory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.webank.weid.suite.persistence.embedded.TableStore;
+
+/**
+ * 进程内的并发存储, 数据只保存在内存中, 进程退出后丢失.
+ * 适用于压测与单元测试, 在不依赖数据库的情况下衡量SDK自身的开销.
+ *
+ * <p>每张表的记录保存在{@link ConcurrentHashMap}中, 记录本身不可变, 更新时整体替换,
+ * 读操作不加锁, 不同主键的写操作互不阻塞.
+ * 唯一索引在记录写入后占用, 占用失败时撤回写入, 因此并发冲突的记录可能被短暂读到.
+ * 非唯一索引保存字段值到有序主键集合的映射, 读取时校验记录当前的字段值.
+ */
+public class MemoryStore implements TableStore {
+
+    private static final MemoryStore INSTANCE = new MemoryStore();
+
+    private final ConcurrentMap<String, Table> tables = new ConcurrentHashMap<>();
+
+    /**
+     * 不可变的记录, seq为写入顺序, 用于分页.
+     */
+    private static final class Row {
+
+        private final long seq;
+
+        private final Map<String, String> fields;
+
+        private Row(long seq, Map<String, String> fields) {
+            this.seq = seq;
+            this.fields = Collections.unmodifiableMap(new LinkedHashMap<>(fields));
+        }
+    }
+
+    /**
+     * 单张表的数据与索引.
+     */
+    private static final class Table {
+
+        private final AtomicLong sequence = new AtomicLong();
+
+        private final ConcurrentMap<String, Row> rows = new ConcurrentHashMap<>();
+
+        private final ConcurrentSkipListMap<Long, String> order = new ConcurrentSkipListMap<>();
+
+        private final ConcurrentMap<String, ConcurrentMap<String, String>> indexes =
+            new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<String, ConcurrentMap<String, Set<String>>> multiIndexes =
+            new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<String, Set<String>> memberSets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 获取进程内共享的存储实例, 各业务Driver通过同一实例读写.
+     *
+     * @return 存储实例
+     */
+    public static MemoryStore getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Map<String, String> get(String table, String id) {
+        Row row = rowOf(table, id);
+        return row == null ? null : new LinkedHashMap<>(row.fields);
+    }
+
+    @Override
+    public String findByIndex(String table, String field, String value) {
+        Table data = tables.get(table);
+        if (data == null || value == null || value.isEmpty()) {
+            return null;
+        }
+        Map<String, Set<String>> multiIndex = data.multiIndexes.get(field);
+        if (multiIndex != null) {
+            Set<String> ids = multiIndex.get(value);
+            if (ids != null) {
+                for (String id : ids) {
+                    if (isOwner(data, field, value, id)) {
+                        return id;
+                    }
+                }
+            }
+            return null;
+        }
+        Map<String, String> index = data.indexes.get(field);
+        String id = index == null ? null : index.get(value);
+        return id != null && isOwner(data, field, value, id) ? id : null;
+    }
+
+    @Override
+    public List<String> range(String table, int start, int count) {
+        Table data = tables.get(table);
+        List<String> ids = new ArrayList<>();
+        if (data == null || count <= 0 || start < 0) {
+            return ids;
+        }
+        Iterator<String> iterator = data.order.values().iterator();
+        for (int i = 0; i < start && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        while (iterator.hasNext() && ids.size() < count) {
+            ids.add(iterator.next());
+        }
+        return ids;
+    }
+
+    @Override
+    public int count(String table) {
+        Table data = tables.get(table);
+        return data == null ? 0 : data.rows.size();
+    }
+
+    @Override
+    public int memberCount(String table, String setName) {
+        Table data = tables.get(table);
+        Set<String> members = data == null ? null : data.memberSets.get(setName);
+        return members == null ? 0 : members.size();
+    }
+
+    @Override
+    public int insert(String table, String id, Map<String, String> fields, String... specs) {
+        Table data = tables.computeIfAbsent(table, key -> new Table());
+        Row row = new Row(data.sequence.incrementAndGet(), fields);
+        if (data.rows.putIfAbsent(id, row) != null) {
+            return 0;
+        }
+        if (!claimIndexes(data, id, row, specs)) {
+            data.rows.remove(id, row);
+            return -1;
+        }
+        data.order.put(row.seq, id);
+        applyMultiIndexes(data, id, null, row, specs);
+        applyMemberSets(data, id, specs);
+        return 1;
+    }
+
+    @Override
+    public int insertBatch(
+        String table,
+        Map<String, Map<String, String>> records,
+        String... specs) {
+
+        int inserted = 0;
+        for (Map.Entry<String, Map<String, String>> record : records.entrySet()) {
+            if (insert(table, record.getKey(), record.getValue(), specs) == 1) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public int update(String table, String id, Map<String, String> fields, String... specs) {
+        return compute(table, id, record -> fields, specs);
+    }
+
+    @Override
+    public int compute(
+        String table,
+        String id,
+        Function<Map<String, String>, Map<String, String>> updater,
+        String... specs) {
+
+        Table data = tables.get(table);
+        if (data == null) {
+            return 0;
+        }
+        while (true) {
+            Row old = data.rows.get(id);
+            if (old == null) {
+                return 0;
+            }
+            Map<String, String> merged = new LinkedHashMap<>(old.fields);
+            merged.putAll(updater.apply(new LinkedHashMap<>(old.fields)));
+            Row row = new Row(old.seq, merged);
+            if (!claimIndexes(data, id, row, specs)) {
+                return -1;
+            }
+            if (data.rows.replace(id, old, row)) {
+                applyMultiIndexes(data, id, old, row, specs);
+                applyMemberSets(data, id, specs);
+                return 1;
+            }
+        }
+    }
+
+    @Override
+    public int delete(String table, String id) {
+        Table data = tables.get(table);
+        Row row = data == null ? null : data.rows.remove(id);
+        if (row == null) {
+            return 0;
+        }
+        data.order.remove(row.seq);
+        for (Set<String> members : data.memberSets.values()) {
+            members.remove(id);
+        }
+        for (Map.Entry<String, ConcurrentMap<String, String>> index : data.indexes.entrySet()) {
+            String value = row.fields.get(index.getKey());
+            if (value != null) {
+                index.getValue().remove(value, id);
+            }
+        }
+        for (Map.Entry<String, ConcurrentMap<String, Set<String>>> index
+            : data.multiIndexes.entrySet()) {
+            String value = row.fields.get(index.getKey());
+            Set<String> ids = value == null ? null : index.getValue().get(value);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * 清空所有数据.
+     */
+    public void clear() {
+        tables.clear();
+    }
+
+    private Row rowOf(String table, String id) {
+        Table data = tables.get(table);
+        return data == null ? null : data.rows.get(id);
+    }
+
+    /**
+     * 占用记录的唯一索引, 原占用者的字段值已变化或已删除时可以抢占.
+     */
+    private static boolean claimIndexes(Table data, String id, Row row, String... specs) {
+        for (String spec : specs) {
+            if (!spec.startsWith(INDEX_FIELD_PREFIX)) {
+                continue;
+            }
+            String field = spec.substring(INDEX_FIELD_PREFIX.length());
+            String value = row.fields.get(field);
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            ConcurrentMap<String, String> index =
+                data.indexes.computeIfAbsent(field, key -> new ConcurrentHashMap<>());
+            while (true) {
+                String owner = index.putIfAbsent(value, id);
+                if (owner == null || owner.equals(id)) {
+                    break;
+                }
+                if (isOwner(data, field, value, owner)) {
+                    return false;
+                }
+                if (index.replace(value, owner, id)) {
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isOwner(Table data, String field, String value, String id) {
+        Row row = data.rows.get(id);
+        return row != null && value.equals(row.fields.get(field));
+    }
+
+    /**
+     * 维护非唯一索引, 更新时将主键移出旧字段值的集合.
+     */
+    private static void applyMultiIndexes(
+        Table data,
+        String id,
+        Row old,
+        Row row,
+        String... specs) {
+
+        for (String spec : specs) {
+            if (!spec.startsWith(INDEX_MULTI_PREFIX)) {
+                continue;
+            }
+            String field = spec.substring(INDEX_MULTI_PREFIX.length());
+            ConcurrentMap<String, Set<String>> index =
+                data.multiIndexes.computeIfAbsent(field, key -> new ConcurrentHashMap<>());
+            String value = row.fields.get(field);
+            String oldValue = old == null ? null : old.fields.get(field);
+            if (oldValue != null && !oldValue.equals(value) && index.containsKey(oldValue)) {
+                index.get(oldValue).remove(id);
+            }
+            if (value != null && !value.isEmpty()) {
+                index.computeIfAbsent(value, key -> new ConcurrentSkipListSet<>()).add(id);
+            }
+        }
+    }
+
+    private static void applyMemberSets(Table data, String id, String... specs) {
+        for (String spec : specs) {
+            if (!spec.startsWith(INDEX_SET_PREFIX)) {
+                continue;
+            }
+            String setName = spec.substring(INDEX_SET_PREFIX.length() + 1);
+            Set<String> members = data.memberSets
+                .computeIfAbsent(setName, key -> ConcurrentHashMap.newKeySet());
+            if (spec.charAt(INDEX_SET_PREFIX.length()) == '+') {
+                members.add(id);
+            } else {
+                members.remove(id);
+            }
+        }
+    }
+}
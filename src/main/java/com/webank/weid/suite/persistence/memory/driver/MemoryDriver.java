@@ -0,0 +1,17 @@
+
+
+package com.webank.weid.suite.persistence.memory.driver;
+
+import com.webank.weid.suite.persistence.embedded.driver.EmbeddedDriver;
+import com.webank.weid.suite.persistence.memory.MemoryStore;
+
+/**
+ * 内存存储Driver, 与嵌入式存储使用相同的表结构与返回值, 数据只保存在进程内,
+ * 用于压测与测试, 不适合生产环境.
+ */
+public class MemoryDriver extends EmbeddedDriver {
+
+    public MemoryDriver() {
+        super(MemoryStore.getInstance());
+    }
+}
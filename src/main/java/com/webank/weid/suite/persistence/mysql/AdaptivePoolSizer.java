@@ -0,0 +1,119 @@
+
+
+package com.webank.weid.suite.persistence.mysql;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.suite.metrics.LatencyHistogram;
+
+/**
+ * 连接池自适应调整器, 按周期统计获取连接的等待时间, 在配置的上下限内调整maxTotal与minIdle.
+ * 等待时间的P95超过目标值时扩容, 等待很短且连接池大部分空闲时缩容.
+ */
+class AdaptivePoolSizer implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final String dsName;
+
+    private final BasicDataSource dataSource;
+
+    private final int maxTotalLower;
+
+    private final int maxTotalUpper;
+
+    private final int minIdleLower;
+
+    private final int minIdleUpper;
+
+    private final long targetWaitMicros;
+
+    /**
+     * 当前周期内的等待时间.
+     */
+    private final LatencyHistogram window = new LatencyHistogram();
+
+    AdaptivePoolSizer(
+        String dsName,
+        BasicDataSource dataSource,
+        int maxTotalLower,
+        int maxTotalUpper,
+        int minIdleUpper,
+        long targetWaitMillis
+    ) {
+        this.dsName = dsName;
+        this.dataSource = dataSource;
+        this.maxTotalLower = maxTotalLower;
+        this.maxTotalUpper = Math.max(maxTotalLower, maxTotalUpper);
+        this.minIdleLower = dataSource.getMinIdle();
+        this.minIdleUpper = Math.max(minIdleLower, minIdleUpper);
+        this.targetWaitMicros = TimeUnit.MILLISECONDS.toMicros(targetWaitMillis);
+    }
+
+    /**
+     * 记录一次获取连接的等待时间.
+     *
+     * @param nanos 等待时间, 单位纳秒
+     */
+    void record(long nanos) {
+        window.record(nanos);
+    }
+
+    @Override
+    public void run() {
+        try {
+            adjust();
+        } catch (Exception e) {
+            // 调度线程中的异常会终止后续调度, 这里只记录日志
+            logger.error("[adjust] adjust pool {} failed.", dsName, e);
+        }
+    }
+
+    /**
+     * 根据本周期的等待时间调整连接池大小, 并开始新的统计周期.
+     */
+    void adjust() {
+        long borrowed = window.getCount();
+        long p95 = window.getPercentileMicros(0.95);
+        window.reset();
+
+        int maxTotal = dataSource.getMaxTotal();
+        int minIdle = dataSource.getMinIdle();
+        int active = dataSource.getNumActive();
+        if (borrowed > 0 && p95 > targetWaitMicros && maxTotal < maxTotalUpper) {
+            // 每次扩容25%, 至少1个
+            resize(
+                Math.min(maxTotalUpper, maxTotal + Math.max(1, maxTotal / 4)),
+                Math.min(minIdleUpper, minIdle + 1),
+                p95
+            );
+        } else if (p95 <= targetWaitMicros / 4 && active < maxTotal / 2
+            && (maxTotal > maxTotalLower || minIdle > minIdleLower)) {
+            // 缩容更保守, 每次12.5%, 避免负载波动时来回调整
+            resize(
+                Math.max(maxTotalLower, maxTotal - Math.max(1, maxTotal / 8)),
+                Math.max(minIdleLower, minIdle - 1),
+                p95
+            );
+        }
+    }
+
+    private void resize(int maxTotal, int targetMinIdle, long p95) {
+        int minIdle = Math.min(targetMinIdle, maxTotal);
+        logger.info(
+            "[adjust] pool {} wait p95 {}us, maxTotal {} -> {}, minIdle {} -> {}.",
+            dsName,
+            p95,
+            dataSource.getMaxTotal(),
+            maxTotal,
+            dataSource.getMinIdle(),
+            minIdle
+        );
+        dataSource.setMaxTotal(maxTotal);
+        dataSource.setMinIdle(minIdle);
+    }
+}
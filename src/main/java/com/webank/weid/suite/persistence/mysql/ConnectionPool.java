@@ -6,17 +6,28 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.commons.dbcp2.BasicDataSourceFactory;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.suite.metrics.MetricsManager;
+import com.webank.weid.suite.metrics.MetricsRegistry;
 import com.webank.weid.util.PropertyUtils;
 
 public class ConnectionPool {
@@ -26,6 +37,31 @@ public class ConnectionPool {
     private static  Map<String, BasicDataSource> connectionPoolMap = new ConcurrentHashMap<>();
     
     private static final LinkedList<String> SOURCE_NAME_LIST = new LinkedList<String>();
+
+    /**
+     * 开启自适应调整的数据源.
+     */
+    private static final Map<String, AdaptivePoolSizer> ADAPTIVE_SIZER_MAP =
+        new ConcurrentHashMap<>();
+
+    /**
+     * 连接池指标名前缀.
+     */
+    private static final String METRICS_PREFIX = "persistence.pool.";
+
+    private static ScheduledExecutorService sizerScheduler;
+
+    /**
+     * 主库数据源到副本路由的映射.
+     */
+    private static final Map<String, ReplicaRouter> REPLICA_ROUTER_MAP =
+        new ConcurrentHashMap<>();
+
+    /**
+     * 已借出的副本连接到副本数据源名称的映射, 用于连接异常时摘除副本.
+     */
+    private static final Map<Connection, String> REPLICA_CONNECTION_MAP =
+        Collections.synchronizedMap(new IdentityHashMap<>());
     
     static {
         init();
@@ -162,12 +198,190 @@ public class ConnectionPool {
                 BasicDataSource connectionPool = 
                     (BasicDataSource) BasicDataSourceFactory.createDataSource(properties);
                 connectionPoolMap.put(string, connectionPool);
+                registerMetrics(string, connectionPool);
+                initAdaptiveSizer(string, connectionPool);
+            }
+            for (String string : dataSourceNames) {
+                initReplicaRouter(string);
             }
         } catch (Exception e) {
             logger.error("init ConnectionPool error, please check the log.", e);
         }
     }
     
+    /**
+     * 注册连接池的活跃数, 空闲数与容量指标.
+     */
+    private static void registerMetrics(String dsName, BasicDataSource connectionPool) {
+        MetricsRegistry registry = MetricsManager.getRegistry();
+        String prefix = METRICS_PREFIX + dsName;
+        registry.gauge(prefix + ".active", connectionPool::getNumActive);
+        registry.gauge(prefix + ".idle", connectionPool::getNumIdle);
+        registry.gauge(prefix + ".maxTotal", connectionPool::getMaxTotal);
+        registry.gauge(prefix + ".minIdle", connectionPool::getMinIdle);
+    }
+
+    /**
+     * 初始化连接池的自适应调整, 仅在配置了{dsName}.jdbc.adaptive=true时开启.
+     * maxTotal的调整范围默认为[maxActive, 2 * maxActive], minIdle的上限默认为maxIdle.
+     */
+    private static void initAdaptiveSizer(String dsName, BasicDataSource connectionPool) {
+        String dsNamePrefix = dsName + ".";
+        boolean adaptive = Boolean.parseBoolean(
+            PropertyUtils.getProperty(dsNamePrefix + DataDriverConstant.JDBC_ADAPTIVE, "false"));
+        if (!adaptive) {
+            return;
+        }
+        int maxTotal = connectionPool.getMaxTotal();
+        int minActive = Integer.parseInt(PropertyUtils.getProperty(
+            dsNamePrefix + DataDriverConstant.JDBC_ADAPTIVE_MIN_ACTIVE,
+            String.valueOf(maxTotal)
+        ));
+        int maxActive = Integer.parseInt(PropertyUtils.getProperty(
+            dsNamePrefix + DataDriverConstant.JDBC_ADAPTIVE_MAX_ACTIVE,
+            String.valueOf(maxTotal * 2)
+        ));
+        int maxMinIdle = Integer.parseInt(PropertyUtils.getProperty(
+            dsNamePrefix + DataDriverConstant.JDBC_ADAPTIVE_MAX_MIN_IDLE,
+            String.valueOf(connectionPool.getMaxIdle())
+        ));
+        long targetWait = Long.parseLong(PropertyUtils.getProperty(
+            dsNamePrefix + DataDriverConstant.JDBC_ADAPTIVE_TARGET_WAIT,
+            DataDriverConstant.POOL_ADAPTIVE_TARGET_WAIT_DEFAULT_VALUE
+        ));
+        long interval = Long.parseLong(PropertyUtils.getProperty(
+            dsNamePrefix + DataDriverConstant.JDBC_ADAPTIVE_INTERVAL,
+            DataDriverConstant.POOL_ADAPTIVE_INTERVAL_DEFAULT_VALUE
+        ));
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(
+            dsName, connectionPool, minActive, maxActive, maxMinIdle, targetWait);
+        ADAPTIVE_SIZER_MAP.put(dsName, sizer);
+        if (sizerScheduler == null) {
+            sizerScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "weid-pool-sizer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        sizerScheduler.scheduleWithFixedDelay(sizer, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info(
+            "[initAdaptiveSizer] pool {} adaptive sizing enabled, maxTotal [{}, {}], "
+                + "target wait {}ms.",
+            dsName,
+            minActive,
+            maxActive,
+            targetWait
+        );
+    }
+
+    /**
+     * 初始化主库的副本路由, 仅在配置了{dsName}.jdbc.replicas时开启, 副本需在datasource.name中声明.
+     */
+    private static void initReplicaRouter(String dsName) {
+        String dsNamePrefix = dsName + ".";
+        String replicaStr =
+            PropertyUtils.getProperty(dsNamePrefix + DataDriverConstant.JDBC_REPLICAS);
+        if (StringUtils.isBlank(replicaStr)) {
+            return;
+        }
+        List<String> replicas = new ArrayList<>();
+        for (String replica : replicaStr.split(",")) {
+            replica = replica.trim();
+            if (!connectionPoolMap.containsKey(replica) || replica.equals(dsName)) {
+                logger.error("[initReplicaRouter] the replica {} of {} is invalid.",
+                    replica, dsName);
+                continue;
+            }
+            replicas.add(replica);
+        }
+        if (replicas.isEmpty()) {
+            return;
+        }
+        ReplicaRouter.Strategy strategy = ReplicaRouter.Strategy.of(PropertyUtils.getProperty(
+            dsNamePrefix + DataDriverConstant.JDBC_REPLICAS_STRATEGY));
+        long stickyWindow = Long.parseLong(PropertyUtils.getProperty(
+            dsNamePrefix + DataDriverConstant.JDBC_REPLICAS_STICKY_WINDOW,
+            DataDriverConstant.POOL_REPLICAS_STICKY_WINDOW_DEFAULT_VALUE
+        ));
+        long ejectTime = Long.parseLong(PropertyUtils.getProperty(
+            dsNamePrefix + DataDriverConstant.JDBC_REPLICAS_EJECT_TIME,
+            DataDriverConstant.POOL_REPLICAS_EJECT_TIME_DEFAULT_VALUE
+        ));
+        REPLICA_ROUTER_MAP.put(dsName, new ReplicaRouter(
+            dsName, replicas, strategy, stickyWindow, ejectTime, ConnectionPool::getLoad));
+        logger.info("[initReplicaRouter] the reads of {} are routed to {} by {}.",
+            dsName, replicas, strategy);
+    }
+
+    /**
+     * 连接池负载, 即活跃连接数占最大连接数的比例.
+     */
+    private static double getLoad(String dsName) {
+        BasicDataSource dataSource = connectionPoolMap.get(dsName);
+        if (dataSource == null || dataSource.getMaxTotal() <= 0) {
+            return 1.0;
+        }
+        return dataSource.getNumActive() / (double) dataSource.getMaxTotal();
+    }
+
+    /**
+     * 获取读连接, 配置了副本时按路由策略从副本获取, 副本不可用时回退到主库.
+     *
+     * @param dsName 主库数据源名称
+     * @param tableName 被读取的表名
+     * @return 返回连接对象
+     */
+    public static Connection getReadConnection(String dsName, String tableName) {
+        ReplicaRouter router = REPLICA_ROUTER_MAP.get(dsName);
+        if (router == null) {
+            return getConnection(dsName);
+        }
+        String target = router.route(tableName);
+        if (target.equals(dsName)) {
+            return getConnection(dsName);
+        }
+        Connection conn = getConnection(target);
+        if (conn == null) {
+            router.eject(target);
+            return getConnection(dsName);
+        }
+        REPLICA_CONNECTION_MAP.put(conn, target);
+        return conn;
+    }
+
+    /**
+     * 记录对表的写入, 写入窗口内该表的读请求路由到主库.
+     *
+     * @param dsName 主库数据源名称
+     * @param tableName 被写入的表名
+     */
+    public static void markWrite(String dsName, String tableName) {
+        ReplicaRouter router = REPLICA_ROUTER_MAP.get(dsName);
+        if (router != null) {
+            router.markWrite(tableName);
+        }
+    }
+
+    /**
+     * 报告读连接上的执行异常, 副本连接出现连接类异常(SQLState 08)时摘除该副本.
+     *
+     * @param conn 执行异常的连接
+     * @param e 异常信息
+     */
+    public static void reportFailure(Connection conn, SQLException e) {
+        if (conn == null) {
+            return;
+        }
+        String replica = REPLICA_CONNECTION_MAP.get(conn);
+        String sqlState = e.getSQLState();
+        if (replica == null || sqlState == null || !sqlState.startsWith("08")) {
+            return;
+        }
+        for (ReplicaRouter router : REPLICA_ROUTER_MAP.values()) {
+            router.eject(replica);
+        }
+    }
+
     /**
      * 从连接池中获取连接.
      * 
@@ -176,14 +390,34 @@ public class ConnectionPool {
      */
     public static Connection getConnection(String dsName) {
         Connection conn = null;
+        long start = System.nanoTime();
         try {
-            conn = connectionPoolMap.get(dsName).getConnection();
+            try {
+                conn = connectionPoolMap.get(dsName).getConnection();
+            } finally {
+                recordBorrowWait(dsName, System.nanoTime() - start);
+            }
             conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            if (e.getCause() instanceof NoSuchElementException) {
+                // 等待超过maxWait仍未获取到连接, 说明连接池已耗尽
+                MetricsManager.getRegistry().increment(
+                    METRICS_PREFIX + dsName + ".borrowTimeout");
+            }
+            logger.error("get connection error, please check the log.", e);
         } catch (Exception e) {
             logger.error("get connection error, please check the log.", e);
         }
         return conn;
     }
+
+    private static void recordBorrowWait(String dsName, long nanos) {
+        MetricsManager.getRegistry().recordTime(METRICS_PREFIX + dsName + ".borrowWait", nanos);
+        AdaptivePoolSizer sizer = ADAPTIVE_SIZER_MAP.get(dsName);
+        if (sizer != null) {
+            sizer.record(nanos);
+        }
+    }
     
     /**
      * 关闭数据库连接资源.
@@ -219,6 +453,7 @@ public class ConnectionPool {
 
     private static void closeResources(Connection conn) {
         if (conn != null) {
+            REPLICA_CONNECTION_MAP.remove(conn);
             try {
                 conn.setAutoCommit(true);
                 conn.close();
@@ -0,0 +1,187 @@
+
+
+package com.webank.weid.suite.persistence.mysql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 主库的只读副本路由, 读请求在健康的副本间按轮询或最小负载分发.
+ * 本地写入某张表后的一段时间内, 该表的读请求仍路由到主库, 保证读到自己的写入;
+ * 获取连接失败或连接异常的副本会被摘除一段时间, 到期后重新参与路由.
+ */
+public class ReplicaRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    /**
+     * 副本选择策略.
+     */
+    public enum Strategy {
+        ROUND_ROBIN,
+        LEAST_LOADED;
+
+        /**
+         * 根据配置值获取策略, 不区分大小写, 默认为轮询.
+         *
+         * @param value 配置值, roundRobin或leastLoaded
+         * @return 返回策略
+         */
+        public static Strategy of(String value) {
+            if (value != null && value.trim().equalsIgnoreCase("leastLoaded")) {
+                return LEAST_LOADED;
+            }
+            return ROUND_ROBIN;
+        }
+    }
+
+    private final String primary;
+
+    private final List<String> replicas;
+
+    private final Strategy strategy;
+
+    private final long stickyWindowNanos;
+
+    private final long ejectNanos;
+
+    /**
+     * 副本负载, 取值越小越空闲.
+     */
+    private final ToDoubleFunction<String> load;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * 表名到读主库截止时间的映射.
+     */
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    /**
+     * 被摘除的副本到恢复时间的映射.
+     */
+    private final Map<String, Long> ejectedUntil = new ConcurrentHashMap<>();
+
+    /**
+     * 构建副本路由.
+     *
+     * @param primary 主库数据源名称
+     * @param replicas 副本数据源名称
+     * @param strategy 副本选择策略
+     * @param stickyWindowMillis 写入后读主库的时间窗口, 单位毫秒
+     * @param ejectMillis 异常副本的摘除时间, 单位毫秒
+     * @param load 副本负载的计算方式
+     */
+    public ReplicaRouter(
+        String primary,
+        List<String> replicas,
+        Strategy strategy,
+        long stickyWindowMillis,
+        long ejectMillis,
+        ToDoubleFunction<String> load
+    ) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.strategy = strategy;
+        this.stickyWindowNanos = TimeUnit.MILLISECONDS.toNanos(stickyWindowMillis);
+        this.ejectNanos = TimeUnit.MILLISECONDS.toNanos(ejectMillis);
+        this.load = load;
+    }
+
+    public String getPrimary() {
+        return primary;
+    }
+
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * 为读请求选择数据源.
+     *
+     * @param tableName 被读取的表名
+     * @return 返回副本数据源名称, 处于写入窗口内或没有健康副本时返回主库
+     */
+    public String route(String tableName) {
+        long now = System.nanoTime();
+        Long until = stickyUntil.get(tableName);
+        if (until != null) {
+            if (now - until < 0) {
+                return primary;
+            }
+            stickyUntil.remove(tableName, until);
+        }
+        List<String> healthy = new ArrayList<>(replicas.size());
+        for (String replica : replicas) {
+            if (isHealthy(replica, now)) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.isEmpty()) {
+            return primary;
+        }
+        if (strategy == Strategy.LEAST_LOADED) {
+            String selected = healthy.get(0);
+            double min = load.applyAsDouble(selected);
+            for (int i = 1; i < healthy.size(); i++) {
+                double current = load.applyAsDouble(healthy.get(i));
+                if (current < min) {
+                    min = current;
+                    selected = healthy.get(i);
+                }
+            }
+            return selected;
+        }
+        int index = counter.getAndIncrement() & Integer.MAX_VALUE;
+        return healthy.get(index % healthy.size());
+    }
+
+    /**
+     * 记录本地对表的写入, 在写入窗口内该表的读请求路由到主库.
+     *
+     * @param tableName 被写入的表名
+     */
+    public void markWrite(String tableName) {
+        if (stickyWindowNanos > 0) {
+            stickyUntil.put(tableName, System.nanoTime() + stickyWindowNanos);
+        }
+    }
+
+    /**
+     * 摘除异常副本.
+     *
+     * @param replica 副本数据源名称
+     */
+    public void eject(String replica) {
+        if (!replicas.contains(replica)) {
+            return;
+        }
+        if (ejectedUntil.put(replica, System.nanoTime() + ejectNanos) == null) {
+            logger.warn("[eject] replica {} of {} is ejected for {}ms.",
+                replica, primary, TimeUnit.NANOSECONDS.toMillis(ejectNanos));
+        }
+    }
+
+    private boolean isHealthy(String replica, long now) {
+        Long until = ejectedUntil.get(replica);
+        if (until == null) {
+            return true;
+        }
+        if (now - until < 0) {
+            return false;
+        }
+        if (ejectedUntil.remove(replica, until)) {
+            logger.info("[isHealthy] replica {} of {} is back to routing.", replica, primary);
+        }
+        return true;
+    }
+}
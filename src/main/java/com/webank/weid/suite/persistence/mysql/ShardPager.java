@@ -0,0 +1,150 @@
+
+
+package com.webank.weid.suite.persistence.mysql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+
+/**
+ * 分片表的分页查询, 各分片按序号依次拼接, 全局的LIMIT按各分片的记录数拆分到各个分片.
+ *
+ * <p>只有起始位置之前的分片需要统计记录数, 统计结果缓存一小段时间, 顺序翻页时不必每一页都在
+ * 前面的每个分片上执行count(*). 本进程写入分片时清除该分片的缓存, 其他节点的写入在缓存过期后可见.
+ */
+public final class ShardPager {
+
+    /**
+     * 分片记录数的缓存时间.
+     */
+    public static final long DEFAULT_COUNT_CACHE_MILLIS = 5000L;
+
+    /**
+     * 分片记录数的统计方法.
+     */
+    public interface Counter {
+
+        /**
+         * 统计分片的记录数.
+         *
+         * @param shard 分片序号
+         * @return 返回记录数
+         */
+        ResponseData<Integer> count(int shard);
+    }
+
+    /**
+     * 分片上的分页查询方法.
+     *
+     * @param <T> 记录类型
+     */
+    public interface Query<T> {
+
+        /**
+         * 查询分片上的一页数据.
+         *
+         * @param shard 分片序号
+         * @param offset 分片内的起始位置
+         * @param count 查询个数
+         * @return 返回查询结果
+         */
+        ResponseData<List<T>> query(int shard, int offset, int count);
+    }
+
+    private final long countCacheMillis;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存的分片记录数.
+     */
+    private static final class CachedCount {
+
+        private final int count;
+
+        private final long expireAt;
+
+        private CachedCount(int count, long expireAt) {
+            this.count = count;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * 创建分页查询器.
+     *
+     * @param countCacheMillis 分片记录数的缓存时间, 为0时不缓存
+     */
+    public ShardPager(long countCacheMillis) {
+        this.countCacheMillis = countCacheMillis;
+    }
+
+    /**
+     * 在各分片上分页查询.
+     *
+     * @param shardKeys 各分片的缓存key, 按分片序号排列
+     * @param offset 全局的起始位置
+     * @param count 查询个数
+     * @param counter 分片记录数的统计方法
+     * @param query 分片上的分页查询方法
+     * @param <T> 记录类型
+     * @return 返回按分片序号拼接的查询结果
+     */
+    public <T> ResponseData<List<T>> page(
+        List<String> shardKeys,
+        int offset,
+        int count,
+        Counter counter,
+        Query<T> query) {
+
+        List<T> dataList = new ArrayList<>();
+        for (int shard = 0; shard < shardKeys.size() && count > 0; shard++) {
+            if (offset > 0) {
+                ResponseData<Integer> amount = countOf(shardKeys.get(shard), shard, counter);
+                if (amount.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()) {
+                    return new ResponseData<List<T>>(
+                        null, ErrorCode.getTypeByErrorCode(amount.getErrorCode()));
+                }
+                if (offset >= amount.getResult()) {
+                    offset -= amount.getResult();
+                    continue;
+                }
+            }
+            ResponseData<List<T>> rows = query.query(shard, offset, count);
+            if (rows.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()) {
+                return rows;
+            }
+            dataList.addAll(rows.getResult());
+            count -= rows.getResult().size();
+            offset = 0;
+        }
+        return new ResponseData<List<T>>(dataList, ErrorCode.SUCCESS);
+    }
+
+    /**
+     * 清除分片记录数的缓存, 写入分片后调用.
+     *
+     * @param shardKey 分片的缓存key
+     */
+    public void evict(String shardKey) {
+        counts.remove(shardKey);
+    }
+
+    private ResponseData<Integer> countOf(String shardKey, int shard, Counter counter) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(shardKey);
+        if (cached != null && cached.expireAt > now) {
+            return new ResponseData<Integer>(cached.count, ErrorCode.SUCCESS);
+        }
+        ResponseData<Integer> amount = counter.count(shard);
+        if (countCacheMillis > 0
+            && amount.getErrorCode().intValue() == ErrorCode.SUCCESS.getCode()) {
+            counts.put(shardKey, new CachedCount(amount.getResult(), now + countCacheMillis));
+        }
+        return amount;
+    }
+}
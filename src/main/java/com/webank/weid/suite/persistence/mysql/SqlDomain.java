@@ -2,6 +2,10 @@
 
 package com.webank.weid.suite.persistence.mysql;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -47,6 +51,26 @@ public class SqlDomain extends BaseDomain {
      * 表名分隔符.
      */
     private static final String TABLE_SPLIT_CHAR = "_";
+
+    /**
+     * 分片domain的key分隔符.
+     */
+    private static final String SHARD_SPLIT_CHAR = "#";
+
+    /**
+     * 分片个数, 大于1时按主键的哈希值将数据分布到多张表.
+     */
+    private int shardCount = 1;
+
+    /**
+     * 分片所在的数据源, 第i个分片位于第(i % 数据源个数)个数据源.
+     */
+    private String[] shardDataSources;
+
+    /**
+     * 分片序号, 为-1时表示整个逻辑表.
+     */
+    private int shardIndex = -1;
     
     public SqlDomain() {
         resolveDomain();
@@ -57,15 +81,30 @@ public class SqlDomain extends BaseDomain {
         resolveDomain();
     }
 
+    private SqlDomain(SqlDomain logical, int shardCount, int shardIndex) {
+        this.key = logical.key;
+        this.value = logical.value;
+        this.baseDomain = logical.baseDomain;
+        this.tableDomain = logical.tableDomain;
+        this.timeout = logical.timeout;
+        this.shardCount = shardCount;
+        this.shardDataSources = logical.shardDataSources;
+        this.shardIndex = shardIndex;
+        if (shardIndex >= 0) {
+            this.key = logical.key + SHARD_SPLIT_CHAR + shardCount + SHARD_SPLIT_CHAR + shardIndex;
+            this.baseDomain = shardDataSources[shardIndex % shardDataSources.length];
+        }
+    }
+
     private void resolveDomain() {
         if (StringUtils.isBlank(this.key)) {
             this.key = DataDriverConstant.DOMAIN_DEFAULT_INFO;
         }
-        this.value = PropertyUtils.getProperty(this.key);
+        this.value = resolveDomainValue();
         if (StringUtils.isBlank(this.value) 
-            && DataDriverConstant.DOMAIN_DEFAULT_INFO.equals(this.key)) {
+            && hasDefaultTable()) {
             this.baseDomain = ConnectionPool.getFirstDataSourceName();
-            this.tableDomain = DEFAULT_TABLE;
+            this.tableDomain = getDefaultTable();
         } else if (StringUtils.isNotBlank(this.value) 
             && this.value.split(VALUE_SPLIT_CHAR).length == 2) {
             String[] domains = this.value.split(VALUE_SPLIT_CHAR);
@@ -88,6 +127,107 @@ public class SqlDomain extends BaseDomain {
             throw new WeIdBaseException(ErrorCode.PRESISTENCE_DOMAIN_ILLEGAL);
         }
         resolveDomainTimeout();
+        resolveDomainShards();
+    }
+
+    /**
+     * 解析分片配置, {key}.shards为分片个数, {key}.shards.datasource为分片所在的数据源列表.
+     */
+    private void resolveDomainShards() {
+        String shards = PropertyUtils.getProperty(this.key + DataDriverConstant.DOMAIN_SHARDS);
+        if (StringUtils.isNotBlank(shards)) {
+            this.shardCount = Integer.parseInt(shards.trim());
+        }
+        if (this.shardCount < 1) {
+            logger.error("[resolveDomainShards] the shards of domain {} is invalid.", this.key);
+            throw new WeIdBaseException(ErrorCode.PRESISTENCE_DOMAIN_ILLEGAL);
+        }
+        String dataSources = PropertyUtils.getProperty(
+            this.key + DataDriverConstant.DOMAIN_SHARDS_DATASOURCE);
+        if (StringUtils.isBlank(dataSources)) {
+            this.shardDataSources = new String[]{this.baseDomain};
+            return;
+        }
+        this.shardDataSources = StringUtils.stripAll(dataSources.split(","));
+        for (String dataSource : this.shardDataSources) {
+            if (!ConnectionPool.checkDataSourceName(dataSource)) {
+                logger.error(
+                    "[resolveDomainShards] the shard datasource {} of domain {} is not exists.",
+                    dataSource,
+                    this.key
+                );
+                throw new WeIdBaseException(ErrorCode.PRESISTENCE_DOMAIN_INVALID);
+            }
+        }
+    }
+
+    /**
+     * 计算主键所在的分片, 主键一般为{@code DataToolUtils.hash(id)}的结果.
+     *
+     * @param shardKey 分片主键
+     * @param shardCount 分片个数
+     * @return 返回分片序号
+     */
+    public static int shardIndexOf(String shardKey, int shardCount) {
+        return Math.floorMod(shardKey.hashCode(), shardCount);
+    }
+
+    /**
+     * 是否为需要路由的分片逻辑表.
+     *
+     * @return 配置了多个分片且未定位到具体分片时返回true
+     */
+    public boolean isSharded() {
+        return this.shardCount > 1 && this.shardIndex < 0;
+    }
+
+    /**
+     * 获取指定序号的分片.
+     *
+     * @param index 分片序号
+     * @return 返回分片domain
+     */
+    public SqlDomain getShard(int index) {
+        return new SqlDomain(this, this.shardCount, index);
+    }
+
+    /**
+     * 获取相同domain在另一分片个数下的逻辑表, 用于重新分片时读写新旧两种分布.
+     *
+     * @param count 分片个数
+     * @return 返回逻辑表domain
+     */
+    SqlDomain withShardCount(int count) {
+        return new SqlDomain(this, count, -1);
+    }
+
+    /**
+     * 获取主键所在的分片, 未分片时返回自身.
+     *
+     * @param shardKey 分片主键
+     * @return 返回分片domain
+     */
+    public SqlDomain getShardFor(String shardKey) {
+        if (!isSharded()) {
+            return this;
+        }
+        return getShard(shardIndexOf(shardKey, this.shardCount));
+    }
+
+    /**
+     * 获取全部分片, 未分片时只包含自身.
+     *
+     * @return 返回分片domain列表
+     */
+    public List<SqlDomain> getShards() {
+        if (!isSharded()) {
+            return Collections.singletonList(this);
+        }
+        List<SqlDomain> shards = new ArrayList<>(this.shardCount);
+        for (int i = 0; i < this.shardCount; i++) {
+            shards.add(getShard(i));
+        }
+        return shards;
     }
     
     /**
@@ -99,11 +239,19 @@ public class SqlDomain extends BaseDomain {
             logger.error("[getTableName] the orgid is blank.");
             throw new WeIdBaseException(ErrorCode.ORG_ID_IS_NULL);
         }
-        return new StringBuffer(DEFAULT_TABLE_PREFIX)
+        StringBuffer tableName = new StringBuffer(DEFAULT_TABLE_PREFIX)
             .append(TABLE_SPLIT_CHAR)
             .append(ORG_ID)
             .append(TABLE_SPLIT_CHAR)
-            .append(this.tableDomain).toString();
+            .append(this.tableDomain);
+        // 分片表名包含分片个数, 不同分片个数的表互不重叠, 便于在线重新分片
+        if (this.shardIndex >= 0) {
+            tableName.append(TABLE_SPLIT_CHAR)
+                .append(this.shardCount)
+                .append(TABLE_SPLIT_CHAR)
+                .append(this.shardIndex);
+        }
+        return tableName.toString();
     }
     
     /**
@@ -7,10 +7,14 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -20,6 +24,8 @@ import org.slf4j.LoggerFactory;
 import com.webank.weid.constant.DataDriverConstant;
 import com.webank.weid.blockchain.constant.ErrorCode;
 import com.webank.weid.exception.WeIdBaseException;
+import com.webank.weid.suite.metrics.MetricsManager;
+import com.webank.weid.suite.persistence.ValueCodec;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
 
 
@@ -38,6 +44,10 @@ public class SqlExecutor {
      * 库占位符.
      */
     public static final String DATABASE_CHAR = "$2";
+    /**
+     * IN条件占位符.
+     */
+    public static final String IN_CHAR = "$3";
     /**
      * sql for query.
      */
@@ -127,6 +137,14 @@ public class SqlExecutor {
      * sql for query presentation.
      */
     public static final String SQL_QUERY_PRESENTATION = "select presentation_id,creator,claim_policies from $1 where presentation_id =?";
+    /**
+     * sql for reserving a block of ids, the new value of the sequence is kept in LAST_INSERT_ID.
+     */
+    public static final String SQL_RESERVE_SEQUENCE = "insert into $1 (seq_name,next_id) values(?,LAST_INSERT_ID(?)) on duplicate key update next_id = LAST_INSERT_ID(next_id + ?)";
+    /**
+     * sql for query the LAST_INSERT_ID of the connection.
+     */
+    public static final String SQL_QUERY_LAST_INSERT_ID = "select LAST_INSERT_ID()";
     /**
      * sql for insert authority issuer.
      */
@@ -135,6 +153,10 @@ public class SqlExecutor {
      * sql for query authority issuer by weId.
      */
     public static final String SQL_QUERY_AUTHORITY_ISSUER_BY_ADDRESS = "select weid,name,description,created,updated,recognize,acc_value,extra_str,extra_int from $1 where weid =?";
+    /**
+     * sql for query authority issuers by weIds.
+     */
+    public static final String SQL_QUERY_AUTHORITY_ISSUER_BY_ADDRESSES = "select weid,name,description,created,updated,recognize,acc_value,extra_str,extra_int from $1 where weid in ($3)";
     /**
      * sql for query authority issuer by name.
      */
@@ -183,6 +205,14 @@ public class SqlExecutor {
      * sql for query several policy_id from firstIndex.
      */
     public static final String SQL_QUERY_SEVERAL_SPECIFIC_TYPE = "select type_name from $1 LIMIT ?, ?";
+    /**
+     * sql for query several specific types with all columns from firstIndex, the offset is
+     * resolved on the type_name index before the rows are read.
+     */
+    public static final String SQL_QUERY_SEVERAL_SPECIFIC_TYPE_VALUE =
+        "select t.type_name,t.fellow,t.created,t.updated,t.owner from $1 t "
+            + "inner join (select type_name from $1 order by type_name LIMIT ?, ?) k "
+            + "on t.type_name = k.type_name order by t.type_name";
     /**
      * sql for query evidence by hash.
      */
@@ -203,8 +233,29 @@ public class SqlExecutor {
      * sql for update evidence.
      */
     public static final String SQL_UPDATE_EVIDENCE = "update $1 set signers = ?, signatures = ?, logs = ?, updated = ?, revoked = ?, extra_key = ? where hash = ?";
+    /**
+     * sql for query evidence by hash and lock the row until the transaction ends.
+     */
+    public static final String SQL_QUERY_EVIDENCE_FOR_UPDATE = "select hash,signers,signatures,logs,updated,revoked,extra_key from $1 where hash =? for update";
+    /**
+     * sql for appending a signature to evidence, skips values written by ValueCodec whose
+     * first byte is a format marker from 0xF8, these are appended by SQL_UPDATE_EVIDENCE.
+     */
+    public static final String SQL_APPEND_EVIDENCE =
+        "update $1 set signers = concat(signers, ';', ?), signatures = concat(signatures, ';', ?), "
+            + "logs = concat(logs, ';', ?), updated = concat(updated, ';', ?), "
+            + "revoked = concat(revoked, ';', ?), extra_key = ifnull(?, extra_key) "
+            + "where hash = ? and ascii(signatures) < 248 and ascii(logs) < 248";
+    /**
+     * sql for revoke evidence.
+     */
+    public static final String SQL_REVOKE_EVIDENCE = "update $1 set updated = ?, revoked = ? where hash = ?";
 
     private static final Logger logger = LoggerFactory.getLogger(SqlExecutor.class);
+    /**
+     * MySQL主键或唯一索引冲突的错误码.
+     */
+    private static final int MYSQL_DUPLICATE_KEY = 1062;
     /**
      * 批次提交个数.
      */
@@ -213,6 +264,29 @@ public class SqlExecutor {
      * tableDomain 与 tableName的映射.
      */
     private static final Map<String, String> TABLE_CACHE = new ConcurrentHashMap<String, String>();
+    /**
+     * 建表时使用的锁, 建表需要访问数据库, 使用ReentrantLock避免虚拟线程被固定在平台线程上.
+     */
+    private static final ReentrantLock TABLE_LOCK = new ReentrantLock();
+    /**
+     * 执行耗时指标名前缀.
+     */
+    private static final String METRICS_PREFIX = "persistence.sql.";
+    /**
+     * 分片表的分页查询, 缓存各分片的记录数.
+     */
+    private static final ShardPager SHARD_PAGER =
+        new ShardPager(ShardPager.DEFAULT_COUNT_CACHE_MILLIS);
+    /**
+     * 分片逻辑表的命名锁前缀.
+     */
+    private static final String TABLE_LOCK_PREFIX = "weid:";
+    /**
+     * 等待分片逻辑表命名锁的秒数.
+     */
+    private static final int TABLE_LOCK_TIMEOUT_SECONDS = 10;
+    private static final String SQL_GET_LOCK = "select GET_LOCK(?, ?)";
+    private static final String SQL_RELEASE_LOCK = "select RELEASE_LOCK(?)";
 
     /**
      * the sql domain.
@@ -250,12 +324,38 @@ public class SqlExecutor {
      * @return 返回查询出来的单个数据
      */
     public ResponseData<Map<String, String>> executeQuery(String sql, Object... data) {
+        return executeQuery(false, sql, data);
+    }
+
+    /**
+     * 从主库查询, 用于先读后写与建表检查, 避免读到副本上尚未同步的数据.
+     *
+     * @param sql 需要被执行的SQL语句
+     * @param data 占位符所需要的数据
+     * @return 返回查询出来的单个数据
+     */
+    public ResponseData<Map<String, String>> executeQueryOnPrimary(String sql, Object... data) {
+        return executeQuery(true, sql, data);
+    }
+
+    private ResponseData<Map<String, String>> executeQuery(
+        boolean primary,
+        String sql,
+        Object... data) {
+
+        if (sqlDomain.isSharded()) {
+            return executeQueryOnShards(primary, sql, data);
+        }
+        long start = System.nanoTime();
         ResponseData<Map<String, String>> result = new ResponseData<Map<String, String>>();
         Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
-            conn = ConnectionPool.getConnection(sqlDomain.getBaseDomain());
+            conn = primary
+                ? ConnectionPool.getConnection(sqlDomain.getBaseDomain())
+                : ConnectionPool.getReadConnection(
+                    sqlDomain.getBaseDomain(), sqlDomain.getTableName());
             if (conn == null) {
                 return
                     new ResponseData<Map<String, String>>(
@@ -272,31 +372,20 @@ public class SqlExecutor {
             rs = ps.executeQuery();
             Map<String, String> dataMap = null;
             if (rs.next()) {
-                dataMap = new HashMap<String, String>();
-                ResultSetMetaData metaData = rs.getMetaData();
-                int columnCount = metaData.getColumnCount();
-                for (int i = 1; i <= columnCount; i++) {
-                    String columnLabel = metaData.getColumnLabel(i);
-                    int type = metaData.getColumnType(i);
-                    if (type == Types.TIMESTAMP) {
-                        Timestamp timestamp = rs.getTimestamp(columnLabel);
-                        if (timestamp != null) {
-                            dataMap.put(columnLabel, String.valueOf(timestamp.getTime()));
-                        }
-                    } else {
-                        dataMap.put(columnLabel, rs.getString(columnLabel));
-                    }
-                }
+                dataMap = readRow(rs);
             }
             rs.close();
             ps.close();
             result.setErrorCode(ErrorCode.SUCCESS);
             result.setResult(dataMap);
         } catch (SQLException e) {
+            recordFailure("executeQuery", e);
+            ConnectionPool.reportFailure(conn, e);
             logger.error("Query data from {{}} with exception", sqlDomain.getBaseDomain(), e);
             result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
         } finally {
             ConnectionPool.close(conn, ps, rs);
+            recordExecution("executeQuery", start);
         }
         return result;
     }
@@ -309,6 +398,10 @@ public class SqlExecutor {
      * @return 返回执行受影响的行数
      */
     public ResponseData<Integer> execute(String sql, Object... data) {
+        if (sqlDomain.isSharded()) {
+            return executeOnShards(sql, data);
+        }
+        long start = System.nanoTime();
         ResponseData<Integer> result = new ResponseData<Integer>();
         Connection conn = null;
         PreparedStatement ps = null;
@@ -331,14 +424,222 @@ public class SqlExecutor {
                 ps.setObject(i + 1, data[i]);
             }
             int rs = ps.executeUpdate();
+            markWrite();
             result.setErrorCode(ErrorCode.SUCCESS);
             result.setResult(rs);
         } catch (SQLException e) {
+            recordFailure("execute", e);
             logger.error("Update data into {{}} with exception", sqlDomain.getBaseDomain(), e);
             result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
-            result.setResult(DataDriverConstant.SQL_EXECUTE_FAILED_STATUS);
+            result.setResult(isDuplicateKey(e)
+                ? DataDriverConstant.DUPLICATE_KEY_STATUS
+                : DataDriverConstant.SQL_EXECUTE_FAILED_STATUS);
         } finally {
             ConnectionPool.close(conn, ps);
+            recordExecution("execute", start);
+        }
+        return result;
+    }
+
+    /**
+     * 在事务中通过select ... for update锁定一行, 基于该行的当前值执行更新,
+     * 用于无法由一条SQL完成的读改写, 锁定期间其他写入等待事务结束.
+     *
+     * @param querySql 锁定并读取该行的SQL语句
+     * @param updater 由该行的当前值计算更新语句的占位符数据
+     * @param updateSql 更新的SQL语句
+     * @param data 查询语句占位符所需要的数据
+     * @return 返回受影响的行数, 该行不存在时返回0
+     */
+    public ResponseData<Integer> executeCompute(
+        String querySql,
+        Function<Map<String, String>, Object[]> updater,
+        String updateSql,
+        Object... data) {
+
+        if (sqlDomain.isSharded()) {
+            logger.error("[executeCompute] the domain {{}} can not be sharded.",
+                sqlDomain.getKey());
+            return new ResponseData<Integer>(
+                DataDriverConstant.SQL_EXECUTE_FAILED_STATUS, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+        long start = System.nanoTime();
+        ResponseData<Integer> result = new ResponseData<Integer>();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = ConnectionPool.getConnection(sqlDomain.getBaseDomain());
+            if (conn == null) {
+                return
+                    new ResponseData<Integer>(
+                        DataDriverConstant.SQL_EXECUTE_FAILED_STATUS,
+                        ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR
+                    );
+            }
+            conn.setAutoCommit(false);
+            ps = conn.prepareStatement(buildExecuteSql(querySql, conn));
+            for (int i = 0; i < data.length; i++) {
+                ps.setObject(i + 1, data[i]);
+            }
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                conn.rollback();
+                result.setErrorCode(ErrorCode.SUCCESS);
+                result.setResult(0);
+                return result;
+            }
+            Object[] values = updater.apply(readRow(rs));
+            rs.close();
+            ps.close();
+            ps = conn.prepareStatement(buildExecuteSql(updateSql, conn));
+            for (int i = 0; i < values.length; i++) {
+                ps.setObject(i + 1, values[i]);
+            }
+            int count = ps.executeUpdate();
+            conn.commit();
+            markWrite();
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(count);
+        } catch (SQLException e) {
+            recordFailure("executeCompute", e);
+            rollback(conn);
+            logger.error("Update data into {{}} with exception", sqlDomain.getBaseDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            result.setResult(DataDriverConstant.SQL_EXECUTE_FAILED_STATUS);
+        } finally {
+            ConnectionPool.close(conn, ps, rs);
+            recordExecution("executeCompute", start);
+        }
+        return result;
+    }
+
+    private static void rollback(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.error("[executeCompute] rollback failed.", e);
+        }
+    }
+
+    /**
+     * 主键或唯一索引冲突: MySQL错误码1062, 其他数据库的SQLState 23505.
+     */
+    private static boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == MYSQL_DUPLICATE_KEY || "23505".equals(e.getSQLState());
+    }
+
+    /**
+     * 持有逻辑表的命名锁执行写操作, 用于分片表上需要跨分片检查唯一性的写入, 例如机构名称.
+     * 锁通过第0个分片所在数据源的GET_LOCK实现, 与连接绑定, 操作结束后释放,
+     * 所有节点的同一逻辑表都在同一个数据源上加锁.
+     *
+     * @param action 加锁后执行的操作
+     * @return 返回操作的结果, 加锁失败时返回执行失败
+     */
+    public ResponseData<Integer> executeWithTableLock(Supplier<ResponseData<Integer>> action) {
+        String lockName = TABLE_LOCK_PREFIX + sqlDomain.getTableName();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = ConnectionPool.getConnection(sqlDomain.getShard(0).getBaseDomain());
+            if (conn == null) {
+                return
+                    new ResponseData<Integer>(
+                        DataDriverConstant.SQL_EXECUTE_FAILED_STATUS,
+                        ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR
+                    );
+            }
+            ps = conn.prepareStatement(SQL_GET_LOCK);
+            ps.setString(1, lockName);
+            ps.setInt(2, TABLE_LOCK_TIMEOUT_SECONDS);
+            rs = ps.executeQuery();
+            if (!rs.next() || rs.getInt(1) != 1) {
+                logger.error("[executeWithTableLock] get the lock {} timeout.", lockName);
+                return new ResponseData<Integer>(
+                    DataDriverConstant.SQL_EXECUTE_FAILED_STATUS,
+                    ErrorCode.PERSISTENCE_EXECUTE_FAILED
+                );
+            }
+            try {
+                return action.get();
+            } finally {
+                releaseTableLock(conn, lockName);
+            }
+        } catch (SQLException e) {
+            recordFailure("executeWithTableLock", e);
+            logger.error("[executeWithTableLock] lock {} with exception", lockName, e);
+            return new ResponseData<Integer>(
+                DataDriverConstant.SQL_EXECUTE_FAILED_STATUS,
+                ErrorCode.PERSISTENCE_EXECUTE_FAILED
+            );
+        } finally {
+            ConnectionPool.close(conn, ps, rs);
+        }
+    }
+
+    private static void releaseTableLock(Connection conn, String lockName) {
+        PreparedStatement ps = null;
+        try {
+            ps = conn.prepareStatement(SQL_RELEASE_LOCK);
+            ps.setString(1, lockName);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            // 释放失败时锁保留到该连接断开, 其他节点加锁超时后返回失败
+            logger.error("[executeWithTableLock] release the lock {} failed.", lockName, e);
+        } finally {
+            ConnectionPool.close(null, ps);
+        }
+    }
+
+    /**
+     * 执行通过LAST_INSERT_ID(expr)设置返回值的写语句, 并在同一个连接上读取该值,
+     * LAST_INSERT_ID按连接隔离, 多个节点并发执行时各自读到自己写入的值.
+     *
+     * @param sql 需要被执行的SQL语句
+     * @param data 占位符所需要的数据
+     * @return 返回LAST_INSERT_ID的值
+     */
+    public ResponseData<Long> executeAndGetLastInsertId(String sql, Object... data) {
+        if (sqlDomain.isSharded()) {
+            logger.error("[executeAndGetLastInsertId] the domain {{}} can not be sharded.",
+                sqlDomain.getKey());
+            return new ResponseData<Long>(null, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+        long start = System.nanoTime();
+        ResponseData<Long> result = new ResponseData<Long>();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = ConnectionPool.getConnection(sqlDomain.getBaseDomain());
+            if (conn == null) {
+                return new ResponseData<Long>(null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            ps = conn.prepareStatement(buildExecuteSql(sql, conn));
+            for (int i = 0; i < data.length; i++) {
+                ps.setObject(i + 1, data[i]);
+            }
+            ps.executeUpdate();
+            ps.close();
+            ps = conn.prepareStatement(SQL_QUERY_LAST_INSERT_ID);
+            rs = ps.executeQuery();
+            rs.next();
+            markWrite();
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(rs.getLong(1));
+        } catch (SQLException e) {
+            recordFailure("executeAndGetLastInsertId", e);
+            ConnectionPool.reportFailure(conn, e);
+            logger.error("Update data into {{}} with exception", sqlDomain.getBaseDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        } finally {
+            ConnectionPool.close(conn, ps, rs);
+            recordExecution("executeAndGetLastInsertId", start);
         }
         return result;
     }
@@ -351,12 +652,17 @@ public class SqlExecutor {
      * @return 返回查询出来的多行数据，每行仅查询一列，仅用于按序号查询多个weid
      */
     public ResponseData<List<String>> executeQueryLines(String sql, Object... data) {
+        if (sqlDomain.isSharded()) {
+            return executeQueryLinesOnShards(sql, data);
+        }
+        long start = System.nanoTime();
         ResponseData<List<String>> result = new ResponseData<List<String>>();
         Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
-            conn = ConnectionPool.getConnection(sqlDomain.getBaseDomain());
+            conn = ConnectionPool.getReadConnection(
+                sqlDomain.getBaseDomain(), sqlDomain.getTableName());
             if (conn == null) {
                 return
                         new ResponseData<List<String>>(
@@ -391,14 +697,110 @@ public class SqlExecutor {
             result.setErrorCode(ErrorCode.SUCCESS);
             result.setResult(dataList);
         } catch (SQLException e) {
+            recordFailure("executeQueryLines", e);
+            ConnectionPool.reportFailure(conn, e);
             logger.error("Query data from {{}} with exception", sqlDomain.getBaseDomain(), e);
             result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
         } finally {
             ConnectionPool.close(conn, ps, rs);
+            recordExecution("executeQueryLines", start);
         }
         return result;
     }
 
+    /**
+     * 按IN条件批量查询多行记录, SQL中的$3会被替换为与参数个数一致的占位符.
+     *
+     * @param sql 需要被执行的SQL语句
+     * @param data 占位符所需要的数据
+     * @return 返回查询出来的多行数据
+     */
+    public ResponseData<List<Map<String, String>>> executeQueryList(String sql, Object... data) {
+        if (sqlDomain.isSharded()) {
+            return executeQueryListOnShards(sql, data);
+        }
+        long start = System.nanoTime();
+        ResponseData<List<Map<String, String>>> result =
+            new ResponseData<List<Map<String, String>>>();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = ConnectionPool.getReadConnection(
+                sqlDomain.getBaseDomain(), sqlDomain.getTableName());
+            if (conn == null) {
+                return
+                    new ResponseData<List<Map<String, String>>>(
+                        null,
+                        ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR
+                    );
+            }
+            String inSql = sql.replace(IN_CHAR, StringUtils.repeat("?", ",", data.length));
+            ps = conn.prepareStatement(buildExecuteSql(inSql, conn));
+            for (int i = 0; i < data.length; i++) {
+                ps.setObject(i + 1, data[i]);
+            }
+
+            rs = ps.executeQuery();
+            List<Map<String, String>> dataList = new ArrayList<>();
+            while (rs.next()) {
+                dataList.add(readRow(rs));
+            }
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(dataList);
+        } catch (SQLException e) {
+            recordFailure("executeQueryList", e);
+            ConnectionPool.reportFailure(conn, e);
+            logger.error("Query data from {{}} with exception", sqlDomain.getBaseDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        } finally {
+            ConnectionPool.close(conn, ps, rs);
+            recordExecution("executeQueryList", start);
+        }
+        return result;
+    }
+
+    /**
+     * 分页查询多行记录, 最后两个参数为LIMIT的起始位置与个数.
+     *
+     * @param sql 需要被执行的SQL语句
+     * @param data 占位符所需要的数据
+     * @return 返回查询出来的多行数据
+     */
+    public ResponseData<List<Map<String, String>>> executeQueryPage(String sql, Object... data) {
+        if (sqlDomain.isSharded()) {
+            return executeQueryPageOnShards(sql, data);
+        }
+        return executeQueryList(sql, data);
+    }
+
+    /**
+     * 读取当前行, 时间类型的列转换为毫秒数, 二进制列中由ValueCodec编码的数据解码为文本.
+     */
+    private static Map<String, String> readRow(ResultSet rs) throws SQLException {
+        Map<String, String> dataMap = new HashMap<String, String>();
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        for (int i = 1; i <= columnCount; i++) {
+            String columnLabel = metaData.getColumnLabel(i);
+            int type = metaData.getColumnType(i);
+            if (type == Types.TIMESTAMP) {
+                Timestamp timestamp = rs.getTimestamp(columnLabel);
+                if (timestamp != null) {
+                    dataMap.put(columnLabel, String.valueOf(timestamp.getTime()));
+                }
+            } else if (type == Types.LONGVARBINARY || type == Types.VARBINARY
+                || type == Types.BLOB) {
+                byte[] bytes = rs.getBytes(columnLabel);
+                dataMap.put(columnLabel, ValueCodec.isEncoded(bytes)
+                    ? ValueCodec.decode(bytes) : rs.getString(columnLabel));
+            } else {
+                dataMap.put(columnLabel, rs.getString(columnLabel));
+            }
+        }
+        return dataMap;
+    }
+
     /**
      * 查询操作.
      *
@@ -406,12 +808,17 @@ public class SqlExecutor {
      * @return 返回查询数据总行数
      */
     public ResponseData<Integer> executeQueryAmounts(String sql) {
+        if (sqlDomain.isSharded()) {
+            return executeQueryAmountsOnShards(sql);
+        }
+        long start = System.nanoTime();
         ResponseData<Integer> result = new ResponseData<Integer>();
         Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
-            conn = ConnectionPool.getConnection(sqlDomain.getBaseDomain());
+            conn = ConnectionPool.getReadConnection(
+                sqlDomain.getBaseDomain(), sqlDomain.getTableName());
             if (conn == null) {
                 return
                         new ResponseData<Integer>(
@@ -430,10 +837,13 @@ public class SqlExecutor {
             result.setErrorCode(ErrorCode.SUCCESS);
             result.setResult(rowCount);
         } catch (SQLException e) {
+            recordFailure("executeQueryAmounts", e);
+            ConnectionPool.reportFailure(conn, e);
             logger.error("Query data from {{}} with exception", sqlDomain.getBaseDomain(), e);
             result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
         } finally {
             ConnectionPool.close(conn, ps, rs);
+            recordExecution("executeQueryAmounts", start);
         }
         return result;
     }
@@ -446,6 +856,10 @@ public class SqlExecutor {
      * @return 返回受影响的行数
      */
     public ResponseData<Integer> batchAdd(String sql, List<List<Object>> dataList) {
+        if (sqlDomain.isSharded()) {
+            return batchAddOnShards(sql, dataList);
+        }
+        long start = System.nanoTime();
         ResponseData<Integer> result = new ResponseData<Integer>();
         Connection conn = null;
         PreparedStatement psts = null;
@@ -492,17 +906,219 @@ public class SqlExecutor {
             for (int j : counts) {
                 count += j;
             }
+            markWrite();
+            result.setErrorCode(ErrorCode.SUCCESS);
             result.setResult(count);
         } catch (SQLException e) {
+            recordFailure("batchAdd", e);
             logger.error("Batch add data to {{}} with exception", sqlDomain.getBaseDomain(), e);
             result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
             result.setResult(DataDriverConstant.SQL_EXECUTE_FAILED_STATUS);
         } finally {
             ConnectionPool.close(conn, psts);
+            recordExecution("batchAdd", start);
         }
         return result;
     }
 
+    /**
+     * 未按主键路由的查询依次查询各分片, 返回第一个查询到的数据.
+     */
+    private ResponseData<Map<String, String>> executeQueryOnShards(
+        boolean primary,
+        String sql,
+        Object... data) {
+
+        for (SqlDomain shard : sqlDomain.getShards()) {
+            ResponseData<Map<String, String>> result = new SqlExecutor(shard)
+                .executeQuery(primary, sql, data);
+            if (result.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()
+                || result.getResult() != null) {
+                return result;
+            }
+        }
+        return new ResponseData<Map<String, String>>(null, ErrorCode.SUCCESS);
+    }
+
+    /**
+     * 未按主键路由的更新与删除在各分片上执行, 新增必须按主键路由.
+     */
+    private ResponseData<Integer> executeOnShards(String sql, Object... data) {
+        if (StringUtils.startsWithIgnoreCase(sql.trim(), "insert")) {
+            logger.error(
+                "[execute] the insert into sharded domain {} must be routed by key.",
+                sqlDomain.getKey()
+            );
+            return new ResponseData<Integer>(
+                DataDriverConstant.SQL_EXECUTE_FAILED_STATUS,
+                ErrorCode.PERSISTENCE_EXECUTE_FAILED
+            );
+        }
+        int count = 0;
+        for (SqlDomain shard : sqlDomain.getShards()) {
+            ResponseData<Integer> result = new SqlExecutor(shard).execute(sql, data);
+            if (result.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()) {
+                return result;
+            }
+            count += result.getResult();
+        }
+        return new ResponseData<Integer>(count, ErrorCode.SUCCESS);
+    }
+
+    /**
+     * 分片上的分页查询, 最后两个参数为LIMIT的起始位置与个数, 各分片按序号依次拼接.
+     */
+    private ResponseData<List<String>> executeQueryLinesOnShards(String sql, Object... data) {
+        List<SqlDomain> shards = sqlDomain.getShards();
+        if (data.length < 2) {
+            List<String> dataList = new ArrayList<>();
+            for (SqlDomain shard : shards) {
+                ResponseData<List<String>> lines =
+                    new SqlExecutor(shard).executeQueryLines(sql, data);
+                if (lines.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()) {
+                    return lines;
+                }
+                dataList.addAll(lines.getResult());
+            }
+            return new ResponseData<List<String>>(dataList, ErrorCode.SUCCESS);
+        }
+        return SHARD_PAGER.page(shardKeys(shards),
+            ((Number) data[data.length - 2]).intValue(),
+            ((Number) data[data.length - 1]).intValue(),
+            shard -> new SqlExecutor(shards.get(shard)).executeQueryAmounts(SQL_QUERY_TOTAL_LINE),
+            (shard, offset, count) -> new SqlExecutor(shards.get(shard))
+                .executeQueryLines(sql, pageArgs(data, offset, count)));
+    }
+
+    /**
+     * 分片上的多行分页查询, 与{@link #executeQueryLinesOnShards}相同, 各分片按序号依次拼接.
+     */
+    private ResponseData<List<Map<String, String>>> executeQueryPageOnShards(
+        String sql,
+        Object... data) {
+
+        List<SqlDomain> shards = sqlDomain.getShards();
+        return SHARD_PAGER.page(shardKeys(shards),
+            ((Number) data[data.length - 2]).intValue(),
+            ((Number) data[data.length - 1]).intValue(),
+            shard -> new SqlExecutor(shards.get(shard)).executeQueryAmounts(SQL_QUERY_TOTAL_LINE),
+            (shard, offset, count) -> new SqlExecutor(shards.get(shard))
+                .executeQueryList(sql, pageArgs(data, offset, count)));
+    }
+
+    private static List<String> shardKeys(List<SqlDomain> shards) {
+        List<String> keys = new ArrayList<>(shards.size());
+        for (SqlDomain shard : shards) {
+            keys.add(shard.getKey());
+        }
+        return keys;
+    }
+
+    private static Object[] pageArgs(Object[] data, int offset, int count) {
+        Object[] args = data.clone();
+        args[data.length - 2] = offset;
+        args[data.length - 1] = count;
+        return args;
+    }
+
+    /**
+     * 写入后清除副本路由与分片记录数缓存中该表的状态.
+     */
+    private void markWrite() {
+        ConnectionPool.markWrite(sqlDomain.getBaseDomain(), sqlDomain.getTableName());
+        SHARD_PAGER.evict(sqlDomain.getKey());
+    }
+
+    /**
+     * 未按主键路由的批量查询在各分片上执行, 结果依次拼接.
+     */
+    private ResponseData<List<Map<String, String>>> executeQueryListOnShards(
+        String sql,
+        Object... data) {
+
+        List<Map<String, String>> dataList = new ArrayList<>();
+        for (SqlDomain shard : sqlDomain.getShards()) {
+            ResponseData<List<Map<String, String>>> result = new SqlExecutor(shard)
+                .executeQueryList(sql, data);
+            if (result.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()) {
+                return result;
+            }
+            dataList.addAll(result.getResult());
+        }
+        return new ResponseData<List<Map<String, String>>>(dataList, ErrorCode.SUCCESS);
+    }
+
+    /**
+     * 汇总各分片的统计结果.
+     */
+    private ResponseData<Integer> executeQueryAmountsOnShards(String sql) {
+        int rowCount = 0;
+        for (SqlDomain shard : sqlDomain.getShards()) {
+            ResponseData<Integer> result = new SqlExecutor(shard).executeQueryAmounts(sql);
+            if (result.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()) {
+                return result;
+            }
+            rowCount += result.getResult();
+        }
+        return new ResponseData<Integer>(rowCount, ErrorCode.SUCCESS);
+    }
+
+    /**
+     * 按第一列的主键将批量数据拆分到各分片后分别写入.
+     */
+    private ResponseData<Integer> batchAddOnShards(String sql, List<List<Object>> dataList) {
+        List<Object> keys = dataList.get(0);
+        for (List<Object> list : dataList) {
+            if (CollectionUtils.isEmpty(list) || list.size() != keys.size()) {
+                return
+                    new ResponseData<Integer>(
+                        DataDriverConstant.SQL_EXECUTE_FAILED_STATUS,
+                        ErrorCode.PERSISTENCE_BATCH_ADD_DATA_MISMATCH
+                    );
+            }
+        }
+        int shardCount = sqlDomain.getShardCount();
+        List<List<List<Object>>> shardDataLists = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            List<List<Object>> columns = new ArrayList<>(dataList.size());
+            for (int j = 0; j < dataList.size(); j++) {
+                columns.add(new ArrayList<>());
+            }
+            shardDataLists.add(columns);
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            int index = SqlDomain.shardIndexOf(String.valueOf(keys.get(i)), shardCount);
+            List<List<Object>> columns = shardDataLists.get(index);
+            for (int j = 0; j < dataList.size(); j++) {
+                columns.get(j).add(dataList.get(j).get(i));
+            }
+        }
+        int count = 0;
+        for (int i = 0; i < shardCount; i++) {
+            List<List<Object>> columns = shardDataLists.get(i);
+            if (columns.get(0).isEmpty()) {
+                continue;
+            }
+            ResponseData<Integer> result =
+                new SqlExecutor(sqlDomain.getShard(i)).batchAdd(sql, columns);
+            if (result.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()) {
+                return result;
+            }
+            count += result.getResult();
+        }
+        return new ResponseData<Integer>(count, ErrorCode.SUCCESS);
+    }
+
+    private static void recordExecution(String method, long start) {
+        MetricsManager.getRegistry().recordTime(METRICS_PREFIX + method, System.nanoTime() - start);
+    }
+
+    private static void recordFailure(String method, SQLException e) {
+        if (e instanceof SQLTimeoutException) {
+            MetricsManager.getRegistry().increment(METRICS_PREFIX + method + ".timeout");
+        }
+    }
+
     /**
      * 检查表是否存在，如果不存在则创建表.
      *
@@ -510,7 +1126,18 @@ public class SqlExecutor {
      * @param createTableSql 创建表的sql语句
      */
     public void resolveTableDomain(String checkTableSql, String createTableSql) {
-        synchronized (TABLE_CACHE) {
+        if (sqlDomain.isSharded()) {
+            for (SqlDomain shard : sqlDomain.getShards()) {
+                new SqlExecutor(shard).resolveTableDomain(checkTableSql, createTableSql);
+            }
+            return;
+        }
+        // 表已初始化时不加锁
+        if (StringUtils.isNotBlank(TABLE_CACHE.get(sqlDomain.getKey()))) {
+            return;
+        }
+        TABLE_LOCK.lock();
+        try {
             String tableName = TABLE_CACHE.get(sqlDomain.getKey());
             //说明本地没有此tableDomain
             if (StringUtils.isBlank(tableName)) {
@@ -527,13 +1154,15 @@ public class SqlExecutor {
                     throw new WeIdBaseException(ErrorCode.PRESISTENCE_DOMAIN_INVALID);
                 }
             }
+        } finally {
+            TABLE_LOCK.unlock();
         }
     }
     
     // 检查表是否存在，如果存在则返回表名
     private Map<String, String> checkTable(String checkTableSql) {
         //检查数据库中是否存在此表
-        ResponseData<Map<String, String>> resultRes = this.executeQuery(checkTableSql);
+        ResponseData<Map<String, String>> resultRes = this.executeQueryOnPrimary(checkTableSql);
         if (resultRes.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()) {
             logger.error(
                 "[initLocalTable] execute query table name fail, code:{}, message:{}.",
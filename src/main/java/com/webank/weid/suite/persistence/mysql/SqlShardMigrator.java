@@ -0,0 +1,410 @@
+
+
+package com.webank.weid.suite.persistence.mysql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 在线重新分片工具, 将domain的数据从一种分片个数的分布复制到另一种分布.
+ * 分片表名包含分片个数, 新旧分布的表互不重叠, 复制期间业务仍读写旧分布.
+ *
+ * <p>使用步骤:
+ * 1. 在旧配置下运行本工具, 复制存量数据, 可重复运行;
+ * 2. 停止所有节点对该domain的写入, 再次运行本工具补齐复制期间的新增, 更新与删除;
+ * 3. 将{domainKey}.shards修改为新的分片个数并重启, 恢复写入, 确认无误后删除旧分布的表.
+ *
+ * <p>每次运行先复制源数据, 再删除新分布中源数据已不存在的记录, 因此删除也会同步到新分布.
+ * 本工具不会阻止业务写入, 运行期间旧分布上的写入可能只有一部分被复制,
+ * 第2步必须在写入停止后运行, 并在切换配置前保持停止, 否则切换后会丢失这部分写入.
+ *
+ * <p>命令: SqlShardMigrator {domainKey} {fromShards} {toShards} {keyColumn} [batchSize]
+ */
+public class SqlShardMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlShardMigrator.class);
+
+    /**
+     * 每批复制的记录数.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final SqlDomain source;
+
+    private final SqlDomain target;
+
+    private final String keyColumn;
+
+    /**
+     * 构建重新分片工具.
+     *
+     * @param domainKey domain配置项, 例如local.evidence
+     * @param fromShards 当前的分片个数
+     * @param toShards 目标分片个数
+     * @param keyColumn 分片主键所在的列, 例如hash
+     */
+    public SqlShardMigrator(String domainKey, int fromShards, int toShards, String keyColumn) {
+        if (fromShards < 1 || toShards < 1 || fromShards == toShards) {
+            throw new IllegalArgumentException(
+                "invalid shards from " + fromShards + " to " + toShards);
+        }
+        SqlDomain domain = new SqlDomain(domainKey);
+        this.source = domain.withShardCount(fromShards);
+        this.target = domain.withShardCount(toShards);
+        this.keyColumn = keyColumn;
+    }
+
+    /**
+     * 执行复制, 新分布中已存在的记录被源数据覆盖, 源数据中已删除的记录从新分布中删除.
+     *
+     * @param batchSize 每批复制的记录数
+     * @return 返回复制的记录数
+     * @throws SQLException 数据库异常
+     */
+    public int migrate(int batchSize) throws SQLException {
+        List<SqlDomain> sourceShards = source.getShards();
+        List<SqlDomain> targetShards = target.getShards();
+        for (SqlDomain targetShard : targetShards) {
+            createTableLike(sourceShards.get(0), targetShard);
+        }
+        int copied = 0;
+        for (SqlDomain shard : sourceShards) {
+            copied += copyShard(shard, targetShards, batchSize);
+        }
+        for (SqlDomain shard : targetShards) {
+            pruneShard(shard, sourceShards, batchSize);
+        }
+        return copied;
+    }
+
+    /**
+     * 按主键顺序分批扫描新分布的表, 删除源数据中已不存在的记录.
+     */
+    private int pruneShard(SqlDomain shard, List<SqlDomain> sourceShards, int batchSize)
+        throws SQLException {
+
+        String tableName = shard.getTableName();
+        Object lastKey = null;
+        int pruned = 0;
+        while (true) {
+            List<Object> keys = readKeys(shard, lastKey, batchSize);
+            if (keys.isEmpty()) {
+                break;
+            }
+            lastKey = keys.get(keys.size() - 1);
+            List<List<Object>> sourceKeys = new ArrayList<>(sourceShards.size());
+            for (int i = 0; i < sourceShards.size(); i++) {
+                sourceKeys.add(new ArrayList<>());
+            }
+            for (Object key : keys) {
+                sourceKeys.get(SqlDomain.shardIndexOf(String.valueOf(key), sourceShards.size()))
+                    .add(key);
+            }
+            List<Object> removed = new ArrayList<>();
+            for (int i = 0; i < sourceShards.size(); i++) {
+                if (sourceKeys.get(i).isEmpty()) {
+                    continue;
+                }
+                Set<String> existed = existingKeys(sourceShards.get(i), sourceKeys.get(i));
+                for (Object key : sourceKeys.get(i)) {
+                    if (!existed.contains(String.valueOf(key))) {
+                        removed.add(key);
+                    }
+                }
+            }
+            if (!removed.isEmpty()) {
+                executeWithKeys(shard, "delete from " + tableName, removed);
+                pruned += removed.size();
+                logger.info("[pruneShard] {} rows of {} deleted.", pruned, tableName);
+            }
+            if (keys.size() < batchSize) {
+                break;
+            }
+        }
+        return pruned;
+    }
+
+    private List<Object> readKeys(SqlDomain shard, Object lastKey, int batchSize)
+        throws SQLException {
+
+        String tableName = shard.getTableName();
+        String sql = lastKey == null
+            ? "select " + keyColumn + " from " + tableName
+                + " order by " + keyColumn + " limit ?"
+            : "select " + keyColumn + " from " + tableName
+                + " where " + keyColumn + " > ? order by " + keyColumn + " limit ?";
+        List<Object> keys = new ArrayList<>();
+        Connection conn = ConnectionPool.getConnection(shard.getBaseDomain());
+        if (conn == null) {
+            throw new SQLException("get connection of " + shard.getBaseDomain() + " failed.");
+        }
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conn.prepareStatement(sql);
+            if (lastKey == null) {
+                ps.setInt(1, batchSize);
+            } else {
+                ps.setObject(1, lastKey);
+                ps.setInt(2, batchSize);
+            }
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                keys.add(rs.getObject(1));
+            }
+        } finally {
+            ConnectionPool.close(conn, ps, rs);
+        }
+        return keys;
+    }
+
+    private Set<String> existingKeys(SqlDomain shard, List<Object> keys) throws SQLException {
+        Set<String> existed = new HashSet<>();
+        Connection conn = ConnectionPool.getConnection(shard.getBaseDomain());
+        if (conn == null) {
+            throw new SQLException("get connection of " + shard.getBaseDomain() + " failed.");
+        }
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = prepareWithKeys(conn,
+                "select " + keyColumn + " from " + shard.getTableName(), keys);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                existed.add(String.valueOf(rs.getObject(1)));
+            }
+        } finally {
+            ConnectionPool.close(conn, ps, rs);
+        }
+        return existed;
+    }
+
+    private void executeWithKeys(SqlDomain shard, String sql, List<Object> keys)
+        throws SQLException {
+
+        Connection conn = ConnectionPool.getConnection(shard.getBaseDomain());
+        if (conn == null) {
+            throw new SQLException("get connection of " + shard.getBaseDomain() + " failed.");
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = prepareWithKeys(conn, sql, keys);
+            ps.executeUpdate();
+        } finally {
+            ConnectionPool.close(conn, ps);
+        }
+    }
+
+    /**
+     * 拼接{@code where keyColumn in (...)}条件并设置主键参数.
+     */
+    private PreparedStatement prepareWithKeys(Connection conn, String sql, List<Object> keys)
+        throws SQLException {
+
+        StringBuilder builder = new StringBuilder(sql)
+            .append(" where ")
+            .append(keyColumn)
+            .append(" in (");
+        for (int i = 0; i < keys.size(); i++) {
+            builder.append(i == 0 ? "?" : ",?");
+        }
+        PreparedStatement ps = conn.prepareStatement(builder.append(")").toString());
+        for (int i = 0; i < keys.size(); i++) {
+            ps.setObject(i + 1, keys.get(i));
+        }
+        return ps;
+    }
+
+    /**
+     * 按主键顺序分批读取源表, 避免长时间锁表.
+     */
+    private int copyShard(SqlDomain shard, List<SqlDomain> targetShards, int batchSize)
+        throws SQLException {
+
+        String tableName = shard.getTableName();
+        String firstSql = "select * from " + tableName
+            + " order by " + keyColumn + " limit ?";
+        String nextSql = "select * from " + tableName
+            + " where " + keyColumn + " > ? order by " + keyColumn + " limit ?";
+        Object lastKey = null;
+        int copied = 0;
+        while (true) {
+            List<List<Object>> rows = new ArrayList<>();
+            List<String> columns = new ArrayList<>();
+            Connection conn = ConnectionPool.getConnection(shard.getBaseDomain());
+            if (conn == null) {
+                throw new SQLException("get connection of " + shard.getBaseDomain() + " failed.");
+            }
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            try {
+                ps = conn.prepareStatement(lastKey == null ? firstSql : nextSql);
+                if (lastKey == null) {
+                    ps.setInt(1, batchSize);
+                } else {
+                    ps.setObject(1, lastKey);
+                    ps.setInt(2, batchSize);
+                }
+                rs = ps.executeQuery();
+                ResultSetMetaData metaData = rs.getMetaData();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    columns.add(metaData.getColumnLabel(i));
+                }
+                while (rs.next()) {
+                    List<Object> row = new ArrayList<>(columns.size());
+                    for (int i = 1; i <= columns.size(); i++) {
+                        row.add(rs.getObject(i));
+                    }
+                    rows.add(row);
+                    lastKey = rs.getObject(keyColumn);
+                }
+            } finally {
+                ConnectionPool.close(conn, ps, rs);
+            }
+            if (rows.isEmpty()) {
+                break;
+            }
+            copyRows(columns, rows, targetShards);
+            copied += rows.size();
+            logger.info("[copyShard] {} rows of {} copied.", copied, tableName);
+            if (rows.size() < batchSize) {
+                break;
+            }
+        }
+        return copied;
+    }
+
+    private void copyRows(List<String> columns, List<List<Object>> rows, List<SqlDomain> shards)
+        throws SQLException {
+
+        int keyIndex = columns.indexOf(keyColumn);
+        List<List<List<Object>>> shardRows = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            shardRows.add(new ArrayList<>());
+        }
+        for (List<Object> row : rows) {
+            String key = String.valueOf(row.get(keyIndex));
+            shardRows.get(SqlDomain.shardIndexOf(key, shards.size())).add(row);
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            if (!shardRows.get(i).isEmpty()) {
+                upsert(shards.get(i), columns, shardRows.get(i));
+            }
+        }
+    }
+
+    private void upsert(SqlDomain shard, List<String> columns, List<List<Object>> rows)
+        throws SQLException {
+
+        StringBuilder sql = new StringBuilder("insert into ")
+            .append(shard.getTableName())
+            .append(" (")
+            .append(String.join(",", columns))
+            .append(") values (");
+        StringBuilder update = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "?" : ",?");
+            update.append(i == 0 ? "" : ",")
+                .append(columns.get(i))
+                .append("=values(")
+                .append(columns.get(i))
+                .append(")");
+        }
+        sql.append(") on duplicate key update ").append(update);
+
+        Connection conn = ConnectionPool.getConnection(shard.getBaseDomain());
+        if (conn == null) {
+            throw new SQLException("get connection of " + shard.getBaseDomain() + " failed.");
+        }
+        PreparedStatement ps = null;
+        try {
+            conn.setAutoCommit(false);
+            ps = conn.prepareStatement(sql.toString());
+            for (List<Object> row : rows) {
+                for (int i = 0; i < row.size(); i++) {
+                    ps.setObject(i + 1, row.get(i));
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            ConnectionPool.close(conn, ps);
+        }
+    }
+
+    /**
+     * 按源表结构创建目标表.
+     */
+    private void createTableLike(SqlDomain from, SqlDomain to) throws SQLException {
+        String createSql;
+        Connection conn = ConnectionPool.getConnection(from.getBaseDomain());
+        if (conn == null) {
+            throw new SQLException("get connection of " + from.getBaseDomain() + " failed.");
+        }
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conn.prepareStatement("show create table " + from.getTableName());
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                throw new SQLException("table " + from.getTableName() + " is not exists.");
+            }
+            createSql = rs.getString(2).replaceFirst(
+                "(?i)CREATE TABLE `?" + from.getTableName() + "`?",
+                "CREATE TABLE IF NOT EXISTS `" + to.getTableName() + "`"
+            );
+        } finally {
+            ConnectionPool.close(conn, ps, rs);
+        }
+        conn = ConnectionPool.getConnection(to.getBaseDomain());
+        if (conn == null) {
+            throw new SQLException("get connection of " + to.getBaseDomain() + " failed.");
+        }
+        ps = null;
+        try {
+            ps = conn.prepareStatement(createSql);
+            ps.executeUpdate();
+        } finally {
+            ConnectionPool.close(conn, ps);
+        }
+    }
+
+    /**
+     * 重新分片入口.
+     *
+     * @param args domainKey fromShards toShards keyColumn [batchSize]
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println(
+                "Usage: SqlShardMigrator domainKey fromShards toShards keyColumn [batchSize]");
+            System.exit(1);
+        }
+        try {
+            int batchSize = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_BATCH_SIZE;
+            SqlShardMigrator migrator = new SqlShardMigrator(
+                args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]), args[3]);
+            int copied = migrator.migrate(batchSize);
+            System.out.println("[SqlShardMigrator] " + copied + " rows of " + args[0] + " copied.");
+        } catch (Exception e) {
+            logger.error("[SqlShardMigrator] migrate with exception.", e);
+            System.err.println("[SqlShardMigrator] migrate failed: " + e.getMessage());
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+}
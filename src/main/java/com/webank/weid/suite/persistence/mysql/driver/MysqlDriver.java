@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * mysql operations.
@@ -38,6 +39,11 @@ public class MysqlDriver implements Persistence {
     private static final Logger logger = LoggerFactory.getLogger(
             MysqlDriver.class);
 
+    /**
+     * IN条件查询时每批的主键个数.
+     */
+    private static final int IN_QUERY_BATCH_SIZE = 500;
+
     private static final String CHECK_TABLE_SQL =
         "SELECT table_name "
             + DataDriverConstant.SQL_COLUMN_DATA
@@ -161,11 +167,23 @@ public class MysqlDriver implements Persistence {
                     + "PRIMARY KEY (`hash`) "
                     + ") ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='the evidence table'";
 
+    private static final String CREATE_TABLE_SEQUENCE_SQL =
+            "CREATE TABLE `$1` ("
+                    + "`seq_name` varchar(128) NOT NULL COMMENT 'name of sequence',"
+                    + "`next_id` bigint NOT NULL COMMENT 'the next id to be reserved', "
+                    + "PRIMARY KEY (`seq_name`) "
+                    + ") ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='the sequence table'";
+
     private static final Integer FAILED_STATUS = DataDriverConstant.SQL_EXECUTE_FAILED_STATUS;
 
     private static final ErrorCode KEY_INVALID = ErrorCode.PRESISTENCE_DATA_KEY_INVALID;
 
-    private static Boolean isinit = false;
+    private static volatile boolean isinit = false;
+
+    /**
+     * 初始化时需要访问数据库, 使用ReentrantLock避免虚拟线程被固定在平台线程上.
+     */
+    private static final ReentrantLock INIT_LOCK = new ReentrantLock();
 
     private static int CPT_DEFAULT_VERSION = 1;
 
@@ -174,17 +192,24 @@ public class MysqlDriver implements Persistence {
      */
     public MysqlDriver() {
         if (!isinit) {
-            synchronized (MysqlDriver.class) {
+            INIT_LOCK.lock();
+            try {
                 if (!isinit) {
                     initDomain();
                     isinit = true;
                 }
+            } finally {
+                INIT_LOCK.unlock();
             }
         }
     }
 
     @Override
     public ResponseData<String> get(String domain, String id) {
+        return get(domain, id, false);
+    }
+
+    private ResponseData<String> get(String domain, String id, boolean primary) {
 
         if (StringUtils.isEmpty(id)) {
             logger.error("[mysql->get] the id of the data is empty.");
@@ -194,9 +219,11 @@ public class MysqlDriver implements Persistence {
         try {
             ResponseData<String> result = new ResponseData<String>();
             result.setResult(StringUtils.EMPTY);
-            SqlDomain sqlDomain = new SqlDomain(domain);
-            ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
-                .executeQuery(SqlExecutor.SQL_QUERY, dataKey);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(dataKey);
+            SqlExecutor sqlExecutor = new SqlExecutor(sqlDomain);
+            ResponseData<Map<String, String>> response = primary
+                ? sqlExecutor.executeQueryOnPrimary(SqlExecutor.SQL_QUERY, dataKey)
+                : sqlExecutor.executeQuery(SqlExecutor.SQL_QUERY, dataKey);
             if (response.getErrorCode().intValue() == ErrorCode.SUCCESS.getCode()
                 && response.getResult() != null) {
                 DefaultValue tableData = DataToolUtils.deserialize(
@@ -230,7 +257,7 @@ public class MysqlDriver implements Persistence {
         }
         String dataKey = DataToolUtils.hash(id);
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(dataKey);
             Date now = sqlDomain.getNow();
             Object[] datas = {dataKey, data, sqlDomain.getExpire(), now, now};
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_SAVE, datas);
@@ -297,7 +324,7 @@ public class MysqlDriver implements Persistence {
         }
         String dataKey = DataToolUtils.hash(id);
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(dataKey);
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_DELETE, dataKey);
         } catch (WeIdBaseException e) {
             logger.error("[mysql->delete] delete the data error.", e);
@@ -318,7 +345,7 @@ public class MysqlDriver implements Persistence {
         String dataKey = DataToolUtils.hash(id);
         Date date = new Date();
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(dataKey);
             Object[] datas = {date, data, sqlDomain.getExpire(), dataKey};
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_UPDATE, datas);
         } catch (WeIdBaseException e) {
@@ -351,6 +378,7 @@ public class MysqlDriver implements Persistence {
                     case "local.authorityIssuer" : sqlExecutor.resolveTableDomain(CHECK_TABLE_SQL, CREATE_TABLE_AUTHORITY_ISSUER_SQL);
                     case "local.specificIssuer" : sqlExecutor.resolveTableDomain(CHECK_TABLE_SQL, CREATE_TABLE_SPECIFIC_ISSUER_SQL);
                     case "local.evidence" : sqlExecutor.resolveTableDomain(CHECK_TABLE_SQL, CREATE_TABLE_EVIDENCE_SQL);
+                    case "local.sequence" : sqlExecutor.resolveTableDomain(CHECK_TABLE_SQL, CREATE_TABLE_SEQUENCE_SQL);
                 }
             }
             // 初始化管理员权限
@@ -436,7 +464,7 @@ public class MysqlDriver implements Persistence {
      */
     @Override
     public ResponseData<Integer> addOrUpdate(String domain, String id, String data) {
-        ResponseData<String> getRes = this.get(domain, id);
+        ResponseData<String> getRes = this.get(domain, id, true);
         //如果查询数据存在，或者失效 则进行更新 否则进行新增
         if ((StringUtils.isNotBlank(getRes.getResult())
             && getRes.getErrorCode().intValue() == ErrorCode.SUCCESS.getCode())
@@ -459,7 +487,8 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(DataDriverConstant.DOMAIN_DEFAULT_INFO);
+            SqlDomain sqlDomain = new SqlDomain(DataDriverConstant.DOMAIN_DEFAULT_INFO)
+                .getShardFor(transactionArgs.getRequestId());
             Object[] datas = {
                 transactionArgs.getRequestId(),
                 transactionArgs.getMethod(),
@@ -483,9 +512,9 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             Date now = sqlDomain.getNow();
-            Object[] datas = {weId, now, now, 1, 0, documentSchema};
+            Object[] datas = {weId, now, now, 1, 0, ValueCodec.encodeColumn(documentSchema)};
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_SAVE_WEID, datas);
         } catch (WeIdBaseException e) {
             logger.error("[mysql->addWeId] addWeId error.", e);
@@ -502,9 +531,9 @@ public class MysqlDriver implements Persistence {
         }
         Date date = new Date();
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
-                    .executeQuery(SqlExecutor.SQL_QUERY_WEID, weId);
+                    .executeQueryOnPrimary(SqlExecutor.SQL_QUERY_WEID, weId);
             if (response.getErrorCode().intValue() == ErrorCode.SUCCESS.getCode()
                     && response.getResult() != null) {
                 WeIdDocumentValue tableData = DataToolUtils.deserialize(
@@ -517,7 +546,8 @@ public class MysqlDriver implements Persistence {
                 if (StringUtils.isNotBlank(tableData.getDocument_schema())) {
                     int version = tableData.getVersion();
                     version++;
-                    Object[] datas = {date, version, tableData.getDeactivated(), documentSchema, weId};
+                    Object[] datas = {date, version, tableData.getDeactivated(),
+                        ValueCodec.encodeColumn(documentSchema), weId};
                     return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_UPDATE_WEID, datas);
                 }
             }
@@ -537,7 +567,7 @@ public class MysqlDriver implements Persistence {
         }
         //String dataKey = DataToolUtils.hash(weId);
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
                     .executeQuery(SqlExecutor.SQL_QUERY_WEID, weId);
             if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
@@ -565,7 +595,7 @@ public class MysqlDriver implements Persistence {
         }
         //String dataKey = DataToolUtils.hash(weId);
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
                     .executeQuery(SqlExecutor.SQL_QUERY_WEID, weId);
             if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
@@ -599,9 +629,9 @@ public class MysqlDriver implements Persistence {
         String dataKey = DataToolUtils.hash(weId);
         Date date = new Date();
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
-                    .executeQuery(SqlExecutor.SQL_QUERY_WEID, dataKey);
+                    .executeQueryOnPrimary(SqlExecutor.SQL_QUERY_WEID, dataKey);
             if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
                     && response.getResult() != null) {
                 WeIdDocumentValue tableData = DataToolUtils.deserialize(
@@ -667,7 +697,7 @@ public class MysqlDriver implements Persistence {
         }
         try {
             ResponseData<CptValue> result = new ResponseData<CptValue>();
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(String.valueOf(cptId));
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
                     .executeQuery(SqlExecutor.SQL_QUERY_CPT, cptId);
             if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
@@ -696,9 +726,10 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<CptBaseInfo>(null, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(String.valueOf(cptId));
             Date now = sqlDomain.getNow();
-            Object[] datas = {cptId, now, now, CPT_DEFAULT_VERSION, publisher, description, cptSchema, cptSignature};
+            Object[] datas = {cptId, now, now, CPT_DEFAULT_VERSION, publisher, description,
+                ValueCodec.encodeColumn(cptSchema), cptSignature};
             ResponseData<Integer> result = new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_SAVE_CPT, datas);
             if (result.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
                 logger.error("[addCpt] add Cpt to db failed.");
@@ -722,9 +753,10 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(String.valueOf(cptId));
             Date now = sqlDomain.getNow();
-            Object[] datas = {now, cptVersion, publisher, description, cptSchema, cptSignature, cptId};
+            Object[] datas = {now, cptVersion, publisher, description,
+                ValueCodec.encodeColumn(cptSchema), cptSignature, cptId};
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_UPDATE_CPT, datas);
         } catch (WeIdBaseException e) {
             logger.error("[mysql->updateCpt] updateCpt error.", e);
@@ -818,7 +850,7 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(String.valueOf(cptId));
             Date now = sqlDomain.getNow();
             Object[] datas = {credentialPublicKey, credentialProof, cptId};
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_UPDATE_CREDENTIAL_TEMPLATE, datas);
@@ -836,7 +868,7 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(String.valueOf(cptId));
             Date now = sqlDomain.getNow();
             Object[] datas = {policies, cptId};
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_UPDATE_CLAIM_POLICIES, datas);
@@ -854,9 +886,10 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(null, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(String.valueOf(policyId));
             Date now = sqlDomain.getNow();
-            Object[] datas = {policyId, now, now, CPT_DEFAULT_VERSION, publisher, description, cptSchema, cptSignature};
+            Object[] datas = {policyId, now, now, CPT_DEFAULT_VERSION, publisher, description,
+                ValueCodec.encodeColumn(cptSchema), cptSignature};
             ResponseData<Integer> result = new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_SAVE_POLICY, datas);
             if (result.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
                 logger.error("[addPolicy] add policy to db failed.");
@@ -878,7 +911,7 @@ public class MysqlDriver implements Persistence {
         }
         try {
             ResponseData<PolicyValue> result = new ResponseData<PolicyValue>();
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(String.valueOf(policyId));
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
                     .executeQuery(SqlExecutor.SQL_QUERY_POLICY, policyId);
             if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
@@ -907,7 +940,7 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(null, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(String.valueOf(presentationId));
             Date now = sqlDomain.getNow();
             Object[] datas = {presentationId, creator, policies};
             ResponseData<Integer> result = new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_SAVE_PRESENTATION, datas);
@@ -922,6 +955,34 @@ public class MysqlDriver implements Persistence {
         }
     }
 
+    @Override
+    public ResponseData<Long> reserveSequence(
+        String domain,
+        String name,
+        long initialValue,
+        int blockSize) {
+
+        if (StringUtils.isEmpty(name) || blockSize <= 0) {
+            logger.error("[mysql->reserveSequence] the name or blockSize is invalid.");
+            return new ResponseData<Long>(null, KEY_INVALID);
+        }
+        try {
+            SqlExecutor executor = new SqlExecutor(new SqlDomain(domain));
+            // 序列表可能在升级前的配置中不存在, 使用时按需建表, 已建的表有缓存
+            executor.resolveTableDomain(CHECK_TABLE_SQL, CREATE_TABLE_SEQUENCE_SQL);
+            ResponseData<Long> response = executor.executeAndGetLastInsertId(
+                SqlExecutor.SQL_RESERVE_SEQUENCE, name, initialValue + blockSize, blockSize);
+            if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return response;
+            }
+            // LAST_INSERT_ID为预留后的下一个编号
+            return new ResponseData<>(response.getResult() - blockSize, ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[mysql->reserveSequence] reserveSequence error.", e);
+            return new ResponseData<Long>(null, e.getErrorCode());
+        }
+    }
+
     @Override
     public ResponseData<PresentationValue> getPresentation(String domain, int presentationId) {
         if (presentationId<=0) {
@@ -930,7 +991,7 @@ public class MysqlDriver implements Persistence {
         }
         try {
             ResponseData<PresentationValue> result = new ResponseData<PresentationValue>();
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(String.valueOf(presentationId));
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
                     .executeQuery(SqlExecutor.SQL_QUERY_PRESENTATION, presentationId);
             if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
@@ -960,7 +1021,7 @@ public class MysqlDriver implements Persistence {
         }
         try {
             ResponseData<AuthorityIssuerInfo> result = new ResponseData<AuthorityIssuerInfo>();
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
                     .executeQuery(SqlExecutor.SQL_QUERY_AUTHORITY_ISSUER_BY_ADDRESS, weId);
             if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
@@ -981,6 +1042,63 @@ public class MysqlDriver implements Persistence {
         }
     }
 
+    @Override
+    public ResponseData<List<AuthorityIssuerInfo>> getAuthorityIssuersByWeIds(
+        String domain,
+        List<String> weIds) {
+
+        if (weIds == null || weIds.isEmpty()) {
+            return new ResponseData<>(new ArrayList<>(), ErrorCode.SUCCESS);
+        }
+        try {
+            // 按分片分组, 每组按批次拼接IN条件查询
+            SqlDomain sqlDomain = new SqlDomain(domain);
+            Map<Integer, List<String>> shardKeys = new LinkedHashMap<>();
+            Map<Integer, SqlDomain> shardDomains = new HashMap<>();
+            for (String weId : weIds) {
+                if (StringUtils.isEmpty(weId)) {
+                    continue;
+                }
+                SqlDomain shard = sqlDomain.getShardFor(weId);
+                shardDomains.putIfAbsent(shard.getShardIndex(), shard);
+                shardKeys.computeIfAbsent(shard.getShardIndex(), k -> new ArrayList<>()).add(weId);
+            }
+            Map<String, AuthorityIssuerInfo> found = new HashMap<>();
+            for (Map.Entry<Integer, List<String>> entry : shardKeys.entrySet()) {
+                SqlExecutor executor = new SqlExecutor(shardDomains.get(entry.getKey()));
+                List<String> keys = entry.getValue();
+                for (int from = 0; from < keys.size(); from += IN_QUERY_BATCH_SIZE) {
+                    List<String> batch =
+                        keys.subList(from, Math.min(keys.size(), from + IN_QUERY_BATCH_SIZE));
+                    ResponseData<List<Map<String, String>>> response = executor.executeQueryList(
+                        SqlExecutor.SQL_QUERY_AUTHORITY_ISSUER_BY_ADDRESSES, batch.toArray());
+                    if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                        return new ResponseData<>(null,
+                            ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+                    }
+                    for (Map<String, String> row : response.getResult()) {
+                        AuthorityIssuerInfo tableData = DataToolUtils.deserialize(
+                            DataToolUtils.serialize(row), AuthorityIssuerInfo.class);
+                        if (StringUtils.isNotBlank(tableData.getName())) {
+                            found.put(tableData.getWeid(), tableData);
+                        }
+                    }
+                }
+            }
+            List<AuthorityIssuerInfo> result = new ArrayList<>(found.size());
+            for (String weId : weIds) {
+                AuthorityIssuerInfo info = found.get(weId);
+                if (info != null) {
+                    result.add(info);
+                }
+            }
+            return new ResponseData<>(result, ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[mysql->getAuthorityIssuersByWeIds] getAuthorityIssuersByWeIds error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
     @Override
     public ResponseData<AuthorityIssuerInfo> getAuthorityIssuerByName(String domain, String name) {
 
@@ -1018,10 +1136,30 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain logical = new SqlDomain(domain);
+            SqlDomain sqlDomain = logical.getShardFor(weId);
             Date now = sqlDomain.getNow();
             Object[] datas = {weId, name, desc, now, now, 0, accValue, extraStr, extraInt};
-            return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_SAVE_AUTHORITY_ISSUER, datas);
+            if (!logical.isSharded() || StringUtils.isEmpty(name)) {
+                return new SqlExecutor(sqlDomain)
+                    .execute(SqlExecutor.SQL_SAVE_AUTHORITY_ISSUER, datas);
+            }
+            // 分片后name的UNIQUE约束只在单个分片内生效, 持有逻辑表的锁在所有分片上检查名称
+            return new SqlExecutor(logical).executeWithTableLock(() -> {
+                ResponseData<Map<String, String>> existed = new SqlExecutor(logical)
+                    .executeQueryOnPrimary(SqlExecutor.SQL_QUERY_AUTHORITY_ISSUER_BY_NAME, name);
+                if (existed.getErrorCode().intValue() != ErrorCode.SUCCESS.getCode()) {
+                    return new ResponseData<Integer>(FAILED_STATUS,
+                        ErrorCode.getTypeByErrorCode(existed.getErrorCode()));
+                }
+                if (existed.getResult() != null && !existed.getResult().isEmpty()) {
+                    logger.error("[mysql->addAuthorityIssuer] the name {} already exists.", name);
+                    return new ResponseData<Integer>(FAILED_STATUS,
+                        ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+                }
+                return new SqlExecutor(sqlDomain)
+                    .execute(SqlExecutor.SQL_SAVE_AUTHORITY_ISSUER, datas);
+            });
         } catch (WeIdBaseException e) {
             logger.error("[mysql->addAuthorityIssuer] addAuthorityIssuer error.", e);
             return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
@@ -1035,7 +1173,7 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_DELETE_AUTHORITY_ISSUER, weId);
         } catch (WeIdBaseException e) {
             logger.error("[mysql->removeAuthorityIssuer] addAuthorityIssuer error.", e);
@@ -1050,10 +1188,10 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             Date now = sqlDomain.getNow();
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
-                    .executeQuery(SqlExecutor.SQL_QUERY_AUTHORITY_ISSUER_BY_ADDRESS, weId);
+                    .executeQueryOnPrimary(SqlExecutor.SQL_QUERY_AUTHORITY_ISSUER_BY_ADDRESS, weId);
             if (response.getErrorCode().intValue() == ErrorCode.SUCCESS.getCode()
                     && response.getResult() != null) {
                 AuthorityIssuerInfo tableData = DataToolUtils.deserialize(
@@ -1113,7 +1251,7 @@ public class MysqlDriver implements Persistence {
         }
         try {
             ResponseData<RoleValue> result = new ResponseData<RoleValue>();
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             Date now = sqlDomain.getNow();
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
                     .executeQuery(SqlExecutor.SQL_QUERY_ROLE, weId);
@@ -1147,7 +1285,7 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             Date now = sqlDomain.getNow();
             switch (roleValue) {
                 case 1 : return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_SAVE_ROLE, new Object[]{weId, now, now, 1, 0, 0});
@@ -1176,10 +1314,10 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(weId);
             Date now = sqlDomain.getNow();
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
-                    .executeQuery(SqlExecutor.SQL_QUERY_ROLE, weId);
+                    .executeQueryOnPrimary(SqlExecutor.SQL_QUERY_ROLE, weId);
             if (response.getErrorCode().intValue() == ErrorCode.SUCCESS.getCode()
                     && response.getResult() != null) {
                 RoleValue tableData = DataToolUtils.deserialize(
@@ -1212,7 +1350,7 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(typeName);
             Date now = sqlDomain.getNow();
             Object[] datas = {typeName, now, now, owner};
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_SAVE_SPECIFIC_TYPE, datas);
@@ -1229,7 +1367,7 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(typeName);
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_DELETE_SPECIFIC_TYPE, typeName);
         } catch (WeIdBaseException e) {
             logger.error("[mysql->removeSpecificType] removeSpecificType error.", e);
@@ -1246,7 +1384,7 @@ public class MysqlDriver implements Persistence {
         }
         try {
             ResponseData<SpecificTypeValue> result = new ResponseData<SpecificTypeValue>();
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(typeName);
             Date now = sqlDomain.getNow();
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
                     .executeQuery(SqlExecutor.SQL_QUERY_SPECIFIC_TYPE, typeName);
@@ -1271,7 +1409,7 @@ public class MysqlDriver implements Persistence {
     @Override
     public ResponseData<Integer> updateSpecificTypeFellow(String domain, String typeName, String fellow) {
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(typeName);
             Date now = sqlDomain.getNow();
             Object[] datas = {fellow, typeName};
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_UPDATE_SPECIFIC_TYPE_FELLOW, datas);
@@ -1316,6 +1454,39 @@ public class MysqlDriver implements Persistence {
         }
     }
 
+    @Override
+    public ResponseData<List<SpecificTypeValue>> getSpecificTypeList(
+        String domain,
+        Integer first,
+        Integer last) {
+
+        try {
+            SqlDomain sqlDomain = new SqlDomain(domain);
+            Date now = sqlDomain.getNow();
+            ResponseData<List<Map<String, String>>> response = new SqlExecutor(sqlDomain)
+                .executeQueryPage(
+                    SqlExecutor.SQL_QUERY_SEVERAL_SPECIFIC_TYPE_VALUE, first, last - first);
+            if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()
+                || response.getResult() == null) {
+                return new ResponseData<>(null,
+                    ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+            }
+            List<SpecificTypeValue> result = new ArrayList<>(response.getResult().size());
+            for (Map<String, String> row : response.getResult()) {
+                SpecificTypeValue tableData = DataToolUtils.deserialize(
+                    DataToolUtils.serialize(row), SpecificTypeValue.class);
+                // 与getSpecificType一致, 跳过更新时间晚于当前时间的记录
+                if (tableData.getUpdated() != null && tableData.getUpdated().before(now)) {
+                    result.add(tableData);
+                }
+            }
+            return new ResponseData<>(result, ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[mysql->getSpecificTypeList] get the SpecificTypeList error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
     @Override
     public ResponseData<EvidenceValue> getEvidenceByHash(String domain, String hash) {
 
@@ -1325,7 +1496,7 @@ public class MysqlDriver implements Persistence {
         }
         try {
             ResponseData<EvidenceValue> result = new ResponseData<EvidenceValue>();
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(hash);
             ResponseData<Map<String, String>> response = new SqlExecutor(sqlDomain)
                     .executeQuery(SqlExecutor.SQL_QUERY_EVIDENCE_BY_HASH, hash);
             if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
@@ -1353,13 +1524,24 @@ public class MysqlDriver implements Persistence {
             return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
         }
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(hashValue);
+            // 签名与日志以文本保存, 追加时由数据库直接拼接
+            ResponseData<Integer> result;
             if(extraKey.equals(StringUtils.EMPTY)){
                 Object[] datas = {hashValue, signer, signature, log, updated, revoked, group_id};
-                return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_SAVE_EVIDENCE_BY_HASH, datas);
+                result = new SqlExecutor(sqlDomain)
+                    .execute(SqlExecutor.SQL_SAVE_EVIDENCE_BY_HASH, datas);
+            } else {
+                Object[] datas =
+                    {hashValue, signer, signature, log, updated, revoked, extraKey, group_id};
+                result = new SqlExecutor(sqlDomain)
+                    .execute(SqlExecutor.SQL_SAVE_EVIDENCE_EXTRAKEY, datas);
             }
-            Object[] datas = {hashValue, signer, signature, log, updated, revoked, extraKey, group_id};
-            return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_SAVE_EVIDENCE_EXTRAKEY, datas);
+            if (result.getResult() == DataDriverConstant.DUPLICATE_KEY_STATUS) {
+                return new ResponseData<Integer>(
+                    FAILED_STATUS, ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS);
+            }
+            return result;
         } catch (WeIdBaseException e) {
             logger.error("[mysql->addEvidenceByHash] addEvidenceByHash error.", e);
             return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
@@ -1369,7 +1551,7 @@ public class MysqlDriver implements Persistence {
     @Override
     public ResponseData<Integer> addSignatureAndLogs(String domain, String hashValue, String signer, String signature, String log, String updated, String revoked, String extraKey) {
         try {
-            SqlDomain sqlDomain = new SqlDomain(domain);
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(hashValue);
             Date now = sqlDomain.getNow();
             Object[] datas = {signer, signature, log, updated, revoked, extraKey, hashValue};
             return new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_UPDATE_EVIDENCE, datas);
@@ -1379,6 +1561,62 @@ public class MysqlDriver implements Persistence {
         }
     }
 
+    @Override
+    public ResponseData<Integer> appendEvidenceSignInfo(String domain, String hashValue, String signer, String signature, String log, String updated, String revoked, String extraKey) {
+        if (StringUtils.isEmpty(hashValue)) {
+            logger.error("[mysql->appendEvidenceSignInfo] the hashValue is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(hashValue);
+            String newExtraKey = StringUtils.isEmpty(extraKey) ? null : extraKey;
+            Object[] datas = {signer, signature, log, updated, revoked, newExtraKey, hashValue};
+            ResponseData<Integer> result =
+                new SqlExecutor(sqlDomain).execute(SqlExecutor.SQL_APPEND_EVIDENCE, datas);
+            if (result.getErrorCode() != ErrorCode.SUCCESS.getCode() || result.getResult() != 0) {
+                return result;
+            }
+            // 存证不存在, 或签名与日志由旧版本编码写入, 后者在行锁内解码后追加并改写为文本
+            return new SqlExecutor(sqlDomain).executeCompute(
+                SqlExecutor.SQL_QUERY_EVIDENCE_FOR_UPDATE,
+                record -> {
+                    Map<String, Object> fields = EvidenceValue.appendSignInfo(
+                        record, signer, signature, log, updated, revoked, extraKey);
+                    return new Object[]{fields.get("signers"), fields.get("signatures"),
+                        fields.get("logs"), fields.get("updated"), fields.get("revoked"),
+                        newExtraKey == null ? record.get("extra_key") : newExtraKey, hashValue};
+                },
+                SqlExecutor.SQL_UPDATE_EVIDENCE,
+                hashValue);
+        } catch (WeIdBaseException e) {
+            logger.error("[mysql->appendEvidenceSignInfo] appendEvidenceSignInfo error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> revokeEvidence(String domain, String hashValue, String signer, String revoked, String updated) {
+        if (StringUtils.isEmpty(hashValue)) {
+            logger.error("[mysql->revokeEvidence] the hashValue is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            SqlDomain sqlDomain = new SqlDomain(domain).getShardFor(hashValue);
+            return new SqlExecutor(sqlDomain).executeCompute(
+                SqlExecutor.SQL_QUERY_EVIDENCE_FOR_UPDATE,
+                record -> {
+                    Map<String, Object> fields =
+                        EvidenceValue.revokeSignInfo(record, signer, revoked, updated);
+                    return new Object[]{fields.get("updated"), fields.get("revoked"), hashValue};
+                },
+                SqlExecutor.SQL_REVOKE_EVIDENCE,
+                hashValue);
+        } catch (WeIdBaseException e) {
+            logger.error("[mysql->revokeEvidence] revokeEvidence error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
     @Override
     public ResponseData<EvidenceValue> getEvidenceByExtraKey(String domain, String extraKey) {
 
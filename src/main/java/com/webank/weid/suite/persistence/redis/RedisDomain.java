@@ -11,7 +11,6 @@ import com.webank.weid.constant.DataDriverConstant;
 import com.webank.weid.blockchain.constant.ErrorCode;
 import com.webank.weid.exception.WeIdBaseException;
 import com.webank.weid.suite.persistence.BaseDomain;
-import com.webank.weid.util.PropertyUtils;
 
 @Getter
 public class RedisDomain extends BaseDomain {
@@ -32,11 +31,11 @@ public class RedisDomain extends BaseDomain {
         if (StringUtils.isBlank(this.key)) {
             this.key = DataDriverConstant.DOMAIN_DEFAULT_INFO;
         }
-        this.value = PropertyUtils.getProperty(this.key);
+        this.value = resolveDomainValue();
 
         if (StringUtils.isBlank(this.value)
-                && DataDriverConstant.DOMAIN_DEFAULT_INFO.equals(this.key)) {
-            this.tableDomain = DEFAULT_TABLE;
+                && hasDefaultTable()) {
+            this.tableDomain = getDefaultTable();
 
         } else if (StringUtils.isNotBlank(this.value)
                 && this.value.split(VALUE_SPLIT_CHAR).length == 2) {
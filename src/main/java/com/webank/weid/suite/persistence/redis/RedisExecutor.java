@@ -2,16 +2,32 @@
 
 package com.webank.weid.suite.persistence.redis;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.commons.collections4.CollectionUtils;
+import org.redisson.api.BatchOptions;
 import org.redisson.api.BatchResult;
 import org.redisson.api.RBatch;
 import org.redisson.api.RBucket;
+import org.redisson.api.RMapAsync;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
 import org.redisson.client.RedisException;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,7 +36,9 @@ import com.webank.weid.blockchain.constant.ErrorCode;
 import com.webank.weid.protocol.request.TransactionArgs;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
 import com.webank.weid.suite.persistence.DefaultValue;
+import com.webank.weid.suite.persistence.ValueCodec;
 import com.webank.weid.util.DataToolUtils;
+import com.webank.weid.util.PropertyUtils;
 
 /**
  * redis操作辅助类.
@@ -31,11 +49,237 @@ public class RedisExecutor {
 
     private static final Logger logger = LoggerFactory.getLogger(RedisExecutor.class);
 
+    /**
+     * 条件更新被拒绝字段拒绝时的返回值.
+     */
+    public static final int UPDATE_REJECTED = -2;
+
     /**
      * the split for value.
      */
     private static final String VALUE_SPLIT_CHAR = ":";
 
+    /**
+     * 字段索引前缀, 索引hash中以字段值映射到记录id.
+     */
+    private static final String INDEX_FIELD_PREFIX = "f:";
+
+    /**
+     * 字段非唯一索引前缀, 索引为按字典序排列的有序集合, 成员为"字段值\0记录id".
+     */
+    private static final String INDEX_MULTI_PREFIX = "m:";
+
+    /**
+     * 非唯一索引成员中字段值与记录id的分隔符.
+     */
+    private static final char MULTI_INDEX_SPLIT_CHAR = '\0';
+
+    /**
+     * 成员集合前缀, "s:+"表示加入集合, "s:-"表示移出集合.
+     */
+    private static final String INDEX_SET_PREFIX = "s:";
+
+    /**
+     * hash记录的codec, 字段名为文本, 字段值为字节, 读取后按{@link ValueCodec#decode}解码.
+     */
+    private static final CompositeCodec HASH_CODEC =
+        new CompositeCodec(StringCodec.INSTANCE, ByteArrayCodec.INSTANCE);
+
+    /**
+     * 原子新增记录: 记录已存在时返回0, 唯一索引冲突时返回-1, 否则写入记录, 有序集合, 索引与成员集合.
+     * KEYS[1]记录, KEYS[2]有序集合, KEYS[3]序号, KEYS[4..]索引;
+     * ARGV[1]记录id, ARGV[2]字段个数n, 之后为n个字段键值对, 最后为每个索引的描述.
+     */
+    private static final String LUA_RECORD_INSERT =
+        "local id = ARGV[1] "
+            + "local n = tonumber(ARGV[2]) "
+            + "local s = 2 + 2 * n "
+            + "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end "
+            + "local fields = {} "
+            + "for i = 1, n do fields[ARGV[1 + 2 * i]] = ARGV[2 + 2 * i] end "
+            + "for j = 4, #KEYS do "
+            + "  local spec = ARGV[s + j - 3] "
+            + "  if string.sub(spec, 1, 2) == 'f:' then "
+            + "    local v = fields[string.sub(spec, 3)] "
+            + "    if v and v ~= '' and redis.call('HEXISTS', KEYS[j], v) == 1 then return -1 end "
+            + "  end "
+            + "end "
+            + "for i = 1, n do redis.call('HSET', KEYS[1], ARGV[1 + 2 * i], ARGV[2 + 2 * i]) end "
+            + "redis.call('ZADD', KEYS[2], redis.call('INCR', KEYS[3]), id) "
+            + "for j = 4, #KEYS do "
+            + "  local spec = ARGV[s + j - 3] "
+            + "  local p = string.sub(spec, 1, 2) "
+            + "  local v = fields[string.sub(spec, 3)] "
+            + "  if p == 'f:' then "
+            + "    if v and v ~= '' then redis.call('HSET', KEYS[j], v, id) end "
+            + "  elseif p == 'm:' then "
+            + "    if v and v ~= '' then redis.call('ZADD', KEYS[j], 0, v .. '\\0' .. id) end "
+            + "  elseif spec == 's:+' then redis.call('SADD', KEYS[j], id) "
+            + "  end "
+            + "end "
+            + "return 1";
+
+    /**
+     * 原子更新记录: 记录不存在时返回0, 唯一索引被其他记录占用时返回-1, 否则更新字段并维护索引与成员集合.
+     * KEYS[1]记录, KEYS[2..]索引; ARGV与新增脚本一致.
+     */
+    private static final String LUA_RECORD_UPDATE =
+        "local id = ARGV[1] "
+            + "local n = tonumber(ARGV[2]) "
+            + "local s = 2 + 2 * n "
+            + "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+            + "local fields = {} "
+            + "for i = 1, n do fields[ARGV[1 + 2 * i]] = ARGV[2 + 2 * i] end "
+            + "for j = 2, #KEYS do "
+            + "  local spec = ARGV[s + j - 1] "
+            + "  if string.sub(spec, 1, 2) == 'f:' then "
+            + "    local v = fields[string.sub(spec, 3)] "
+            + "    if v and v ~= '' then "
+            + "      local owner = redis.call('HGET', KEYS[j], v) "
+            + "      if owner and owner ~= id then return -1 end "
+            + "    end "
+            + "  end "
+            + "end "
+            + "for j = 2, #KEYS do "
+            + "  local spec = ARGV[s + j - 1] "
+            + "  local p = string.sub(spec, 1, 2) "
+            + "  if p == 'f:' or p == 'm:' then "
+            + "    local field = string.sub(spec, 3) "
+            + "    local v = fields[field] "
+            + "    if v then "
+            + "      local old = redis.call('HGET', KEYS[1], field) "
+            + "      if p == 'f:' then "
+            + "        if old and old ~= '' and old ~= v "
+            + "          and redis.call('HGET', KEYS[j], old) == id then "
+            + "          redis.call('HDEL', KEYS[j], old) "
+            + "        end "
+            + "        if v ~= '' then redis.call('HSET', KEYS[j], v, id) end "
+            + "      else "
+            + "        if old and old ~= '' then "
+            + "          redis.call('ZREM', KEYS[j], old .. '\\0' .. id) "
+            + "        end "
+            + "        if v ~= '' then redis.call('ZADD', KEYS[j], 0, v .. '\\0' .. id) end "
+            + "      end "
+            + "    end "
+            + "  elseif spec == 's:+' then redis.call('SADD', KEYS[j], id) "
+            + "  elseif spec == 's:-' then redis.call('SREM', KEYS[j], id) "
+            + "  end "
+            + "end "
+            + "for i = 1, n do redis.call('HSET', KEYS[1], ARGV[1 + 2 * i], ARGV[2 + 2 * i]) end "
+            + "return 1";
+
+    /**
+     * 原子删除记录, 同时移出有序集合, 索引与成员集合, 记录不存在时返回0.
+     * KEYS[1]记录, KEYS[2]有序集合, KEYS[3..]索引; ARGV[1]记录id, 之后为每个索引的描述.
+     */
+    private static final String LUA_RECORD_DELETE =
+        "local id = ARGV[1] "
+            + "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+            + "for j = 3, #KEYS do "
+            + "  local spec = ARGV[j - 1] "
+            + "  local p = string.sub(spec, 1, 2) "
+            + "  if p == 'f:' then "
+            + "    local v = redis.call('HGET', KEYS[1], string.sub(spec, 3)) "
+            + "    if v and v ~= '' and redis.call('HGET', KEYS[j], v) == id then "
+            + "      redis.call('HDEL', KEYS[j], v) "
+            + "    end "
+            + "  elseif p == 'm:' then "
+            + "    local v = redis.call('HGET', KEYS[1], string.sub(spec, 3)) "
+            + "    if v and v ~= '' then redis.call('ZREM', KEYS[j], v .. '\\0' .. id) end "
+            + "  else redis.call('SREM', KEYS[j], id) "
+            + "  end "
+            + "end "
+            + "redis.call('DEL', KEYS[1]) "
+            + "redis.call('ZREM', KEYS[2], id) "
+            + "return 1";
+
+    /**
+     * 原子检查并更新记录: 必需字段为空时返回0, 拒绝字段等于拒绝值时返回-2, 否则递增计数字段并更新字段.
+     * KEYS[1]记录; ARGV[1]必需字段, ARGV[2]拒绝字段, ARGV[3]拒绝值, ARGV[4]计数字段(空为不递增),
+     * 之后为字段键值对.
+     */
+    private static final String LUA_RECORD_CHECKED_UPDATE =
+        "local required = redis.call('HGET', KEYS[1], ARGV[1]) "
+            + "if not required or required == '' then return 0 end "
+            + "if redis.call('HGET', KEYS[1], ARGV[2]) == ARGV[3] then return -2 end "
+            + "if ARGV[4] ~= '' then redis.call('HINCRBY', KEYS[1], ARGV[4], 1) end "
+            + "for i = 5, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+            + "return 1";
+
+    /**
+     * 原子追加字段: 记录不存在时返回0, 被追加的字段值为编码格式时返回-2,
+     * 否则以分隔符将值追加到字段末尾, 并可同时修改一个非唯一索引字段.
+     * KEYS[1]记录, KEYS[2]非唯一索引; ARGV[1]记录id, ARGV[2]分隔符, ARGV[3]索引字段,
+     * ARGV[4]索引字段的新值(空为不修改), 之后为追加的字段键值对.
+     */
+    private static final String LUA_RECORD_APPEND =
+        "local id = ARGV[1] "
+            + "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+            + "for i = 5, #ARGV, 2 do "
+            + "  local old = redis.call('HGET', KEYS[1], ARGV[i]) "
+            + "  if old and string.byte(old, 1) and string.byte(old, 1) >= 248 then return -2 end "
+            + "end "
+            + "for i = 5, #ARGV, 2 do "
+            + "  local old = redis.call('HGET', KEYS[1], ARGV[i]) "
+            + "  local v = old and old .. ARGV[2] .. ARGV[i + 1] or ARGV[i + 1] "
+            + "  redis.call('HSET', KEYS[1], ARGV[i], v) "
+            + "end "
+            + "if ARGV[4] ~= '' then "
+            + "  local old = redis.call('HGET', KEYS[1], ARGV[3]) "
+            + "  if old and old ~= '' then redis.call('ZREM', KEYS[2], old .. '\\0' .. id) end "
+            + "  redis.call('ZADD', KEYS[2], 0, ARGV[4] .. '\\0' .. id) "
+            + "  redis.call('HSET', KEYS[1], ARGV[3], ARGV[4]) "
+            + "end "
+            + "return 1";
+
+    /**
+     * 原子修改列表字段: 匹配字段按分隔符拆分后, 对等于匹配值的每个位置, 将其余列表字段的同一位置改为新值.
+     * 记录不存在时返回0. KEYS[1]记录; ARGV[1]分隔符, ARGV[2]匹配字段, ARGV[3]匹配值,
+     * 之后为列表字段与新值的键值对.
+     */
+    private static final String LUA_RECORD_LIST_SET =
+        "local sep = ARGV[1] "
+            + "local function split(s) "
+            + "  local t = {} "
+            + "  local from = 1 "
+            + "  while true do "
+            + "    local i = string.find(s, sep, from, true) "
+            + "    if not i then table.insert(t, string.sub(s, from)) return t end "
+            + "    table.insert(t, string.sub(s, from, i - 1)) "
+            + "    from = i + string.len(sep) "
+            + "  end "
+            + "end "
+            + "local match = redis.call('HGET', KEYS[1], ARGV[2]) "
+            + "if not match then return 0 end "
+            + "local keys = split(match) "
+            + "for i = 4, #ARGV, 2 do "
+            + "  local list = split(redis.call('HGET', KEYS[1], ARGV[i]) or '') "
+            + "  for j = 1, #keys do "
+            + "    if keys[j] == ARGV[3] then list[j] = ARGV[i + 1] end "
+            + "  end "
+            + "  redis.call('HSET', KEYS[1], ARGV[i], table.concat(list, sep)) "
+            + "end "
+            + "return 1";
+
+    /**
+     * 原子比较并更新记录: 记录不存在时返回0, 比较字段不等于期望值时返回-2, 否则更新字段.
+     * KEYS[1]记录; ARGV[1]比较字段, ARGV[2]期望值, 之后为字段键值对.
+     */
+    private static final String LUA_RECORD_COMPARE_SET =
+        "local current = redis.call('HGET', KEYS[1], ARGV[1]) "
+            + "if not current then return 0 end "
+            + "if current ~= ARGV[2] then return -2 end "
+            + "for i = 3, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+            + "return 1";
+
+    /**
+     * 原子预留一段编号: 序列不存在时从初始值开始, 返回预留后的下一个编号.
+     * KEYS[1]序列; ARGV[1]初始值, ARGV[2]预留个数.
+     */
+    private static final String LUA_SEQUENCE_RESERVE =
+        "if redis.call('EXISTS', KEYS[1]) == 0 then redis.call('SET', KEYS[1], ARGV[1]) end "
+            + "return redis.call('INCRBY', KEYS[1], ARGV[2])";
+
     private RedisDomain redisDomain;
 
 
@@ -71,9 +315,10 @@ public class RedisExecutor {
                 return
                         new ResponseData<String>(null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
             }
-            RBucket<String>  rbucket = client.getBucket(tableDomain + VALUE_SPLIT_CHAR + datakey);
+            RBucket<byte[]> rbucket = client.getBucket(
+                tableDomain + VALUE_SPLIT_CHAR + datakey, ByteArrayCodec.INSTANCE);
             result.setErrorCode(ErrorCode.SUCCESS);
-            result.setResult(rbucket.get());
+            result.setResult(decodeValue(rbucket.get(), client));
         } catch (Exception e) {
             logger.error("Query data from {{}} with exception", redisDomain.getTableDomain(), e);
             result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
@@ -108,9 +353,8 @@ public class RedisExecutor {
                 transactionArgs.setBatch((String)datas[5]);
 
                 String valueString = DataToolUtils.serialize(transactionArgs);
-                RBucket<String> rbucket = client.getBucket(
-                        redisDomain.getTableDomain() + VALUE_SPLIT_CHAR + dataKey);
-                rbucket.set(valueString);
+                setValue(client,
+                        redisDomain.getTableDomain() + VALUE_SPLIT_CHAR + dataKey, valueString);
             } else {
                 value.setData((String) datas[0]);
                 value.setId(dataKey);
@@ -123,17 +367,16 @@ public class RedisExecutor {
                     value.setUpdated((Date)datas[1]);
                 }
                 String valueString = DataToolUtils.serialize(value);
-                RBucket<String> rbucket = client.getBucket(
-                        redisDomain.getTableDomain() + VALUE_SPLIT_CHAR + dataKey);
+                String key = redisDomain.getTableDomain() + VALUE_SPLIT_CHAR + dataKey;
                 //解决重复写问题
-                if (datas.length == 3 &&  rbucket.get() != null) {
+                if (datas.length == 3 && client.getBucket(key).isExists()) {
                     return
                             new ResponseData<Integer>(
                                     DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS,
                                     ErrorCode.PERSISTENCE_EXECUTE_FAILED
                             );
                 }
-                rbucket.set(valueString);
+                setValue(client, key, valueString);
             }
             result.setErrorCode(ErrorCode.SUCCESS);
             result.setResult(DataDriverConstant.REDISSON_EXECUTE_SUCESS_STATUS);
@@ -161,9 +404,9 @@ public class RedisExecutor {
                 return
                         new ResponseData<Integer>(null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
             }
-            RBucket<String> rbucket = client.getBucket(
+            RBucket<Object> rbucket = client.getBucket(
                     redisDomain.getTableDomain() + VALUE_SPLIT_CHAR + dataKey);
-            if (rbucket.get() == null) {
+            if (!rbucket.isExists()) {
                 result.setErrorCode(ErrorCode.SUCCESS);
                 result.setResult(DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS);
             } else {
@@ -190,12 +433,18 @@ public class RedisExecutor {
 
         ResponseData<Integer> result = new ResponseData<Integer>();
         List<DefaultValue> value = new ArrayList<>();
-        RBatch rbatch = client.createBatch();
         try {
             if (client == null) {
                 return
                         new ResponseData<Integer>(null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
             }
+            BatchOptions options = BatchOptions.defaults();
+            if (Boolean.parseBoolean(PropertyUtils.getProperty(
+                DataDriverConstant.REDIS_BATCH_SKIP_RESULT,
+                DataDriverConstant.REDIS_BATCH_SKIP_RESULT_DEFAULT_VALUE))) {
+                options.skipResult();
+            }
+            RBatch rbatch = client.createBatch(options);
             List<Object> values = dataList.get(dataList.size() - 1);
             int size = values.size();
             for (List<Object> list : dataList) {
@@ -218,9 +467,15 @@ public class RedisExecutor {
                 value.add(val);
             }
 
+            ValueCodec codec = ValueCodec.getInstance();
             for (DefaultValue val : value) {
-                rbatch.getBucket(redisDomain.getTableDomain() + VALUE_SPLIT_CHAR + val.getId())
-                        .setAsync(DataToolUtils.serialize(val));
+                String key = redisDomain.getTableDomain() + VALUE_SPLIT_CHAR + val.getId();
+                if (codec == null) {
+                    rbatch.getBucket(key).setAsync(DataToolUtils.serialize(val));
+                } else {
+                    rbatch.getBucket(key, ByteArrayCodec.INSTANCE)
+                        .setAsync(codec.encode(DataToolUtils.serialize(val)));
+                }
             }
             BatchResult<?> batchResult = rbatch.execute();
 
@@ -232,4 +487,807 @@ public class RedisExecutor {
         }
         return result;
     }
+
+    /**
+     * 按配置的ValueCodec写入数据, 未开启编码时使用客户端的codec.
+     */
+    private static void setValue(RedissonClient client, String key, String valueString) {
+        ValueCodec codec = ValueCodec.getInstance();
+        if (codec == null) {
+            client.getBucket(key).set(valueString);
+        } else {
+            client.getBucket(key, ByteArrayCodec.INSTANCE).set(codec.encode(valueString));
+        }
+    }
+
+    /**
+     * 解码读取的数据, 不是由ValueCodec编码的数据按客户端的codec解码.
+     */
+    private static String decodeValue(byte[] bytes, RedissonClient client) throws IOException {
+        if (bytes == null || ValueCodec.isEncoded(bytes)) {
+            return ValueCodec.decode(bytes);
+        }
+        ByteBuf buf = Unpooled.wrappedBuffer(bytes);
+        try {
+            return (String) client.getConfig().getCodec().getValueDecoder().decode(buf, null);
+        } finally {
+            buf.release();
+        }
+    }
+
+    /**
+     * 构建字段唯一索引描述.
+     *
+     * @param field 被索引的字段名
+     * @return 索引描述
+     */
+    public static String fieldIndex(String field) {
+        return INDEX_FIELD_PREFIX + field;
+    }
+
+    /**
+     * 构建字段非唯一索引描述, 多条记录可以有相同的字段值, 与数据库中的普通索引一致.
+     *
+     * @param field 被索引的字段名
+     * @return 索引描述
+     */
+    public static String fieldMultiIndex(String field) {
+        return INDEX_MULTI_PREFIX + field;
+    }
+
+    /**
+     * 构建成员集合描述, 用于按标记统计记录数量.
+     *
+     * @param setName 集合名称
+     * @param member true为加入集合, false为移出集合
+     * @return 集合描述
+     */
+    public static String memberSet(String setName, boolean member) {
+        return INDEX_SET_PREFIX + (member ? "+" : "-") + setName;
+    }
+
+    /**
+     * 按hash结构查询单条记录.
+     *
+     * @param id 记录id
+     * @param client redisson连接入口
+     * @return 返回字段名到字段值的映射, 记录不存在时结果为null
+     */
+    public ResponseData<Map<String, String>> executeHashQuery(String id, RedissonClient client) {
+
+        ResponseData<Map<String, String>> result = new ResponseData<Map<String, String>>();
+        try {
+            if (client == null) {
+                return new ResponseData<Map<String, String>>(
+                    null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            Map<String, byte[]> dataMap =
+                client.<String, byte[]>getMap(recordKey(id), HASH_CODEC).readAllMap();
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(decodeHash(dataMap));
+        } catch (Exception e) {
+            logger.error("Query hash from {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+        return result;
+    }
+
+    /**
+     * 异步按hash结构查询单条记录, 等待Redis返回期间不占用调用线程, 结果在redisson的线程上完成.
+     *
+     * @param id 记录id
+     * @param client redisson连接入口
+     * @return 返回字段名到字段值的映射, 记录不存在时结果为null
+     */
+    public CompletableFuture<ResponseData<Map<String, String>>> executeHashQueryAsync(
+        String id,
+        RedissonClient client) {
+
+        if (client == null) {
+            return CompletableFuture.completedFuture(new ResponseData<Map<String, String>>(
+                null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR));
+        }
+        try {
+            RMapAsync<String, byte[]> rmap = client.getMap(recordKey(id), HASH_CODEC);
+            return rmap.readAllMapAsync().toCompletableFuture().handle((dataMap, e) -> {
+                try {
+                    if (e == null) {
+                        return new ResponseData<Map<String, String>>(
+                            decodeHash(dataMap), ErrorCode.SUCCESS);
+                    }
+                    logger.error(
+                        "Query hash from {{}} with exception", redisDomain.getTableDomain(), e);
+                } catch (Exception ex) {
+                    logger.error(
+                        "Decode hash from {{}} with exception", redisDomain.getTableDomain(), ex);
+                }
+                return new ResponseData<Map<String, String>>(
+                    null, ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            });
+        } catch (Exception e) {
+            logger.error("Query hash from {{}} with exception", redisDomain.getTableDomain(), e);
+            return CompletableFuture.completedFuture(new ResponseData<Map<String, String>>(
+                null, ErrorCode.PERSISTENCE_EXECUTE_FAILED));
+        }
+    }
+
+    /**
+     * 通过pipeline批量查询hash结构的记录.
+     *
+     * @param ids 记录id
+     * @param client redisson连接入口
+     * @return 返回与ids顺序一致的记录, 不存在的记录为null
+     */
+    public ResponseData<List<Map<String, String>>> executeHashQueryBatch(
+        List<String> ids,
+        RedissonClient client) {
+
+        ResponseData<List<Map<String, String>>> result =
+            new ResponseData<List<Map<String, String>>>();
+        try {
+            if (client == null) {
+                return new ResponseData<List<Map<String, String>>>(
+                    null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            RBatch rbatch = client.createBatch();
+            for (String id : ids) {
+                rbatch.<String, byte[]>getMap(recordKey(id), HASH_CODEC).readAllMapAsync();
+            }
+            List<?> responses = rbatch.execute().getResponses();
+            List<Map<String, String>> dataList = new ArrayList<>(responses.size());
+            for (Object response : responses) {
+                @SuppressWarnings("unchecked")
+                Map<String, byte[]> dataMap = (Map<String, byte[]>) response;
+                dataList.add(decodeHash(dataMap));
+            }
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(dataList);
+        } catch (Exception e) {
+            logger.error("Query hashes from {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+        return result;
+    }
+
+    /**
+     * 通过唯一索引查询记录id.
+     *
+     * @param field 被索引的字段名
+     * @param value 字段值
+     * @param client redisson连接入口
+     * @return 返回记录id, 不存在时结果为null
+     */
+    public ResponseData<String> executeIndexQuery(
+        String field,
+        String value,
+        RedissonClient client) {
+
+        ResponseData<String> result = new ResponseData<String>();
+        try {
+            if (client == null) {
+                return new ResponseData<String>(null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            String id = client.<String, String>getMap(
+                indexKey(fieldIndex(field)), StringCodec.INSTANCE).get(value);
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(id);
+        } catch (Exception e) {
+            logger.error("Query index from {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+        return result;
+    }
+
+    /**
+     * 通过非唯一索引查询记录id, 有多条记录时返回id最小的一条.
+     *
+     * @param field 被索引的字段名
+     * @param value 字段值
+     * @param client redisson连接入口
+     * @return 返回记录id, 不存在时结果为null
+     */
+    public ResponseData<String> executeMultiIndexQuery(
+        String field,
+        String value,
+        RedissonClient client) {
+
+        ResponseData<String> result = new ResponseData<String>();
+        try {
+            if (client == null) {
+                return new ResponseData<String>(null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            String prefix = value + MULTI_INDEX_SPLIT_CHAR;
+            Collection<String> members = client.getLexSortedSet(indexKey(fieldMultiIndex(field)))
+                .range(prefix, true, value + (char) (MULTI_INDEX_SPLIT_CHAR + 1), false, 0, 1);
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(members.isEmpty()
+                ? null : members.iterator().next().substring(prefix.length()));
+        } catch (Exception e) {
+            logger.error("Query index from {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+        return result;
+    }
+
+    /**
+     * 按写入顺序分页查询记录id.
+     *
+     * @param start 起始位置
+     * @param count 查询个数
+     * @param client redisson连接入口
+     * @return 返回记录id列表
+     */
+    public ResponseData<List<String>> executeRangeQuery(
+        int start,
+        int count,
+        RedissonClient client) {
+
+        ResponseData<List<String>> result = new ResponseData<List<String>>();
+        try {
+            if (client == null) {
+                return new ResponseData<List<String>>(
+                    null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            List<String> dataList = new ArrayList<>();
+            if (count > 0) {
+                Collection<String> ids = client.<String>getScoredSortedSet(
+                    orderKey(), StringCodec.INSTANCE).valueRange(start, start + count - 1);
+                dataList.addAll(ids);
+            }
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(dataList);
+        } catch (Exception e) {
+            logger.error("Query range from {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+        return result;
+    }
+
+    /**
+     * 查询记录总数.
+     *
+     * @param client redisson连接入口
+     * @return 返回记录总数
+     */
+    public ResponseData<Integer> executeCount(RedissonClient client) {
+
+        ResponseData<Integer> result = new ResponseData<Integer>();
+        try {
+            if (client == null) {
+                return new ResponseData<Integer>(0, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(
+                client.<String>getScoredSortedSet(orderKey(), StringCodec.INSTANCE).size());
+        } catch (Exception e) {
+            logger.error("Count data from {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            result.setResult(0);
+        }
+        return result;
+    }
+
+    /**
+     * 查询成员集合中的记录数.
+     *
+     * @param setName 集合名称
+     * @param client redisson连接入口
+     * @return 返回集合大小
+     */
+    public ResponseData<Integer> executeMemberCount(String setName, RedissonClient client) {
+
+        ResponseData<Integer> result = new ResponseData<Integer>();
+        try {
+            if (client == null) {
+                return new ResponseData<Integer>(0, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(client.<String>getSet(
+                indexKey(memberSet(setName, true)), StringCodec.INSTANCE).size());
+        } catch (Exception e) {
+            logger.error("Count members from {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            result.setResult(0);
+        }
+        return result;
+    }
+
+    /**
+     * 新增hash记录, 记录已存在或唯一索引冲突时返回失败,
+     * 记录已存在时结果为{@link DataDriverConstant#DUPLICATE_KEY_STATUS}.
+     * 记录、有序集合与索引在同一个脚本中写入, 要么全部生效要么都不生效.
+     *
+     * @param client redisson连接入口
+     * @param id 记录id
+     * @param fields 记录字段, 值为null的字段不写入
+     * @param indexes 索引描述, 见{@link #fieldIndex}, {@link #fieldMultiIndex}与{@link #memberSet}
+     * @return 返回执行成功或失败
+     */
+    public ResponseData<Integer> executeHashInsert(
+        RedissonClient client,
+        String id,
+        Map<String, Object> fields,
+        String... indexes) {
+
+        ResponseData<Integer> result = new ResponseData<Integer>();
+        try {
+            if (client == null) {
+                return new ResponseData<Integer>(
+                    DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS,
+                    ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            List<Object> keys = new ArrayList<>();
+            keys.add(recordKey(id));
+            keys.add(orderKey());
+            keys.add(sequenceKey());
+            List<Object> args = new ArrayList<>();
+            args.add(bytes(id));
+            addRecordArgs(keys, args, toHashFields(fields), indexes);
+            Long rs = client.getScript(ByteArrayCodec.INSTANCE).eval(
+                recordKey(id),
+                RScript.Mode.READ_WRITE,
+                LUA_RECORD_INSERT,
+                RScript.ReturnType.INTEGER,
+                keys,
+                args.toArray());
+            if (rs == 0) {
+                // 记录已存在, 与数据库主键冲突的返回保持一致
+                return new ResponseData<Integer>(
+                    DataDriverConstant.DUPLICATE_KEY_STATUS,
+                    ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            }
+            if (rs != 1) {
+                return new ResponseData<Integer>(
+                    DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS,
+                    ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            }
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(rs.intValue());
+        } catch (Exception e) {
+            logger.error("Write hash into {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            result.setResult(DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS);
+        }
+        return result;
+    }
+
+    /**
+     * 更新hash记录, 记录不存在时返回0.
+     * 唯一索引检查、记录更新与索引维护在同一个脚本中执行.
+     *
+     * @param client redisson连接入口
+     * @param id 记录id
+     * @param fields 需要更新的字段, 值为null的字段保持不变
+     * @param indexes 索引描述, 见{@link #fieldIndex}, {@link #fieldMultiIndex}与{@link #memberSet}
+     * @return 返回受影响的记录数
+     */
+    public ResponseData<Integer> executeHashUpdate(
+        RedissonClient client,
+        String id,
+        Map<String, Object> fields,
+        String... indexes) {
+
+        ResponseData<Integer> result = new ResponseData<Integer>();
+        try {
+            if (client == null) {
+                return new ResponseData<Integer>(
+                    DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS,
+                    ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            List<Object> keys = new ArrayList<>();
+            keys.add(recordKey(id));
+            List<Object> args = new ArrayList<>();
+            args.add(bytes(id));
+            addRecordArgs(keys, args, toHashFields(fields), indexes);
+            Long rs = client.getScript(ByteArrayCodec.INSTANCE).eval(
+                recordKey(id),
+                RScript.Mode.READ_WRITE,
+                LUA_RECORD_UPDATE,
+                RScript.ReturnType.INTEGER,
+                keys,
+                args.toArray());
+            if (rs < 0) {
+                return new ResponseData<Integer>(
+                    DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS,
+                    ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            }
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(rs.intValue());
+        } catch (Exception e) {
+            logger.error("Write hash into {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            result.setResult(DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS);
+        }
+        return result;
+    }
+
+    /**
+     * 在一次脚本调用中检查并更新没有索引的hash记录, 避免先读后写期间记录被并发修改.
+     *
+     * @param client redisson连接入口
+     * @param id 记录id
+     * @param requiredField 必需字段, 记录不存在或该字段为空时不更新并返回0
+     * @param rejectField 拒绝字段
+     * @param rejectValue 拒绝字段等于该值时不更新并返回{@link #UPDATE_REJECTED}
+     * @param incrementField 更新时加1的字段, 为null时不递增
+     * @param fields 需要更新的字段, 值为null的字段保持不变
+     * @return 返回1为成功, 0为记录不存在, {@link #UPDATE_REJECTED}为被拒绝
+     */
+    public ResponseData<Integer> executeHashCheckedUpdate(
+        RedissonClient client,
+        String id,
+        String requiredField,
+        String rejectField,
+        String rejectValue,
+        String incrementField,
+        Map<String, Object> fields) {
+
+        ResponseData<Integer> result = new ResponseData<Integer>();
+        try {
+            if (client == null) {
+                return new ResponseData<Integer>(
+                    DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS,
+                    ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            List<Object> args = new ArrayList<>();
+            args.add(bytes(requiredField));
+            args.add(bytes(rejectField));
+            args.add(bytes(rejectValue));
+            args.add(bytes(incrementField == null ? "" : incrementField));
+            addHashFields(args, toHashFields(fields));
+            Long rs = client.getScript(ByteArrayCodec.INSTANCE).eval(
+                recordKey(id),
+                RScript.Mode.READ_WRITE,
+                LUA_RECORD_CHECKED_UPDATE,
+                RScript.ReturnType.INTEGER,
+                Collections.singletonList(recordKey(id)),
+                args.toArray());
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(rs.intValue());
+        } catch (Exception e) {
+            logger.error("Write hash into {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            result.setResult(DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS);
+        }
+        return result;
+    }
+
+    /**
+     * 在一次脚本调用中以分隔符将值追加到字段末尾, 并发追加互不覆盖.
+     * 字段值为{@link ValueCodec}编码格式时不能直接拼接, 返回{@link #UPDATE_REJECTED}.
+     *
+     * @param client redisson连接入口
+     * @param id 记录id
+     * @param separator 分隔符
+     * @param values 追加的字段值
+     * @param multiIndex 同时修改的非唯一索引描述, 见{@link #fieldMultiIndex}
+     * @param indexValue 索引字段的新值, 为空时不修改
+     * @return 返回1为成功, 0为记录不存在, {@link #UPDATE_REJECTED}为字段已编码
+     */
+    public ResponseData<Integer> executeHashAppend(
+        RedissonClient client,
+        String id,
+        String separator,
+        Map<String, Object> values,
+        String multiIndex,
+        String indexValue) {
+
+        ResponseData<Integer> result = new ResponseData<Integer>();
+        try {
+            if (client == null) {
+                return new ResponseData<Integer>(
+                    DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS,
+                    ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            List<Object> args = new ArrayList<>();
+            args.add(bytes(id));
+            args.add(bytes(separator));
+            args.add(bytes(multiIndex.substring(INDEX_MULTI_PREFIX.length())));
+            args.add(bytes(indexValue == null ? "" : indexValue));
+            addHashFields(args, toHashFields(values));
+            Long rs = client.getScript(ByteArrayCodec.INSTANCE).eval(
+                recordKey(id),
+                RScript.Mode.READ_WRITE,
+                LUA_RECORD_APPEND,
+                RScript.ReturnType.INTEGER,
+                Arrays.<Object>asList(recordKey(id), indexKey(multiIndex)),
+                args.toArray());
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(rs.intValue());
+        } catch (Exception e) {
+            logger.error("Write hash into {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            result.setResult(DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS);
+        }
+        return result;
+    }
+
+    /**
+     * 在一次脚本调用中修改按分隔符拼接的列表字段, 匹配字段中等于匹配值的每个位置,
+     * 其余列表字段的同一位置被改为新值.
+     *
+     * @param client redisson连接入口
+     * @param id 记录id
+     * @param separator 分隔符
+     * @param matchField 匹配字段
+     * @param matchValue 匹配值
+     * @param values 列表字段与新值
+     * @return 返回1为成功, 0为记录不存在
+     */
+    public ResponseData<Integer> executeHashListSet(
+        RedissonClient client,
+        String id,
+        String separator,
+        String matchField,
+        String matchValue,
+        Map<String, Object> values) {
+
+        ResponseData<Integer> result = new ResponseData<Integer>();
+        try {
+            if (client == null) {
+                return new ResponseData<Integer>(
+                    DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS,
+                    ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            List<Object> args = new ArrayList<>();
+            args.add(bytes(separator));
+            args.add(bytes(matchField));
+            args.add(bytes(matchValue));
+            addHashFields(args, toHashFields(values));
+            Long rs = client.getScript(ByteArrayCodec.INSTANCE).eval(
+                recordKey(id),
+                RScript.Mode.READ_WRITE,
+                LUA_RECORD_LIST_SET,
+                RScript.ReturnType.INTEGER,
+                Collections.singletonList(recordKey(id)),
+                args.toArray());
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(rs.intValue());
+        } catch (Exception e) {
+            logger.error("Write hash into {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            result.setResult(DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS);
+        }
+        return result;
+    }
+
+    /**
+     * 比较字段等于期望值时更新没有索引变化的hash记录.
+     *
+     * @param client redisson连接入口
+     * @param id 记录id
+     * @param compareField 比较字段
+     * @param expectedValue 期望值, 不相等时不更新并返回{@link #UPDATE_REJECTED}
+     * @param fields 需要更新的字段, 值为null的字段保持不变
+     * @return 返回1为成功, 0为记录不存在, {@link #UPDATE_REJECTED}为比较失败
+     */
+    public ResponseData<Integer> executeHashCompareAndSet(
+        RedissonClient client,
+        String id,
+        String compareField,
+        String expectedValue,
+        Map<String, Object> fields) {
+
+        ResponseData<Integer> result = new ResponseData<Integer>();
+        try {
+            if (client == null) {
+                return new ResponseData<Integer>(
+                    DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS,
+                    ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            List<Object> args = new ArrayList<>();
+            args.add(bytes(compareField));
+            args.add(bytes(expectedValue));
+            addHashFields(args, toHashFields(fields));
+            Long rs = client.getScript(ByteArrayCodec.INSTANCE).eval(
+                recordKey(id),
+                RScript.Mode.READ_WRITE,
+                LUA_RECORD_COMPARE_SET,
+                RScript.ReturnType.INTEGER,
+                Collections.singletonList(recordKey(id)),
+                args.toArray());
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(rs.intValue());
+        } catch (Exception e) {
+            logger.error("Write hash into {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            result.setResult(DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS);
+        }
+        return result;
+    }
+
+    /**
+     * 删除hash记录, 同时清理相关索引.
+     *
+     * @param client redisson连接入口
+     * @param id 记录id
+     * @param indexes 记录上的全部索引描述
+     * @return 返回受影响的记录数
+     */
+    public ResponseData<Integer> executeHashDelete(
+        RedissonClient client,
+        String id,
+        String... indexes) {
+
+        ResponseData<Integer> result = new ResponseData<Integer>();
+        try {
+            if (client == null) {
+                return new ResponseData<Integer>(
+                    DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS,
+                    ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            List<Object> keys = new ArrayList<>();
+            keys.add(recordKey(id));
+            keys.add(orderKey());
+            List<Object> args = new ArrayList<>();
+            args.add(bytes(id));
+            for (String index : indexes) {
+                keys.add(indexKey(index));
+                args.add(bytes(indexSpec(index)));
+            }
+            Long rs = client.getScript(ByteArrayCodec.INSTANCE).eval(
+                recordKey(id),
+                RScript.Mode.READ_WRITE,
+                LUA_RECORD_DELETE,
+                RScript.ReturnType.INTEGER,
+                keys,
+                args.toArray());
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(rs.intValue());
+        } catch (Exception e) {
+            logger.error("Delete hash from {{}} with exception", redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+            result.setResult(DataDriverConstant.REDISSON_EXECUTE_FAILED_STATUS);
+        }
+        return result;
+    }
+
+    /**
+     * 从命名序列中原子预留一段编号, 只需一次往返.
+     *
+     * @param client redisson连接入口
+     * @param name 序列名称
+     * @param initialValue 序列不存在时的第一个编号
+     * @param blockSize 预留个数
+     * @return 返回预留的第一个编号
+     */
+    public ResponseData<Long> executeSequenceReserve(
+        RedissonClient client,
+        String name,
+        long initialValue,
+        int blockSize) {
+
+        ResponseData<Long> result = new ResponseData<Long>();
+        try {
+            if (client == null) {
+                return new ResponseData<Long>(null, ErrorCode.PERSISTENCE_GET_CONNECTION_ERROR);
+            }
+            List<Object> keys = new ArrayList<>();
+            keys.add(counterKey(name));
+            Long next = client.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                LUA_SEQUENCE_RESERVE,
+                RScript.ReturnType.INTEGER,
+                keys,
+                String.valueOf(initialValue),
+                String.valueOf(blockSize));
+            result.setErrorCode(ErrorCode.SUCCESS);
+            result.setResult(next - blockSize);
+        } catch (Exception e) {
+            logger.error("Reserve sequence from {{}} with exception",
+                redisDomain.getTableDomain(), e);
+            result.setErrorCode(ErrorCode.PERSISTENCE_EXECUTE_FAILED);
+        }
+        return result;
+    }
+
+    /**
+     * 字段值统一按UTF-8字符串存储, 时间存为毫秒数, 与数据库查询结果的格式保持一致;
+     * byte[]为{@link ValueCodec#encodeColumn}编码后的字段值, 原样写入.
+     */
+    private static Map<String, byte[]> toHashFields(Map<String, Object> fields) {
+        Map<String, byte[]> pairs = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof byte[]) {
+                pairs.put(entry.getKey(), (byte[]) value);
+            } else if (value instanceof Date) {
+                pairs.put(entry.getKey(), bytes(String.valueOf(((Date) value).getTime())));
+            } else {
+                pairs.put(entry.getKey(), bytes(String.valueOf(value)));
+            }
+        }
+        return pairs;
+    }
+
+    private static void addHashFields(List<Object> args, Map<String, byte[]> pairs) {
+        for (Map.Entry<String, byte[]> entry : pairs.entrySet()) {
+            args.add(bytes(entry.getKey()));
+            args.add(entry.getValue());
+        }
+    }
+
+    /**
+     * 解码hash记录, 旧版本按StringCodec写入的字段值不含格式字节, 按UTF-8文本读取.
+     */
+    private static Map<String, String> decodeHash(Map<String, byte[]> dataMap) {
+        if (dataMap == null || dataMap.isEmpty()) {
+            return null;
+        }
+        Map<String, String> decoded = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> entry : dataMap.entrySet()) {
+            decoded.put(entry.getKey(), ValueCodec.decode(entry.getValue()));
+        }
+        return decoded;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 追加记录脚本的参数: 字段个数与字段键值对, 以及每个索引的key和描述.
+     */
+    private void addRecordArgs(
+        List<Object> keys,
+        List<Object> args,
+        Map<String, byte[]> pairs,
+        String... indexes) {
+
+        args.add(bytes(String.valueOf(pairs.size())));
+        addHashFields(args, pairs);
+        for (String index : indexes) {
+            keys.add(indexKey(index));
+            args.add(bytes(indexSpec(index)));
+        }
+    }
+
+    /**
+     * 脚本中的索引描述: 唯一索引与多值索引为前缀加字段名, 成员集合为"s:+"或"s:-".
+     */
+    private static String indexSpec(String index) {
+        if (index.startsWith(INDEX_SET_PREFIX)) {
+            return index.substring(0, INDEX_SET_PREFIX.length() + 1);
+        }
+        return index;
+    }
+
+    /**
+     * 表的全部key使用表名作为hash tag, 保证集群模式下记录与索引位于同一个slot, 由一个脚本原子写入.
+     */
+    private String tableKey() {
+        return "{" + redisDomain.getTableDomain() + "}";
+    }
+
+    private String recordKey(String id) {
+        return tableKey() + VALUE_SPLIT_CHAR + "data" + VALUE_SPLIT_CHAR + id;
+    }
+
+    private String orderKey() {
+        return tableKey() + VALUE_SPLIT_CHAR + "order";
+    }
+
+    private String sequenceKey() {
+        return tableKey() + VALUE_SPLIT_CHAR + "seq";
+    }
+
+    private String counterKey(String name) {
+        return tableKey() + VALUE_SPLIT_CHAR + "counter" + VALUE_SPLIT_CHAR + name;
+    }
+
+    private String indexKey(String index) {
+        if (index.startsWith(INDEX_SET_PREFIX)) {
+            return tableKey() + VALUE_SPLIT_CHAR + "set" + VALUE_SPLIT_CHAR
+                + index.substring(INDEX_SET_PREFIX.length() + 1);
+        }
+        if (index.startsWith(INDEX_MULTI_PREFIX)) {
+            return tableKey() + VALUE_SPLIT_CHAR + "mindex" + VALUE_SPLIT_CHAR
+                + index.substring(INDEX_MULTI_PREFIX.length());
+        }
+        return tableKey() + VALUE_SPLIT_CHAR + "index" + VALUE_SPLIT_CHAR
+            + index.substring(INDEX_FIELD_PREFIX.length());
+    }
 }
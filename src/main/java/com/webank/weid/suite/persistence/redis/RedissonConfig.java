@@ -1,5 +1,3 @@
-
-
 package com.webank.weid.suite.persistence.redis;
 
 import java.util.ArrayList;
@@ -9,27 +7,24 @@ import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.BaseConfig;
 import org.redisson.config.Config;
+import org.redisson.config.ReadMode;
+import org.redisson.config.SubscriptionMode;
 
 import com.webank.weid.constant.DataDriverConstant;
 import com.webank.weid.util.PropertyUtils;
 
 /**
  * redisson配置类.
+ * 每次调用都按当前配置创建新的客户端, redismodelRecognition返回所有RedisDriver共用的客户端.
  *
  * @author karenli 2020年7月3日
  */
 public class RedissonConfig {
 
-    private static final Config config = new Config();
-    //连接URL
-    private static final String redisUrl = PropertyUtils.getProperty(
-            DataDriverConstant.REDIS_URL);
-
-    private static final List<String> redisNodes = Arrays.asList(redisUrl.split(","));
-
-    private static final String password = PropertyUtils.getProperty(
-            DataDriverConstant.PASSWORD);
+    private static volatile RedissonClient sharedClient;
 
     /**
      * 单节点模式.
@@ -40,16 +35,13 @@ public class RedissonConfig {
 
         String redisPrefix = DataDriverConstant.REDIS_SINGLE;
         //数据库选择，默认为db0
-        String databaseKey = redisPrefix + DataDriverConstant.DATABASE;
-        String passwd = null;
-        if (StringUtils.isNoneBlank(password)) {
-            passwd = password;
-        }
-        int database = Integer.parseInt(PropertyUtils.getProperty(
-                databaseKey, DataDriverConstant.DATABASE_DEFAULT_VALUE));
-        config.useSingleServer().setAddress("redis://" + redisUrl)
-                .setPassword(passwd)
-                .setDatabase(database);
+        int database = Integer.parseInt(getProperty(
+                redisPrefix, DataDriverConstant.DATABASE,
+                DataDriverConstant.DATABASE_DEFAULT_VALUE));
+        Config config = newConfig();
+        tune(config.useSingleServer().setAddress("redis://" + getRedisNodes().get(0))
+                .setPassword(getPassword())
+                .setDatabase(database));
         RedissonClient client = Redisson.create(config);
         return client;
     }
@@ -64,81 +56,132 @@ public class RedissonConfig {
         //配置文件的前缀
         String redisPrefix = DataDriverConstant.REDIS_CLUSTER;
         //连接空闲超时时间
-        String idleConnectionTimeoutKey =
-                redisPrefix + DataDriverConstant.IDLE_CONNECTION_TIMEOUT;
-        int idleConnectionTimeout = Integer.parseInt(PropertyUtils.getProperty(
-                idleConnectionTimeoutKey,
+        int idleConnectionTimeout = Integer.parseInt(getProperty(
+                redisPrefix, DataDriverConstant.IDLE_CONNECTION_TIMEOUT,
                 DataDriverConstant.IDLE_CONNECTION_TIMEOUT_DEFAULT_VALUE));
         //连接超时时间
-        String connectTimeoutKey = redisPrefix + DataDriverConstant.CONNECT_TIMEOUT;
-        int connectTimeout = Integer.parseInt(PropertyUtils.getProperty(
-                connectTimeoutKey, DataDriverConstant.CONNECT_TIMEOUT_DEFAULT_VALUE));
+        int connectTimeout = Integer.parseInt(getProperty(
+                redisPrefix, DataDriverConstant.CONNECT_TIMEOUT,
+                DataDriverConstant.CONNECT_TIMEOUT_DEFAULT_VALUE));
         //等待节点回复命令的时间
-        String timeoutKey = redisPrefix + DataDriverConstant.TIMEOUT;
-        int timeout = Integer.parseInt(PropertyUtils.getProperty(
-                timeoutKey, DataDriverConstant.TIMEOUT_DEFAULT_VALUE));
+        int timeout = Integer.parseInt(getProperty(
+                redisPrefix, DataDriverConstant.TIMEOUT, DataDriverConstant.TIMEOUT_DEFAULT_VALUE));
         //从节点最小空闲连接数
-        String slaveConnMinIdleSizeKey =
-                redisPrefix + DataDriverConstant.SLAVE_CONNECTION_MINIMUM_IDLE_SIZE;
-        int slaveConnMinIdleSize = Integer.parseInt(PropertyUtils.getProperty(
-                slaveConnMinIdleSizeKey,
+        int slaveConnMinIdleSize = Integer.parseInt(getProperty(
+                redisPrefix, DataDriverConstant.SLAVE_CONNECTION_MINIMUM_IDLE_SIZE,
                 DataDriverConstant.SLAVE_CONNECTION_MINIMUM_IDLE_SIZE_DEFAULT_VALUE));
         //从节点连接池大小
-        String slaveConnPoolSizeKey =
-                redisPrefix + DataDriverConstant.SLAVE_CONNECTION_POOL_SIZE;
-        int slaveConnPoolSize = Integer.parseInt(PropertyUtils.getProperty(
-                slaveConnPoolSizeKey,
+        int slaveConnPoolSize = Integer.parseInt(getProperty(
+                redisPrefix, DataDriverConstant.SLAVE_CONNECTION_POOL_SIZE,
                 DataDriverConstant.SLAVE_CONNECTION_POOL_SIZE_DEFAULT_VALUE));
         //主节点最小空闲连接数
-        String masterConnMinIdleSizeKey =
-                redisPrefix + DataDriverConstant.MASTER_CONNECTION_MINIMUM_IDLE_SIZE;
-        int masterConnMinIdleSize = Integer.parseInt(PropertyUtils.getProperty(
-                masterConnMinIdleSizeKey,
+        int masterConnMinIdleSize = Integer.parseInt(getProperty(
+                redisPrefix, DataDriverConstant.MASTER_CONNECTION_MINIMUM_IDLE_SIZE,
                 DataDriverConstant.MASTER_CONNECTION_MINIMUM_IDLE_SIZE_DEFAULT_VALUE));
         //主节点连接池大小
-        String masterConnPoolSizeKey =
-                redisPrefix + DataDriverConstant.MASTER_CONNECTION_POOL_SIZE;
-        int masterConnPoolSize = Integer.parseInt(PropertyUtils.getProperty(
-                masterConnPoolSizeKey,
+        int masterConnPoolSize = Integer.parseInt(getProperty(
+                redisPrefix, DataDriverConstant.MASTER_CONNECTION_POOL_SIZE,
                 DataDriverConstant.MASTER_CONNECTION_POOL_SIZE_DEFAULT_VALUE));
+        //读操作使用的节点, 以及订阅使用的节点
+        ReadMode readMode = ReadMode.valueOf(getProperty(
+                redisPrefix, DataDriverConstant.READ_MODE,
+                DataDriverConstant.READ_MODE_DEFAULT_VALUE).trim().toUpperCase());
+        SubscriptionMode subscriptionMode = SubscriptionMode.valueOf(getProperty(
+                redisPrefix, DataDriverConstant.SUBSCRIPTION_MODE,
+                DataDriverConstant.SUBSCRIPTION_MODE_DEFAULT_VALUE).trim().toUpperCase());
 
         //Url添加redis://前缀
+        List<String> redisNodes = getRedisNodes();
         List<String> clusterNodes = new ArrayList<>();
         for (int i = 0; i < redisNodes.size(); i++) {
             clusterNodes.add("redis://" + redisNodes.get(i));
         }
-        //读取配置文件中的password，默认为null
-        String passwd = null;
-        if (StringUtils.isNoneBlank(password)) {
-            passwd = password;
-        }
 
-        config.useClusterServers().addNodeAddress(clusterNodes.toArray(
+        Config config = newConfig();
+        tune(config.useClusterServers().addNodeAddress(clusterNodes.toArray(
                 new String[clusterNodes.size()]))
-                .setPassword(passwd)
+                .setPassword(getPassword())
                 .setIdleConnectionTimeout(idleConnectionTimeout)
                 .setConnectTimeout(connectTimeout)
                 .setTimeout(timeout)
                 .setSlaveConnectionMinimumIdleSize(slaveConnMinIdleSize)
                 .setSlaveConnectionPoolSize(slaveConnPoolSize)
                 .setMasterConnectionMinimumIdleSize(masterConnMinIdleSize)
-                .setMasterConnectionPoolSize(masterConnPoolSize);
+                .setMasterConnectionPoolSize(masterConnPoolSize)
+                .setReadMode(readMode)
+                .setSubscriptionMode(subscriptionMode));
 
         RedissonClient redisson = Redisson.create(config);
         return redisson;
     }
 
     /**
-     * 判断redis配置为单节点模式还是集群模式.
+     * 判断redis配置为单节点模式还是集群模式, 返回共用的客户端, 首次调用时创建.
      *
      * @return 返回集群模式/单节点模式的redissonclient.
      */
     public RedissonClient redismodelRecognition() {
 
-        if (redisNodes.size() > 1) {
-            return redissonClusterClient();
-        } else {
-            return redissonSingleClient();
+        if (sharedClient == null) {
+            synchronized (RedissonConfig.class) {
+                if (sharedClient == null) {
+                    if (getRedisNodes().size() > 1) {
+                        sharedClient = redissonClusterClient();
+                    } else {
+                        sharedClient = redissonSingleClient();
+                    }
+                }
+            }
         }
+        return sharedClient;
+    }
+
+    /**
+     * 创建客户端公共配置: codec与线程数.
+     */
+    private static Config newConfig() {
+        Config config = new Config();
+        String codec = PropertyUtils.getProperty(
+                DataDriverConstant.REDIS_CODEC,
+                DataDriverConstant.REDIS_CODEC_DEFAULT_VALUE).trim();
+        if (DataDriverConstant.REDIS_CODEC_STRING.equalsIgnoreCase(codec)) {
+            config.setCodec(StringCodec.INSTANCE);
+        }
+        config.setThreads(Integer.parseInt(PropertyUtils.getProperty(
+                DataDriverConstant.REDIS_THREADS, DataDriverConstant.REDIS_THREADS_DEFAULT_VALUE)));
+        config.setNettyThreads(Integer.parseInt(PropertyUtils.getProperty(
+                DataDriverConstant.REDIS_NETTY_THREADS,
+                DataDriverConstant.REDIS_NETTY_THREADS_DEFAULT_VALUE)));
+        return config;
+    }
+
+    /**
+     * 设置单节点与集群共用的TCP选项.
+     */
+    private static void tune(BaseConfig<?> serverConfig) {
+        serverConfig.setTcpNoDelay(Boolean.parseBoolean(PropertyUtils.getProperty(
+                DataDriverConstant.REDIS_TCP_NO_DELAY,
+                DataDriverConstant.REDIS_TCP_NO_DELAY_DEFAULT_VALUE)))
+            .setKeepAlive(Boolean.parseBoolean(PropertyUtils.getProperty(
+                DataDriverConstant.REDIS_KEEP_ALIVE,
+                DataDriverConstant.REDIS_KEEP_ALIVE_DEFAULT_VALUE)));
+    }
+
+    private static String getProperty(String redisPrefix, String key, String defaultValue) {
+        return PropertyUtils.getProperty(redisPrefix + "." + key, defaultValue);
+    }
+
+    private static List<String> getRedisNodes() {
+        //连接URL
+        String redisUrl = PropertyUtils.getProperty(DataDriverConstant.REDIS_URL);
+        return Arrays.asList(redisUrl.split(","));
+    }
+
+    /**
+     * 读取配置文件中的password，默认为null.
+     */
+    private static String getPassword() {
+        String password = PropertyUtils.getProperty(DataDriverConstant.PASSWORD);
+        return StringUtils.isNoneBlank(password) ? password : null;
     }
 }
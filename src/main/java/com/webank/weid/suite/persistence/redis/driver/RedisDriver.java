@@ -7,6 +7,7 @@ import com.webank.weid.blockchain.protocol.base.WeIdDocument;
 import com.webank.weid.blockchain.protocol.base.WeIdDocumentMetadata;
 import com.webank.weid.constant.DataDriverConstant;
 import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.exception.DatabaseException;
 import com.webank.weid.exception.WeIdBaseException;
 import com.webank.weid.protocol.request.TransactionArgs;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
@@ -15,19 +16,27 @@ import com.webank.weid.suite.persistence.redis.RedisDomain;
 import com.webank.weid.suite.persistence.redis.RedisExecutor;
 import com.webank.weid.suite.persistence.redis.RedissonConfig;
 import com.webank.weid.util.DataToolUtils;
+import com.webank.weid.util.PropertyUtils;
+import com.webank.weid.util.WeIdUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.redisson.api.RedissonClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * redis Driver.
  *
  * @author karenli
  */
-public class RedisDriver implements Persistence {
+public class RedisDriver implements AsyncPersistence {
 
     private static final Logger logger = LoggerFactory.getLogger(RedisDriver.class);
 
@@ -35,10 +44,42 @@ public class RedisDriver implements Persistence {
 
     private static final ErrorCode KEY_INVALID = ErrorCode.PRESISTENCE_DATA_KEY_INVALID;
 
+    private static final int CPT_DEFAULT_VERSION = 1;
+
+    private static final String INDEX_NAME = RedisExecutor.fieldIndex("name");
+
+    private static final String INDEX_EXTRA_KEY = RedisExecutor.fieldMultiIndex("extra_key");
+
+    private static final String SET_RECOGNIZED = "recognized";
+
+    private static volatile boolean isinit = false;
+
+    /**
+     * 初始化时需要访问Redis, 使用ReentrantLock避免虚拟线程被固定在平台线程上.
+     */
+    private static final ReentrantLock INIT_LOCK = new ReentrantLock();
+
     RedissonConfig redissonConfig = new RedissonConfig();
 
     RedissonClient client = redissonConfig.redismodelRecognition();
 
+    /**
+     * the Constructor and init the admin role of local deployment.
+     */
+    public RedisDriver() {
+        if (!isinit) {
+            INIT_LOCK.lock();
+            try {
+                if (!isinit) {
+                    initAdminRole();
+                    isinit = true;
+                }
+            } finally {
+                INIT_LOCK.unlock();
+            }
+        }
+    }
+
     @Override
     public ResponseData<Integer> add(String domain, String id, String data) {
 
@@ -141,8 +182,6 @@ public class RedisDriver implements Persistence {
                 }
             }
             result.setErrorCode(ErrorCode.getTypeByErrorCode(response.getErrorCode()));
-            System.out.println("result=" + result.getResult());
-            System.out.println(result.getResult() == null);
             return result;
         } catch (WeIdBaseException e) {
             logger.error("[redis->get] get the data error.", e);
@@ -226,207 +265,1228 @@ public class RedisDriver implements Persistence {
         }
     }
 
+    /**
+     * 初始化本地部署模式下的管理员权限.
+     */
+    private void initAdminRole() {
+        String type = PropertyUtils.getProperty("deploy.style");
+        if (!"database".equals(type)) {
+            return;
+        }
+        String privateKey = getAddressFromFile("private_key");
+        if (StringUtils.isBlank(privateKey)) {
+            logger.error("[initAdminRole] the private_key file is empty, skip admin role.");
+            return;
+        }
+        String weId = WeIdUtils.getWeIdFromPrivateKey(privateKey);
+        RoleValue result = getRole(DataDriverConstant.LOCAL_ROLE, weId).getResult();
+        if (result == null) {
+            ResponseData<Integer> resp = addRole(DataDriverConstant.LOCAL_ROLE, weId, 7);
+            if (resp.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                logger.error("[initAdminRole] save admin role to redis failed.");
+                throw new DatabaseException("database error!");
+            }
+        }
+    }
+
+    private static String getAddressFromFile(String fileName) {
+
+        File file = new File(fileName);
+        if (!file.exists()) {
+            logger.error("getAddressFromFile() the {} does not exists.", fileName);
+            return StringUtils.EMPTY;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            return lines.isEmpty() ? StringUtils.EMPTY : lines.get(0);
+        } catch (IOException e) {
+            logger.error("read file exception", e);
+            return StringUtils.EMPTY;
+        }
+    }
+
     /*
-    以下方法暂不需要，本地部署不需要使用redis方式，默认使用Mysql
+    以下为本地部署模式使用的方法, 每条记录存为一个hash, 主键之外的查询条件通过索引hash实现,
+    分页与计数通过按写入顺序维护的有序集合实现, 新增与更新通过lua脚本保证原子性.
+     */
+
+    private static Map<String, Object> fields(Object... keyValues) {
+        Map<String, Object> fieldMap = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            fieldMap.put(String.valueOf(keyValues[i]), keyValues[i + 1]);
+        }
+        return fieldMap;
+    }
+
+    private static <T> T toValue(Map<String, String> dataMap, Class<T> clazz) {
+        return DataToolUtils.deserialize(DataToolUtils.serialize(dataMap), clazz);
+    }
+
+    private static Object[] roleFields(Date now, Integer roleValue) {
+        return new Object[]{
+            "updated", now,
+            "authority_role", roleValue & 1,
+            "committee_role", (roleValue >> 1) & 1,
+            "admin_role", (roleValue >> 2) & 1
+        };
+    }
+
+    @Override
+    public ResponseData<Integer> addWeId(String domain, String weId, String documentSchema) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->addWeId] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            Date now = redisDomain.getNow();
+            return new RedisExecutor(redisDomain).executeHashInsert(client, weId, fields(
+                "weid", weId,
+                "created", now,
+                "updated", now,
+                "version", 1,
+                "deactivated", 0,
+                "document_schema", ValueCodec.encodeColumn(documentSchema)));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->addWeId] addWeId error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> updateWeId(String domain, String weId, String documentSchema) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->updateWeId] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            // 注销检查, 版本递增与文档更新在同一个脚本中完成
+            ResponseData<Integer> response = new RedisExecutor(redisDomain)
+                .executeHashCheckedUpdate(client, weId, "document_schema", "deactivated", "1",
+                    "version", fields(
+                        "updated", new Date(),
+                        "document_schema", ValueCodec.encodeColumn(documentSchema)));
+            return toWeIdUpdateResult(response, "updateWeId");
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->updateWeId] update the weid error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<WeIdDocument> getWeIdDocument(String domain, String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->getWeIdDocument] the weId is empty.");
+            return new ResponseData<>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return toWeIdDocument(new RedisExecutor(redisDomain).executeHashQuery(weId, client));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getWeIdDocument] get the weIdDocument error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<WeIdDocument>> getWeIdDocumentAsync(
+        String domain,
+        String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->getWeIdDocumentAsync] the weId is empty.");
+            return CompletableFuture.completedFuture(new ResponseData<>(null, KEY_INVALID));
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashQueryAsync(weId, client)
+                .thenApply(this::toWeIdDocument);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getWeIdDocumentAsync] get the weIdDocument error.", e);
+            return CompletableFuture.completedFuture(new ResponseData<>(null, e.getErrorCode()));
+        }
+    }
+
+    @Override
+    public ResponseData<WeIdDocumentMetadata> getMeta(String domain, String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->getMeta] the weId is empty.");
+            return new ResponseData<>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return toMeta(new RedisExecutor(redisDomain).executeHashQuery(weId, client));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getMeta] getMeta error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseData<WeIdDocumentMetadata>> getMetaAsync(
+        String domain,
+        String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->getMetaAsync] the weId is empty.");
+            return CompletableFuture.completedFuture(new ResponseData<>(null, KEY_INVALID));
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashQueryAsync(weId, client)
+                .thenApply(this::toMeta);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getMetaAsync] getMeta error.", e);
+            return CompletableFuture.completedFuture(new ResponseData<>(null, e.getErrorCode()));
+        }
+    }
+
+    private ResponseData<WeIdDocument> toWeIdDocument(ResponseData<Map<String, String>> response) {
+        try {
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                WeIdDocumentValue tableData = toValue(response.getResult(), WeIdDocumentValue.class);
+                if (StringUtils.isNotBlank(tableData.getDocument_schema())) {
+                    return new ResponseData<>(
+                        WeIdDocument.fromJson(tableData.getDocument_schema()), ErrorCode.SUCCESS);
+                }
+            }
+            return new ResponseData<>(null, ErrorCode.WEID_DOES_NOT_EXIST);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getWeIdDocument] get the weIdDocument error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
+    private ResponseData<WeIdDocumentMetadata> toMeta(ResponseData<Map<String, String>> response) {
+        try {
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                WeIdDocumentValue tableData = toValue(response.getResult(), WeIdDocumentValue.class);
+                if (StringUtils.isNotBlank(tableData.getDocument_schema())) {
+                    WeIdDocumentMetadata weIdDocumentMetadata = new WeIdDocumentMetadata();
+                    weIdDocumentMetadata.setCreated(tableData.getCreated().getTime());
+                    weIdDocumentMetadata.setUpdated(tableData.getUpdated().getTime());
+                    weIdDocumentMetadata.setVersionId(tableData.getVersion());
+                    weIdDocumentMetadata.setDeactivated(tableData.getDeactivated() == 1);
+                    return new ResponseData<>(weIdDocumentMetadata, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null, ErrorCode.WEID_DOES_NOT_EXIST);
+            }
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null, ErrorCode.WEID_DOES_NOT_EXIST);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getMeta] getMeta error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
+    }
+
+    @Override
+    public ResponseData<Integer> deactivateWeId(String domain, String weId, Boolean state) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->deactivateWeId] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<Integer> response = new RedisExecutor(redisDomain)
+                .executeHashCheckedUpdate(client, weId, "document_schema", "deactivated", "1",
+                    null, fields(
+                        "updated", new Date(),
+                        "deactivated", state ? 1 : 0));
+            return toWeIdUpdateResult(response, "deactivateWeId");
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->deactivateWeId] deactivate the weId error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
+    }
+
+    /**
+     * 将WeID条件更新的结果转换为与数据库一致的返回, 已注销时返回WEID_HAS_BEEN_DEACTIVATED.
      */
+    private static ResponseData<Integer> toWeIdUpdateResult(
+        ResponseData<Integer> response,
+        String method) {
+
+        if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+            return new ResponseData<>(FAILED_STATUS,
+                ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        }
+        if (response.getResult() == RedisExecutor.UPDATE_REJECTED) {
+            logger.error("[redis->{}] the weid is deactivated.", method);
+            return new ResponseData<>(FAILED_STATUS, ErrorCode.WEID_HAS_BEEN_DEACTIVATED);
+        }
+        if (response.getResult() == 0) {
+            return new ResponseData<>(FAILED_STATUS, ErrorCode.SUCCESS);
+        }
+        return response;
+    }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> addWeId(String domain, String weId, String documentSchema) {
-        return null;
+    public ResponseData<List<String>> getWeIdList(String domain, Integer first, Integer last) {
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<List<String>> response = new RedisExecutor(redisDomain)
+                .executeRangeQuery(first, last - first + 1, client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                return new ResponseData<>(response.getResult(), ErrorCode.SUCCESS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getWeIdList] get the data error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> updateWeId(String domain, String weId, String documentSchema) {
-        return null;
+    public ResponseData<Integer> getWeIdCount(String domain) {
+        return getCount(domain, "getWeIdCount");
+    }
+
+    private ResponseData<Integer> getCount(String domain, String method) {
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<Integer> response = new RedisExecutor(redisDomain).executeCount(client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                return new ResponseData<>(response.getResult(), ErrorCode.SUCCESS);
+            }
+            return new ResponseData<>(0, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->{}] get the count error.", method, e);
+            return new ResponseData<>(0, e.getErrorCode());
+        }
+    }
+
+    private ResponseData<List<Integer>> getIdList(
+        String domain,
+        Integer first,
+        Integer last,
+        String method) {
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<List<String>> response = new RedisExecutor(redisDomain)
+                .executeRangeQuery(first, last - first, client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                List<Integer> idList = new ArrayList<>();
+                for (String id : response.getResult()) {
+                    idList.add(Integer.valueOf(id));
+                }
+                return new ResponseData<>(idList, ErrorCode.SUCCESS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->{}] get the id list error.", method, e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<WeIdDocument> getWeIdDocument(String domain, String weId) {
-        return null;
+    public ResponseData<CptValue> getCpt(String domain, int cptId) {
+
+        if (cptId <= 0) {
+            logger.error("[redis->getCpt] the cptId is invalid.");
+            return new ResponseData<CptValue>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<Map<String, String>> response = new RedisExecutor(redisDomain)
+                .executeHashQuery(String.valueOf(cptId), client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                CptValue tableData = toValue(response.getResult(), CptValue.class);
+                if (StringUtils.isNotBlank(tableData.getCpt_schema())) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null, ErrorCode.CPT_NOT_EXISTS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getCpt] getCpt error.", e);
+            return new ResponseData<CptValue>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<WeIdDocumentMetadata> getMeta(String domain, String weId) {
-        return null;
+    public ResponseData<CptBaseInfo> addCpt(
+        String domain,
+        int cptId,
+        String publisher,
+        String description,
+        String cptSchema,
+        String cptSignature) {
+
+        if (cptId <= 0) {
+            logger.error("[redis->addCpt] the cptId is invalid.");
+            return new ResponseData<CptBaseInfo>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            Date now = redisDomain.getNow();
+            ResponseData<Integer> result = new RedisExecutor(redisDomain).executeHashInsert(
+                client, String.valueOf(cptId), fields(
+                    "cpt_id", cptId,
+                    "created", now,
+                    "updated", now,
+                    "cpt_version", CPT_DEFAULT_VERSION,
+                    "publisher", publisher,
+                    "description", description,
+                    "cpt_schema", ValueCodec.encodeColumn(cptSchema),
+                    "cpt_signature", cptSignature));
+            if (result.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                logger.error("[addCpt] add Cpt to redis failed.");
+                throw new DatabaseException("database error!");
+            }
+            CptBaseInfo cptBaseInfo = new CptBaseInfo();
+            cptBaseInfo.setCptId(cptId);
+            cptBaseInfo.setCptVersion(CPT_DEFAULT_VERSION);
+            return new ResponseData<>(cptBaseInfo, ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->addCpt] addCpt error.", e);
+            return new ResponseData<CptBaseInfo>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> deactivateWeId(String domain, String weId, Boolean state) {
-        return null;
+    public ResponseData<PolicyValue> getPolicy(String domain, int policyId) {
+
+        if (policyId <= 0) {
+            logger.error("[redis->getPolicy] the policyId is invalid.");
+            return new ResponseData<PolicyValue>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<Map<String, String>> response = new RedisExecutor(redisDomain)
+                .executeHashQuery(String.valueOf(policyId), client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                PolicyValue tableData = toValue(response.getResult(), PolicyValue.class);
+                if (StringUtils.isNotBlank(tableData.getPolicy_schema())) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null, ErrorCode.CPT_NOT_EXISTS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getPolicy] getPolicy error.", e);
+            return new ResponseData<PolicyValue>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<List<String>> getWeIdList(String domain, Integer first, Integer last) {
-        return null;
+    public ResponseData<Integer> addPolicy(
+        String domain,
+        int policyId,
+        String publisher,
+        String description,
+        String cptSchema,
+        String cptSignature) {
+
+        if (policyId <= 0) {
+            logger.error("[redis->addPolicy] the policyId is invalid.");
+            return new ResponseData<Integer>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            Date now = redisDomain.getNow();
+            ResponseData<Integer> result = new RedisExecutor(redisDomain).executeHashInsert(
+                client, String.valueOf(policyId), fields(
+                    "policy_id", policyId,
+                    "created", now,
+                    "updated", now,
+                    "policy_version", CPT_DEFAULT_VERSION,
+                    "publisher", publisher,
+                    "description", description,
+                    "policy_schema", ValueCodec.encodeColumn(cptSchema),
+                    "policy_signature", cptSignature));
+            if (result.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                logger.error("[addPolicy] add policy to redis failed.");
+                throw new DatabaseException("database error!");
+            }
+            return new ResponseData<>(result.getResult(), ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->addPolicy] addPolicy error.", e);
+            return new ResponseData<Integer>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> getWeIdCount(String domain) {
-        return null;
+    public ResponseData<Long> reserveSequence(
+        String domain,
+        String name,
+        long initialValue,
+        int blockSize) {
+
+        if (StringUtils.isEmpty(name) || blockSize <= 0) {
+            logger.error("[redis->reserveSequence] the name or blockSize is invalid.");
+            return new ResponseData<Long>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain)
+                .executeSequenceReserve(client, name, initialValue, blockSize);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->reserveSequence] reserveSequence error.", e);
+            return new ResponseData<Long>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<CptValue> getCpt(String domain, int cptId) {
-        return null;
+    public ResponseData<PresentationValue> getPresentation(String domain, int presentationId) {
+
+        if (presentationId <= 0) {
+            logger.error("[redis->getPresentation] the presentationId is invalid.");
+            return new ResponseData<PresentationValue>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<Map<String, String>> response = new RedisExecutor(redisDomain)
+                .executeHashQuery(String.valueOf(presentationId), client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                PresentationValue tableData =
+                    toValue(response.getResult(), PresentationValue.class);
+                if (StringUtils.isNotBlank(tableData.getClaim_policies())) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null, ErrorCode.PRESENTATION_POLICY_INVALID);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getPresentation] getPresentation error.", e);
+            return new ResponseData<PresentationValue>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<CptBaseInfo> addCpt(String domain, int cptId, String publisher, String description, String cptSchema, String cptSignature) {
-        return null;
+    public ResponseData<Integer> addPresentation(
+        String domain,
+        int presentationId,
+        String creator,
+        String policies) {
+
+        if (presentationId <= 0) {
+            logger.error("[redis->addPresentation] the presentationId is invalid.");
+            return new ResponseData<Integer>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<Integer> result = new RedisExecutor(redisDomain).executeHashInsert(
+                client, String.valueOf(presentationId), fields(
+                    "presentation_id", presentationId,
+                    "creator", creator,
+                    "claim_policies", policies));
+            if (result.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                logger.error("[addPresentation] add presentation to redis failed.");
+                throw new DatabaseException("database error!");
+            }
+            return new ResponseData<>(result.getResult(), ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->addPresentation] addPresentation error.", e);
+            return new ResponseData<Integer>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<PolicyValue> getPolicy(String domain, int policyId) {
-        return null;
+    public ResponseData<Integer> updateCpt(
+        String domain,
+        int cptId,
+        int cptVersion,
+        String publisher,
+        String description,
+        String cptSchema,
+        String cptSignature) {
+
+        if (cptId <= 0) {
+            logger.error("[redis->updateCpt] the cptId is invalid.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashUpdate(
+                client, String.valueOf(cptId), fields(
+                    "updated", redisDomain.getNow(),
+                    "cpt_version", cptVersion,
+                    "publisher", publisher,
+                    "description", description,
+                    "cpt_schema", ValueCodec.encodeColumn(cptSchema),
+                    "cpt_signature", cptSignature));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->updateCpt] updateCpt error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> addPolicy(String domain, int policyId, String publisher, String description, String cptSchema, String cptSignature) {
-        return null;
+    public ResponseData<Integer> updateCredentialTemplate(
+        String domain,
+        int cptId,
+        String credentialPublicKey,
+        String credentialProof) {
+
+        if (cptId <= 0) {
+            logger.error("[redis->updateCredentialTemplate] the cptId is invalid.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashUpdate(
+                client, String.valueOf(cptId), fields(
+                    "credential_publicKey", credentialPublicKey,
+                    "credential_proof", credentialProof));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->updateCredentialTemplate] updateCredentialTemplate error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<PresentationValue> getPresentation(String domain, int presentationId) {
-        return null;
+    public ResponseData<Integer> updateCptClaimPolicies(String domain, int cptId, String policies) {
+
+        if (cptId <= 0) {
+            logger.error("[redis->updateCptClaimPolicies] the cptId is invalid.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashUpdate(
+                client, String.valueOf(cptId), fields("claim_policies", policies));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->updateCptClaimPolicies] updateCptClaimPolicies error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> addPresentation(String domain, int presentationId, String creator, String policies) {
-        return null;
+    public ResponseData<List<Integer>> getCptIdList(String domain, Integer first, Integer last) {
+        return getIdList(domain, first, last, "getCptIdList");
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> updateCpt(String domain, int cptId, int cptVersion, String publisher, String description, String cptSchema, String cptSignature) {
-        return null;
+    public ResponseData<Integer> getCptCount(String domain) {
+        return getCount(domain, "getCptCount");
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> updateCredentialTemplate(String domain, int cptId, String credentialPublicKey, String credentialProof) {
-        return null;
+    public ResponseData<List<Integer>> getPolicyIdList(String domain, Integer first, Integer last) {
+        return getIdList(domain, first, last, "getPolicyIdList");
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> updateCptClaimPolicies(String domain, int cptId, String policies) {
-        return null;
+    public ResponseData<Integer> getPolicyCount(String domain) {
+        return getCount(domain, "getPolicyCount");
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<List<Integer>> getCptIdList(String domain, Integer first, Integer last) {
-        return null;
+    public ResponseData<Integer> addAuthorityIssuer(
+        String domain,
+        String weId,
+        String name,
+        String desc,
+        String accValue,
+        String extraStr,
+        String extraInt) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->addAuthorityIssuer] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            Date now = redisDomain.getNow();
+            return new RedisExecutor(redisDomain).executeHashInsert(client, weId, fields(
+                "weid", weId,
+                "name", name,
+                "description", desc,
+                "created", now,
+                "updated", now,
+                "recognize", 0,
+                "acc_value", accValue,
+                "extra_str", extraStr,
+                "extra_int", extraInt),
+                INDEX_NAME);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->addAuthorityIssuer] addAuthorityIssuer error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> getCptCount(String domain) {
-        return null;
+    public ResponseData<Integer> removeAuthorityIssuer(String domain, String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->removeAuthorityIssuer] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashDelete(
+                client, weId, INDEX_NAME, RedisExecutor.memberSet(SET_RECOGNIZED, false));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->removeAuthorityIssuer] removeAuthorityIssuer error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<List<Integer>> getPolicyIdList(String domain, Integer first, Integer last) {
-        return null;
+    public ResponseData<AuthorityIssuerInfo> getAuthorityIssuerByWeId(String domain, String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->getAuthorityIssuerByWeId] the weId is empty.");
+            return new ResponseData<AuthorityIssuerInfo>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<Map<String, String>> response =
+                new RedisExecutor(redisDomain).executeHashQuery(weId, client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                AuthorityIssuerInfo tableData =
+                    toValue(response.getResult(), AuthorityIssuerInfo.class);
+                if (StringUtils.isNotBlank(tableData.getName())) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null,
+                    ErrorCode.AUTHORITY_ISSUER_CONTRACT_ERROR_NOT_EXISTS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getAuthorityIssuerByWeId] getAuthorityIssuerByWeId error.", e);
+            return new ResponseData<AuthorityIssuerInfo>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> getPolicyCount(String domain) {
-        return null;
+    public ResponseData<List<AuthorityIssuerInfo>> getAuthorityIssuersByWeIds(
+        String domain,
+        List<String> weIds) {
+
+        if (weIds == null || weIds.isEmpty()) {
+            return new ResponseData<>(new ArrayList<>(), ErrorCode.SUCCESS);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<List<Map<String, String>>> response =
+                new RedisExecutor(redisDomain).executeHashQueryBatch(weIds, client);
+            if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null,
+                    ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+            }
+            List<AuthorityIssuerInfo> result = new ArrayList<>();
+            for (Map<String, String> row : response.getResult()) {
+                if (row == null) {
+                    continue;
+                }
+                AuthorityIssuerInfo tableData = toValue(row, AuthorityIssuerInfo.class);
+                if (StringUtils.isNotBlank(tableData.getName())) {
+                    result.add(tableData);
+                }
+            }
+            return new ResponseData<>(result, ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getAuthorityIssuersByWeIds] getAuthorityIssuersByWeIds error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> addAuthorityIssuer(String domain, String weId, String name, String desc, String accValue, String extraStr, String extraInt) {
-        return null;
+    public ResponseData<AuthorityIssuerInfo> getAuthorityIssuerByName(String domain, String name) {
+
+        if (StringUtils.isEmpty(name)) {
+            logger.error("[redis->getAuthorityIssuerByName] the name is empty.");
+            return new ResponseData<AuthorityIssuerInfo>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<String> index =
+                new RedisExecutor(redisDomain).executeIndexQuery("name", name, client);
+            if (index.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(index.getErrorCode()));
+            }
+            if (StringUtils.isBlank(index.getResult())) {
+                return new ResponseData<>(null, ErrorCode.SUCCESS);
+            }
+            return getAuthorityIssuerByWeId(domain, index.getResult());
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getAuthorityIssuerByName] getAuthorityIssuerByName error.", e);
+            return new ResponseData<AuthorityIssuerInfo>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> removeAuthorityIssuer(String domain, String weId) {
-        return null;
+    public ResponseData<Integer> updateAuthorityIssuer(
+        String domain,
+        String weId,
+        Integer recognize) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->updateAuthorityIssuer] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashUpdate(client, weId, fields(
+                "updated", redisDomain.getNow(),
+                "recognize", recognize),
+                RedisExecutor.memberSet(SET_RECOGNIZED, recognize != null && recognize == 1));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->updateAuthorityIssuer] update the AuthorityIssuer error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<AuthorityIssuerInfo> getAuthorityIssuerByWeId(String domain, String weId) {
-        return null;
+    public ResponseData<Integer> getAuthorityIssuerCount(String domain) {
+        return getCount(domain, "getAuthorityIssuerCount");
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<AuthorityIssuerInfo> getAuthorityIssuerByName(String domain, String name) {
-        return null;
+    public ResponseData<Integer> getRecognizedIssuerCount(String domain) {
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<Integer> response = new RedisExecutor(redisDomain)
+                .executeMemberCount(SET_RECOGNIZED, client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                return new ResponseData<>(response.getResult(), ErrorCode.SUCCESS);
+            }
+            return new ResponseData<>(0, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getRecognizedIssuerCount] get the count of recognized "
+                + "authority issuer error.", e);
+            return new ResponseData<>(0, e.getErrorCode());
+        }
     }
 
+    //1 as authority_role, 2 as committee_role, 4 as admin_role, 其余取值为以上角色的组合
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> updateAuthorityIssuer(String domain, String weId, Integer recognize) {
-        return null;
+    public ResponseData<Integer> addRole(String domain, String weId, Integer roleValue) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->addRole] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        if (roleValue == null || roleValue > 7 || roleValue < 1) {
+            logger.error("[redis->addRole] the roleValue is not between 1 and 7.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            Date now = redisDomain.getNow();
+            Map<String, Object> roleMap = fields("weid", weId, "created", now);
+            roleMap.putAll(fields(roleFields(now, roleValue)));
+            return new RedisExecutor(redisDomain).executeHashInsert(client, weId, roleMap);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->addRole] addRole error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> getAuthorityIssuerCount(String domain) {
-        return null;
+    public ResponseData<RoleValue> getRole(String domain, String weId) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->getRole] the weId is empty.");
+            return new ResponseData<RoleValue>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            Date now = redisDomain.getNow();
+            ResponseData<Map<String, String>> response =
+                new RedisExecutor(redisDomain).executeHashQuery(weId, client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                RoleValue tableData = toValue(response.getResult(), RoleValue.class);
+                if (tableData.getUpdated() != null && !tableData.getUpdated().after(now)) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null,
+                    ErrorCode.AUTHORITY_ISSUER_CONTRACT_ERROR_NOT_EXISTS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getRole] getRole error.", e);
+            return new ResponseData<RoleValue>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> getRecognizedIssuerCount(String domain) {
-        return null;
+    public ResponseData<Integer> updateRole(String domain, String weId, Integer roleValue) {
+
+        if (StringUtils.isEmpty(weId)) {
+            logger.error("[redis->updateRole] the weId is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        if (roleValue == null || roleValue > 7 || roleValue < 1) {
+            logger.error("[redis->updateRole] the roleValue is not between 1 and 7.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashUpdate(
+                client, weId, fields(roleFields(redisDomain.getNow(), roleValue)));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->updateRole] update the role error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> addRole(String domain, String weId, Integer roleValue) {
-        return null;
+    public ResponseData<Integer> addSpecificType(String domain, String typeName, String owner) {
+
+        if (StringUtils.isEmpty(typeName)) {
+            logger.error("[redis->addSpecificType] the typeName is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            Date now = redisDomain.getNow();
+            return new RedisExecutor(redisDomain).executeHashInsert(client, typeName, fields(
+                "type_name", typeName,
+                "created", now,
+                "updated", now,
+                "owner", owner));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->addSpecificType] addSpecificType error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<RoleValue> getRole(String domain, String weId) {
-        return null;
+    public ResponseData<SpecificTypeValue> getSpecificType(String domain, String typeName) {
+
+        if (StringUtils.isEmpty(typeName)) {
+            logger.error("[redis->getSpecificType] the typeName is empty.");
+            return new ResponseData<SpecificTypeValue>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            Date now = redisDomain.getNow();
+            ResponseData<Map<String, String>> response =
+                new RedisExecutor(redisDomain).executeHashQuery(typeName, client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                SpecificTypeValue tableData =
+                    toValue(response.getResult(), SpecificTypeValue.class);
+                if (tableData.getUpdated() != null && !tableData.getUpdated().after(now)) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null,
+                    ErrorCode.SPECIFIC_ISSUER_CONTRACT_ERROR_ALREADY_NOT_EXIST);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getSpecificType] getSpecificType error.", e);
+            return new ResponseData<SpecificTypeValue>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> updateRole(String domain, String weId, Integer roleValue) {
-        return null;
+    public ResponseData<Integer> removeSpecificType(String domain, String typeName) {
+
+        if (StringUtils.isEmpty(typeName)) {
+            logger.error("[redis->removeSpecificType] the typeName is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashDelete(client, typeName);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->removeSpecificType] removeSpecificType error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> addSpecificType(String domain, String typeName, String owner) {
-        return null;
+    public ResponseData<Integer> updateSpecificTypeFellow(
+        String domain,
+        String typeName,
+        String fellow) {
+
+        if (StringUtils.isEmpty(typeName)) {
+            logger.error("[redis->updateSpecificTypeFellow] the typeName is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashUpdate(
+                client, typeName, fields("fellow", fellow));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->updateSpecificTypeFellow] updateSpecificTypeFellow error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<SpecificTypeValue> getSpecificType(String domain, String typeName) {
-        return null;
+    public ResponseData<Integer> getIssuerTypeCount(String domain) {
+        return getCount(domain, "getIssuerTypeCount");
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> removeSpecificType(String domain, String typeName) {
-        return null;
+    public ResponseData<List<String>> getIssuerTypeList(
+        String domain,
+        Integer first,
+        Integer last) {
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<List<String>> response = new RedisExecutor(redisDomain)
+                .executeRangeQuery(first, last - first, client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                return new ResponseData<>(response.getResult(), ErrorCode.SUCCESS);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getIssuerTypeList] get the IssuerTypeList error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> updateSpecificTypeFellow(String domain, String typeName, String fellow) {
-        return null;
+    public ResponseData<List<SpecificTypeValue>> getSpecificTypeList(
+        String domain,
+        Integer first,
+        Integer last) {
+
+        try {
+            // 先读取分页的主键, 再通过一次批量请求读取各条记录
+            RedisDomain redisDomain = new RedisDomain(domain);
+            Date now = redisDomain.getNow();
+            RedisExecutor executor = new RedisExecutor(redisDomain);
+            ResponseData<List<String>> ids =
+                executor.executeRangeQuery(first, last - first, client);
+            if (ids.getErrorCode() != ErrorCode.SUCCESS.getCode() || ids.getResult() == null) {
+                return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(ids.getErrorCode()));
+            }
+            List<SpecificTypeValue> result = new ArrayList<>(ids.getResult().size());
+            if (ids.getResult().isEmpty()) {
+                return new ResponseData<>(result, ErrorCode.SUCCESS);
+            }
+            ResponseData<List<Map<String, String>>> response =
+                executor.executeHashQueryBatch(ids.getResult(), client);
+            if (response.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null,
+                    ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+            }
+            for (Map<String, String> row : response.getResult()) {
+                if (row == null) {
+                    continue;
+                }
+                SpecificTypeValue tableData = toValue(row, SpecificTypeValue.class);
+                if (tableData.getUpdated() != null && !tableData.getUpdated().after(now)) {
+                    result.add(tableData);
+                }
+            }
+            return new ResponseData<>(result, ErrorCode.SUCCESS);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getSpecificTypeList] get the SpecificTypeList error.", e);
+            return new ResponseData<>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> getIssuerTypeCount(String domain) {
-        return null;
+    public ResponseData<Integer> addEvidenceByHash(
+        String domain,
+        String hashValue,
+        String signer,
+        String signature,
+        String log,
+        String updated,
+        String revoked,
+        String extraKey,
+        String group_id) {
+
+        if (StringUtils.isEmpty(hashValue)) {
+            logger.error("[redis->addEvidenceByHash] the hashValue is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            // 签名与日志以文本保存, 追加时由脚本直接拼接
+            ResponseData<Integer> result = new RedisExecutor(redisDomain)
+                .executeHashInsert(client, hashValue, fields(
+                    "hash", hashValue,
+                    "signers", signer,
+                    "signatures", signature,
+                    "logs", log,
+                    "updated", updated,
+                    "revoked", revoked,
+                    "extra_key", StringUtils.isEmpty(extraKey) ? null : extraKey,
+                    "group_id", group_id),
+                    INDEX_EXTRA_KEY);
+            if (result.getResult() == DataDriverConstant.DUPLICATE_KEY_STATUS) {
+                return new ResponseData<Integer>(
+                    FAILED_STATUS, ErrorCode.CREDENTIAL_EVIDENCE_ALREADY_EXISTS);
+            }
+            return result;
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->addEvidenceByHash] addEvidenceByHash error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<List<String>> getIssuerTypeList(String domain, Integer first, Integer last) {
-        return null;
+    public ResponseData<EvidenceValue> getEvidenceByHash(String domain, String hash) {
+
+        if (StringUtils.isEmpty(hash)) {
+            logger.error("[redis->getEvidenceByHash] the hash is empty.");
+            return new ResponseData<EvidenceValue>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<Map<String, String>> response =
+                new RedisExecutor(redisDomain).executeHashQuery(hash, client);
+            if (response.getErrorCode() == ErrorCode.SUCCESS.getCode()
+                && response.getResult() != null) {
+                EvidenceValue tableData = toValue(response.getResult(), EvidenceValue.class);
+                if (StringUtils.isNotBlank(tableData.getSigners())) {
+                    return new ResponseData<>(tableData, ErrorCode.SUCCESS);
+                }
+                return new ResponseData<>(null, ErrorCode.CREDENTIAL_EVIDENCE_NOT_EXIST);
+            }
+            return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(response.getErrorCode()));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getEvidenceByHash] getEvidenceByHash error.", e);
+            return new ResponseData<EvidenceValue>(null, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> addEvidenceByHash(String domain, String hashValue, String signer, String signature, String log, String updated, String revoked, String extraKey, String group_id) {
-        return null;
+    public ResponseData<Integer> addSignatureAndLogs(
+        String domain,
+        String hashValue,
+        String signer,
+        String signature,
+        String log,
+        String updated,
+        String revoked,
+        String extraKey) {
+
+        if (StringUtils.isEmpty(hashValue)) {
+            logger.error("[redis->addSignatureAndLogs] the hashValue is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashUpdate(client, hashValue, fields(
+                "signers", signer,
+                "signatures", signature,
+                "logs", log,
+                "updated", updated,
+                "revoked", revoked,
+                "extra_key", extraKey),
+                INDEX_EXTRA_KEY);
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->addSignatureAndLogs] addSignatureAndLogs error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<EvidenceValue> getEvidenceByHash(String domain, String hash) {
-        return null;
+    public ResponseData<Integer> appendEvidenceSignInfo(
+        String domain,
+        String hashValue,
+        String signer,
+        String signature,
+        String log,
+        String updated,
+        String revoked,
+        String extraKey) {
+
+        if (StringUtils.isEmpty(hashValue)) {
+            logger.error("[redis->appendEvidenceSignInfo] the hashValue is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisExecutor executor = new RedisExecutor(new RedisDomain(domain));
+            while (true) {
+                ResponseData<Integer> result = executor.executeHashAppend(client, hashValue,
+                    EvidenceValue.SIGN_INFO_SPLIT, fields(
+                        "signers", signer,
+                        "signatures", signature,
+                        "logs", log,
+                        "updated", updated,
+                        "revoked", revoked),
+                    INDEX_EXTRA_KEY, extraKey);
+                if (result.getResult() != RedisExecutor.UPDATE_REJECTED) {
+                    return result;
+                }
+                // 签名或日志由旧版本编码写入, 以签名者列表为版本改写为文本后重新追加
+                ResponseData<Map<String, String>> record =
+                    executor.executeHashQuery(hashValue, client);
+                if (record.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                    return new ResponseData<Integer>(FAILED_STATUS,
+                        ErrorCode.getTypeByErrorCode(record.getErrorCode()));
+                }
+                if (record.getResult() == null) {
+                    return new ResponseData<Integer>(0, ErrorCode.SUCCESS);
+                }
+                executor.executeHashCompareAndSet(client, hashValue,
+                    "signers", record.getResult().get("signers"), fields(
+                        "signatures", record.getResult().get("signatures"),
+                        "logs", record.getResult().get("logs")));
+            }
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->appendEvidenceSignInfo] appendEvidenceSignInfo error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<Integer> addSignatureAndLogs(String domain, String hashValue, String signer, String signature, String log, String updated, String revoked, String extraKey) {
-        return null;
+    public ResponseData<Integer> revokeEvidence(
+        String domain,
+        String hashValue,
+        String signer,
+        String revoked,
+        String updated) {
+
+        if (StringUtils.isEmpty(hashValue)) {
+            logger.error("[redis->revokeEvidence] the hashValue is empty.");
+            return new ResponseData<Integer>(FAILED_STATUS, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            return new RedisExecutor(redisDomain).executeHashListSet(client, hashValue,
+                EvidenceValue.SIGN_INFO_SPLIT, "signers", signer, fields(
+                    "revoked", revoked,
+                    "updated", updated));
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->revokeEvidence] revokeEvidence error.", e);
+            return new ResponseData<Integer>(FAILED_STATUS, e.getErrorCode());
+        }
     }
 
     @Override
-    public com.webank.weid.blockchain.protocol.response.ResponseData<EvidenceValue> getEvidenceByExtraKey(String domain, String extraKey) {
-        return null;
+    public ResponseData<EvidenceValue> getEvidenceByExtraKey(String domain, String extraKey) {
+
+        if (StringUtils.isEmpty(extraKey)) {
+            logger.error("[redis->getEvidenceByExtraKey] the extraKey is empty.");
+            return new ResponseData<EvidenceValue>(null, KEY_INVALID);
+        }
+        try {
+            RedisDomain redisDomain = new RedisDomain(domain);
+            ResponseData<String> index = new RedisExecutor(redisDomain)
+                .executeMultiIndexQuery("extra_key", extraKey, client);
+            if (index.getErrorCode() != ErrorCode.SUCCESS.getCode()) {
+                return new ResponseData<>(null, ErrorCode.getTypeByErrorCode(index.getErrorCode()));
+            }
+            if (StringUtils.isBlank(index.getResult())) {
+                return new ResponseData<>(null, ErrorCode.SUCCESS);
+            }
+            return getEvidenceByHash(domain, index.getResult());
+        } catch (WeIdBaseException e) {
+            logger.error("[redis->getEvidenceByExtraKey] getEvidenceByExtraKey error.", e);
+            return new ResponseData<EvidenceValue>(null, e.getErrorCode());
+        }
     }
 }
@@ -0,0 +1,302 @@
+
+
+package com.webank.weid.suite.pipeline;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.suite.async.VirtualThreads;
+import com.webank.weid.suite.metrics.MetricsManager;
+
+/**
+ * 多阶段流水线, 各阶段由固定个数的工作线程处理, 阶段之间通过有界队列连接,
+ * 下游处理不过来时上游会被阻塞, 内存占用与输入总量无关.
+ * 多个工作线程的阶段不保证输出顺序, 需要顺序时由元素自身携带序号.
+ * 开启虚拟线程时各阶段的工作线程为虚拟线程.
+ * 频繁调用时可以在共享的执行器上运行, 不为每次调用创建线程.
+ *
+ * @param <T> 在流水线中传递的元素, 各阶段把处理结果写入元素
+ */
+public class StagePipeline<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StagePipeline.class);
+
+    /**
+     * 队列结束标记.
+     */
+    private static final Object END = new Object();
+
+    private final String name;
+
+    private final int queueCapacity;
+
+    private final List<Stage<T>> stages = new ArrayList<>();
+
+    /**
+     * 构建流水线.
+     *
+     * @param name 流水线名称, 用于线程名与指标名
+     * @param queueCapacity 阶段之间队列的容量
+     */
+    public StagePipeline(String name, int queueCapacity) {
+        this.name = name;
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * 追加一个阶段.
+     *
+     * @param stageName 阶段名称
+     * @param workers 工作线程个数
+     * @param action 阶段的处理逻辑, 抛出的异常只记录日志, 元素仍会传递到下一阶段
+     * @return 返回流水线本身
+     */
+    public StagePipeline<T> stage(String stageName, int workers, Consumer<T> action) {
+        stages.add(new Stage<>(stageName, Math.max(1, workers), action));
+        return this;
+    }
+
+    /**
+     * 运行流水线, 输入由单独的线程读取, 输出在调用线程上消费, 全部元素处理完后返回.
+     *
+     * @param source 输入
+     * @param sink 输出的消费逻辑
+     * @return 返回各阶段的统计
+     * @throws InterruptedException 调用线程被中断
+     */
+    public List<StageStatistic> run(Iterator<? extends T> source, Consumer<T> sink)
+        throws InterruptedException {
+
+        List<BlockingQueue<Object>> queues = new ArrayList<>(stages.size() + 1);
+        for (int i = 0; i <= stages.size(); i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+        List<Thread> threads = new ArrayList<>();
+        threads.add(newThread(name + "-source", () -> feed(source, queues.get(0))));
+        CountDownLatch finished = new CountDownLatch(stages.size());
+        for (int i = 0; i < stages.size(); i++) {
+            Stage<T> stage = stages.get(i);
+            stage.reset();
+            BlockingQueue<Object> in = queues.get(i);
+            BlockingQueue<Object> out = queues.get(i + 1);
+            AtomicInteger alive = new AtomicInteger(stage.workers);
+            for (int w = 0; w < stage.workers; w++) {
+                threads.add(newThread(name + "-" + stage.name + "-" + w,
+                    () -> work(stage, in, out, alive, finished)));
+            }
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        BlockingQueue<Object> last = queues.get(stages.size());
+        try {
+            while (true) {
+                Object item = last.take();
+                if (item == END) {
+                    break;
+                }
+                @SuppressWarnings("unchecked")
+                T element = (T) item;
+                sink.accept(element);
+            }
+            finished.await();
+        } finally {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+        return statistics();
+    }
+
+    /**
+     * 在共享的执行器上运行流水线, 不创建线程: 每个元素作为一个任务依次经过各阶段,
+     * 并发数由执行器限制, 同时处理的元素不超过队列容量, 阶段的工作线程个数只用于统计.
+     * 输入与输出都在调用线程上, 输出按完成顺序消费, 全部元素处理完后返回.
+     *
+     * @param source 输入
+     * @param sink 输出的消费逻辑
+     * @param executor 运行各元素的执行器, 需要有界且不拒绝任务
+     * @return 返回各阶段的统计
+     * @throws InterruptedException 调用线程被中断
+     */
+    public List<StageStatistic> run(
+        Iterator<? extends T> source,
+        Consumer<T> sink,
+        Executor executor) throws InterruptedException {
+
+        for (Stage<T> stage : stages) {
+            stage.reset();
+        }
+        BlockingQueue<T> done = new LinkedBlockingQueue<>();
+        int inFlight = 0;
+        while (true) {
+            T element;
+            try {
+                if (!source.hasNext()) {
+                    break;
+                }
+                element = source.next();
+            } catch (RuntimeException e) {
+                logger.error("[{}] read source failed, stop feeding.", name, e);
+                break;
+            }
+            if (inFlight == queueCapacity) {
+                sink.accept(done.take());
+                inFlight--;
+            }
+            executor.execute(() -> {
+                try {
+                    for (Stage<T> stage : stages) {
+                        apply(stage, element);
+                    }
+                } finally {
+                    done.add(element);
+                }
+            });
+            inFlight++;
+        }
+        for (; inFlight > 0; inFlight--) {
+            sink.accept(done.take());
+        }
+        return statistics();
+    }
+
+    private List<StageStatistic> statistics() {
+        List<StageStatistic> statistics = new ArrayList<>(stages.size());
+        for (Stage<T> stage : stages) {
+            StageStatistic statistic = stage.toStatistic();
+            logger.info("[{}] stage {} processed {} in {}ms, {} per second.", name, stage.name,
+                statistic.getCount(), statistic.getElapsedMillis(),
+                String.format("%.1f", statistic.getThroughput()));
+            statistics.add(statistic);
+        }
+        return statistics;
+    }
+
+    private void feed(Iterator<? extends T> source, BlockingQueue<Object> out) {
+        try {
+            try {
+                while (source.hasNext()) {
+                    out.put(source.next());
+                }
+            } catch (RuntimeException e) {
+                logger.error("[{}] read source failed, stop feeding.", name, e);
+            }
+            out.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work(
+        Stage<T> stage,
+        BlockingQueue<Object> in,
+        BlockingQueue<Object> out,
+        AtomicInteger alive,
+        CountDownLatch finished) {
+
+        try {
+            while (true) {
+                Object item = in.take();
+                if (item == END) {
+                    // 结束标记放回, 通知同阶段的其他线程; 最后退出的线程通知下一阶段
+                    in.put(END);
+                    if (alive.decrementAndGet() == 0) {
+                        out.put(END);
+                        finished.countDown();
+                    }
+                    return;
+                }
+                @SuppressWarnings("unchecked")
+                T element = (T) item;
+                apply(stage, element);
+                out.put(element);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void apply(Stage<T> stage, T element) {
+        long start = System.nanoTime();
+        stage.markStart(start);
+        try {
+            stage.action.accept(element);
+        } catch (RuntimeException e) {
+            logger.error("[{}] stage {} failed.", name, stage.name, e);
+        } finally {
+            long end = System.nanoTime();
+            stage.record(start, end);
+            MetricsManager.getRegistry()
+                .recordTime("pipeline." + name + "." + stage.name, end - start);
+        }
+    }
+
+    private static Thread newThread(String threadName, Runnable runnable) {
+        return VirtualThreads.newThread(threadName, runnable);
+    }
+
+    private static class Stage<T> {
+
+        private final String name;
+
+        private final int workers;
+
+        private final Consumer<T> action;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder busyNanos = new LongAdder();
+
+        private final AtomicLong firstStart = new AtomicLong();
+
+        private final AtomicLong lastEnd = new AtomicLong();
+
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        Stage(String name, int workers, Consumer<T> action) {
+            this.name = name;
+            this.workers = workers;
+            this.action = action;
+        }
+
+        void reset() {
+            count.reset();
+            busyNanos.reset();
+            firstStart.set(0L);
+            lastEnd.set(0L);
+            started.set(false);
+        }
+
+        void markStart(long start) {
+            if (!started.get() && started.compareAndSet(false, true)) {
+                firstStart.set(start);
+            }
+        }
+
+        void record(long start, long end) {
+            count.increment();
+            busyNanos.add(end - start);
+            lastEnd.updateAndGet(prev -> prev == 0L || end - prev > 0 ? end : prev);
+        }
+
+        StageStatistic toStatistic() {
+            long elapsed = started.get() ? lastEnd.get() - firstStart.get() : 0L;
+            return new StageStatistic(name, workers, count.sum(), elapsed, busyNanos.sum());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+
+
+package com.webank.weid.suite.pipeline;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+/**
+ * 流水线单个阶段的处理统计.
+ */
+@Getter
+public class StageStatistic {
+
+    /**
+     * 阶段名称.
+     */
+    private final String stage;
+
+    /**
+     * 工作线程个数.
+     */
+    private final int workers;
+
+    /**
+     * 处理的元素个数.
+     */
+    private final long count;
+
+    /**
+     * 从第一个元素开始处理到最后一个元素处理完成的时间, 单位纳秒.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * 各工作线程处理元素的累计时间, 单位纳秒.
+     */
+    private final long busyNanos;
+
+    public StageStatistic(String stage, int workers, long count, long elapsedNanos,
+        long busyNanos) {
+        this.stage = stage;
+        this.workers = workers;
+        this.count = count;
+        this.elapsedNanos = elapsedNanos;
+        this.busyNanos = busyNanos;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * 获取吞吐量.
+     *
+     * @return 返回每秒处理的元素个数
+     */
+    public double getThroughput() {
+        if (elapsedNanos <= 0) {
+            return count;
+        }
+        return count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * 获取工作线程的平均繁忙程度, 接近1时该阶段是流水线的瓶颈.
+     *
+     * @return 返回0到1之间的利用率
+     */
+    public double getUtilization() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return Math.min(1.0, busyNanos / ((double) elapsedNanos * workers));
+    }
+}
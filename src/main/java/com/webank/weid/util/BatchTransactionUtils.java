@@ -21,7 +21,6 @@ import com.webank.weid.protocol.request.TransactionArgs;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
 import com.webank.weid.suite.persistence.PersistenceFactory;
 import com.webank.weid.suite.persistence.Persistence;
-import com.webank.weid.suite.persistence.PersistenceType;
 
 /**
  * 批量交易处理类.
@@ -52,7 +51,6 @@ public class BatchTransactionUtils {
      * persistence.
      */
     private static Persistence dataDriver;
-    private static PersistenceType persistenceType;
     private static Integer index = 0;
     private static String currentDay;
 
@@ -83,14 +81,8 @@ public class BatchTransactionUtils {
     }
 
     private static Persistence getDataDriver() {
-        String type = PropertyUtils.getProperty("persistence_type");
-        if (type.equals("mysql")) {
-            persistenceType = PersistenceType.Mysql;
-        } else if (type.equals("redis")) {
-            persistenceType = PersistenceType.Redis;
-        }
         if (dataDriver == null) {
-            dataDriver = PersistenceFactory.build(persistenceType);
+            dataDriver = PersistenceFactory.build();
         }
         return dataDriver;
     }
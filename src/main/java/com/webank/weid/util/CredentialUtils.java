@@ -14,7 +14,6 @@ import org.fisco.bcos.sdk.abi.datatypes.generated.Bytes32;
 
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.regex.Pattern;
 
 /**
@@ -24,6 +23,11 @@ import java.util.regex.Pattern;
  */
 public final class CredentialUtils {
 
+    /**
+     * Estimated length of one field in the claim hash: the key plus a 0x-prefixed hex hash.
+     */
+    private static final int CLAIM_FIELD_HASH_CAPACITY = 96;
+
     /**
      * Concat all fields of Credential info, without Proof, in Json format. This should be invoked
      * when calculating Credential Signature as the raw message. Return null if credential format is
@@ -198,39 +202,22 @@ public final class CredentialUtils {
     public static String getClaimHash(Credential credential, Map<String, Object> disclosures) {
 
         Map<String, Object> claim = credential.getClaim();
-        Map<String, Object> claimHashMap = new HashMap<>(claim);
-        Map<String, Object> disclosureMap;
-
+        // Every field listed in the disclosure map (all fields when it is null) is hashed, no
+        // matter what its disclosure status is. Keys only in the disclosure map hash to null.
+        TreeMap<String, Object> sortedClaim = new TreeMap<>(claim);
         if (disclosures == null) {
-            disclosureMap = new HashMap<>(claim);
-            for (Map.Entry<String, Object> entry : disclosureMap.entrySet()) {
-                disclosureMap.put(
-                    entry.getKey(),
-                    CredentialFieldDisclosureValue.DISCLOSED.getStatus()
-                );
+            for (Map.Entry<String, Object> entry : sortedClaim.entrySet()) {
+                entry.setValue(getFieldHash(entry.getValue()));
             }
         } else {
-            disclosureMap = disclosures;
-        }
-
-        for (Map.Entry<String, Object> entry : disclosureMap.entrySet()) {
-            claimHashMap.put(entry.getKey(), getFieldHash(claimHashMap.get(entry.getKey())));
-        }
-
-        List<Map.Entry<String, Object>> list = new ArrayList<Map.Entry<String, Object>>(
-            claimHashMap.entrySet()
-        );
-        Collections.sort(list, new Comparator<Map.Entry<String, Object>>() {
-
-            @Override
-            public int compare(Entry<String, Object> o1, Entry<String, Object> o2) {
-                return o1.getKey().compareTo(o2.getKey());
+            for (String key : disclosures.keySet()) {
+                sortedClaim.put(key, getFieldHash(claim.get(key)));
             }
-        });
+        }
 
-        StringBuffer hash = new StringBuffer();
-        for (Map.Entry<String, Object> en : list) {
-            hash.append(en.getKey()).append(en.getValue());
+        StringBuilder hash = new StringBuilder(sortedClaim.size() * CLAIM_FIELD_HASH_CAPACITY);
+        for (Map.Entry<String, Object> entry : sortedClaim.entrySet()) {
+            hash.append(entry.getKey()).append(entry.getValue());
         }
         return hash.toString();
     }
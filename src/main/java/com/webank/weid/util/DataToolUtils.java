@@ -23,6 +23,9 @@ import com.webank.weid.protocol.base.WeIdDocument;
 import com.webank.weid.protocol.cpt.RawCptSchema;
 import com.webank.weid.protocol.request.CptMapArgs;
 import com.webank.weid.protocol.response.RsvSignature;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.Invocation;
+import com.webank.weid.suite.metrics.InvocationLayer;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.bouncycastle.util.encoders.Base64;
@@ -412,6 +415,22 @@ public final class DataToolUtils {
      */
     public static Set<ValidationMessage> checkJsonVersusSchema(String jsonData, String jsonSchema)
         throws Exception {
+        Invocation invocation =
+            InstrumentationManager.start(InvocationLayer.SCHEMA, "checkJsonVersusSchema");
+        Set<ValidationMessage> report;
+        try {
+            report = validateJsonVersusSchema(jsonData, jsonSchema);
+        } catch (Exception e) {
+            invocation.fail(e);
+            throw e;
+        }
+        invocation.end(0);
+        return report;
+    }
+
+    private static Set<ValidationMessage> validateJsonVersusSchema(
+        String jsonData,
+        String jsonSchema) throws Exception {
         JsonNode jsonDataNode = loadJsonObject(jsonData);
         JsonNode jsonSchemaNode = loadJsonObject(jsonSchema);
         // use new validator
@@ -518,7 +537,9 @@ public final class DataToolUtils {
      */
     public static RsvSignature signToRsvSignature(String rawData, String privateKey) {
         if (deployStyle.equals("blockchain")) {
-            return RsvSignature.fromBlockChain(com.webank.weid.blockchain.util.DataToolUtils.signToRsvSignature(rawData, privateKey));
+            return InstrumentationManager.trace(InvocationLayer.CRYPTO, "sign",
+                () -> RsvSignature.fromBlockChain(com.webank.weid.blockchain.util.DataToolUtils
+                    .signToRsvSignature(rawData, privateKey)));
         } else {
             // default database
             String messageHash = hash(rawData);
@@ -527,7 +548,49 @@ public final class DataToolUtils {
     }
 
     public static RsvSignature sign(String messageHash, String privateKey) {
-        CryptoKeyPair cryptoKeyPair =  cryptoSuite.getKeyPairFactory().createKeyPair(new BigInteger(privateKey));
+        return InstrumentationManager.trace(InvocationLayer.CRYPTO, "sign",
+            () -> signHash(messageHash, privateKey));
+    }
+
+    /**
+     * Sign to Signature with a key pair built once by the caller, so signing many messages with
+     * the same private key does not rebuild the key pair for each of them. In blockchain mode the
+     * signature is still made by the blockchain SDK with the private key of the key pair.
+     *
+     * @param rawData original raw data
+     * @param cryptoKeyPair the key pair, see {@link #createKeyPair(String)}
+     * @return SignatureData for signature value
+     */
+    public static RsvSignature signToRsvSignature(String rawData, CryptoKeyPair cryptoKeyPair) {
+        if (deployStyle.equals("blockchain")) {
+            return signToRsvSignature(rawData, hexStr2DecStr(cryptoKeyPair.getHexPrivateKey()));
+        }
+        String messageHash = hash(rawData);
+        return InstrumentationManager.trace(InvocationLayer.CRYPTO, "sign",
+            () -> signHash(messageHash, cryptoKeyPair));
+    }
+
+    /**
+     * Build the key pair of a private key. Key pairs are kept in {@link KeyPairCache}, so signing
+     * repeatedly with the same private key derives its key pair only once.
+     *
+     * @param privateKey decimal
+     * @return the key pair
+     */
+    public static CryptoKeyPair createKeyPair(String privateKey) {
+        return keyPairOf(new BigInteger(privateKey));
+    }
+
+    private static CryptoKeyPair keyPairOf(BigInteger privateKey) {
+        return KeyPairCache.getKeyPair(privateKey,
+            key -> cryptoSuite.getKeyPairFactory().createKeyPair(key));
+    }
+
+    private static RsvSignature signHash(String messageHash, String privateKey) {
+        return signHash(messageHash, createKeyPair(privateKey));
+    }
+
+    private static RsvSignature signHash(String messageHash, CryptoKeyPair cryptoKeyPair) {
         RsvSignature rsvSignature = new RsvSignature();
         SignatureResult signatureResult = cryptoSuite.sign(messageHash, cryptoKeyPair);
         Bytes32 R = new Bytes32(signatureResult.getR());
@@ -594,7 +657,9 @@ public final class DataToolUtils {
         BigInteger publicKey
     ) {
         if (deployStyle.equals("blockchain")) {
-            return com.webank.weid.blockchain.util.DataToolUtils.verifySignature(rawData, signatureBase64, publicKey);
+            return InstrumentationManager.trace(InvocationLayer.CRYPTO, "verify",
+                () -> com.webank.weid.blockchain.util.DataToolUtils
+                    .verifySignature(rawData, signatureBase64, publicKey));
         } else {
             // default database
             try {
@@ -623,6 +688,15 @@ public final class DataToolUtils {
             String hexPublicKey,
             String messageHash,
             RsvSignature rsvSignature
+    ) {
+        return InstrumentationManager.trace(InvocationLayer.CRYPTO, "verify",
+            () -> verifyHash(hexPublicKey, messageHash, rsvSignature));
+    }
+
+    private static boolean verifyHash(
+            String hexPublicKey,
+            String messageHash,
+            RsvSignature rsvSignature
     ) {
         if(cryptoSuite.getCryptoTypeConfig() == CryptoType.ECDSA_TYPE) {
             ECDSASignatureResult signatureResult = new ECDSASignatureResult(
@@ -716,11 +790,15 @@ public final class DataToolUtils {
      * @return publicKey decimal
      */
     public static String publicKeyStrFromPrivate(BigInteger privateKey) {
+        return KeyPairCache.getPublicKey(privateKey, DataToolUtils::derivePublicKey);
+    }
+
+    private static String derivePublicKey(BigInteger privateKey) {
         if (deployStyle.equals("blockchain")) {
             return com.webank.weid.blockchain.util.DataToolUtils.publicKeyStrFromPrivate(privateKey);
         } else {
             // default database
-            return hexStr2DecStr(cryptoSuite.getKeyPairFactory().createKeyPair(privateKey).getHexPublicKey());
+            return hexStr2DecStr(keyPairOf(privateKey).getHexPublicKey());
         }
     }
 
@@ -731,11 +809,15 @@ public final class DataToolUtils {
      * @return publicKey
      */
     public static String addressFromPrivate(BigInteger privateKey) {
+        return KeyPairCache.getAddress(privateKey, DataToolUtils::deriveAddress);
+    }
+
+    private static String deriveAddress(BigInteger privateKey) {
         if (deployStyle.equals("blockchain")) {
             return com.webank.weid.blockchain.util.DataToolUtils.addressFromPrivate(privateKey);
         } else {
             // default database
-            return cryptoSuite.getKeyPairFactory().createKeyPair(privateKey).getAddress();
+            return keyPairOf(privateKey).getAddress();
         }
     }
 
@@ -0,0 +1,283 @@
+
+
+package com.webank.weid.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.bouncycastle.crypto.digests.SM3Digest;
+import org.fisco.bcos.sdk.model.CryptoType;
+import org.fisco.bcos.sdk.utils.Numeric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.webank.weid.suite.async.VirtualThreads;
+
+/**
+ * 文件存证的哈希计算, 文件按块读入摘要, 内存占用与文件大小无关.
+ * 哈希算法与DataToolUtils.hash一致, 国密配置下为SM3, 否则为Keccak-256.
+ * 通过evidence.file.hash.mode选择计算方式:
+ * text(默认)与旧版本按UTF-8文本读取整个文件再哈希的结果完全一致;
+ * stream直接哈希文件字节, 对合法UTF-8文本与text结果相同, 二进制文件(例如含非法UTF-8字节的PDF或图片)结果不同;
+ * tree将大文件按evidence.file.hash.tree.chunkSize分块并发哈希, 再对各块哈希拼接的结果哈希,
+ * 不超过一个块的文件与stream结果相同. 存证方与验证方必须使用相同的方式与块大小.
+ */
+public final class FileHashUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileHashUtils.class);
+
+    /**
+     * 文件哈希方式的配置项.
+     */
+    public static final String FILE_HASH_MODE = "evidence.file.hash.mode";
+
+    /**
+     * tree方式的块大小(字节)配置项.
+     */
+    public static final String FILE_HASH_TREE_CHUNK_SIZE = "evidence.file.hash.tree.chunkSize";
+
+    private static final String DEFAULT_FILE_HASH_MODE = "text";
+
+    private static final String DEFAULT_FILE_HASH_TREE_CHUNK_SIZE = "4194304";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static volatile ExecutorService treeExecutor;
+
+    /**
+     * 文件哈希的计算方式.
+     */
+    public enum Mode {
+
+        /**
+         * 按UTF-8解码再编码后哈希, 与旧版本结果一致.
+         */
+        TEXT,
+
+        /**
+         * 直接哈希文件字节.
+         */
+        STREAM,
+
+        /**
+         * 分块并发哈希.
+         */
+        TREE
+    }
+
+    private FileHashUtils() {
+    }
+
+    /**
+     * 按配置的方式计算文件哈希.
+     *
+     * @param file 文件
+     * @return 返回0x开头的十六进制哈希, 文件不存在, 为空或读取失败时返回空字符串
+     */
+    public static String hash(File file) {
+        Mode mode = Mode.valueOf(PropertyUtils.getProperty(
+            FILE_HASH_MODE, DEFAULT_FILE_HASH_MODE).trim().toUpperCase());
+        return hash(file, mode);
+    }
+
+    /**
+     * 按指定的方式计算文件哈希, tree方式使用配置的块大小.
+     *
+     * @param file 文件
+     * @param mode 计算方式
+     * @return 返回0x开头的十六进制哈希, 文件不存在, 为空或读取失败时返回空字符串
+     */
+    public static String hash(File file, Mode mode) {
+        if (mode == Mode.TREE) {
+            int chunkSize = Integer.parseInt(PropertyUtils.getProperty(
+                FILE_HASH_TREE_CHUNK_SIZE, DEFAULT_FILE_HASH_TREE_CHUNK_SIZE).trim());
+            return treeHash(file, chunkSize);
+        }
+        if (!isReadable(file)) {
+            return StringUtils.EMPTY;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            Digest digest = newDigest();
+            if (mode == Mode.TEXT) {
+                digestText(channel, digest);
+            } else {
+                digestRange(channel, 0, channel.size(), digest);
+            }
+            return Numeric.toHexString(doFinal(digest));
+        } catch (IOException e) {
+            logger.error("[hash] failed to hash file {}.", file.getName(), e);
+            return StringUtils.EMPTY;
+        }
+    }
+
+    /**
+     * 分块并发计算文件哈希, 结果为各块哈希按顺序拼接后的哈希, 只有一个块时为文件字节的哈希.
+     *
+     * @param file 文件
+     * @param chunkSize 块大小(字节)
+     * @return 返回0x开头的十六进制哈希, 文件不存在, 为空或读取失败时返回空字符串
+     */
+    public static String treeHash(File file, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk size must be positive: " + chunkSize);
+        }
+        if (!isReadable(file)) {
+            return StringUtils.EMPTY;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= chunkSize) {
+                Digest digest = newDigest();
+                digestRange(channel, 0, size, digest);
+                return Numeric.toHexString(doFinal(digest));
+            }
+            // FileChannel的定位读取是线程安全的, 各块共用同一个channel
+            List<CompletableFuture<byte[]>> leaves = new ArrayList<>();
+            for (long position = 0; position < size; position += chunkSize) {
+                long start = position;
+                long end = Math.min(size, position + chunkSize);
+                leaves.add(CompletableFuture.supplyAsync(
+                    () -> hashRange(channel, start, end), getTreeExecutor()));
+            }
+            Digest root = newDigest();
+            try {
+                for (CompletableFuture<byte[]> leaf : leaves) {
+                    byte[] leafHash = leaf.join();
+                    root.update(leafHash, 0, leafHash.length);
+                }
+            } finally {
+                for (CompletableFuture<byte[]> leaf : leaves) {
+                    leaf.cancel(false);
+                }
+            }
+            return Numeric.toHexString(doFinal(root));
+        } catch (IOException | CompletionException e) {
+            logger.error("[treeHash] failed to hash file {}.", file.getName(), e);
+            return StringUtils.EMPTY;
+        }
+    }
+
+    private static boolean isReadable(File file) {
+        if (file == null || !file.isFile()) {
+            logger.error("[hash] file does not exist: {}.", file);
+            return false;
+        }
+        if (file.length() == 0) {
+            logger.error("[hash] file is empty: {}.", file.getName());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 按UTF-8解码后再编码写入摘要, 非法字节替换为U+FFFD, 与String.getBytes的结果一致.
+     */
+    private static void digestText(FileChannel channel, Digest digest) throws IOException {
+        Reader reader = new InputStreamReader(
+            Channels.newInputStream(channel), StandardCharsets.UTF_8);
+        Writer writer = new OutputStreamWriter(new DigestOutputStream(digest),
+            StandardCharsets.UTF_8);
+        char[] buffer = new char[BUFFER_SIZE];
+        int read;
+        while ((read = reader.read(buffer)) >= 0) {
+            writer.write(buffer, 0, read);
+        }
+        writer.flush();
+    }
+
+    private static byte[] hashRange(FileChannel channel, long start, long end) {
+        Digest digest = newDigest();
+        try {
+            digestRange(channel, start, end, digest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return doFinal(digest);
+    }
+
+    private static void digestRange(FileChannel channel, long start, long end, Digest digest)
+        throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, end - start));
+        long position = start;
+        while (position < end) {
+            buffer.clear();
+            if (end - position < buffer.capacity()) {
+                buffer.limit((int) (end - position));
+            }
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("file truncated while hashing.");
+            }
+            digest.update(buffer.array(), 0, read);
+            position += read;
+        }
+    }
+
+    private static Digest newDigest() {
+        if (DataToolUtils.cryptoType == CryptoType.SM_TYPE) {
+            return new SM3Digest();
+        }
+        return new KeccakDigest(256);
+    }
+
+    private static byte[] doFinal(Digest digest) {
+        byte[] result = new byte[digest.getDigestSize()];
+        digest.doFinal(result, 0);
+        return result;
+    }
+
+    private static ExecutorService getTreeExecutor() {
+        if (treeExecutor == null) {
+            synchronized (FileHashUtils.class) {
+                if (treeExecutor == null) {
+                    treeExecutor = Executors.newFixedThreadPool(
+                        Runtime.getRuntime().availableProcessors(),
+                        VirtualThreads.platformThreadFactory("weid-file-hash"));
+                }
+            }
+        }
+        return treeExecutor;
+    }
+
+    /**
+     * 写入即更新摘要的输出流.
+     */
+    private static final class DigestOutputStream extends OutputStream {
+
+        private final Digest digest;
+
+        private DigestOutputStream(Digest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(int b) {
+            digest.update((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            digest.update(b, off, len);
+        }
+    }
+}
@@ -3,6 +3,7 @@
 package com.webank.weid.util;
 
 import java.io.IOException;
+import java.net.URI;
 import java.nio.charset.Charset;
 import java.security.GeneralSecurityException;
 import java.security.cert.CertificateException;
@@ -40,6 +41,10 @@ import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.Invocation;
+import com.webank.weid.suite.metrics.InvocationLayer;
+
 public class HttpClient {
 
     private static final Logger logger = LoggerFactory.getLogger(HttpClient.class);
@@ -178,6 +183,8 @@ public class HttpClient {
         }
         HttpGet httpget = null;
         CloseableHttpResponse httpResponse = null;
+        Invocation invocation =
+            InstrumentationManager.start(InvocationLayer.HTTP, "get." + hostOf(url));
         try {
             httpget = new HttpGet(url);
 
@@ -197,9 +204,11 @@ public class HttpClient {
             }
             EntityUtils.consume(httpResponse.getEntity());
             httpResponse.close();
+            invocation.end(toErrorCode(statusCode));
             return result;
         } catch (Exception e) {
             logger.warn("onWarning: doGet fail. statusCode", e);
+            invocation.fail(e);
             throw e;
         } finally {
             httpget.releaseConnection();
@@ -237,7 +246,8 @@ public class HttpClient {
         }
         HttpPost httpPost = new HttpPost(url);
         CloseableHttpResponse response = null;
-
+        Invocation invocation =
+            InstrumentationManager.start(InvocationLayer.HTTP, "post." + hostOf(url));
         try {
             httpPost.setConfig(requestConfig);
 
@@ -258,9 +268,11 @@ public class HttpClient {
             }
             EntityUtils.consume(response.getEntity());
             response.close();
+            invocation.end(toErrorCode(statusCode));
             return result;
         } catch (Exception e) {
             logger.error("onWarning: doPost fail", e);
+            invocation.fail(e);
             throw e;
         } finally {
             httpPost.releaseConnection();
@@ -276,6 +288,31 @@ public class HttpClient {
         }
     }
 
+    /**
+     * get the host of url as the name of http invocation.
+     *
+     * @param url url
+     * @return the host, or unknown if the url is invalid
+     */
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "unknown" : host;
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * the http status code as the error code of invocation, 2xx is success.
+     *
+     * @param statusCode http status code
+     * @return 0 if success, otherwise the status code
+     */
+    private static int toErrorCode(int statusCode) {
+        return statusCode >= 200 && statusCode < 300 ? 0 : statusCode;
+    }
+
     private static SSLConnectionSocketFactory createSsLConn() throws Exception {
         logger.debug("createSSLConn start...");
 
@@ -0,0 +1,199 @@
+
+
+package com.webank.weid.util;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.function.Function;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.fisco.bcos.sdk.crypto.keypair.CryptoKeyPair;
+import org.fisco.bcos.sdk.utils.Numeric;
+
+import com.webank.weid.exception.WeIdBaseException;
+import com.webank.weid.suite.cache.CacheManager;
+import com.webank.weid.suite.cache.CacheNode;
+
+/**
+ * 私钥派生结果的缓存, 保存私钥对应的密钥对, 公钥与地址, 避免每次签名或校验私钥时重新做椭圆曲线运算.
+ * 缓存的key为私钥经HMAC-SHA256计算的结果, HMAC密钥在进程启动时随机生成且不落盘,
+ * 因此缓存key既不包含私钥明文, 也无法在进程外与私钥对应; 本类不打印任何私钥相关内容.
+ * 缓存项在写入30分钟后失效, 最大个数通过caffeineCache.maximumSize.SYS_KEY_PAIR配置,
+ * 配置为0时不缓存. 密钥轮换或注销后可调用remove或clear立即清除.
+ */
+public final class KeyPairCache {
+
+    /**
+     * 缓存名, 同时用于最大个数的配置项caffeineCache.maximumSize.SYS_KEY_PAIR.
+     */
+    public static final String CACHE_NAME = "SYS_KEY_PAIR";
+
+    private static final String CACHE_MAXSIZE_KEY = "caffeineCache.maximumSize." + CACHE_NAME;
+
+    private static final long CACHE_TIMEOUT = 1000 * 1800L;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final int HMAC_KEY_LENGTH = 32;
+
+    private static final boolean ENABLED =
+        !"0".equals(PropertyUtils.getProperty(CACHE_MAXSIZE_KEY, "").trim());
+
+    private static final CacheNode<DerivedKey> cacheNode =
+        CacheManager.registerCacheNode(CACHE_NAME, CACHE_TIMEOUT);
+
+    private static final SecretKeySpec HMAC_KEY = newHmacKey();
+
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(KeyPairCache::newMac);
+
+    private KeyPairCache() {
+    }
+
+    /**
+     * 获取私钥对应的密钥对, 不存在时通过loader派生并缓存.
+     *
+     * @param privateKey 私钥
+     * @param loader 密钥对的派生方法
+     * @return 返回密钥对
+     */
+    static CryptoKeyPair getKeyPair(
+        BigInteger privateKey,
+        Function<BigInteger, CryptoKeyPair> loader) {
+
+        String cacheKey = cacheKey(privateKey);
+        DerivedKey derivedKey = getDerivedKey(cacheKey);
+        CryptoKeyPair keyPair = derivedKey.keyPair;
+        if (keyPair == null) {
+            keyPair = loader.apply(privateKey);
+            derivedKey.keyPair = keyPair;
+            putDerivedKey(cacheKey, derivedKey);
+        }
+        return keyPair;
+    }
+
+    /**
+     * 获取私钥对应的十进制公钥, 不存在时通过loader派生并缓存.
+     *
+     * @param privateKey 私钥
+     * @param loader 公钥的派生方法
+     * @return 返回十进制公钥
+     */
+    static String getPublicKey(BigInteger privateKey, Function<BigInteger, String> loader) {
+        String cacheKey = cacheKey(privateKey);
+        DerivedKey derivedKey = getDerivedKey(cacheKey);
+        String publicKey = derivedKey.publicKey;
+        if (publicKey == null) {
+            publicKey = loader.apply(privateKey);
+            derivedKey.publicKey = publicKey;
+            putDerivedKey(cacheKey, derivedKey);
+        }
+        return publicKey;
+    }
+
+    /**
+     * 获取私钥对应的地址, 不存在时通过loader派生并缓存.
+     *
+     * @param privateKey 私钥
+     * @param loader 地址的派生方法
+     * @return 返回地址
+     */
+    static String getAddress(BigInteger privateKey, Function<BigInteger, String> loader) {
+        String cacheKey = cacheKey(privateKey);
+        DerivedKey derivedKey = getDerivedKey(cacheKey);
+        String address = derivedKey.address;
+        if (address == null) {
+            address = loader.apply(privateKey);
+            derivedKey.address = address;
+            putDerivedKey(cacheKey, derivedKey);
+        }
+        return address;
+    }
+
+    /**
+     * 清除指定私钥的缓存.
+     *
+     * @param privateKey 十进制私钥
+     */
+    public static void remove(String privateKey) {
+        cacheNode.remove(cacheKey(new BigInteger(privateKey)));
+    }
+
+    /**
+     * 清除所有私钥的缓存.
+     */
+    public static void clear() {
+        cacheNode.removeAll();
+    }
+
+    /**
+     * 获取缓存项, 不存在时返回一个未放入缓存的空项, 派生成功后再放入, 派生失败的私钥不会留在缓存中.
+     */
+    private static DerivedKey getDerivedKey(String cacheKey) {
+        if (!ENABLED) {
+            return new DerivedKey();
+        }
+        DerivedKey derivedKey = cacheNode.get(cacheKey);
+        return derivedKey == null ? new DerivedKey() : derivedKey;
+    }
+
+    /**
+     * 放入缓存项, 派生期间已有其他项放入时(例如派生公钥时先缓存了密钥对), 合并到已缓存的项中.
+     */
+    private static void putDerivedKey(String cacheKey, DerivedKey derivedKey) {
+        if (!ENABLED) {
+            return;
+        }
+        DerivedKey cached = cacheNode.get(cacheKey);
+        if (cached == null) {
+            cacheNode.put(cacheKey, derivedKey);
+        } else if (cached != derivedKey) {
+            cached.merge(derivedKey);
+        }
+    }
+
+    private static String cacheKey(BigInteger privateKey) {
+        return Numeric.toHexStringNoPrefix(MAC.get().doFinal(privateKey.toByteArray()));
+    }
+
+    private static SecretKeySpec newHmacKey() {
+        byte[] key = new byte[HMAC_KEY_LENGTH];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    private static Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(HMAC_KEY);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new WeIdBaseException("init the key pair cache failed.", e);
+        }
+    }
+
+    /**
+     * 同一私钥的派生结果, 各字段按需派生, 并发时可能重复派生, 但结果相同.
+     */
+    private static final class DerivedKey {
+
+        private volatile CryptoKeyPair keyPair;
+
+        private volatile String publicKey;
+
+        private volatile String address;
+
+        private void merge(DerivedKey other) {
+            if (keyPair == null) {
+                keyPair = other.keyPair;
+            }
+            if (publicKey == null) {
+                publicKey = other.publicKey;
+            }
+            if (address == null) {
+                address = other.address;
+            }
+        }
+    }
+}
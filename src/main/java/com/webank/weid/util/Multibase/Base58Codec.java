@@ -0,0 +1,403 @@
+
+
+package com.webank.weid.util.Multibase;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Base58 (bitcoin alphabet) codec producing the same output as {@link Base58}, but working on
+ * 32-bit limbs instead of single digits: every long division step emits five base58 digits
+ * (58^5 fits in an int), and decoding folds five digits into one multiply-add pass.
+ * <p>
+ * The encode/decode methods write into caller-provided buffers; the bignum scratch space is
+ * kept per thread, so a call allocates nothing except the returned String or array of the
+ * convenience methods.
+ */
+public final class Base58Codec {
+
+    private static final char[] ALPHABET = Base58.ALPHABET;
+
+    private static final char ENCODED_ZERO = ALPHABET[0];
+
+    private static final int[] INDEXES = new int[128];
+
+    /**
+     * 58^1 .. 58^5, the divisor and multipliers for five digits at a time.
+     */
+    private static final int[] POWERS = {1, 58, 58 * 58, 58 * 58 * 58, 58 * 58 * 58 * 58,
+        58 * 58 * 58 * 58 * 58};
+
+    private static final int DIGITS_PER_LIMB = 5;
+
+    private static final long CHUNK = POWERS[DIGITS_PER_LIMB];
+
+    private static final long MASK = 0xFFFFFFFFL;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    static {
+        for (int i = 0; i < INDEXES.length; i++) {
+            INDEXES[i] = -1;
+        }
+        for (int i = 0; i < ALPHABET.length; i++) {
+            INDEXES[ALPHABET[i]] = i;
+        }
+    }
+
+    private Base58Codec() {
+    }
+
+    /**
+     * Upper bound of the encoded length of {@code length} bytes, log(256)/log(58) is
+     * about 1.366.
+     *
+     * @param length the number of input bytes
+     * @return the maximal number of base58 characters
+     */
+    public static int maxEncodedLength(int length) {
+        return (int) (length * 138L / 100) + 1;
+    }
+
+    /**
+     * Upper bound of the decoded length of {@code length} base58 characters, a character never
+     * decodes to more than one byte (a leading '1' is exactly one zero byte).
+     *
+     * @param length the number of base58 characters
+     * @return the maximal number of decoded bytes
+     */
+    public static int maxDecodedLength(int length) {
+        return length;
+    }
+
+    /**
+     * Encodes the given bytes as a base58 string.
+     *
+     * @param input the bytes to encode
+     * @return the base58-encoded string
+     */
+    public static String encode(byte[] input) {
+        char[] out = SCRATCH.get().chars(maxEncodedLength(input.length));
+        int length = encode(input, 0, input.length, out, 0);
+        return new String(out, 0, length);
+    }
+
+    /**
+     * Encodes the remaining bytes of {@code input} behind the given prefix character, the
+     * position of {@code input} is not moved.
+     */
+    static String encode(char prefix, ByteBuffer input) {
+        char[] out = SCRATCH.get().chars(maxEncodedLength(input.remaining()) + 1);
+        out[0] = prefix;
+        int length = encode(input, out, 1);
+        return new String(out, 0, length + 1);
+    }
+
+    /**
+     * Encodes {@code length} bytes of {@code input} starting at {@code offset} into
+     * {@code out}, which must have room for {@link #maxEncodedLength(int)} characters.
+     *
+     * @param input the bytes to encode
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @param out the destination
+     * @param outOffset the index of the first character written
+     * @return the number of characters written
+     */
+    public static int encode(byte[] input, int offset, int length, char[] out, int outOffset) {
+        checkRange(input.length, offset, length);
+        int zeros = 0;
+        while (zeros < length && input[offset + zeros] == 0) {
+            zeros++;
+        }
+        Scratch scratch = SCRATCH.get();
+        int limbCount = (length - zeros + 3) / 4;
+        int[] limbs = scratch.limbs(limbCount);
+        // big-endian limbs, the first limb takes the remainder bytes
+        int pos = offset + zeros;
+        int end = offset + length;
+        for (int i = 0; i < limbCount; i++) {
+            int take = i == 0 ? (end - pos) - (limbCount - 1) * 4 : 4;
+            int limb = 0;
+            for (int k = 0; k < take; k++) {
+                limb = (limb << 8) | (input[pos++] & 0xFF);
+            }
+            limbs[i] = limb;
+        }
+        return encodeLimbs(scratch, limbs, limbCount, zeros, out, outOffset);
+    }
+
+    /**
+     * Encodes the remaining bytes of {@code input} without copying them and without moving
+     * its position.
+     *
+     * @param input the bytes to encode
+     * @param out the destination
+     * @param outOffset the index of the first character written
+     * @return the number of characters written
+     */
+    public static int encode(ByteBuffer input, char[] out, int outOffset) {
+        int start = input.position();
+        int end = input.limit();
+        int zeros = 0;
+        while (start + zeros < end && input.get(start + zeros) == 0) {
+            zeros++;
+        }
+        Scratch scratch = SCRATCH.get();
+        int limbCount = (end - start - zeros + 3) / 4;
+        int[] limbs = scratch.limbs(limbCount);
+        int pos = start + zeros;
+        for (int i = 0; i < limbCount; i++) {
+            int take = i == 0 ? (end - pos) - (limbCount - 1) * 4 : 4;
+            int limb = 0;
+            for (int k = 0; k < take; k++) {
+                limb = (limb << 8) | (input.get(pos++) & 0xFF);
+            }
+            limbs[i] = limb;
+        }
+        return encodeLimbs(scratch, limbs, limbCount, zeros, out, outOffset);
+    }
+
+    private static int encodeLimbs(
+        Scratch scratch,
+        int[] limbs,
+        int limbCount,
+        int zeros,
+        char[] out,
+        int outOffset) {
+
+        // digits are produced least significant first, five per division pass
+        byte[] digits = scratch.digits(limbCount * 4 * 138 / 100 + 2 * DIGITS_PER_LIMB);
+        int digitCount = 0;
+        int first = 0;
+        while (first < limbCount) {
+            long remainder = 0;
+            for (int i = first; i < limbCount; i++) {
+                long current = (remainder << 32) | (limbs[i] & MASK);
+                limbs[i] = (int) (current / CHUNK);
+                remainder = current % CHUNK;
+            }
+            while (first < limbCount && limbs[first] == 0) {
+                first++;
+            }
+            for (int k = 0; k < DIGITS_PER_LIMB; k++) {
+                digits[digitCount++] = (byte) (remainder % 58);
+                remainder /= 58;
+            }
+        }
+        while (digitCount > 0 && digits[digitCount - 1] == 0) {
+            digitCount--;
+        }
+        int total = zeros + digitCount;
+        if (out.length - outOffset < total) {
+            throw new IndexOutOfBoundsException(
+                "base58 output needs " + total + " chars, only " + (out.length - outOffset)
+                    + " available");
+        }
+        int index = outOffset;
+        for (int i = 0; i < zeros; i++) {
+            out[index++] = ENCODED_ZERO;
+        }
+        for (int i = digitCount - 1; i >= 0; i--) {
+            out[index++] = ALPHABET[digits[i]];
+        }
+        return total;
+    }
+
+    /**
+     * Decodes the given base58 string into the original data bytes.
+     *
+     * @param input the base58-encoded string to decode
+     * @return the decoded data bytes
+     */
+    public static byte[] decode(CharSequence input) {
+        return decode(input, 0, input.length());
+    }
+
+    /**
+     * Decodes {@code length} characters of {@code input} starting at {@code offset}.
+     *
+     * @param input the base58-encoded characters
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @return the decoded data bytes
+     */
+    public static byte[] decode(CharSequence input, int offset, int length) {
+        byte[] out = SCRATCH.get().bytes(maxDecodedLength(length));
+        int decoded = decode(input, offset, length, out, 0);
+        byte[] result = new byte[decoded];
+        System.arraycopy(out, 0, result, 0, decoded);
+        return result;
+    }
+
+    /**
+     * Decodes {@code length} characters of {@code input} starting at {@code offset} into
+     * {@code out}, which must have room for {@link #maxDecodedLength(int)} bytes.
+     *
+     * @param input the base58-encoded characters
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @param out the destination
+     * @param outOffset the index of the first byte written
+     * @return the number of bytes written
+     */
+    public static int decode(CharSequence input, int offset, int length, byte[] out,
+        int outOffset) {
+        Scratch scratch = SCRATCH.get();
+        int zeros = parse(scratch, input, offset, length);
+        int byteCount = scratch.byteCount();
+        int total = zeros + byteCount;
+        if (out.length - outOffset < total) {
+            throw new IndexOutOfBoundsException(
+                "base58 output needs " + total + " bytes, only " + (out.length - outOffset)
+                    + " available");
+        }
+        for (int i = 0; i < zeros; i++) {
+            out[outOffset + i] = 0;
+        }
+        int[] limbs = scratch.limbs;
+        int index = outOffset + total;
+        for (int i = 0; i < byteCount; i++) {
+            out[--index] = (byte) (limbs[i >>> 2] >>> ((i & 3) << 3));
+        }
+        return total;
+    }
+
+    /**
+     * Decodes {@code length} characters of {@code input} starting at {@code offset} into
+     * {@code out} at its position, the position is moved past the written bytes.
+     *
+     * @param input the base58-encoded characters
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @param out the destination
+     * @return the number of bytes written
+     */
+    public static int decode(CharSequence input, int offset, int length, ByteBuffer out) {
+        Scratch scratch = SCRATCH.get();
+        int zeros = parse(scratch, input, offset, length);
+        int byteCount = scratch.byteCount();
+        int total = zeros + byteCount;
+        if (out.remaining() < total) {
+            throw new IndexOutOfBoundsException(
+                "base58 output needs " + total + " bytes, only " + out.remaining()
+                    + " available");
+        }
+        for (int i = 0; i < zeros; i++) {
+            out.put((byte) 0);
+        }
+        int[] limbs = scratch.limbs;
+        for (int i = byteCount - 1; i >= 0; i--) {
+            out.put((byte) (limbs[i >>> 2] >>> ((i & 3) << 3)));
+        }
+        return total;
+    }
+
+    /**
+     * Parses the characters into little-endian limbs kept in the scratch space.
+     *
+     * @return the number of leading zero bytes
+     */
+    private static int parse(Scratch scratch, CharSequence input, int offset, int length) {
+        checkRange(input.length(), offset, length);
+        int end = offset + length;
+        int zeros = 0;
+        while (zeros < length && input.charAt(offset + zeros) == ENCODED_ZERO) {
+            zeros++;
+        }
+        int[] limbs = scratch.limbs(length / 4 + 2);
+        int size = 0;
+        int pos = offset + zeros;
+        while (pos < end) {
+            int count = Math.min(DIGITS_PER_LIMB, end - pos);
+            long chunk = 0;
+            for (int k = 0; k < count; k++) {
+                chunk = chunk * 58 + digit(input.charAt(pos++));
+            }
+            long multiplier = POWERS[count];
+            long carry = chunk;
+            for (int i = 0; i < size; i++) {
+                long current = (limbs[i] & MASK) * multiplier + carry;
+                limbs[i] = (int) current;
+                carry = current >>> 32;
+            }
+            if (carry != 0) {
+                limbs[size++] = (int) carry;
+            }
+        }
+        scratch.size = size;
+        return zeros;
+    }
+
+    private static int digit(char c) {
+        int digit = c < 128 ? INDEXES[c] : -1;
+        if (digit < 0) {
+            throw new IllegalStateException("InvalidCharacter in base 58");
+        }
+        return digit;
+    }
+
+    private static void checkRange(int available, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > available - length) {
+            throw new IndexOutOfBoundsException(
+                "offset " + offset + ", length " + length + ", size " + available);
+        }
+    }
+
+    /**
+     * Per thread working buffers, grown on demand and reused by later calls.
+     */
+    private static final class Scratch {
+
+        private int[] limbs = new int[32];
+
+        private byte[] digits = new byte[192];
+
+        private char[] chars = new char[128];
+
+        private byte[] bytes = new byte[96];
+
+        /**
+         * The number of limbs used by the last parse.
+         */
+        private int size;
+
+        int[] limbs(int length) {
+            if (limbs.length < length) {
+                limbs = new int[length];
+            }
+            return limbs;
+        }
+
+        byte[] digits(int length) {
+            if (digits.length < length) {
+                digits = new byte[length];
+            }
+            return digits;
+        }
+
+        char[] chars(int length) {
+            if (chars.length < length) {
+                chars = new char[length];
+            }
+            return chars;
+        }
+
+        byte[] bytes(int length) {
+            if (bytes.length < length) {
+                bytes = new byte[length];
+            }
+            return bytes;
+        }
+
+        /**
+         * The number of significant bytes held by the parsed limbs.
+         */
+        int byteCount() {
+            if (size == 0) {
+                return 0;
+            }
+            int top = limbs[size - 1];
+            return (size - 1) * 4 + (4 - Integer.numberOfLeadingZeros(top) / 8);
+        }
+    }
+}
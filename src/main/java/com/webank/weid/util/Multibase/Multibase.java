@@ -1,5 +1,6 @@
 package com.webank.weid.util.Multibase;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 
 
@@ -51,7 +52,7 @@ public class Multibase {
     public static String encode(Base b, byte[] data) {
         switch (b) {
             case Base58BTC:
-                return b.prefix + Base58.encode(data);
+                return Base58Codec.encode(b.prefix, ByteBuffer.wrap(data));
             case Base16:
                 return b.prefix + Base16.encode(data);
             case Base16Upper:
@@ -89,16 +90,30 @@ public class Multibase {
         }
     }
 
+    /**
+     * Encodes the remaining bytes of the buffer, Base58BTC reads the buffer in place,
+     * the other bases work on a copy. The position of the buffer is not moved.
+     */
+    public static String encode(Base b, ByteBuffer data) {
+        if (b == Base.Base58BTC) {
+            return Base58Codec.encode(b.prefix, data);
+        }
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return encode(b, bytes);
+    }
+
     public static Base encoding(String data) {
         return Base.lookup(data.charAt(0));
     }
 
     public static byte[] decode(String data) {
         Base b = encoding(data);
+        if (b == Base.Base58BTC) {
+            return Base58Codec.decode(data, 1, data.length() - 1);
+        }
         String rest = data.substring(1);
         switch (b) {
-            case Base58BTC:
-                return Base58.decode(rest);
             case Base16:
                 return Base16.decode(rest);
             case Base16Upper:
@@ -128,4 +143,20 @@ public class Multibase {
                 throw new IllegalStateException("Unsupported base encoding: " + b.name());
         }
     }
+
+    /**
+     * Decodes into the buffer at its position and moves the position past the written bytes.
+     * Base58BTC is decoded straight into the buffer without intermediate arrays.
+     *
+     * @return the number of bytes written
+     */
+    public static int decode(CharSequence data, ByteBuffer out) {
+        Base b = Base.lookup(data.charAt(0));
+        if (b == Base.Base58BTC) {
+            return Base58Codec.decode(data, 1, data.length() - 1, out);
+        }
+        byte[] bytes = decode(data.toString());
+        out.put(bytes);
+        return bytes.length;
+    }
 }
@@ -4,6 +4,8 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Multicodec is part of the Multiformats collection of protocols.
@@ -23,6 +25,11 @@ import java.io.IOException;
  */
 public class MulticodecEncoder {
 
+    /**
+     * The unsigned varint encoded prefix of each multicodec, built on first use.
+     */
+    private static final Map<Multicodec, byte[]> PREFIXES = new ConcurrentHashMap<>();
+
     /**
      * Encodes the byte array of data for the multicodec type.
      * The multicodec type bytes are unsigned varint encoded and are pre-pended to the byte array.
@@ -33,10 +40,19 @@ public class MulticodecEncoder {
      */
     public static byte[] encode(Multicodec multicodec, byte[] data) {
 
+        //The prefix is the same for every call of the codec, only the data is copied.
+        byte[] prefix = PREFIXES.computeIfAbsent(multicodec, MulticodecEncoder::encodePrefix);
+        byte[] encoded = new byte[prefix.length + data.length];
+        System.arraycopy(prefix, 0, encoded, 0, prefix.length);
+        System.arraycopy(data, 0, encoded, prefix.length, data.length);
+        return encoded;
+    }
+
+    private static byte[] encodePrefix(Multicodec multicodec) {
+
         //Get the multicodec prefix of the encoding type as an array as some codes use multibyte prefixes.
         byte[] multicodecBytes = HexUtils.hexToBytes(multicodec.code);
 
-        //Create a byte array pre-pended with the multicodec prefix for the multicodecType
         //Taking care that the multicodec prefix must be unsigned varint encoded...
         try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
 
@@ -44,14 +60,10 @@ public class MulticodecEncoder {
             for (byte b : multicodecBytes) {
                 byteArrayOutputStream.write(VarInt.writeUnsignedVarInt(Byte.toUnsignedInt(b)));
             }
-
-            //Append the data bytes
-            byteArrayOutputStream.write(data);
             return byteArrayOutputStream.toByteArray();
 
         } catch (IOException exIO) {
-            System.err.println("Unexpected error on multicodec encode: " + exIO.getMessage());
-            return null;
+            throw new IllegalStateException("Unexpected error on multicodec encode", exIO);
         }
     }
 
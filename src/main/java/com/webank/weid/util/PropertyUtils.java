@@ -64,6 +64,17 @@ public final class PropertyUtils {
         return prop.getProperty(key, defaultValue);
     }
     
+    /**
+     * set property value by specific key, overrides the value of config file until reload.
+     * the caller should set it before the services are created.
+     *
+     * @param key property key
+     * @param value property value
+     */
+    public static void setProperty(String key, String value) {
+        prop.setProperty(key, value);
+    }
+
     /**
      * get the all key from Properties.
      * 
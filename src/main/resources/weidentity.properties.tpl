@@ -33,7 +33,9 @@ nodes=${BLOCKCHIAN_NODE_INFO}
 #                                                                                                     #
 #######################################################################################################
 # Persistence Layer configurations. Do NOT change this if you are not using Persistence Layer features!
-#Support the persistence of mysql and redis. You can choose the type of persistence.
+#Support the persistence of mysql, redis, embedded and memory. You can choose the type of persistence.
+#The embedded type stores data in local files and needs no external database.
+#The memory type keeps data in the current process only, for load tests and unit tests.
 persistence_type=${PERSISTENCE_TYPE}
 
 # MySQL connection config
@@ -53,6 +55,38 @@ datasource1.jdbc.maxWait=10000
 datasource1.jdbc.timeBetweenEvictionRunsMillis=600000
 datasource1.jdbc.numTestsPerEvictionRun=5
 datasource1.jdbc.minEvictableIdleTimeMillis=1800000
+# Optional adaptive pool sizing, adjusts maxTotal/minIdle within the bounds below by the borrow wait time.
+# minActive/maxActive default to maxActive and 2 * maxActive, maxMinIdle defaults to maxIdle, times in ms.
+datasource1.jdbc.adaptive=false
+#datasource1.jdbc.adaptive.minActive=50
+#datasource1.jdbc.adaptive.maxActive=100
+#datasource1.jdbc.adaptive.maxMinIdle=5
+#datasource1.jdbc.adaptive.targetWait=50
+#datasource1.jdbc.adaptive.interval=10000
+
+# Optional read replicas, reads are routed to the replicas and writes always go to datasource1.
+# Each replica is a data source declared in datasource.name. strategy is roundRobin or leastLoaded,
+# reads of a table stay on datasource1 for stickyWindow ms after a local write to it,
+# and a failing replica is ejected for ejectTime ms.
+#datasource1.jdbc.replicas=datasource2
+#datasource1.jdbc.replicas.strategy=roundRobin
+#datasource1.jdbc.replicas.stickyWindow=1000
+#datasource1.jdbc.replicas.ejectTime=30000
+
+# Pool and sql metrics are exported to JMX by default, set the class name of a MetricsRegistry to replace it.
+metrics.registry=
+# Latency and error code of service methods and downstream calls (persistence, blockchain, http, crypto, schema).
+# none (default), jmx (exported through metrics.registry), micrometer (micrometer-core required) or a class name.
+# Service methods are recorded for the async services and the services the SDK creates internally,
+# wrap your own service instances with InstrumentationManager.instrument(...).
+metrics.instrumentation=
+
+# Executor of the async services (WeIdServiceAsync etc.), calls are rejected when the queue is full.
+async.executor.threads=64
+async.executor.queueSize=10000
+# Run async services and batch APIs on virtual threads when the JDK supports them (21+), ignored on older JDKs.
+# Batch APIs keep their concurrency limits below on virtual threads.
+async.virtualThreads=false
 
 # Redis config
 # If you want to configure redis in cluster mode, enter multiple node addresses separated by commas.
@@ -66,6 +100,24 @@ redis_cluster.slave_connection_minimum_idle_size=10
 redis_cluster.slave_connection_pool_size=64
 redis_cluster.master_connection_minimum_idle_size=10
 redis_cluster.master_connection_pool_size=64
+# Nodes serving reads (SLAVE, MASTER or MASTER_SLAVE) and subscriptions (SLAVE or MASTER) in cluster mode.
+redis_cluster.read_mode=SLAVE
+redis_cluster.subscription_mode=MASTER
+# Codec of the redis client: default (redisson's own codec) or string. Values written with
+# one codec cannot be read with another, values encoded by persistence.value.codec are not affected.
+redis.codec=default
+# Threads of the redis client, and the netty event loop threads shared by its connections.
+redis.threads=16
+redis.netty_threads=32
+redis.tcp_no_delay=true
+redis.keep_alive=false
+# Batch writes do not wait for the reply of each command, needs redis 3.2 or later.
+redis.batch.skip_result=false
+
+# Embedded store config
+# The directory of the local data files, and whether to force each write to disk.
+embedded.path=./weid-data
+embedded.sync=false
 
 
 #######################################################################################################
@@ -116,6 +168,23 @@ local.role=datasource1:table_role
 local.authorityIssuer=datasource1:table_authority_issuer
 local.specificIssuer=datasource1:table_specific_issuer
 local.evidence=datasource1:table_evidence
+# Without local.sequence, ids are kept in table_sequence of the local.cpt datasource.
+local.sequence=datasource1:table_sequence
+# Number of cpt/policy/presentation ids each node reserves from local.sequence in one round trip.
+# The unused ids of a block are skipped when the node restarts, so every restart may leave a gap of
+# up to blockSize ids per sequence. Keep it small unless ids are allocated at a high rate.
+local.sequence.blockSize=100
+# Optional hash sharding of a domain into {table}_{shards}_{index} tables, routed by the primary key.
+# The shard tables can be spread over data sources, shard i lives in the (i % count)th data source.
+# Use com.webank.weid.suite.persistence.mysql.SqlShardMigrator to move data when changing the shards.
+#local.evidence.shards=4
+#local.evidence.shards.datasource=datasource1
+# Encoding of Redis values, of the schema, signature and log fields of Redis local records and of
+# MySQL blob columns: json (plain text, readable by older versions), smile or cbor.
+# Rows written in any format stay readable after changing it.
+persistence.value.codec=json
+# Encoded values of at least this many bytes are deflate compressed, 0 disables compression.
+persistence.value.compress.threshold=512
 
 
 #######################################################################################################
@@ -125,6 +194,38 @@ local.evidence=datasource1:table_evidence
 #######################################################################################################
 # You can configure the maximumSize of the default cache module through caffeineCache.maximumSize.xxx.
 caffeineCache.maximumSize.SYS_CPT=100
+caffeineCache.maximumSize.SYS_CLAIM_POLICY=1000
+caffeineCache.maximumSize.SYS_CPT_POLICY=1000
+caffeineCache.maximumSize.SYS_PRESENTATION_POLICY=1000
+caffeineCache.maximumSize.SYS_CREDENTIAL_TEMPLATE=100
+caffeineCache.maximumSize.SYS_ZKP_VERIFICATION_RULE=1000
+# Key pairs, public keys and addresses derived from private keys, 0 disables this cache.
+caffeineCache.maximumSize.SYS_KEY_PAIR=100
+# Load all claim policies into the cache in background when the policy service is created.
+policy.cache.prewarm=false
+# Max concurrent chain queries when listing authority issuers in bulk.
+authority.issuer.query.concurrency=8
+# Max concurrent existence checks in getWeIdListByPubKeyList when async.virtualThreads is on.
+weid.resolve.concurrency=8
+# Selective disclosure of credentials in createPresentation runs in parallel when the list has at
+# least this many credentials, 0 disables it.
+presentation.parallel.threshold=8
+# Threads verifying the ZKP proofs of presentations concurrently, 0 uses the number of CPU cores.
+zkp.verify.concurrency=0
+# Refresh interval (ms) of the in-memory recognized authority issuer set used by isAuthorityIssuer,
+# 0 disables it and every check goes to the chain or database.
+authority.issuer.recognized.refresh=0
+# Threads shared by all verifySignerBatch calls, and the credentials in flight per call.
+evidence.verify.batch.concurrency=8
+evidence.verify.batch.queueSize=1024
+# Evidences submitted per chain call, and the queue size between stages, of createEvidenceBatch.
+evidence.create.batch.size=100
+evidence.create.batch.queueSize=1024
+# How generateHash hashes a file: text (same hash as earlier versions, the file is read as UTF-8
+# text), stream (hashes the raw bytes, same as text for UTF-8 text files) or tree (chunks of
+# evidence.file.hash.tree.chunkSize bytes are hashed in parallel, then the chunk hashes are hashed).
+evidence.file.hash.mode=text
+evidence.file.hash.tree.chunkSize=4194304
 
 # Salt length for Proof creation.
 salt.length=5
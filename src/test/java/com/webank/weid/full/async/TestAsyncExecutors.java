@@ -0,0 +1,82 @@
+
+
+package com.webank.weid.full.async;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.suite.async.AsyncExecutors;
+
+/**
+ * test the executor of the async services.
+ */
+public class TestAsyncExecutors {
+
+    @Test
+    public void testSupplyRunsOnExecutor() throws Exception {
+        CompletableFuture<String> future = AsyncExecutors.supply(
+            () -> Thread.currentThread().getName(), AsyncExecutors.getExecutor());
+
+        Assert.assertTrue(future.get(10, TimeUnit.SECONDS).startsWith("weid-async-"));
+    }
+
+    @Test
+    public void testSupplyFailure() throws Exception {
+        CompletableFuture<String> future = AsyncExecutors.supply(() -> {
+            throw new IllegalStateException("broken");
+        }, AsyncExecutors.getExecutor());
+
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testSupplyRejected() throws Exception {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Boolean> running =
+                AsyncExecutors.supply(() -> await(release), executor);
+            CompletableFuture<Boolean> queued =
+                AsyncExecutors.supply(() -> await(release), executor);
+            CompletableFuture<Boolean> rejected =
+                AsyncExecutors.supply(() -> await(release), executor);
+
+            Assert.assertTrue(rejected.isCompletedExceptionally());
+            try {
+                rejected.get();
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+            release.countDown();
+            Assert.assertTrue(running.get(10, TimeUnit.SECONDS));
+            Assert.assertTrue(queued.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+
+
+package com.webank.weid.full.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.suite.async.VirtualThreads;
+
+/**
+ * test the thread creation which switches to virtual threads when enabled.
+ */
+public class TestVirtualThreads {
+
+    @Test
+    public void testEnabledOnlyWhenSupported() {
+        Assert.assertTrue(!VirtualThreads.isEnabled() || VirtualThreads.isSupported());
+        if (System.getProperty("java.specification.version").startsWith("1.")) {
+            Assert.assertFalse(VirtualThreads.isSupported());
+        }
+    }
+
+    @Test
+    public void testNewThread() throws InterruptedException {
+        StringBuilder name = new StringBuilder();
+        Thread thread = VirtualThreads.newThread("weid-test", () ->
+            name.append(Thread.currentThread().getName()));
+        Assert.assertTrue(thread.isDaemon());
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+
+        Assert.assertEquals("weid-test", name.toString());
+    }
+
+    @Test
+    public void testTaskExecutor() throws Exception {
+        ExecutorService executor = VirtualThreads.newTaskExecutor("weid-test", 2);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(executor.submit(() -> Thread.currentThread().getName()));
+            }
+            for (Future<String> future : futures) {
+                Assert.assertTrue(future.get(10, TimeUnit.SECONDS).startsWith("weid-test-"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTaskExecutorConcurrency() throws Exception {
+        ExecutorService executor = VirtualThreads.newTaskExecutor("weid-test", 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(maxRunning.get() <= 2);
+    }
+}
@@ -2,6 +2,10 @@
 
 package com.webank.weid.full.auth;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -203,4 +207,50 @@ public class TestQueryAuthorityIssuerInfo extends TestBaseService {
             response1.getErrorCode().intValue());
         Assert.assertNotNull(response1.getResult());
     }
+
+    /**
+     * case: query several authority issuers in bulk, the missing one is skipped.
+     */
+    @Test
+    public void testQueryAuthorityIssuerInfoList_success() {
+
+        String missingWeId = createWeId().getWeId();
+        ResponseData<List<AuthorityIssuer>> response =
+            authorityIssuerService.queryAuthorityIssuerInfoList(
+                Arrays.asList(createWeId.getWeId(), missingWeId));
+        LogUtil.info(logger, "queryAuthorityIssuerInfoList", response);
+
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), response.getErrorCode().intValue());
+        Assert.assertEquals(1, response.getResult().size());
+        Assert.assertEquals(createWeId.getWeId(), response.getResult().get(0).getWeId());
+    }
+
+    /**
+     * case: query in bulk with an invalid WeIdentity DID.
+     */
+    @Test
+    public void testQueryAuthorityIssuerInfoList_weIdInvalid() {
+
+        ResponseData<List<AuthorityIssuer>> response =
+            authorityIssuerService.queryAuthorityIssuerInfoList(
+                Arrays.asList(createWeId.getWeId(), "did:weid:0x1"));
+        LogUtil.info(logger, "queryAuthorityIssuerInfoList", response);
+
+        Assert.assertEquals(ErrorCode.WEID_INVALID.getCode(), response.getErrorCode().intValue());
+        Assert.assertNull(response.getResult());
+    }
+
+    /**
+     * case: query in bulk with empty list.
+     */
+    @Test
+    public void testQueryAuthorityIssuerInfoList_empty() {
+
+        ResponseData<List<AuthorityIssuer>> response =
+            authorityIssuerService.queryAuthorityIssuerInfoList(Collections.emptyList());
+        LogUtil.info(logger, "queryAuthorityIssuerInfoList", response);
+
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), response.getErrorCode().intValue());
+        Assert.assertTrue(response.getResult().isEmpty());
+    }
 }
@@ -75,4 +75,25 @@ public class TestPolicyServices extends TestBaseService {
         Assert.assertNotNull(getClaimFromPresResp.getResult());
         System.out.println(DataToolUtils.serialize(getClaimFromPresResp.getResult()));
     }
+
+    @Test
+    public void testClaimPoliciesFromCptSeeNewPolicy() {
+        WeIdAuthentication auth = new WeIdAuthentication();
+        CreateWeIdDataResult cwdr = createWeIdWithSetAttr();
+        auth.setWeId(cwdr.getWeId());
+        auth.setAuthenticationMethodId(cwdr.getUserWeIdPublicKey().getPublicKey() + "#keys-0");
+        auth.setWeIdPrivateKey(cwdr.getUserWeIdPrivateKey());
+        String policyJson = "{\"name\":0,\"gender\":0,\"age\":0,\"id\":0}";
+        Integer cptId = cptBaseInfo.getCptId();
+        Integer firstId = policyService.registerClaimPolicy(cptId, policyJson, auth).getResult();
+        Assert.assertTrue(firstId > 0);
+        // load the list of this cpt into the cache
+        Assert.assertTrue(policyService.getClaimPoliciesFromCpt(cptId).getResult()
+            .contains(firstId));
+        Integer secondId = policyService.registerClaimPolicy(cptId, policyJson, auth).getResult();
+        Assert.assertTrue(secondId > 0);
+        List<Integer> policies = policyService.getClaimPoliciesFromCpt(cptId).getResult();
+        Assert.assertTrue(policies.contains(firstId));
+        Assert.assertTrue(policies.contains(secondId));
+    }
 }
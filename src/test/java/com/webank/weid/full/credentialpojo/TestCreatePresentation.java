@@ -25,6 +25,7 @@ import com.webank.weid.protocol.base.WeIdAuthentication;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
 import com.webank.weid.util.DataToolUtils;
 import com.webank.weid.util.DateUtils;
+import com.webank.weid.util.PropertyUtils;
 
 public class TestCreatePresentation extends TestBaseService {
 
@@ -42,6 +43,8 @@ public class TestCreatePresentation extends TestBaseService {
 
     private static Challenge challenge = null;
 
+    private static final String PARALLEL_THRESHOLD = "presentation.parallel.threshold";
+
 
     @Override
     public synchronized void testInit() {
@@ -642,5 +645,53 @@ public class TestCreatePresentation extends TestBaseService {
         claimPolicy.setFieldsToBeDisclosed(policy);
     }
 
+    /**
+     * case: the parallel path gives the same credentials, in the same order, and the same
+     * signed content as the serial path.
+     */
+    @Test
+    public void testCreatePresentation_parallelSameAsSerial() {
 
+        List<CredentialPojo> credentials = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            credentials.add(super.createCredentialPojo(createCredentialPojoArgs));
+            credentials.add(credentialPojoNew);
+        }
+        WeIdAuthentication weIdAuthentication =
+            TestBaseUtil.buildWeIdAuthentication(createWeIdResultWithSetAttr);
+        String threshold = PropertyUtils.getProperty(PARALLEL_THRESHOLD);
+        ResponseData<PresentationE> serial;
+        ResponseData<PresentationE> parallel;
+        try {
+            PropertyUtils.setProperty(PARALLEL_THRESHOLD, "0");
+            serial = credentialPojoService.createPresentation(
+                credentials, presentationPolicyE, challenge, weIdAuthentication);
+            PropertyUtils.setProperty(PARALLEL_THRESHOLD, "2");
+            parallel = credentialPojoService.createPresentation(
+                credentials, presentationPolicyE, challenge, weIdAuthentication);
+        } finally {
+            PropertyUtils.setProperty(PARALLEL_THRESHOLD, threshold == null ? "8" : threshold);
+        }
+        LogUtil.info(logger, "TestCreatePresentation", parallel);
+
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), serial.getErrorCode().intValue());
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), parallel.getErrorCode().intValue());
+        List<CredentialPojo> serialList = serial.getResult().getVerifiableCredential();
+        List<CredentialPojo> parallelList = parallel.getResult().getVerifiableCredential();
+        Assert.assertEquals(serialList.size(), parallelList.size());
+        for (int i = 0; i < serialList.size(); i++) {
+            Assert.assertEquals(serialList.get(i).getId(), parallelList.get(i).getId());
+            Assert.assertEquals(
+                DataToolUtils.serialize(serialList.get(i)),
+                DataToolUtils.serialize(parallelList.get(i)));
+        }
+        // the proof signs the raw data, so equal raw data means the same signed content
+        Assert.assertEquals(serial.getResult().toRawData(), parallel.getResult().toRawData());
+        ResponseData<Boolean> verified = credentialPojoService.verify(
+            createWeIdResultWithSetAttr.getWeId(),
+            presentationPolicyE,
+            challenge,
+            parallel.getResult());
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), verified.getErrorCode().intValue());
+    }
 }
@@ -9,6 +9,7 @@ import com.webank.weid.protocol.base.Credential;
 import com.webank.weid.protocol.base.CredentialPojo;
 import com.webank.weid.protocol.base.EvidenceInfo;
 import com.webank.weid.protocol.base.WeIdAuthentication;
+import com.webank.weid.protocol.inf.Hashable;
 import com.webank.weid.protocol.request.TransactionArgs;
 import com.webank.weid.protocol.response.CreateWeIdDataResult;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
@@ -142,6 +143,47 @@ public class TestCreateEvidence extends TestBaseService {
         Assert.assertFalse(verifyResp.getResult());
     }
 
+    @Test
+    public void testCreateEvidenceBatch() {
+        CreateWeIdDataResult tempCreateWeIdResultWithSetAttr =
+            super.copyCreateWeId(createWeIdResultWithSetAttr);
+        List<Hashable> objects = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CredentialPojo credential = createCredentialPojo(createCredentialPojoArgs);
+            credential.setId(UUID.randomUUID().toString());
+            objects.add(credential);
+        }
+        objects.add(null);
+        ResponseData<List<ResponseData<String>>> batchResp = evidenceService
+            .createEvidenceBatch(objects, tempCreateWeIdResultWithSetAttr.getUserWeIdPrivateKey());
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), batchResp.getErrorCode().intValue());
+        List<ResponseData<String>> results = batchResp.getResult();
+        Assert.assertEquals(objects.size(), results.size());
+        String signerWeId = tempCreateWeIdResultWithSetAttr.getWeId();
+        for (int i = 0; i < 3; i++) {
+            CredentialPojo credential = (CredentialPojo) objects.get(i);
+            Assert.assertEquals(ErrorCode.SUCCESS.getCode(),
+                results.get(i).getErrorCode().intValue());
+            Assert.assertEquals(credential.getHash(), results.get(i).getResult());
+            EvidenceInfo evidenceInfo = evidenceService.getEvidence(credential.getHash())
+                .getResult();
+            Assert.assertTrue(
+                evidenceService.verifySigner(credential, evidenceInfo, signerWeId).getResult());
+        }
+        Assert.assertEquals(ErrorCode.ILLEGAL_INPUT.getCode(),
+            results.get(3).getErrorCode().intValue());
+
+        // an evidence already on chain gets its own failure
+        List<Hashable> again = new ArrayList<>();
+        again.add(objects.get(0));
+        results = evidenceService.createEvidenceBatch(again,
+            tempCreateWeIdResultWithSetAttr.getUserWeIdPrivateKey()).getResult();
+        Assert.assertNotEquals(ErrorCode.SUCCESS.getCode(),
+            results.get(0).getErrorCode().intValue());
+        Assert.assertNull(evidenceService.createEvidenceBatch(null,
+            tempCreateWeIdResultWithSetAttr.getUserWeIdPrivateKey()).getResult());
+    }
+
     @Test
     public void testCreateEvidenceDupAndNonExist() {
         CreateWeIdDataResult tempCreateWeIdResultWithSetAttr =
@@ -703,4 +745,47 @@ public class TestCreateEvidence extends TestBaseService {
             evidenceService.generateHash("10000").getResult().getHash()));
         Assert.assertNull(evidenceService.generateHash(createCredentialArgs).getResult());
     }
+
+    @Test
+    public void testVerifySignerBatch() {
+        CreateWeIdDataResult issuer = super.copyCreateWeId(createWeIdResultWithSetAttr);
+        List<CredentialPojo> credentials = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CredentialPojo credential = createCredentialPojo(createCredentialPojoArgs);
+            credential.setId(UUID.randomUUID().toString());
+            evidenceService.createEvidence(credential, issuer.getUserWeIdPrivateKey());
+            credentials.add(credential);
+        }
+        // the evidence of this credential is signed by another WeID than its issuer
+        CredentialPojo mismatch = createCredentialPojo(createCredentialPojoArgs);
+        mismatch.setId(UUID.randomUUID().toString());
+        CreateWeIdDataResult otherSigner = createWeIdWithSetAttr();
+        evidenceService.createEvidence(mismatch, otherSigner.getUserWeIdPrivateKey());
+        credentials.add(1, mismatch);
+        credentials.add(3, null);
+
+        ResponseData<List<ResponseData<Boolean>>> batchResp =
+            evidenceService.verifySignerBatch(credentials);
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), batchResp.getErrorCode().intValue());
+        List<ResponseData<Boolean>> results = batchResp.getResult();
+        Assert.assertEquals(credentials.size(), results.size());
+        for (int i = 0; i < credentials.size(); i++) {
+            CredentialPojo credential = credentials.get(i);
+            if (credential == null) {
+                Assert.assertEquals(ErrorCode.ILLEGAL_INPUT.getCode(),
+                    results.get(i).getErrorCode().intValue());
+            } else if (credential == mismatch) {
+                Assert.assertFalse(results.get(i).getResult());
+                Assert.assertEquals(ErrorCode.WEID_DOES_NOT_EXIST.getCode(),
+                    results.get(i).getErrorCode().intValue());
+            } else {
+                // same answer as verifying the credential on its own
+                EvidenceInfo evidenceInfo = evidenceService.getEvidence(credential.getHash())
+                    .getResult();
+                Assert.assertTrue(results.get(i).getResult());
+                Assert.assertTrue(evidenceService
+                    .verifySigner(credential, evidenceInfo, credential.getIssuer()).getResult());
+            }
+        }
+    }
 }
@@ -0,0 +1,139 @@
+
+
+package com.webank.weid.full.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.protocol.response.ResponseData;
+import com.webank.weid.suite.metrics.InstrumentationManager;
+import com.webank.weid.suite.metrics.InvocationLayer;
+import com.webank.weid.suite.metrics.MetricsRegistry;
+import com.webank.weid.suite.metrics.NoopInstrumentation;
+import com.webank.weid.suite.metrics.RegistryInstrumentation;
+
+/**
+ * test the instrumentation of service and downstream invocations.
+ */
+public class TestInstrumentation {
+
+    private static class RecordingRegistry implements MetricsRegistry {
+
+        private final Map<String, LongAdder> timers = new ConcurrentHashMap<>();
+
+        private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+        @Override
+        public void gauge(String name, Supplier<Number> supplier) {
+        }
+
+        @Override
+        public void recordTime(String name, long nanos) {
+            timers.computeIfAbsent(name, key -> new LongAdder()).increment();
+        }
+
+        @Override
+        public void increment(String name) {
+            counters.computeIfAbsent(name, key -> new LongAdder()).increment();
+        }
+
+        long timerCount(String name) {
+            LongAdder adder = timers.get(name);
+            return adder == null ? 0L : adder.sum();
+        }
+
+        long counterCount(String name) {
+            LongAdder adder = counters.get(name);
+            return adder == null ? 0L : adder.sum();
+        }
+    }
+
+    public interface Store {
+
+        ResponseData<String> get(String key);
+    }
+
+    @After
+    public void tearDown() {
+        InstrumentationManager.setInstrumentation(new NoopInstrumentation());
+    }
+
+    @Test
+    public void testTraceRecordsErrorCode() {
+        RecordingRegistry registry = new RecordingRegistry();
+        InstrumentationManager.setInstrumentation(new RegistryInstrumentation(registry));
+
+        ResponseData<String> success = InstrumentationManager.trace(
+            InvocationLayer.SERVICE, "Test.call", () -> new ResponseData<>("ok", 0, "success"));
+        InstrumentationManager.trace(
+            InvocationLayer.SERVICE, "Test.call", () -> new ResponseData<>(null, 100101, "fail"));
+
+        Assert.assertEquals("ok", success.getResult());
+        Assert.assertEquals(2L, registry.timerCount("invoke.service.Test.call"));
+        Assert.assertEquals(1L, registry.counterCount("invoke.service.Test.call.error.100101"));
+    }
+
+    @Test
+    public void testTraceRecordsException() {
+        RecordingRegistry registry = new RecordingRegistry();
+        InstrumentationManager.setInstrumentation(new RegistryInstrumentation(registry));
+
+        try {
+            InstrumentationManager.trace(InvocationLayer.CRYPTO, "sign", () -> {
+                throw new IllegalStateException("broken");
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("broken", e.getMessage());
+        }
+        Assert.assertEquals(1L, registry.timerCount("invoke.crypto.sign"));
+        Assert.assertEquals(
+            1L, registry.counterCount("invoke.crypto.sign.exception.IllegalStateException"));
+    }
+
+    @Test
+    public void testInstrumentProxy() {
+        RecordingRegistry registry = new RecordingRegistry();
+        InstrumentationManager.setInstrumentation(new RegistryInstrumentation(registry));
+        Store target = key -> {
+            if (key == null) {
+                throw new IllegalArgumentException("null key");
+            }
+            return new ResponseData<>(key, key.isEmpty() ? 100901 : 0, "");
+        };
+
+        Store store = InstrumentationManager.instrument(
+            Store.class, target, InvocationLayer.PERSISTENCE, "memory");
+        Assert.assertNotSame(target, store);
+        Assert.assertEquals("a", store.get("a").getResult());
+        store.get("");
+        try {
+            store.get(null);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("null key", e.getMessage());
+        }
+        Assert.assertNotNull(store.toString());
+
+        Assert.assertEquals(3L, registry.timerCount("invoke.persistence.memory.get"));
+        Assert.assertEquals(1L, registry.counterCount("invoke.persistence.memory.get.error.100901"));
+        Assert.assertEquals(1L,
+            registry.counterCount("invoke.persistence.memory.get.exception.IllegalArgumentException"));
+    }
+
+    @Test
+    public void testNoopReturnsTarget() {
+        InstrumentationManager.setInstrumentation(new NoopInstrumentation());
+        Store target = key -> new ResponseData<>(key, 0, "");
+
+        Assert.assertFalse(InstrumentationManager.isEnabled());
+        Assert.assertSame(target, InstrumentationManager.instrument(
+            Store.class, target, InvocationLayer.PERSISTENCE, "memory"));
+    }
+}
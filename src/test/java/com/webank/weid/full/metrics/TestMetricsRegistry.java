@@ -0,0 +1,81 @@
+
+
+package com.webank.weid.full.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.suite.metrics.JmxMetricsRegistry;
+import com.webank.weid.suite.metrics.LatencyHistogram;
+
+/**
+ * test the latency histogram and the JMX metrics registry.
+ */
+public class TestMetricsRegistry {
+
+    @Test
+    public void testHistogramPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0L, histogram.getPercentileMicros(0.99));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        Assert.assertEquals(1000L, histogram.getCount());
+        Assert.assertEquals(500L, histogram.getMeanMicros());
+        Assert.assertEquals(1000L, histogram.getMaxMicros());
+        // 分桶的相对误差不超过12.5%
+        assertNear(500L, histogram.getPercentileMicros(0.5));
+        assertNear(950L, histogram.getPercentileMicros(0.95));
+        Assert.assertEquals(1000L, histogram.getPercentileMicros(1.0));
+
+        histogram.reset();
+        Assert.assertEquals(0L, histogram.getCount());
+        Assert.assertEquals(0L, histogram.getMaxMicros());
+    }
+
+    @Test
+    public void testHistogramLargeValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-1L);
+        Assert.assertEquals(2L, histogram.getCount());
+        Assert.assertEquals(0L, histogram.getPercentileMicros(0.5));
+        Assert.assertEquals(histogram.getMaxMicros(), histogram.getPercentileMicros(1.0));
+    }
+
+    @Test
+    public void testJmxExport() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        JmxMetricsRegistry registry = new JmxMetricsRegistry(server);
+        AtomicInteger active = new AtomicInteger(3);
+        registry.gauge("test.pool.active", active::get);
+        registry.increment("test.sql.timeout");
+        registry.increment("test.sql.timeout");
+        registry.recordTime("test.sql.query", TimeUnit.MILLISECONDS.toNanos(20));
+
+        Assert.assertEquals(3.0, (Double) server.getAttribute(
+            new ObjectName("com.webank.weid:type=Gauge,name=test.pool.active"), "Value"), 0.001);
+        active.set(5);
+        Assert.assertEquals(5.0, (Double) server.getAttribute(
+            new ObjectName("com.webank.weid:type=Gauge,name=test.pool.active"), "Value"), 0.001);
+        Assert.assertEquals(2L, server.getAttribute(
+            new ObjectName("com.webank.weid:type=Counter,name=test.sql.timeout"), "Count"));
+        ObjectName timer = new ObjectName("com.webank.weid:type=Timer,name=test.sql.query");
+        Assert.assertEquals(1L, server.getAttribute(timer, "Count"));
+        Assert.assertEquals(20.0, (Double) server.getAttribute(timer, "MaxMillis"), 0.001);
+    }
+
+    private static void assertNear(long expected, long actual) {
+        Assert.assertTrue(
+            "expected about " + expected + " but was " + actual,
+            Math.abs(actual - expected) <= expected / 8
+        );
+    }
+}
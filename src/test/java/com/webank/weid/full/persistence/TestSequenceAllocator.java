@@ -0,0 +1,128 @@
+
+
+package com.webank.weid.full.persistence;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.exception.DatabaseException;
+import com.webank.weid.suite.persistence.BaseDomain;
+import com.webank.weid.suite.persistence.Persistence;
+import com.webank.weid.suite.persistence.SequenceAllocator;
+import com.webank.weid.suite.persistence.embedded.EmbeddedDomain;
+import com.webank.weid.suite.persistence.redis.RedisDomain;
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * test the block leasing id allocator.
+ */
+public class TestSequenceAllocator {
+
+    private static final String DOMAIN = "local.sequence";
+
+    /**
+     * 模拟存储中的序列, 只实现reserveSequence.
+     */
+    private static Persistence sequenceStore(AtomicLong sequence, AtomicInteger leases) {
+        return (Persistence) Proxy.newProxyInstance(
+            Persistence.class.getClassLoader(),
+            new Class<?>[]{Persistence.class},
+            (proxy, method, args) -> {
+                if (!"reserveSequence".equals(method.getName())) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                leases.incrementAndGet();
+                long initialValue = (Long) args[2];
+                int blockSize = (Integer) args[3];
+                sequence.compareAndSet(0L, initialValue);
+                long first = sequence.getAndAdd(blockSize);
+                return new ResponseData<>(first, ErrorCode.SUCCESS);
+            });
+    }
+
+    @Test
+    public void testSequentialWithinBlock() {
+        AtomicInteger leases = new AtomicInteger();
+        SequenceAllocator allocator = new SequenceAllocator(
+            sequenceStore(new AtomicLong(), leases), DOMAIN, "cpt", 1000L, 10);
+
+        for (long expected = 1000L; expected < 1025L; expected++) {
+            Assert.assertEquals(expected, allocator.next());
+        }
+        Assert.assertEquals(3, leases.get());
+    }
+
+    @Test
+    public void testNodesShareSequence() throws InterruptedException {
+        AtomicLong sequence = new AtomicLong();
+        AtomicInteger leases = new AtomicInteger();
+        List<SequenceAllocator> nodes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            nodes.add(new SequenceAllocator(
+                sequenceStore(sequence, leases), DOMAIN, "policy", 1L, 50));
+        }
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        int threads = 12;
+        int perThread = 500;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            SequenceAllocator node = nodes.get(t % nodes.size());
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (!ids.add(node.next())) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        Assert.assertEquals(0, duplicates.get());
+        Assert.assertEquals(threads * perThread, ids.size());
+        // 每个节点最多浪费一段未用完的编号
+        Assert.assertTrue(leases.get() <= threads * perThread / 50 + nodes.size());
+    }
+
+    @Test(expected = DatabaseException.class)
+    public void testLeaseFailure() {
+        Persistence failing = (Persistence) Proxy.newProxyInstance(
+            Persistence.class.getClassLoader(),
+            new Class<?>[]{Persistence.class},
+            (proxy, method, args) ->
+                new ResponseData<Long>(null, ErrorCode.PERSISTENCE_EXECUTE_FAILED));
+        new SequenceAllocator(failing, DOMAIN, "presentation", 1L, 10).next();
+    }
+
+    @Test
+    public void testDomainFallback() {
+        String configured = PropertyUtils.getProperty(DOMAIN);
+        String cptDataSource = PropertyUtils.getProperty(DataDriverConstant.LOCAL_CPT)
+            .split(BaseDomain.VALUE_SPLIT_CHAR)[0];
+        try {
+            // 升级前的配置中没有local.sequence
+            PropertyUtils.setProperty(DOMAIN, "");
+            BaseDomain redisDomain = new RedisDomain(DOMAIN);
+            Assert.assertEquals(cptDataSource, redisDomain.getBaseDomain());
+            Assert.assertEquals(BaseDomain.DEFAULT_SEQUENCE_TABLE, redisDomain.getTableDomain());
+            BaseDomain embeddedDomain = new EmbeddedDomain(DOMAIN);
+            Assert.assertEquals(cptDataSource, embeddedDomain.getBaseDomain());
+            Assert.assertEquals(BaseDomain.DEFAULT_SEQUENCE_TABLE, embeddedDomain.getTableDomain());
+        } finally {
+            PropertyUtils.setProperty(DOMAIN, configured == null ? "" : configured);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.webank.weid.full.persistence;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.suite.persistence.ValueCodec;
+import com.webank.weid.suite.persistence.ValueCodec.Format;
+
+/**
+ * test the binary value codec of the persistence layer.
+ */
+public class TestValueCodec {
+
+    private static final String DOCUMENT =
+        "{\"id\":\"did:weid:101:0x0123\",\"created\":1600000000,"
+        + "\"authentication\":[{\"type\":\"Secp256k1\",\"publicKey\":\""
+        + StringUtils.repeat("ab", 64) + "\"},{\"type\":\"Secp256k1\",\"publicKey\":\""
+        + StringUtils.repeat("cd", 64) + "\"}],\"service\":[],\"ratio\":0.5,\"name\":\"中文\"}";
+
+    @Test
+    public void testRoundTrip() {
+        for (Format format : Format.values()) {
+            for (int threshold : new int[]{0, 1, 512}) {
+                byte[] encoded = new ValueCodec(format, threshold).encode(DOCUMENT);
+                Assert.assertTrue(ValueCodec.isEncoded(encoded));
+                Assert.assertEquals(DOCUMENT, ValueCodec.decode(encoded));
+            }
+        }
+    }
+
+    @Test
+    public void testBinaryIsSmaller() {
+        int size = DOCUMENT.getBytes(StandardCharsets.UTF_8).length;
+        Assert.assertTrue(new ValueCodec(Format.SMILE, 0).encode(DOCUMENT).length < size);
+        Assert.assertTrue(new ValueCodec(Format.CBOR, 0).encode(DOCUMENT).length < size);
+
+        String logs = StringUtils.repeat("0x0123456789abcdef,", 100);
+        byte[] encoded = new ValueCodec(Format.SMILE, 512).encode(logs);
+        Assert.assertTrue(encoded.length < logs.length());
+        Assert.assertEquals(logs, ValueCodec.decode(encoded));
+    }
+
+    @Test
+    public void testKeepText() {
+        String[] values = {
+            "{\n  \"id\" : 1\n}",
+            "{\"value\":1.10}",
+            "{\"value\":\"\\u00e9\"}",
+            "{\"broken\":",
+            "[1,2] [3]",
+            "signature"
+        };
+        for (String value : values) {
+            Assert.assertEquals(value, ValueCodec.decode(new ValueCodec(Format.SMILE, 0)
+                .encode(value)));
+            Assert.assertEquals(value, ValueCodec.decode(new ValueCodec(Format.CBOR, 0)
+                .encode(value)));
+        }
+    }
+
+    @Test
+    public void testReadLegacyText() {
+        byte[] legacy = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        Assert.assertFalse(ValueCodec.isEncoded(legacy));
+        Assert.assertEquals(DOCUMENT, ValueCodec.decode(legacy));
+        Assert.assertFalse(ValueCodec.isEncoded("\uD83D\uDE00".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertNull(ValueCodec.decode(null));
+    }
+}
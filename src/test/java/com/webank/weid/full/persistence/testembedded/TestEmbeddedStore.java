@@ -0,0 +1,206 @@
+
+
+package com.webank.weid.full.persistence.testembedded;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.webank.weid.suite.persistence.embedded.EmbeddedStore;
+
+/**
+ * test the embedded store without any external service.
+ */
+public class TestEmbeddedStore {
+
+    private static final String TABLE = "table_test";
+
+    private static final String INDEX_NAME = EmbeddedStore.fieldIndex("name");
+
+    private static final String INDEX_NAME_MULTI = EmbeddedStore.fieldMultiIndex("name");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private EmbeddedStore store;
+
+    @Before
+    public void open() throws IOException {
+        store = EmbeddedStore.open(folder.getRoot().getPath(), false);
+    }
+
+    @After
+    public void close() throws IOException {
+        store.close();
+    }
+
+    private static Map<String, String> record(String name, String value) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("name", name);
+        fields.put("value", value);
+        return fields;
+    }
+
+    @Test
+    public void testInsertAndGet() throws IOException {
+        Assert.assertEquals(1, store.insert(TABLE, "id1", record("a", "1")));
+        Assert.assertEquals(0, store.insert(TABLE, "id1", record("a", "2")));
+        Assert.assertEquals("1", store.get(TABLE, "id1").get("value"));
+        Assert.assertNull(store.get(TABLE, "id2"));
+        Assert.assertNull(store.get("table_other", "id1"));
+    }
+
+    @Test
+    public void testUpdateAndDelete() throws IOException {
+        Assert.assertEquals(0, store.update(TABLE, "id1", record("a", "1")));
+        store.insert(TABLE, "id1", record("a", "1"));
+        Map<String, String> fields = new HashMap<>();
+        fields.put("value", "2");
+        Assert.assertEquals(1, store.update(TABLE, "id1", fields));
+        Assert.assertEquals("a", store.get(TABLE, "id1").get("name"));
+        Assert.assertEquals("2", store.get(TABLE, "id1").get("value"));
+        Assert.assertEquals(1, store.delete(TABLE, "id1"));
+        Assert.assertEquals(0, store.delete(TABLE, "id1"));
+        Assert.assertNull(store.get(TABLE, "id1"));
+        Assert.assertEquals(0, store.count(TABLE));
+    }
+
+    @Test
+    public void testIndex() throws IOException {
+        Assert.assertEquals(1, store.insert(TABLE, "id1", record("a", "1"), INDEX_NAME));
+        Assert.assertEquals(-1, store.insert(TABLE, "id2", record("a", "2"), INDEX_NAME));
+        Assert.assertEquals("id1", store.findByIndex(TABLE, "name", "a"));
+
+        Assert.assertEquals(1, store.update(TABLE, "id1", record("b", "1"), INDEX_NAME));
+        Assert.assertNull(store.findByIndex(TABLE, "name", "a"));
+        Assert.assertEquals("id1", store.findByIndex(TABLE, "name", "b"));
+        Assert.assertEquals(1, store.insert(TABLE, "id2", record("a", "2"), INDEX_NAME));
+        Assert.assertEquals(-1, store.update(TABLE, "id2", record("b", "2"), INDEX_NAME));
+
+        store.delete(TABLE, "id1");
+        Assert.assertNull(store.findByIndex(TABLE, "name", "b"));
+    }
+
+    @Test
+    public void testRangeAndMemberSet() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            store.insert(TABLE, "id" + i, record("n" + i, String.valueOf(i)));
+        }
+        Assert.assertEquals(5, store.count(TABLE));
+        Assert.assertEquals(Arrays.asList("id1", "id2"), store.range(TABLE, 1, 2));
+        Assert.assertEquals(Arrays.asList("id3", "id4"), store.range(TABLE, 3, 10));
+        Assert.assertTrue(store.range(TABLE, 5, 1).isEmpty());
+
+        Map<String, String> fields = new HashMap<>();
+        store.update(TABLE, "id1", fields, EmbeddedStore.memberSet("flag", true));
+        store.update(TABLE, "id2", fields, EmbeddedStore.memberSet("flag", true));
+        Assert.assertEquals(2, store.memberCount(TABLE, "flag"));
+        store.update(TABLE, "id1", fields, EmbeddedStore.memberSet("flag", false));
+        store.delete(TABLE, "id2");
+        Assert.assertEquals(0, store.memberCount(TABLE, "flag"));
+    }
+
+    @Test
+    public void testReopenAndCompact() throws IOException {
+        Map<String, Map<String, String>> records = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            records.put("id" + i, record("n" + i, String.valueOf(i)));
+        }
+        Assert.assertEquals(100, store.insertBatch(TABLE, records, INDEX_NAME));
+        for (int i = 0; i < 50; i++) {
+            store.update(TABLE, "id" + i, record("m" + i, "u"), INDEX_NAME);
+        }
+        store.update(TABLE, "id7", new HashMap<>(), EmbeddedStore.memberSet("flag", true));
+        store.delete(TABLE, "id99");
+
+        store.close();
+        store = EmbeddedStore.open(folder.getRoot().getPath(), false);
+        assertReloaded();
+
+        File log = new File(folder.getRoot(), EmbeddedStore.LOG_FILE_NAME);
+        long before = log.length();
+        store.compact();
+        Assert.assertTrue(log.length() < before);
+        assertReloaded();
+
+        store.close();
+        store = EmbeddedStore.open(folder.getRoot().getPath(), false);
+        assertReloaded();
+    }
+
+    private void assertReloaded() throws IOException {
+        Assert.assertEquals(99, store.count(TABLE));
+        Assert.assertEquals("u", store.get(TABLE, "id3").get("value"));
+        Assert.assertEquals("60", store.get(TABLE, "id60").get("value"));
+        Assert.assertEquals("id3", store.findByIndex(TABLE, "name", "m3"));
+        Assert.assertNull(store.findByIndex(TABLE, "name", "n3"));
+        Assert.assertEquals(1, store.memberCount(TABLE, "flag"));
+        Assert.assertEquals(Arrays.asList("id97", "id98"), store.range(TABLE, 97, 5));
+    }
+
+    @Test
+    public void testMultiIndex() throws IOException {
+        Assert.assertEquals(1, store.insert(TABLE, "id2", record("a", "1"), INDEX_NAME_MULTI));
+        Assert.assertEquals(1, store.insert(TABLE, "id1", record("a", "2"), INDEX_NAME_MULTI));
+        Assert.assertEquals(1, store.insert(TABLE, "id3", record("a", "3"), INDEX_NAME_MULTI));
+        Assert.assertEquals("id1", store.findByIndex(TABLE, "name", "a"));
+
+        // 改名或删除后返回下一条相同字段值的记录
+        Assert.assertEquals(1, store.update(TABLE, "id1", record("b", "2"), INDEX_NAME_MULTI));
+        Assert.assertEquals("id2", store.findByIndex(TABLE, "name", "a"));
+        Assert.assertEquals("id1", store.findByIndex(TABLE, "name", "b"));
+        store.delete(TABLE, "id2");
+        Assert.assertEquals("id3", store.findByIndex(TABLE, "name", "a"));
+
+        store.close();
+        store = EmbeddedStore.open(folder.getRoot().getPath(), false);
+        Assert.assertEquals("id3", store.findByIndex(TABLE, "name", "a"));
+    }
+
+    @Test
+    public void testTruncatedTail() throws IOException {
+        store.insert(TABLE, "id1", record("a", "1"));
+        store.insert(TABLE, "id2", record("b", "2"));
+        store.close();
+
+        File log = new File(folder.getRoot(), EmbeddedStore.LOG_FILE_NAME);
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        store = EmbeddedStore.open(folder.getRoot().getPath(), false);
+        Assert.assertEquals(1, store.count(TABLE));
+        Assert.assertNotNull(store.get(TABLE, "id1"));
+        Assert.assertEquals(1, store.insert(TABLE, "id2", record("b", "3")));
+
+        store.close();
+        store = EmbeddedStore.open(folder.getRoot().getPath(), false);
+        Assert.assertEquals("3", store.get(TABLE, "id2").get("value"));
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        store.insert(TABLE, "id1", record("a", "1"), INDEX_NAME);
+        File snapshotDir = folder.newFolder("snapshot");
+        store.snapshot(new File(snapshotDir, EmbeddedStore.LOG_FILE_NAME));
+        store.insert(TABLE, "id2", record("b", "2"), INDEX_NAME);
+
+        EmbeddedStore copy = EmbeddedStore.open(snapshotDir.getPath(), false);
+        try {
+            Assert.assertEquals(1, copy.count(TABLE));
+            Assert.assertEquals("id1", copy.findByIndex(TABLE, "name", "a"));
+        } finally {
+            copy.close();
+        }
+    }
+}
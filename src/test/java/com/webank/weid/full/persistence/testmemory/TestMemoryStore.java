@@ -0,0 +1,188 @@
+
+
+package com.webank.weid.full.persistence.testmemory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.webank.weid.suite.persistence.embedded.EmbeddedStore;
+import com.webank.weid.suite.persistence.memory.MemoryStore;
+
+/**
+ * test the concurrent in-memory store.
+ */
+public class TestMemoryStore {
+
+    private static final String TABLE = "table_test";
+
+    private static final String INDEX_NAME = EmbeddedStore.fieldIndex("name");
+
+    private static final String INDEX_NAME_MULTI = EmbeddedStore.fieldMultiIndex("name");
+
+    private MemoryStore store;
+
+    @Before
+    public void open() {
+        store = new MemoryStore();
+    }
+
+    private static Map<String, String> record(String name, String value) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("name", name);
+        fields.put("value", value);
+        return fields;
+    }
+
+    @Test
+    public void testInsertUpdateDelete() {
+        Assert.assertEquals(1, store.insert(TABLE, "id1", record("a", "1")));
+        Assert.assertEquals(0, store.insert(TABLE, "id1", record("a", "2")));
+        Assert.assertEquals("1", store.get(TABLE, "id1").get("value"));
+        Assert.assertNull(store.get("table_other", "id1"));
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put("value", "2");
+        Assert.assertEquals(1, store.update(TABLE, "id1", fields));
+        Assert.assertEquals(0, store.update(TABLE, "id2", fields));
+        Assert.assertEquals("a", store.get(TABLE, "id1").get("name"));
+        Assert.assertEquals("2", store.get(TABLE, "id1").get("value"));
+
+        Assert.assertEquals(1, store.delete(TABLE, "id1"));
+        Assert.assertEquals(0, store.delete(TABLE, "id1"));
+        Assert.assertNull(store.get(TABLE, "id1"));
+        Assert.assertEquals(0, store.count(TABLE));
+    }
+
+    @Test
+    public void testIndex() {
+        Assert.assertEquals(1, store.insert(TABLE, "id1", record("a", "1"), INDEX_NAME));
+        Assert.assertEquals(-1, store.insert(TABLE, "id2", record("a", "2"), INDEX_NAME));
+        Assert.assertNull(store.get(TABLE, "id2"));
+        Assert.assertEquals("id1", store.findByIndex(TABLE, "name", "a"));
+
+        // 改名后旧值可以被其他记录使用
+        Assert.assertEquals(1, store.update(TABLE, "id1", record("b", "1"), INDEX_NAME));
+        Assert.assertNull(store.findByIndex(TABLE, "name", "a"));
+        Assert.assertEquals(1, store.insert(TABLE, "id2", record("a", "2"), INDEX_NAME));
+        Assert.assertEquals(-1, store.update(TABLE, "id2", record("b", "2"), INDEX_NAME));
+
+        store.delete(TABLE, "id1");
+        Assert.assertNull(store.findByIndex(TABLE, "name", "b"));
+        Assert.assertEquals(1, store.update(TABLE, "id2", record("b", "2"), INDEX_NAME));
+    }
+
+    @Test
+    public void testMultiIndex() {
+        Assert.assertEquals(1, store.insert(TABLE, "id2", record("a", "1"), INDEX_NAME_MULTI));
+        Assert.assertEquals(1, store.insert(TABLE, "id1", record("a", "2"), INDEX_NAME_MULTI));
+        Assert.assertEquals(1, store.insert(TABLE, "id3", record("a", "3"), INDEX_NAME_MULTI));
+        Assert.assertEquals("id1", store.findByIndex(TABLE, "name", "a"));
+
+        // 改名或删除后返回下一条相同字段值的记录
+        Assert.assertEquals(1, store.update(TABLE, "id1", record("b", "2"), INDEX_NAME_MULTI));
+        Assert.assertEquals("id2", store.findByIndex(TABLE, "name", "a"));
+        Assert.assertEquals("id1", store.findByIndex(TABLE, "name", "b"));
+        store.delete(TABLE, "id2");
+        Assert.assertEquals("id3", store.findByIndex(TABLE, "name", "a"));
+    }
+
+    @Test
+    public void testRangeAndMemberSet() {
+        for (int i = 0; i < 5; i++) {
+            store.insert(TABLE, "id" + i, record("n" + i, String.valueOf(i)));
+        }
+        store.delete(TABLE, "id1");
+        Assert.assertEquals(Arrays.asList("id0", "id2"), store.range(TABLE, 0, 2));
+        Assert.assertEquals(Arrays.asList("id3", "id4"), store.range(TABLE, 2, 10));
+        Assert.assertTrue(store.range(TABLE, 4, 10).isEmpty());
+
+        store.update(TABLE, "id2", record("n2", "2"), EmbeddedStore.memberSet("set", true));
+        store.update(TABLE, "id3", record("n3", "3"), EmbeddedStore.memberSet("set", true));
+        Assert.assertEquals(2, store.memberCount(TABLE, "set"));
+        store.update(TABLE, "id3", record("n3", "3"), EmbeddedStore.memberSet("set", false));
+        store.delete(TABLE, "id2");
+        Assert.assertEquals(0, store.memberCount(TABLE, "set"));
+    }
+
+    @Test
+    public void testConcurrentInsert() throws InterruptedException {
+        int threads = 8;
+        int perThread = 1000;
+        AtomicInteger conflictWinners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    store.insert(TABLE, index + "-" + i, record(index + "-" + i, "v"), INDEX_NAME);
+                    // 所有线程竞争同一个唯一索引值, 只能有一个成功
+                    if (store.insert(TABLE, "shared-" + index + "-" + i,
+                        record("shared-" + i, "v"), INDEX_NAME) == 1) {
+                        conflictWinners.incrementAndGet();
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Assert.assertEquals(perThread, conflictWinners.get());
+        Assert.assertEquals(threads * perThread + perThread, store.count(TABLE));
+        Assert.assertEquals(threads * perThread + perThread,
+            store.range(TABLE, 0, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void testConcurrentCompute() throws InterruptedException {
+        int threads = 8;
+        int perThread = 200;
+        store.insert(TABLE, "id1", record("a", "0"));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    // 基于当前值追加, 并发追加不能互相覆盖
+                    store.compute(TABLE, "id1", current -> {
+                        Map<String, String> fields = new HashMap<>();
+                        fields.put("value", current.get("value") + ";v");
+                        return fields;
+                    });
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Assert.assertEquals(threads * perThread + 1,
+            store.get(TABLE, "id1").get("value").split(";").length);
+        Assert.assertEquals(0, store.compute(TABLE, "id2", current -> current));
+    }
+}
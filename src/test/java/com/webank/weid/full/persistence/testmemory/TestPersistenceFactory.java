@@ -0,0 +1,59 @@
+package com.webank.weid.full.persistence.testmemory;
+
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.exception.WeIdBaseException;
+import com.webank.weid.suite.persistence.Persistence;
+import com.webank.weid.suite.persistence.PersistenceFactory;
+import com.webank.weid.util.PropertyUtils;
+
+/**
+ * test building the data driver from persistence_type.
+ */
+public class TestPersistenceFactory {
+
+    private static final String PERSISTENCE_TYPE = "persistence_type";
+
+    private String persistenceType;
+
+    @Before
+    public void saveType() {
+        persistenceType = PropertyUtils.getProperty(PERSISTENCE_TYPE, "mysql");
+    }
+
+    @After
+    public void restoreType() {
+        PropertyUtils.setProperty(PERSISTENCE_TYPE, persistenceType);
+    }
+
+    @Test
+    public void testBuildFromConfig() {
+        PropertyUtils.setProperty(PERSISTENCE_TYPE, "memory");
+        Persistence driver = PersistenceFactory.build();
+        String id = UUID.randomUUID().toString();
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(),
+            driver.add(DataDriverConstant.DOMAIN_DEFAULT_INFO, id, "data").getErrorCode()
+                .intValue());
+        Assert.assertEquals("data",
+            driver.get(DataDriverConstant.DOMAIN_DEFAULT_INFO, id).getResult());
+    }
+
+    @Test
+    public void testBuildUnsupportedType() {
+        PropertyUtils.setProperty(PERSISTENCE_TYPE, "oracle");
+        try {
+            PersistenceFactory.build();
+            Assert.fail("unsupported persistence type should be rejected.");
+        } catch (WeIdBaseException e) {
+            Assert.assertEquals(ErrorCode.THIS_IS_UNSUPPORTED.getCode(), e.getErrorCode()
+                .getCode());
+        }
+    }
+}
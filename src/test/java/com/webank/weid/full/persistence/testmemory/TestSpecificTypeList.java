@@ -0,0 +1,63 @@
+
+
+package com.webank.weid.full.persistence.testmemory;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.suite.persistence.Persistence;
+import com.webank.weid.suite.persistence.SpecificTypeValue;
+import com.webank.weid.suite.persistence.embedded.driver.EmbeddedDriver;
+import com.webank.weid.suite.persistence.memory.MemoryStore;
+
+/**
+ * test the paged query of SpecificTypes on the in-memory store.
+ */
+public class TestSpecificTypeList {
+
+    private static final String DOMAIN = DataDriverConstant.LOCAL_SPECIFIC_ISSUER;
+
+    private Persistence driver;
+
+    @Before
+    public void open() {
+        driver = new EmbeddedDriver(new MemoryStore()) {
+        };
+        for (int i = 0; i < 5; i++) {
+            driver.addSpecificType(DOMAIN, "type" + i, "owner" + i);
+        }
+        driver.updateSpecificTypeFellow(DOMAIN, "type2", "did:weid:1,did:weid:2");
+    }
+
+    @Test
+    public void testSameOrderAsTypeNames() {
+        List<String> names = driver.getIssuerTypeList(DOMAIN, 1, 4).getResult();
+        ResponseData<List<SpecificTypeValue>> response = driver.getSpecificTypeList(DOMAIN, 1, 4);
+
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), response.getErrorCode().intValue());
+        Assert.assertEquals(3, response.getResult().size());
+        for (int i = 0; i < names.size(); i++) {
+            SpecificTypeValue value = response.getResult().get(i);
+            Assert.assertEquals(names.get(i), value.getType_name());
+            Assert.assertEquals(
+                driver.getSpecificType(DOMAIN, names.get(i)).getResult().getOwner(),
+                value.getOwner());
+            Assert.assertNotNull(value.getCreated());
+        }
+        Assert.assertEquals("did:weid:1,did:weid:2", response.getResult().get(1).getFellow());
+    }
+
+    @Test
+    public void testOutOfRange() {
+        ResponseData<List<SpecificTypeValue>> response = driver.getSpecificTypeList(DOMAIN, 5, 10);
+
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), response.getErrorCode().intValue());
+        Assert.assertTrue(response.getResult().isEmpty());
+    }
+}
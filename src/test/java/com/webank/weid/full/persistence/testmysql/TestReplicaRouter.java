@@ -0,0 +1,97 @@
+
+
+package com.webank.weid.full.persistence.testmysql;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.suite.persistence.mysql.ReplicaRouter;
+
+/**
+ * test the replica routing of the mysql driver, without database.
+ */
+public class TestReplicaRouter {
+
+    private static final String TABLE = "weidentity_test_table_evidence";
+
+    private final Map<String, Double> loads = new HashMap<>();
+
+    private ReplicaRouter router(ReplicaRouter.Strategy strategy, long sticky, long eject) {
+        return new ReplicaRouter(
+            "primary",
+            Arrays.asList("replica1", "replica2"),
+            strategy,
+            sticky,
+            eject,
+            replica -> loads.getOrDefault(replica, 0.0)
+        );
+    }
+
+    @Test
+    public void testRoundRobin() {
+        ReplicaRouter router = router(ReplicaRouter.Strategy.ROUND_ROBIN, 0, 1000);
+        Set<String> routed = new HashSet<>();
+        String last = null;
+        for (int i = 0; i < 4; i++) {
+            String current = router.route(TABLE);
+            Assert.assertNotEquals(last, current);
+            routed.add(current);
+            last = current;
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList("replica1", "replica2")), routed);
+    }
+
+    @Test
+    public void testLeastLoaded() {
+        ReplicaRouter router = router(ReplicaRouter.Strategy.LEAST_LOADED, 0, 1000);
+        loads.put("replica1", 0.8);
+        loads.put("replica2", 0.1);
+        Assert.assertEquals("replica2", router.route(TABLE));
+        loads.put("replica2", 0.9);
+        Assert.assertEquals("replica1", router.route(TABLE));
+    }
+
+    @Test
+    public void testReadYourWrites() throws InterruptedException {
+        ReplicaRouter router = router(ReplicaRouter.Strategy.ROUND_ROBIN, 100, 1000);
+        router.markWrite(TABLE);
+        Assert.assertEquals("primary", router.route(TABLE));
+        Assert.assertNotEquals("primary", router.route("weidentity_test_table_cpt"));
+        Thread.sleep(150);
+        Assert.assertNotEquals("primary", router.route(TABLE));
+    }
+
+    @Test
+    public void testEject() throws InterruptedException {
+        ReplicaRouter router = router(ReplicaRouter.Strategy.ROUND_ROBIN, 0, 100);
+        router.eject("replica1");
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals("replica2", router.route(TABLE));
+        }
+        router.eject("replica2");
+        Assert.assertEquals("primary", router.route(TABLE));
+        // 不属于该主库的数据源不影响路由
+        router.eject("primary");
+        Thread.sleep(150);
+        Set<String> routed = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            routed.add(router.route(TABLE));
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList("replica1", "replica2")), routed);
+    }
+
+    @Test
+    public void testStrategyOf() {
+        Assert.assertEquals(ReplicaRouter.Strategy.LEAST_LOADED,
+            ReplicaRouter.Strategy.of("leastLoaded"));
+        Assert.assertEquals(ReplicaRouter.Strategy.ROUND_ROBIN,
+            ReplicaRouter.Strategy.of("roundRobin"));
+        Assert.assertEquals(ReplicaRouter.Strategy.ROUND_ROBIN, ReplicaRouter.Strategy.of(null));
+    }
+}
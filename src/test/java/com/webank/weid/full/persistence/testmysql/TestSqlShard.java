@@ -0,0 +1,141 @@
+
+
+package com.webank.weid.full.persistence.testmysql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.blockchain.constant.ErrorCode;
+import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.suite.persistence.mysql.ShardPager;
+import com.webank.weid.suite.persistence.mysql.SqlDomain;
+import com.webank.weid.util.DataToolUtils;
+
+/**
+ * test the shard routing of the mysql driver, without database.
+ */
+public class TestSqlShard {
+
+    @Test
+    public void testShardIndexStable() {
+        String key = DataToolUtils.hash("did:weid:1:0x0000000000000000000000000000000000000001");
+        int index = SqlDomain.shardIndexOf(key, 8);
+        Assert.assertTrue(index >= 0 && index < 8);
+        Assert.assertEquals(index, SqlDomain.shardIndexOf(key, 8));
+        Assert.assertEquals(0, SqlDomain.shardIndexOf(key, 1));
+    }
+
+    @Test
+    public void testShardDistribution() {
+        int shards = 4;
+        int[] counts = new int[shards];
+        for (int i = 0; i < 4000; i++) {
+            counts[SqlDomain.shardIndexOf(DataToolUtils.hash(String.valueOf(i)), shards)]++;
+        }
+        for (int count : counts) {
+            // 每个分片的数据量偏离平均值不超过20%
+            Assert.assertTrue(Math.abs(count - 1000) < 200);
+        }
+    }
+
+    @Test
+    public void testPagingAcrossShards() {
+        List<List<String>> shards = routeKeys(4, 103);
+        List<String> expected = new ArrayList<>();
+        for (List<String> shard : shards) {
+            expected.addAll(shard);
+        }
+        for (int pageSize : new int[]{1, 7, 25, 200}) {
+            ShardPager pager = new ShardPager(ShardPager.DEFAULT_COUNT_CACHE_MILLIS);
+            List<String> scanned = new ArrayList<>();
+            for (int offset = 0; offset < expected.size() + pageSize; offset += pageSize) {
+                ResponseData<List<String>> page = pager.page(
+                    shardKeys(shards), offset, pageSize, counter(shards, null), query(shards));
+                Assert.assertEquals(ErrorCode.SUCCESS.getCode(), page.getErrorCode().intValue());
+                Assert.assertTrue(page.getResult().size() <= pageSize);
+                scanned.addAll(page.getResult());
+            }
+            Assert.assertEquals(expected, scanned);
+        }
+    }
+
+    @Test
+    public void testShardCountCached() {
+        List<List<String>> shards = routeKeys(4, 50);
+        AtomicInteger counts = new AtomicInteger();
+        ShardPager pager = new ShardPager(ShardPager.DEFAULT_COUNT_CACHE_MILLIS);
+        for (int offset = 0; offset < 50; offset += 5) {
+            pager.page(shardKeys(shards), offset, 5, counter(shards, counts), query(shards));
+        }
+        // 一次完整的翻页中每个分片至多统计一次
+        Assert.assertTrue(counts.get() <= shards.size());
+
+        int before = counts.get();
+        pager.evict("shard#0");
+        pager.page(shardKeys(shards), 45, 5, counter(shards, counts), query(shards));
+        Assert.assertEquals(before + 1, counts.get());
+
+        ShardPager uncached = new ShardPager(0L);
+        counts.set(0);
+        uncached.page(shardKeys(shards), 45, 5, counter(shards, counts), query(shards));
+        uncached.page(shardKeys(shards), 45, 5, counter(shards, counts), query(shards));
+        Assert.assertTrue(counts.get() > shards.size());
+    }
+
+    @Test
+    public void testShardCountFailure() {
+        List<List<String>> shards = routeKeys(2, 10);
+        ShardPager pager = new ShardPager(ShardPager.DEFAULT_COUNT_CACHE_MILLIS);
+        ResponseData<List<String>> page = pager.page(shardKeys(shards), 3, 5,
+            shard -> new ResponseData<Integer>(null, ErrorCode.PERSISTENCE_EXECUTE_FAILED),
+            query(shards));
+        Assert.assertEquals(
+            ErrorCode.PERSISTENCE_EXECUTE_FAILED.getCode(), page.getErrorCode().intValue());
+        Assert.assertNull(page.getResult());
+    }
+
+    private static List<List<String>> routeKeys(int shardCount, int keyCount) {
+        List<List<String>> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (int i = 0; i < keyCount; i++) {
+            String key = "key" + i;
+            shards.get(SqlDomain.shardIndexOf(key, shardCount)).add(key);
+        }
+        for (List<String> shard : shards) {
+            Assert.assertFalse(shard.isEmpty());
+        }
+        return shards;
+    }
+
+    private static List<String> shardKeys(List<List<String>> shards) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            keys.add("shard#" + i);
+        }
+        return keys;
+    }
+
+    private static ShardPager.Counter counter(List<List<String>> shards, AtomicInteger counts) {
+        return shard -> {
+            if (counts != null) {
+                counts.incrementAndGet();
+            }
+            return new ResponseData<Integer>(shards.get(shard).size(), ErrorCode.SUCCESS);
+        };
+    }
+
+    private static ShardPager.Query<String> query(List<List<String>> shards) {
+        return (shard, offset, count) -> {
+            List<String> rows = shards.get(shard);
+            int end = Math.min(rows.size(), offset + count);
+            return new ResponseData<List<String>>(
+                new ArrayList<>(rows.subList(Math.min(offset, end), end)), ErrorCode.SUCCESS);
+        };
+    }
+}
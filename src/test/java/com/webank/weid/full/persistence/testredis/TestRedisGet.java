@@ -5,11 +5,16 @@ package com.webank.weid.full.persistence.testredis;
 import com.webank.weid.common.LogUtil;
 import com.webank.weid.blockchain.constant.ErrorCode;
 import com.webank.weid.full.persistence.TestBaseTransportation;
+import com.webank.weid.blockchain.protocol.base.WeIdDocument;
+import com.webank.weid.blockchain.protocol.base.WeIdDocumentMetadata;
 import com.webank.weid.blockchain.protocol.response.ResponseData;
+import com.webank.weid.constant.DataDriverConstant;
+import com.webank.weid.suite.persistence.AsyncPersistence;
 import com.webank.weid.suite.persistence.Persistence;
 import com.webank.weid.suite.persistence.PersistenceFactory;
 import com.webank.weid.suite.persistence.PersistenceType;
 import com.webank.weid.util.PropertyUtils;
+import com.webank.weid.util.WeIdUtils;
 import org.junit.Assert;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -127,5 +132,40 @@ public class TestRedisGet extends TestBaseTransportation {
         Assert.assertEquals("", res.getResult());
     }
 
+    @Test
+    /**
+     * case:test the async weid document reads return the same as the blocking ones.
+     */
+    public void testGetWeIdDocumentAsync() throws Exception {
 
+        if (!(persistence instanceof AsyncPersistence)) {
+            return;
+        }
+        AsyncPersistence asyncPersistence = (AsyncPersistence) persistence;
+        String weId = WeIdUtils.createWeId().getWeId();
+        com.webank.weid.protocol.base.WeIdDocument document =
+            new com.webank.weid.protocol.base.WeIdDocument();
+        document.setId(weId);
+        ResponseData<Integer> added = persistence.addWeId(
+            DataDriverConstant.LOCAL_WEID_DOCUMENT, weId, document.toJson());
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), added.getErrorCode().intValue());
+
+        ResponseData<WeIdDocument> res = asyncPersistence
+            .getWeIdDocumentAsync(DataDriverConstant.LOCAL_WEID_DOCUMENT, weId).get();
+        LogUtil.info(logger, "persistence", res);
+        Assert.assertEquals(ErrorCode.SUCCESS.getCode(), res.getErrorCode().intValue());
+        Assert.assertEquals(weId, res.getResult().getId());
+
+        ResponseData<WeIdDocumentMetadata> meta = asyncPersistence
+            .getMetaAsync(DataDriverConstant.LOCAL_WEID_DOCUMENT, weId).get();
+        Assert.assertEquals(
+            persistence.getMeta(DataDriverConstant.LOCAL_WEID_DOCUMENT, weId).getResult()
+                .getVersionId(),
+            meta.getResult().getVersionId());
+
+        ResponseData<WeIdDocument> missing = asyncPersistence
+            .getWeIdDocumentAsync(DataDriverConstant.LOCAL_WEID_DOCUMENT, weId + "0").get();
+        Assert.assertEquals(
+            ErrorCode.WEID_DOES_NOT_EXIST.getCode(), missing.getErrorCode().intValue());
+    }
 }
@@ -0,0 +1,167 @@
+
+
+package com.webank.weid.full.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.suite.pipeline.StagePipeline;
+import com.webank.weid.suite.pipeline.StageStatistic;
+
+/**
+ * test the bounded multi-stage pipeline.
+ */
+public class TestStagePipeline {
+
+    private static class Item {
+
+        private final int index;
+
+        private int doubled;
+
+        private String text;
+
+        Item(int index) {
+            this.index = index;
+        }
+    }
+
+    private static Iterator<Item> items(int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new Item(i));
+        }
+        return items.iterator();
+    }
+
+    @Test
+    public void testAllItemsPassAllStages() throws InterruptedException {
+        List<Item> output = Collections.synchronizedList(new ArrayList<>());
+        List<StageStatistic> statistics = new StagePipeline<Item>("test", 4)
+            .stage("double", 3, item -> item.doubled = item.index * 2)
+            .stage("text", 2, item -> item.text = String.valueOf(item.doubled))
+            .run(items(1000), output::add);
+
+        Assert.assertEquals(1000, output.size());
+        boolean[] seen = new boolean[1000];
+        for (Item item : output) {
+            Assert.assertEquals(String.valueOf(item.index * 2), item.text);
+            Assert.assertFalse(seen[item.index]);
+            seen[item.index] = true;
+        }
+        Assert.assertEquals(2, statistics.size());
+        Assert.assertEquals("double", statistics.get(0).getStage());
+        Assert.assertEquals(1000, statistics.get(0).getCount());
+        Assert.assertEquals(1000, statistics.get(1).getCount());
+        Assert.assertTrue(statistics.get(1).getThroughput() > 0);
+    }
+
+    @Test
+    public void testQueueIsBounded() throws InterruptedException {
+        AtomicInteger produced = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Iterator<Item> source = new Iterator<Item>() {
+            @Override
+            public boolean hasNext() {
+                return produced.get() < 200;
+            }
+
+            @Override
+            public Item next() {
+                int inFlight = produced.incrementAndGet() - consumed.get();
+                maxInFlight.accumulateAndGet(inFlight, Math::max);
+                return new Item(produced.get());
+            }
+        };
+        new StagePipeline<Item>("bounded", 2)
+            .stage("slow", 1, item -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            })
+            .run(source, item -> consumed.incrementAndGet());
+
+        Assert.assertEquals(200, consumed.get());
+        // 两个队列加上各线程手中的元素
+        Assert.assertTrue(maxInFlight.get() <= 2 * 2 + 3);
+    }
+
+    @Test
+    public void testStageFailureStillForwards() throws InterruptedException {
+        List<Item> output = new ArrayList<>();
+        new StagePipeline<Item>("failure", 8)
+            .stage("fail", 2, item -> {
+                if (item.index % 2 == 0) {
+                    throw new IllegalStateException("broken " + item.index);
+                }
+                item.text = "ok";
+            })
+            .run(items(10), output::add);
+
+        Assert.assertEquals(10, output.size());
+        for (Item item : output) {
+            Assert.assertEquals(item.index % 2 == 0 ? null : "ok", item.text);
+        }
+    }
+
+    @Test
+    public void testEmptySource() throws InterruptedException {
+        List<StageStatistic> statistics = new StagePipeline<Item>("empty", 4)
+            .stage("noop", 2, item -> { })
+            .run(Collections.<Item>emptyIterator(), item -> Assert.fail());
+
+        Assert.assertEquals(0, statistics.get(0).getCount());
+        Assert.assertEquals(0, statistics.get(0).getElapsedMillis());
+    }
+
+    @Test
+    public void testRunOnSharedExecutor() throws InterruptedException {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(3, r -> {
+            threads.incrementAndGet();
+            return new Thread(r);
+        });
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        StagePipeline<Item> pipeline = new StagePipeline<Item>("shared", 4)
+            .stage("double", 3, item -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                item.doubled = item.index * 2;
+            })
+            .stage("text", 3, item -> item.text = String.valueOf(item.doubled));
+        try {
+            for (int run = 0; run < 2; run++) {
+                List<Item> output = new ArrayList<>();
+                List<StageStatistic> statistics = pipeline.run(items(1000), item -> {
+                    inFlight.decrementAndGet();
+                    output.add(item);
+                }, executor);
+
+                Assert.assertEquals(1000, output.size());
+                boolean[] seen = new boolean[1000];
+                for (Item item : output) {
+                    Assert.assertEquals(String.valueOf(item.index * 2), item.text);
+                    Assert.assertFalse(seen[item.index]);
+                    seen[item.index] = true;
+                }
+                Assert.assertEquals(1000, statistics.get(0).getCount());
+                Assert.assertEquals(1000, statistics.get(1).getCount());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(maxInFlight.get() <= 4);
+        Assert.assertTrue(threads.get() <= 3);
+    }
+}
@@ -0,0 +1,145 @@
+
+
+package com.webank.weid.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.util.Multibase.Base58;
+import com.webank.weid.util.Multibase.Base58Codec;
+import com.webank.weid.util.Multibase.Multibase;
+import com.webank.weid.util.Multicodec.HexUtils;
+import com.webank.weid.util.Multicodec.Multicodec;
+import com.webank.weid.util.Multicodec.MulticodecEncoder;
+import com.webank.weid.util.Multicodec.VarInt;
+
+/**
+ * 随机输入对比Base58Codec与原Base58实现的结果.
+ */
+public class TestBase58Codec {
+
+    private static final int ROUNDS = 5000;
+
+    /**
+     * 随机长度, 前导零个数与取值范围, 覆盖全零, 全0xFF与跨越limb边界的长度.
+     */
+    private static byte[] randomBytes(Random random) {
+        byte[] bytes = new byte[random.nextInt(130)];
+        int zeros = bytes.length == 0 ? 0 : random.nextInt(Math.min(bytes.length, 4) + 1);
+        int mode = random.nextInt(4);
+        for (int i = zeros; i < bytes.length; i++) {
+            bytes[i] = mode == 0 ? (byte) 0xFF : mode == 1 ? 0 : (byte) random.nextInt(256);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testEncodeMatchesBase58() {
+        Random random = new Random(20240611L);
+        for (int round = 0; round < ROUNDS; round++) {
+            byte[] input = randomBytes(random);
+            String expected = Base58.encode(input);
+            Assert.assertEquals(Arrays.toString(input), expected, Base58Codec.encode(input));
+
+            char[] out = new char[Base58Codec.maxEncodedLength(input.length) + 3];
+            int length = Base58Codec.encode(input, 0, input.length, out, 3);
+            Assert.assertEquals(expected, new String(out, 3, length));
+        }
+    }
+
+    @Test
+    public void testDecodeMatchesBase58() {
+        Random random = new Random(20240612L);
+        for (int round = 0; round < ROUNDS; round++) {
+            byte[] input = randomBytes(random);
+            String encoded = Base58.encode(input);
+            Assert.assertArrayEquals(encoded, Base58.decode(encoded), Base58Codec.decode(encoded));
+            Assert.assertArrayEquals(input, Base58Codec.decode(encoded));
+
+            byte[] out = new byte[Base58Codec.maxDecodedLength(encoded.length()) + 2];
+            int length = Base58Codec.decode(encoded, 0, encoded.length(), out, 2);
+            Assert.assertArrayEquals(input, Arrays.copyOfRange(out, 2, 2 + length));
+        }
+    }
+
+    @Test
+    public void testRangeAndBufferViews() {
+        Random random = new Random(20240613L);
+        for (int round = 0; round < ROUNDS / 5; round++) {
+            byte[] input = randomBytes(random);
+            int offset = input.length == 0 ? 0 : random.nextInt(input.length);
+            int length = input.length - offset;
+            byte[] slice = Arrays.copyOfRange(input, offset, input.length);
+
+            char[] out = new char[Base58Codec.maxEncodedLength(length)];
+            int written = Base58Codec.encode(input, offset, length, out, 0);
+            Assert.assertEquals(Base58.encode(slice), new String(out, 0, written));
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(input.length);
+            buffer.put(input).position(offset);
+            written = Base58Codec.encode(buffer, out, 0);
+            Assert.assertEquals(Base58.encode(slice), new String(out, 0, written));
+            Assert.assertEquals(offset, buffer.position());
+        }
+    }
+
+    @Test
+    public void testMultibaseByteBuffer() {
+        Random random = new Random(20240614L);
+        for (int round = 0; round < ROUNDS / 5; round++) {
+            byte[] input = randomBytes(random);
+            String expected = Multibase.Base.Base58BTC.prefix + Base58.encode(input);
+            Assert.assertEquals(expected, Multibase.encode(Multibase.Base.Base58BTC, input));
+            Assert.assertEquals(expected,
+                Multibase.encode(Multibase.Base.Base58BTC, ByteBuffer.wrap(input)));
+            Assert.assertArrayEquals(input, Multibase.decode(expected));
+
+            ByteBuffer out = ByteBuffer.allocate(input.length + 1);
+            out.put((byte) 7);
+            Assert.assertEquals(input.length, Multibase.decode(expected, out));
+            Assert.assertEquals(input.length + 1, out.position());
+            Assert.assertArrayEquals(input, Arrays.copyOfRange(out.array(), 1, out.position()));
+        }
+    }
+
+    /**
+     * 原MulticodecEncoder每次调用时的编码方式, 作为缓存前缀的对照.
+     */
+    private static byte[] encodeMulticodec(Multicodec multicodec, byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte b : HexUtils.hexToBytes(multicodec.code)) {
+            byte[] varInt = VarInt.writeUnsignedVarInt(Byte.toUnsignedInt(b));
+            out.write(varInt, 0, varInt.length);
+        }
+        out.write(data, 0, data.length);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testMulticodecPrefix() {
+        byte[] data = {1, 2, 3};
+        Assert.assertArrayEquals(new byte[]{(byte) 0xED, 0x01, 0x01, 1, 2, 3},
+            MulticodecEncoder.encode(Multicodec.ED25519_PUB, data));
+        for (Multicodec multicodec : Multicodec.values()) {
+            Assert.assertArrayEquals(multicodec.name(), encodeMulticodec(multicodec, data),
+                MulticodecEncoder.encode(multicodec, data));
+            Assert.assertArrayEquals(multicodec.name(), encodeMulticodec(multicodec, new byte[0]),
+                MulticodecEncoder.encode(multicodec, new byte[0]));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInvalidCharacter() {
+        Base58Codec.decode("3mJr0");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutputTooSmall() {
+        Base58Codec.encode(new byte[]{1, 2, 3}, 0, 3, new char[2], 0);
+    }
+}
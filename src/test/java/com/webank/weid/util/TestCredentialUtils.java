@@ -84,4 +84,36 @@ public class TestCredentialUtils {
         Credential test = CredentialUtils.copyCredential(arg);
         Assert.assertTrue(CredentialUtils.isEqual(arg, test));
     }
+
+    @Test
+    public void getClaimHashTest() {
+
+        Credential arg = new Credential();
+        Map<String, Object> claim = new HashMap<>();
+        claim.put("name", "zhang san");
+        claim.put("age", 18);
+        claim.put("gender", "F");
+        arg.setClaim(claim);
+
+        // the claim hash does not depend on the disclosure status of the fields
+        Map<String, Object> disclosures = new HashMap<>();
+        disclosures.put("name", 1);
+        disclosures.put("age", 0);
+        disclosures.put("gender", 1);
+        String hash = CredentialUtils.getClaimHash(arg, null);
+        Assert.assertEquals(hash, CredentialUtils.getClaimHash(arg, disclosures));
+
+        // fields are joined in key order, each followed by its hash
+        String expected = "age" + CredentialUtils.getFieldHash(18)
+            + "gender" + CredentialUtils.getFieldHash("F")
+            + "name" + CredentialUtils.getFieldHash("zhang san");
+        Assert.assertEquals(expected, hash);
+
+        // fields missing from the disclosure map stay in plain text
+        disclosures.remove("gender");
+        Assert.assertEquals(
+            "age" + CredentialUtils.getFieldHash(18) + "genderF"
+                + "name" + CredentialUtils.getFieldHash("zhang san"),
+            CredentialUtils.getClaimHash(arg, disclosures));
+    }
 }
@@ -0,0 +1,84 @@
+package com.webank.weid.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.google.common.io.Files;
+import org.apache.commons.lang3.StringUtils;
+import org.fisco.bcos.sdk.utils.Numeric;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.webank.weid.util.FileHashUtils.Mode;
+
+/**
+ * test FileHashUtils.
+ */
+public class TestFileHashUtils {
+
+    private static final String[] RESOURCES = {
+        "test-template.pdf", "org1.txt", "test-hash-pic.png"
+    };
+
+    @Test
+    public void testTextModeKeepsLegacyHash() throws IOException {
+        for (String resource : RESOURCES) {
+            File file = getResource(resource);
+            String legacy = DataToolUtils.hash(
+                Files.asByteSource(file).asCharSource(StandardCharsets.UTF_8).read());
+            Assert.assertEquals(legacy, FileHashUtils.hash(file, Mode.TEXT));
+        }
+    }
+
+    @Test
+    public void testStreamMode() throws IOException {
+        String text = StringUtils.repeat("WeIdentity 存证测试\n", 10000);
+        File file = File.createTempFile("weid-file-hash", ".txt");
+        file.deleteOnExit();
+        Files.write(text.getBytes(StandardCharsets.UTF_8), file);
+        String hash = FileHashUtils.hash(file, Mode.STREAM);
+        Assert.assertEquals(DataToolUtils.hash(text), hash);
+        Assert.assertEquals(hash, FileHashUtils.hash(file, Mode.TEXT));
+
+        File pdf = getResource("test-template.pdf");
+        Assert.assertEquals(
+            Numeric.toHexString(DataToolUtils.hash(Files.toByteArray(pdf))),
+            FileHashUtils.hash(pdf, Mode.STREAM));
+    }
+
+    @Test
+    public void testTreeMode() throws IOException {
+        File file = getResource("test-template.pdf");
+        byte[] content = Files.toByteArray(file);
+        Assert.assertEquals(FileHashUtils.hash(file, Mode.STREAM),
+            FileHashUtils.treeHash(file, content.length));
+
+        int chunkSize = 1000;
+        ByteArrayOutputStream leaves = new ByteArrayOutputStream();
+        for (int start = 0; start < content.length; start += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(
+                content, start, Math.min(content.length, start + chunkSize));
+            leaves.write(DataToolUtils.hash(chunk));
+        }
+        Assert.assertEquals(Numeric.toHexString(DataToolUtils.hash(leaves.toByteArray())),
+            FileHashUtils.treeHash(file, chunkSize));
+    }
+
+    @Test
+    public void testIllegalFile() throws IOException {
+        File empty = File.createTempFile("weid-file-hash", ".txt");
+        empty.deleteOnExit();
+        for (Mode mode : Mode.values()) {
+            Assert.assertEquals(StringUtils.EMPTY, FileHashUtils.hash(empty, mode));
+            Assert.assertEquals(StringUtils.EMPTY,
+                FileHashUtils.hash(new File("non-existent.tmp"), mode));
+        }
+    }
+
+    private static File getResource(String name) {
+        return new File(TestFileHashUtils.class.getClassLoader().getResource(name).getPath());
+    }
+}
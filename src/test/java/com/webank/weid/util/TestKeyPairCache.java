@@ -0,0 +1,70 @@
+package com.webank.weid.util;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fisco.bcos.sdk.crypto.keypair.CryptoKeyPair;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * test KeyPairCache.
+ */
+public class TestKeyPairCache {
+
+    private static final String PRIVATE_KEY =
+        "58317564669857453586637110679746575832914889677346283755719850144028639639651";
+
+    @Test
+    public void testDeriveOnce() {
+        BigInteger privateKey = new BigInteger(PRIVATE_KEY);
+        KeyPairCache.remove(PRIVATE_KEY);
+        AtomicInteger loads = new AtomicInteger();
+        String address = KeyPairCache.getAddress(privateKey, key -> {
+            loads.incrementAndGet();
+            return DataToolUtils.addressFromPrivate(key);
+        });
+        Assert.assertEquals(address, KeyPairCache.getAddress(privateKey, key -> {
+            loads.incrementAndGet();
+            return DataToolUtils.addressFromPrivate(key);
+        }));
+        Assert.assertEquals(1, loads.get());
+
+        KeyPairCache.remove(PRIVATE_KEY);
+        KeyPairCache.getAddress(privateKey, key -> {
+            loads.incrementAndGet();
+            return address;
+        });
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testCachedValuesMatch() {
+        KeyPairCache.clear();
+        BigInteger privateKey = new BigInteger(PRIVATE_KEY);
+        String publicKey = DataToolUtils.publicKeyStrFromPrivate(privateKey);
+        String address = DataToolUtils.addressFromPrivate(privateKey);
+        CryptoKeyPair keyPair = DataToolUtils.createKeyPair(PRIVATE_KEY);
+        Assert.assertEquals(publicKey, DataToolUtils.publicKeyStrFromPrivate(privateKey));
+        Assert.assertEquals(address, DataToolUtils.addressFromPrivate(privateKey));
+        Assert.assertSame(keyPair, DataToolUtils.createKeyPair(PRIVATE_KEY));
+
+        KeyPairCache.clear();
+        Assert.assertEquals(publicKey, DataToolUtils.publicKeyStrFromPrivate(privateKey));
+        Assert.assertEquals(address, DataToolUtils.addressFromPrivate(privateKey));
+    }
+
+    @Test
+    public void testFailedDerivationNotCached() {
+        BigInteger privateKey = new BigInteger("123456789");
+        KeyPairCache.remove("123456789");
+        try {
+            KeyPairCache.getPublicKey(privateKey, key -> {
+                throw new IllegalArgumentException("invalid private key.");
+            });
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("1", KeyPairCache.getPublicKey(privateKey, key -> "1"));
+        }
+    }
+}
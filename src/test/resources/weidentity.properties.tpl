@@ -66,6 +66,19 @@ redis_cluster.slave_connection_minimum_idle_size=10
 redis_cluster.slave_connection_pool_size=64
 redis_cluster.master_connection_minimum_idle_size=10
 redis_cluster.master_connection_pool_size=64
+# Nodes serving reads (SLAVE, MASTER or MASTER_SLAVE) and subscriptions (SLAVE or MASTER) in cluster mode.
+redis_cluster.read_mode=SLAVE
+redis_cluster.subscription_mode=MASTER
+# Codec of the redis client: default (redisson's own codec) or string. Values written with
+# one codec cannot be read with another, values encoded by persistence.value.codec are not affected.
+redis.codec=default
+# Threads of the redis client, and the netty event loop threads shared by its connections.
+redis.threads=16
+redis.netty_threads=32
+redis.tcp_no_delay=true
+redis.keep_alive=false
+# Batch writes do not wait for the reply of each command, needs redis 3.2 or later.
+redis.batch.skip_result=false
 
 
 #######################################################################################################
@@ -116,6 +129,8 @@ local.role=datasource1:table_role
 local.authorityIssuer=datasource1:table_authority_issuer
 local.specificIssuer=datasource1:table_specific_issuer
 local.evidence=datasource1:table_evidence
+local.sequence=datasource1:table_sequence
+local.sequence.blockSize=100
 
 
 #######################################################################################################
@@ -125,6 +140,31 @@ local.evidence=datasource1:table_evidence
 #######################################################################################################
 # You can configure the maximumSize of the default cache module through caffeineCache.maximumSize.xxx.
 caffeineCache.maximumSize.SYS_CPT=100
+caffeineCache.maximumSize.SYS_CLAIM_POLICY=1000
+caffeineCache.maximumSize.SYS_CPT_POLICY=1000
+caffeineCache.maximumSize.SYS_PRESENTATION_POLICY=1000
+caffeineCache.maximumSize.SYS_CREDENTIAL_TEMPLATE=100
+caffeineCache.maximumSize.SYS_ZKP_VERIFICATION_RULE=1000
+# Key pairs, public keys and addresses derived from private keys, 0 disables this cache.
+caffeineCache.maximumSize.SYS_KEY_PAIR=100
+# Load all claim policies into the cache in background when the policy service is created.
+policy.cache.prewarm=false
+# Max concurrent chain queries when listing authority issuers in bulk.
+authority.issuer.query.concurrency=8
+# Refresh interval (ms) of the in-memory recognized authority issuer set used by isAuthorityIssuer,
+# 0 disables it and every check goes to the chain or database.
+authority.issuer.recognized.refresh=0
+# Threads shared by all verifySignerBatch calls, and the credentials in flight per call.
+evidence.verify.batch.concurrency=8
+evidence.verify.batch.queueSize=1024
+# Evidences submitted per chain call, and the queue size between stages, of createEvidenceBatch.
+evidence.create.batch.size=100
+evidence.create.batch.queueSize=1024
+# How generateHash hashes a file: text (same hash as earlier versions, the file is read as UTF-8
+# text), stream (hashes the raw bytes, same as text for UTF-8 text files) or tree (chunks of
+# evidence.file.hash.tree.chunkSize bytes are hashed in parallel, then the chunk hashes are hashed).
+evidence.file.hash.mode=text
+evidence.file.hash.tree.chunkSize=4194304
 
 # Salt length for Proof creation.
 salt.length=5